@@ -1,9 +1,14 @@
 package co.uniquindio.alojapp.Controller;
 
 import co.uniquindio.alojapp.negocio.DTO.AdministradorDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasAgrupacionDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasCacheDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasLotesDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearAdministradorRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAdministradorRequest;
 import co.uniquindio.alojapp.negocio.Service.AdministradorService;
+import co.uniquindio.alojapp.negocio.Service.AlojamientoService;
+import co.uniquindio.alojapp.negocio.Service.ReservaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,6 +24,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -29,6 +35,8 @@ import java.util.Optional;
 public class AdminController {
 
     private final AdministradorService adminService;
+    private final AlojamientoService alojamientoService;
+    private final ReservaService reservaService;
 
     // =====================================================================
     // ADMINISTRADORES (asignar / actualizar / revocar / listar / consultar)
@@ -150,4 +158,71 @@ public class AdminController {
         );
     }
 
+    // =====================================================================
+    // PLATAFORMA (métricas internas)
+    // =====================================================================
+
+    @GetMapping("/contadores")
+    @Operation(summary = "Conteos de la plataforma por estado",
+            description = "Alojamientos, reservas, pagos y usuarios por estado, más el total de cada uno. Se leen de contadores en memoria reconciliados periódicamente con la BD.")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','ADMIN')")
+    public ResponseEntity<Map<String, Map<String, Long>>> contadoresPlataforma() {
+        return ResponseEntity.ok(adminService.contadoresPlataforma());
+    }
+
+    @GetMapping("/cache/busquedas")
+    @Operation(summary = "Métricas de la caché de búsquedas",
+            description = "Aciertos, fallos, expulsiones e invalidaciones de la caché de resultados de búsqueda de alojamientos.")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','ADMIN')")
+    public ResponseEntity<EstadisticasCacheDTO> estadisticasCacheBusquedas() {
+        return ResponseEntity.ok(alojamientoService.estadisticasCacheBusquedas());
+    }
+
+    @PostMapping("/alojamientos/calificaciones/recalcular")
+    @Operation(summary = "Recalcular calificaciones de alojamientos",
+            description = "Reconstruye desde los comentarios la suma, cantidad y distribución por estrellas guardadas en cada alojamiento.")
+    @ApiResponse(responseCode = "200", description = "Cantidad de alojamientos recalculados")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','ADMIN')")
+    public ResponseEntity<Map<String, Integer>> recalcularCalificaciones() {
+        return ResponseEntity.ok(Map.of("recalculados", alojamientoService.recalcularCalificaciones()));
+    }
+
+    @PostMapping("/alojamientos/popularidad/reconciliar")
+    @Operation(summary = "Reconciliar popularidad de alojamientos",
+            description = "Recalcula desde las reservas el puntaje de popularidad y corrige los que se desviaron. También corre cada madrugada.")
+    @ApiResponse(responseCode = "200", description = "Cantidad de alojamientos corregidos")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','ADMIN')")
+    public ResponseEntity<Map<String, Integer>> reconciliarPopularidad() {
+        return ResponseEntity.ok(Map.of("corregidos", alojamientoService.reconciliarPopularidad()));
+    }
+
+    @GetMapping("/agrupacion-llamadas")
+    @Operation(summary = "Métricas de agrupación de llamadas",
+            description = "Por operación (obtenerPorId, buscar): llamadas, ejecuciones reales y llamadas agrupadas con otra idéntica en curso.")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','ADMIN')")
+    public ResponseEntity<Map<String, EstadisticasAgrupacionDTO>> estadisticasAgrupacion() {
+        return ResponseEntity.ok(alojamientoService.estadisticasAgrupacion());
+    }
+
+    @PostMapping("/reservas/completar")
+    @Operation(summary = "Completar reservas vencidas",
+            description = "RN32: pasa a COMPLETADA las reservas confirmadas cuyo checkout ya pasó, por lotes en transacciones separadas. También corre cada madrugada; si ya está en curso devuelve 0.")
+    @ApiResponse(responseCode = "200", description = "Cantidad de reservas completadas")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','ADMIN')")
+    public ResponseEntity<Map<String, Integer>> completarReservasVencidas() {
+        return ResponseEntity.ok(Map.of("completadas", reservaService.completarReservasVencidas()));
+    }
+
+    @GetMapping("/reservas/completar")
+    @Operation(summary = "Progreso del completado de reservas vencidas",
+            description = "Ejecución actual o última: lotes y reservas procesadas, duración total y por lote, y acumulados desde el arranque.")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','ADMIN')")
+    public ResponseEntity<EstadisticasLotesDTO> estadisticasCompletarReservas() {
+        return ResponseEntity.ok(reservaService.estadisticasCompletarReservas());
+    }
+
 }
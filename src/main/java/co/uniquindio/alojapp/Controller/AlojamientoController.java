@@ -1,12 +1,18 @@
 package co.uniquindio.alojapp.Controller;
 
 import co.uniquindio.alojapp.negocio.DTO.AlojamientoDTO;
+import co.uniquindio.alojapp.negocio.DTO.AlojamientoResumenDTO;
+import co.uniquindio.alojapp.negocio.DTO.CalendarioDisponibilidadDTO;
+import co.uniquindio.alojapp.negocio.DTO.ClusterMapaDTO;
+import co.uniquindio.alojapp.negocio.DTO.SugerenciaCiudadDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.BuscarAlojamientosRequest;
+import co.uniquindio.alojapp.negocio.DTO.request.DisponibilidadLoteRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
 import co.uniquindio.alojapp.negocio.Service.AlojamientoService;
 import co.uniquindio.alojapp.negocio.Service.ImagenService;
+import co.uniquindio.alojapp.negocio.excepciones.BadRequestException;
 import co.uniquindio.alojapp.negocio.excepciones.RecursoNoEncontradoException;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
 import co.uniquindio.alojapp.persistencia.Repository.UsuarioRepository;
@@ -22,9 +28,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
@@ -32,8 +40,10 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -137,28 +147,60 @@ public class AlojamientoController {
             @RequestParam(required = false) BigDecimal precioMax,
             @Parameter(description = "Capacidad mínima", example = "4")
             @RequestParam(required = false) Integer capacidadMinima,
-            @Parameter(description = "IDs de servicios", example = "1,3,5")
+            @Parameter(description = "IDs de servicios (deben estar todos)", example = "1,3,5")
             @RequestParam(required = false) List<Integer> serviciosIds,
             @Parameter(description = "Check-in", example = "2025-11-10")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkin,
             @Parameter(description = "Check-out", example = "2025-11-15")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkout,
-            @Parameter(description = "Ordenar por (campo entidad)", example = "precioNoche")
-            @RequestParam(required = false, defaultValue = "fechaCreacion") String ordenarPor,
-            @Parameter(description = "ASC|DESC", example = "DESC")
-            @RequestParam(required = false, defaultValue = "DESC") String direccionOrden,
+            @Parameter(description = "Ordenar por: fechaCreacion, precioNoche, capacidadMaxima, calificacion, popularidad o relevancia. " +
+                    "Por defecto fechaCreacion, o coincidencia si hay texto",
+                    example = "precioNoche")
+            @RequestParam(required = false) String ordenarPor,
+            @Parameter(description = "ASC|DESC. Por defecto DESC (ASC para precioNoche y capacidadMaxima)", example = "DESC")
+            @RequestParam(required = false) String direccionOrden,
             @RequestParam(defaultValue = "0") int pagina,
-            @RequestParam(defaultValue = "10") int tamano
+            @RequestParam(defaultValue = "10") int tamano,
+            @Parameter(description = "Cursor de paginación (vacío = primera página en modo cursor, sin totales)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Latitud del centro (búsqueda por radio)", example = "10.3910485")
+            @RequestParam(required = false) Double latitud,
+            @Parameter(description = "Longitud del centro (búsqueda por radio)", example = "-75.4794257")
+            @RequestParam(required = false) Double longitud,
+            @Parameter(description = "Radio en km alrededor del centro", example = "5")
+            @RequestParam(required = false) Double radioKm,
+            @Parameter(description = "Rectángulo visible del mapa: latitudMin,longitudMin,latitudMax,longitudMax",
+                    example = "10.35,-75.56,10.45,-75.45")
+            @RequestParam(required = false) List<Double> bbox,
+            @Parameter(description = "Palabras a buscar en título y descripción", example = "casa piscina")
+            @RequestParam(required = false) String texto,
+            @Parameter(description = "Incluir conteos por ciudad, precio, capacidad y servicio", example = "false")
+            @RequestParam(defaultValue = "false") boolean facetas,
+            @Parameter(description = "Fechas flexibles: primer día posible de llegada", example = "2025-12-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ventanaInicio,
+            @Parameter(description = "Fechas flexibles: último día posible de salida", example = "2025-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ventanaFin,
+            @Parameter(description = "Fechas flexibles: noches seguidas dentro de la ventana", example = "3")
+            @RequestParam(required = false) Integer noches
     ) {
+        if (bbox != null && bbox.size() != 4) {
+            throw new BadRequestException("bbox debe tener 4 valores: latitudMin,longitudMin,latitudMax,longitudMax");
+        }
+
         boolean hayFiltros =
                 !ObjectUtils.isEmpty(ciudad) ||
                         precioMin != null || precioMax != null ||
                         capacidadMinima != null ||
                         (serviciosIds != null && !serviciosIds.isEmpty()) ||
-                        (checkin != null && checkout != null);
+                        (checkin != null && checkout != null) ||
+                        latitud != null || longitud != null || radioKm != null || bbox != null ||
+                        StringUtils.hasText(texto) ||
+                        ventanaInicio != null || ventanaFin != null || noches != null;
 
-        if (!hayFiltros) {
-            return ResponseEntity.ok(alojamientoService.listarActivos(pagina, tamano));
+        if (!hayFiltros && !facetas) {
+            return ResponseEntity.ok(cursor != null
+                    ? alojamientoService.listarActivosPorCursor(cursor, tamano)
+                    : alojamientoService.listarActivos(pagina, tamano));
         }
 
         BuscarAlojamientosRequest req = BuscarAlojamientosRequest.builder()
@@ -173,11 +215,112 @@ public class AlojamientoController {
                 .direccionOrden(direccionOrden)
                 .pagina(pagina)
                 .tamanoPagina(tamano)
+                .cursor(cursor)
+                .latitud(latitud)
+                .longitud(longitud)
+                .radioKm(radioKm)
+                .latitudMin(bbox != null ? bbox.get(0) : null)
+                .longitudMin(bbox != null ? bbox.get(1) : null)
+                .latitudMax(bbox != null ? bbox.get(2) : null)
+                .longitudMax(bbox != null ? bbox.get(3) : null)
+                .texto(texto)
+                .facetas(facetas)
+                .ventanaInicio(ventanaInicio)
+                .ventanaFin(ventanaFin)
+                .noches(noches)
                 .build();
 
         return ResponseEntity.ok(alojamientoService.buscar(req));
     }
 
+    @GetMapping(value = "/alojamientos", params = "vista=resumen")
+    @Operation(summary = "Listar/buscar en vista resumen (solo datos de la tarjeta: título, ciudad, precio, capacidad, portada, calificación)")
+    public ResponseEntity<PaginacionResponse<AlojamientoResumenDTO>> listarResumen(
+            @RequestParam(required = false) String ciudad,
+            @RequestParam(required = false) BigDecimal precioMin,
+            @RequestParam(required = false) BigDecimal precioMax,
+            @RequestParam(required = false) Integer capacidadMinima,
+            @RequestParam(required = false) List<Integer> serviciosIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkin,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkout,
+            @RequestParam(required = false) String ordenarPor,
+            @RequestParam(required = false) String direccionOrden,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "10") int tamano,
+            @RequestParam(required = false) Double latitud,
+            @RequestParam(required = false) Double longitud,
+            @RequestParam(required = false) Double radioKm,
+            @RequestParam(required = false) List<Double> bbox,
+            @RequestParam(required = false) String texto
+    ) {
+        if (bbox != null && bbox.size() != 4) {
+            throw new BadRequestException("bbox debe tener 4 valores: latitudMin,longitudMin,latitudMax,longitudMax");
+        }
+
+        BuscarAlojamientosRequest req = BuscarAlojamientosRequest.builder()
+                .ciudad(ciudad)
+                .precioMin(precioMin)
+                .precioMax(precioMax)
+                .capacidadMinima(capacidadMinima)
+                .serviciosIds(serviciosIds)
+                .fechaCheckin(checkin)
+                .fechaCheckout(checkout)
+                .ordenarPor(ordenarPor)
+                .direccionOrden(direccionOrden)
+                .pagina(pagina)
+                .tamanoPagina(tamano)
+                .latitud(latitud)
+                .longitud(longitud)
+                .radioKm(radioKm)
+                .latitudMin(bbox != null ? bbox.get(0) : null)
+                .longitudMin(bbox != null ? bbox.get(1) : null)
+                .latitudMax(bbox != null ? bbox.get(2) : null)
+                .longitudMax(bbox != null ? bbox.get(3) : null)
+                .texto(texto)
+                .build();
+
+        return ResponseEntity.ok(alojamientoService.buscarResumen(req));
+    }
+
+    @GetMapping("/alojamientos/populares")
+    @Operation(summary = "Alojamientos más populares (reservas recientes pesan más)")
+    public ResponseEntity<PaginacionResponse<AlojamientoDTO>> listarPopulares(
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "10") int tamano
+    ) {
+        return ResponseEntity.ok(alojamientoService.listarPopulares(pagina, tamano));
+    }
+
+    @GetMapping("/alojamientos/ciudades/sugerencias")
+    @Operation(summary = "Autocompletar ciudades por prefijo (sin tildes ni mayúsculas), más alojamientos primero")
+    public ResponseEntity<List<SugerenciaCiudadDTO>> sugerirCiudades(
+            @Parameter(description = "Comienzo del nombre de la ciudad", example = "cart")
+            @RequestParam String prefijo,
+            @Parameter(description = "Máximo de sugerencias (hasta 10)", example = "5")
+            @RequestParam(defaultValue = "5") int limite
+    ) {
+        return ResponseEntity.ok(alojamientoService.sugerirCiudades(prefijo, limite));
+    }
+
+    @GetMapping("/alojamientos/mapa/clusters")
+    @Operation(summary = "Clusters de alojamientos para el rectángulo visible del mapa y su zoom")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Clusters con cantidad, centroide y precio mínimo"),
+            @ApiResponse(responseCode = "400", description = "Rectángulo o zoom inválidos", content = @Content)
+    })
+    public ResponseEntity<List<ClusterMapaDTO>> clustersDelMapa(
+            @Parameter(description = "Rectángulo visible: latitudMin,longitudMin,latitudMax,longitudMax",
+                    example = "10.35,-75.56,10.45,-75.45")
+            @RequestParam List<Double> bbox,
+            @Parameter(description = "Zoom del mapa (0 = mundo)", example = "12")
+            @RequestParam int zoom
+    ) {
+        if (bbox.size() != 4) {
+            throw new BadRequestException("bbox debe tener 4 valores: latitudMin,longitudMin,latitudMax,longitudMax");
+        }
+        return ResponseEntity.ok(alojamientoService.clustersDelMapa(bbox.get(0), bbox.get(1), bbox.get(2), bbox.get(3), zoom));
+    }
+
     @PostMapping("/alojamientos/buscar")
     @Operation(summary = "Buscar con filtros completos (body)")
     public ResponseEntity<PaginacionResponse<AlojamientoDTO>> buscar(@Valid @RequestBody BuscarAlojamientosRequest request) {
@@ -194,6 +337,41 @@ public class AlojamientoController {
         return ResponseEntity.ok(alojamientoService.estaDisponible(id, checkin, checkout));
     }
 
+    @GetMapping("/alojamientos/{id}/calendario")
+    @Operation(summary = "Calendario de noches ocupadas entre dos fechas (máx. 366 días)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Calendario; el ETag solo cambia si cambian las reservas del rango"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios respecto al ETag enviado en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido", content = @Content)
+    })
+    public ResponseEntity<CalendarioDisponibilidadDTO> calendario(
+            @PathVariable Integer id,
+            @Parameter(description = "Primera noche", example = "2025-12-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Última noche (inclusive)", example = "2025-12-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        CalendarioDisponibilidadDTO calendario = alojamientoService.calendario(id, desde, hasta);
+        // El ETag se deriva del contenido: igual mientras no cambien las noches ocupadas del rango
+        String etag = "\"" + DigestUtils.md5DigestAsHex(
+                (id + "|" + desde + "|" + hasta + "|" + calendario.getNoches()).getBytes(StandardCharsets.UTF_8)) + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(calendario);
+    }
+
+    @PostMapping("/alojamientos/disponibilidad")
+    @Operation(summary = "Verificar disponibilidad de varios alojamientos y fechas (máx. 500 consultas)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Mapa \"alojamientoId:checkin:checkout\" -> disponible"),
+            @ApiResponse(responseCode = "400", description = "Consultas vacías, inválidas o más de 500", content = @Content)
+    })
+    public ResponseEntity<Map<String, Boolean>> disponibilidadLote(@Valid @RequestBody DisponibilidadLoteRequest request) {
+        return ResponseEntity.ok(alojamientoService.disponibilidadLote(request));
+    }
+
     private Integer currentUserId() {
         String email = SecurityUtils.getEmailActual().orElse(null);
         if (!StringUtils.hasText(email)) {
@@ -97,8 +97,13 @@ public class ComentarioController {
     public ResponseEntity<PaginacionResponse<ComentarioDTO>> listarPorAlojamiento(
             @Parameter(description = "ID del alojamiento", example = "15") @PathVariable Integer alojamientoId,
             @RequestParam(defaultValue = "0") int pagina,
-            @RequestParam(defaultValue = "20") int tamano
+            @RequestParam(defaultValue = "20") int tamano,
+            @Parameter(description = "Cursor de paginación (vacío = primera página en modo cursor, sin totales)")
+            @RequestParam(required = false) String cursor
     ) {
+        if (cursor != null) {
+            return ResponseEntity.ok(comentarioService.listarPorAlojamientoPorCursor(alojamientoId, cursor, tamano));
+        }
         return ResponseEntity.ok(comentarioService.listarPorAlojamiento(alojamientoId, pagina, tamano));
     }
 
@@ -82,16 +82,21 @@ public class PagoController {
                             """))),
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
             @ApiResponse(responseCode = "401", description = "No autenticado"),
-            @ApiResponse(responseCode = "404", description = "Reserva no encontrada o no pertenece al usuario")
+            @ApiResponse(responseCode = "404", description = "Reserva no encontrada o no pertenece al usuario"),
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key ya usada con otra solicitud")
     })
-    public ResponseEntity<PagoDTO> registrarPago(@Valid @RequestBody PagoRequest body) {
+    public ResponseEntity<PagoDTO> registrarPago(
+            @Valid @RequestBody PagoRequest body,
+            @Parameter(description = "Clave única por intento de pago; los reintentos con la misma clave devuelven el pago original")
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia) {
         Integer userId = currentUserId();
         PagoDTO dto = pagoService.registrarPago(
                 userId,
                 body.reservaId,
                 body.metodoPago,
                 body.monto,
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                claveIdempotencia
         );
         return ResponseEntity.status(201).body(dto);
     }
@@ -46,6 +46,17 @@ public class ReservaController {
     private final UsuarioService usuarioService;
     private final UsuarioRepository usuarioRepository;
 
+    // Estos endpoints devuelven una lista plana; en modo cursor el siguiente va en un header
+    public static final String HEADER_SIGUIENTE_CURSOR = "X-Siguiente-Cursor";
+
+    private ResponseEntity<List<ReservaDTO>> respuestaConCursor(PaginacionResponse<ReservaDTO> page) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getSiguienteCursor() != null) {
+            ok.header(HEADER_SIGUIENTE_CURSOR, page.getSiguienteCursor());
+        }
+        return ok.body(page.getContenido());
+    }
+
     // ---------------------------------------------------------------------
     // Helper: obtener ID del usuario autenticado (email -> id)
     // ---------------------------------------------------------------------
@@ -73,10 +84,13 @@ public class ReservaController {
             @ApiResponse(responseCode = "201", description = "Reserva creada correctamente"),
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
             @ApiResponse(responseCode = "401", description = "No autenticado"),
-            @ApiResponse(responseCode = "404", description = "Alojamiento no encontrado") // <- nuevo
+            @ApiResponse(responseCode = "404", description = "Alojamiento no encontrado"), // <- nuevo
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key ya usada con otra solicitud")
     })
     public ResponseEntity<ReservaDTO> crear(
-            @Valid @RequestBody CrearReservaRequest request) {
+            @Valid @RequestBody CrearReservaRequest request,
+            @Parameter(description = "Clave única por intento de reserva; los reintentos con la misma clave devuelven la reserva original")
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia) {
 
         String email = SecurityUtils.getEmailActual()
                 .orElseThrow(() -> new RuntimeException("No autenticado"));
@@ -84,7 +98,7 @@ public class ReservaController {
                 .map(Usuario::getId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
-        ReservaDTO dto = reservaService.crear(usuarioId, request);
+        ReservaDTO dto = reservaService.crear(usuarioId, request, claveIdempotencia);
         return ResponseEntity.status(201).body(dto);
     }
 
@@ -100,9 +114,14 @@ public class ReservaController {
     })
     public ResponseEntity<List<ReservaDTO>> listarMisReservas(
             @RequestParam(defaultValue = "0") int pagina,
-            @RequestParam(defaultValue = "50") int tamano
+            @RequestParam(defaultValue = "50") int tamano,
+            @Parameter(description = "Cursor de paginación (vacío = primera página); el siguiente llega en el header " + HEADER_SIGUIENTE_CURSOR)
+            @RequestParam(required = false) String cursor
     ) {
         Integer userId = currentUserId();
+        if (cursor != null) {
+            return respuestaConCursor(reservaService.listarPorHuespedPorCursor(userId, cursor, tamano));
+        }
         PaginacionResponse<ReservaDTO> page = reservaService.listarPorHuesped(userId, pagina, tamano);
         return ResponseEntity.ok(page.getContenido());
     }
@@ -161,11 +180,16 @@ public class ReservaController {
             @RequestParam(defaultValue = "0") int pagina,
             @RequestParam(defaultValue = "50") int tamano,
             @Parameter(description = "ID del anfitrión (si no se envía, se asume que el usuarioId==anfitriónId en tus datos de prueba)")
-            @RequestParam(required = false) Integer anfitrionId
+            @RequestParam(required = false) Integer anfitrionId,
+            @Parameter(description = "Cursor de paginación (vacío = primera página); el siguiente llega en el header " + HEADER_SIGUIENTE_CURSOR)
+            @RequestParam(required = false) String cursor
     ) {
         // En tu modelo de datos de prueba, el usuario de prueba coincide con su anfitrión.
         // Si en tu dominio real necesitas mapear usuario->anfitrión, cambia aquí por tu servicio/DAO.
         Integer id = (anfitrionId != null) ? anfitrionId : currentUserId();
+        if (cursor != null) {
+            return respuestaConCursor(reservaService.listarPorAnfitrionPorCursor(id, cursor, tamano));
+        }
         PaginacionResponse<ReservaDTO> page = reservaService.listarPorAnfitrion(id, pagina, tamano);
         return ResponseEntity.ok(page.getContenido());
     }
@@ -86,7 +86,7 @@ public class SecurityConfig {
         cfg.setAllowedOrigins(java.util.List.of("http://localhost:4200")); // tu front
         cfg.setAllowedMethods(java.util.List.of("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
         cfg.setAllowedHeaders(java.util.List.of("Authorization","Content-Type","Accept","Origin","X-Requested-With"));
-        cfg.setExposedHeaders(java.util.List.of("Location"));
+        cfg.setExposedHeaders(java.util.List.of("Location", "X-Siguiente-Cursor"));
         cfg.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource src = new UrlBasedCorsConfigurationSource();
         src.registerCorsConfiguration("/**", cfg);
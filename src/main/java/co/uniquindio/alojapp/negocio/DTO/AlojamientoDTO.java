@@ -1,5 +1,6 @@
 package co.uniquindio.alojapp.negocio.DTO;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -8,6 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -74,4 +76,13 @@ public class AlojamientoDTO {
 
     @Schema(description = "Cantidad de comentarios", example = "23")
     private Integer cantidadComentarios;
+
+    @Schema(description = "Comentarios por estrellas (posición 0 = 1 estrella ... posición 4 = 5 estrellas)",
+            example = "[0, 1, 2, 6, 14]")
+    private List<Integer> distribucionCalificaciones;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Búsqueda con fechas flexibles: primer día de llegada con las noches pedidas libres",
+            example = "2025-12-04")
+    private LocalDate primeraFechaLibre;
 }
\ No newline at end of file
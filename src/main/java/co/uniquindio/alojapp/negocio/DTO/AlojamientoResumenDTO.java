@@ -0,0 +1,54 @@
+package co.uniquindio.alojapp.negocio.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resumen de alojamiento para tarjetas de listados (vista=resumen)")
+public class AlojamientoResumenDTO {
+
+    @Schema(description = "ID del alojamiento", example = "10")
+    private Integer id;
+
+    @Schema(description = "Título del alojamiento", example = "Casa de playa en Cartagena")
+    private String titulo;
+
+    @Schema(description = "Ciudad", example = "Cartagena")
+    private String ciudad;
+
+    @Schema(description = "Precio por noche", example = "350000.00")
+    private BigDecimal precioNoche;
+
+    @Schema(description = "Capacidad máxima", example = "8")
+    private Integer capacidadMaxima;
+
+    @Schema(description = "URL de la imagen de portada")
+    private String imagenPrincipalUrl;
+
+    @Schema(description = "Calificación promedio", example = "4.7")
+    private Double calificacionPromedio;
+
+    @Schema(description = "Cantidad de comentarios", example = "23")
+    private Integer cantidadComentarios;
+
+    /**
+     * Constructor de la proyección JPQL: el promedio sale de las columnas desnormalizadas
+     */
+    public AlojamientoResumenDTO(Integer id, String titulo, String ciudad, BigDecimal precioNoche,
+                                 Integer capacidadMaxima, String imagenPrincipalUrl,
+                                 Long sumaCalificaciones, Integer cantidadComentarios) {
+        this(id, titulo, ciudad, precioNoche, capacidadMaxima, imagenPrincipalUrl,
+                sumaCalificaciones == null || cantidadComentarios == null || cantidadComentarios == 0
+                        ? 0.0
+                        : (double) sumaCalificaciones / cantidadComentarios,
+                cantidadComentarios != null ? cantidadComentarios : 0);
+    }
+}
@@ -0,0 +1,28 @@
+package co.uniquindio.alojapp.negocio.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Noches ocupadas de un alojamiento entre dos fechas")
+public class CalendarioDisponibilidadDTO {
+
+    @Schema(description = "ID del alojamiento", example = "1")
+    private Integer alojamientoId;
+
+    @Schema(description = "Primera noche del calendario", example = "2025-12-01")
+    private LocalDate desde;
+
+    @Schema(description = "Última noche del calendario (inclusive)", example = "2025-12-07")
+    private LocalDate hasta;
+
+    @Schema(description = "Un carácter por noche desde 'desde': 1 = ocupada (reserva CONFIRMADA o PENDIENTE), 0 = libre",
+            example = "0011100")
+    private String noches;
+}
@@ -0,0 +1,32 @@
+package co.uniquindio.alojapp.negocio.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Grupo de alojamientos cercanos para pintar un pin del mapa")
+public class ClusterMapaDTO {
+
+    @Schema(description = "Latitud del centroide del grupo", example = "10.3952")
+    private Double latitud;
+
+    @Schema(description = "Longitud del centroide del grupo", example = "-75.5011")
+    private Double longitud;
+
+    @Schema(description = "Cantidad de alojamientos activos en el grupo", example = "37")
+    private Integer cantidad;
+
+    @Schema(description = "Precio por noche más bajo del grupo", example = "120000.00")
+    private BigDecimal precioMin;
+
+    @Schema(description = "ID del alojamiento cuando el grupo tiene uno solo", example = "10")
+    private Integer alojamientoId;
+}
@@ -0,0 +1,27 @@
+package co.uniquindio.alojapp.negocio.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Métricas de agrupación de llamadas concurrentes idénticas desde el arranque")
+public class EstadisticasAgrupacionDTO {
+
+    @Schema(description = "Llamadas recibidas", example = "5400")
+    private Long llamadas;
+
+    @Schema(description = "Llamadas que ejecutaron la consulta", example = "310")
+    private Long ejecuciones;
+
+    @Schema(description = "Llamadas que esperaron el resultado de otra idéntica en curso", example = "5090")
+    private Long agrupadas;
+
+    @Schema(description = "Consultas en curso en este momento", example = "2")
+    private Integer enCurso;
+}
@@ -0,0 +1,36 @@
+package co.uniquindio.alojapp.negocio.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Métricas de una caché en memoria desde el arranque")
+public class EstadisticasCacheDTO {
+
+    @Schema(description = "Entradas vigentes", example = "240")
+    private Integer entradas;
+
+    @Schema(description = "Capacidad máxima de entradas", example = "1000")
+    private Integer capacidad;
+
+    @Schema(description = "Consultas respondidas desde la caché", example = "15230")
+    private Long aciertos;
+
+    @Schema(description = "Consultas que tuvieron que ir a la BD", example = "1210")
+    private Long fallos;
+
+    @Schema(description = "aciertos / (aciertos + fallos)", example = "0.926")
+    private Double tasaAciertos;
+
+    @Schema(description = "Entradas descartadas por capacidad (LRU) o por vencimiento (TTL)", example = "35")
+    private Long expulsiones;
+
+    @Schema(description = "Entradas descartadas por cambios en alojamientos o reservas", example = "87")
+    private Long invalidaciones;
+}
@@ -0,0 +1,53 @@
+package co.uniquindio.alojapp.negocio.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Progreso y duración de una tarea masiva que procesa filas por lotes")
+public class EstadisticasLotesDTO {
+
+    @Schema(description = "La tarea se está ejecutando en este momento", example = "false")
+    private Boolean enCurso;
+
+    @Schema(description = "Filas por lote (una transacción por lote)", example = "5000")
+    private Integer tamanoLote;
+
+    @Schema(description = "Inicio de la ejecución actual o de la última")
+    private LocalDateTime inicio;
+
+    @Schema(description = "Fin de la última ejecución (null mientras está en curso)")
+    private LocalDateTime fin;
+
+    @Schema(description = "Lotes confirmados en la ejecución actual o la última", example = "12")
+    private Integer lotes;
+
+    @Schema(description = "Filas procesadas en la ejecución actual o la última", example = "58210")
+    private Long filas;
+
+    @Schema(description = "Duración de la ejecución actual (hasta ahora) o de la última, en ms", example = "8420")
+    private Long duracionMs;
+
+    @Schema(description = "Duración del último lote, en ms", example = "610")
+    private Long duracionUltimoLoteMs;
+
+    @Schema(description = "Duración del lote más lento desde el arranque, en ms", example = "1350")
+    private Long duracionMaximaLoteMs;
+
+    @Schema(description = "Ejecuciones desde el arranque", example = "3")
+    private Long ejecuciones;
+
+    @Schema(description = "Filas procesadas desde el arranque", example = "140322")
+    private Long filasTotales;
+
+    @Schema(description = "Mensaje de error de la última ejecución que falló (null si terminó bien)")
+    private String ultimoError;
+}
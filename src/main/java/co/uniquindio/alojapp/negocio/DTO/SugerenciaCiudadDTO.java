@@ -0,0 +1,19 @@
+package co.uniquindio.alojapp.negocio.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ciudad sugerida para el buscador con su cantidad de alojamientos activos")
+public class SugerenciaCiudadDTO {
+
+    @Schema(description = "Nombre de la ciudad", example = "Cartagena")
+    private String ciudad;
+
+    @Schema(description = "Cantidad de alojamientos activos en la ciudad", example = "128")
+    private Integer cantidad;
+}
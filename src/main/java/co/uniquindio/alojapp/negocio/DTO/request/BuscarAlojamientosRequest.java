@@ -42,7 +42,7 @@ public class BuscarAlojamientosRequest {
     @Schema(description = "Capacidad mínima requerida", example = "4")
     private Integer capacidadMinima;
 
-    @Schema(description = "Lista de IDs de servicios requeridos", example = "[1, 3, 7]")
+    @Schema(description = "Lista de IDs de servicios requeridos (el alojamiento debe tenerlos todos)", example = "[1, 3, 7]")
     private List<Integer> serviciosIds;
 
     @Builder.Default
@@ -61,7 +61,82 @@ public class BuscarAlojamientosRequest {
     @Pattern(regexp = "ASC|DESC", message = "La dirección debe ser ASC o DESC")
     private String direccionOrden = "ASC";
 
-    @Schema(description = "Campo por el cual ordenar", example = "precio_noche")
+    @Schema(description = "Orden: fechaCreacion, precioNoche, capacidadMaxima, calificacion, popularidad o relevancia " +
+            "(otros valores se rechazan; con direccionOrden null, DESC salvo precioNoche y capacidadMaxima)", example = "precioNoche")
     private String ordenarPor;
 
+    @Schema(description = "Cursor de paginación. Si se envía (vacío para la primera página) se usa " +
+            "paginación por cursor: sin totales y con siguienteCursor en la respuesta")
+    private String cursor;
+
+    // ==================== Búsqueda geográfica ====================
+
+    @DecimalMin(value = "-90.0", message = "Latitud inválida")
+    @DecimalMax(value = "90.0", message = "Latitud inválida")
+    @Schema(description = "Latitud del centro de búsqueda (con longitud y radioKm)", example = "10.3910485")
+    private Double latitud;
+
+    @DecimalMin(value = "-180.0", message = "Longitud inválida")
+    @DecimalMax(value = "180.0", message = "Longitud inválida")
+    @Schema(description = "Longitud del centro de búsqueda (con latitud y radioKm)", example = "-75.4794257")
+    private Double longitud;
+
+    @Positive(message = "El radio debe ser mayor a 0")
+    @DecimalMax(value = "500.0", message = "El radio máximo es 500 km")
+    @Schema(description = "Radio de búsqueda en km alrededor de latitud/longitud", example = "5")
+    private Double radioKm;
+
+    @DecimalMin(value = "-90.0", message = "Latitud inválida")
+    @DecimalMax(value = "90.0", message = "Latitud inválida")
+    @Schema(description = "Latitud sur del rectángulo visible del mapa", example = "10.35")
+    private Double latitudMin;
+
+    @DecimalMin(value = "-180.0", message = "Longitud inválida")
+    @DecimalMax(value = "180.0", message = "Longitud inválida")
+    @Schema(description = "Longitud oeste del rectángulo visible del mapa", example = "-75.56")
+    private Double longitudMin;
+
+    @DecimalMin(value = "-90.0", message = "Latitud inválida")
+    @DecimalMax(value = "90.0", message = "Latitud inválida")
+    @Schema(description = "Latitud norte del rectángulo visible del mapa", example = "10.45")
+    private Double latitudMax;
+
+    @DecimalMin(value = "-180.0", message = "Longitud inválida")
+    @DecimalMax(value = "180.0", message = "Longitud inválida")
+    @Schema(description = "Longitud este del rectángulo visible del mapa (menor que la oeste si cruza el antimeridiano)",
+            example = "-75.45")
+    private Double longitudMax;
+
+    @Size(max = 200, message = "El texto de búsqueda no puede exceder 200 caracteres")
+    @Schema(description = "Palabras a buscar en título y descripción (todas deben aparecer). " +
+            "Sin ordenarPor, los resultados se ordenan por coincidencia", example = "casa piscina")
+    private String texto;
+
+    @Schema(description = "Si es true, la respuesta incluye conteos por ciudad, rango de precio, " +
+            "capacidad y servicio sobre todos los resultados (no solo la página)", example = "false")
+    private Boolean facetas;
+
+    @FutureOrPresent(message = "El inicio de la ventana debe ser presente o futuro")
+    @Schema(description = "Fechas flexibles: primer día posible de llegada", example = "2025-12-01")
+    private LocalDate ventanaInicio;
+
+    @Schema(description = "Fechas flexibles: último día posible de salida", example = "2025-12-31")
+    private LocalDate ventanaFin;
+
+    @Min(value = 1, message = "Las noches deben ser al menos 1")
+    @Schema(description = "Fechas flexibles: noches seguidas que se buscan dentro de la ventana", example = "3")
+    private Integer noches;
+
+    public boolean tieneRadio() {
+        return latitud != null || longitud != null || radioKm != null;
+    }
+
+    public boolean tieneFechasFlexibles() {
+        return ventanaInicio != null || ventanaFin != null || noches != null;
+    }
+
+    public boolean tieneRectangulo() {
+        return latitudMin != null || longitudMin != null || latitudMax != null || longitudMax != null;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package co.uniquindio.alojapp.negocio.DTO.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request para verificar la disponibilidad de varios alojamientos en una sola llamada")
+public class DisponibilidadLoteRequest {
+
+    public static final int MAX_CONSULTAS = 500;
+
+    @NotEmpty(message = "Debe enviar al menos una consulta")
+    @Size(max = MAX_CONSULTAS, message = "Máximo " + MAX_CONSULTAS + " consultas por solicitud")
+    @Valid
+    @Schema(description = "Consultas (alojamientoId, checkin, checkout)")
+    private List<Consulta> consultas;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Disponibilidad de un alojamiento en un rango de fechas")
+    public static class Consulta {
+
+        @NotNull(message = "El ID del alojamiento es obligatorio")
+        @Schema(description = "ID del alojamiento", example = "1")
+        private Integer alojamientoId;
+
+        @NotNull(message = "La fecha de check-in es obligatoria")
+        @Schema(description = "Fecha de check-in", example = "2025-12-15")
+        private LocalDate checkin;
+
+        @NotNull(message = "La fecha de check-out es obligatoria")
+        @Schema(description = "Fecha de check-out", example = "2025-12-20")
+        private LocalDate checkout;
+
+        /**
+         * Clave de la consulta en la respuesta: "alojamientoId:checkin:checkout"
+         */
+        public String clave() {
+            return alojamientoId + ":" + checkin + ":" + checkout;
+        }
+    }
+}
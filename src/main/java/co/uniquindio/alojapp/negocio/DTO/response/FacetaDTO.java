@@ -0,0 +1,22 @@
+package co.uniquindio.alojapp.negocio.DTO.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Opción de un filtro con la cantidad de resultados que tendría")
+public class FacetaDTO {
+
+    @Schema(description = "Valor a enviar en el filtro (ciudad, rango o ID de servicio)", example = "100000-200000")
+    private String valor;
+
+    @Schema(description = "Texto a mostrar", example = "$100.000 - $200.000")
+    private String etiqueta;
+
+    @Schema(description = "Cantidad de alojamientos", example = "42")
+    private Long cantidad;
+}
@@ -0,0 +1,37 @@
+package co.uniquindio.alojapp.negocio.DTO.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Conteos por filtro para el conjunto de resultados de la búsqueda")
+public class FacetasDTO {
+
+    @Schema(description = "Alojamientos que cumplen los filtros", example = "87")
+    private Long total;
+
+    @Builder.Default
+    @Schema(description = "Alojamientos por ciudad, de más a menos")
+    private List<FacetaDTO> ciudades = new ArrayList<>();
+
+    @Builder.Default
+    @Schema(description = "Alojamientos por rango de precio por noche")
+    private List<FacetaDTO> precios = new ArrayList<>();
+
+    @Builder.Default
+    @Schema(description = "Alojamientos por rango de capacidad máxima")
+    private List<FacetaDTO> capacidades = new ArrayList<>();
+
+    @Builder.Default
+    @Schema(description = "Alojamientos por servicio, de más a menos")
+    private List<FacetaDTO> servicios = new ArrayList<>();
+}
@@ -1,5 +1,6 @@
 package co.uniquindio.alojapp.negocio.DTO.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -41,4 +42,12 @@ public class PaginacionResponse<T> {
 
     @Schema(description = "Indica si tiene página anterior", example = "false")
     private Boolean tieneAnterior;
+
+    @Schema(description = "Cursor opaco para pedir la página siguiente (solo en modo cursor)",
+            example = "MjAyNS0xMC0wMVQxMDowMHwxMjM")
+    private String siguienteCursor;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Conteos por filtro (solo en búsquedas con facetas=true)")
+    private FacetasDTO facetas;
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import co.uniquindio.alojapp.negocio.DTO.request.CrearAdministradorRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAdministradorRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface AdministradorService {
@@ -28,4 +29,6 @@ public interface AdministradorService {
     long contar();
 
     long contarPorNivel(String nivelAcceso);
+
+    Map<String, Map<String, Long>> contadoresPlataforma();
 }
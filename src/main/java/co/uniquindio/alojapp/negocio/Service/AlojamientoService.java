@@ -1,13 +1,21 @@
 package co.uniquindio.alojapp.negocio.Service;
 
 import co.uniquindio.alojapp.negocio.DTO.AlojamientoDTO;
+import co.uniquindio.alojapp.negocio.DTO.AlojamientoResumenDTO;
+import co.uniquindio.alojapp.negocio.DTO.CalendarioDisponibilidadDTO;
+import co.uniquindio.alojapp.negocio.DTO.ClusterMapaDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasAgrupacionDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasCacheDTO;
+import co.uniquindio.alojapp.negocio.DTO.SugerenciaCiudadDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.BuscarAlojamientosRequest;
+import co.uniquindio.alojapp.negocio.DTO.request.DisponibilidadLoteRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public interface AlojamientoService {
 
@@ -29,6 +37,21 @@ public interface AlojamientoService {
 
     PaginacionResponse<AlojamientoDTO> buscar(BuscarAlojamientosRequest filtro);
 
+    PaginacionResponse<AlojamientoResumenDTO> buscarResumen(BuscarAlojamientosRequest filtro);
+
+    List<SugerenciaCiudadDTO> sugerirCiudades(String prefijo, int limite);
+
+    EstadisticasCacheDTO estadisticasCacheBusquedas();
+
+    Map<String, EstadisticasAgrupacionDTO> estadisticasAgrupacion();
+
+    int recalcularCalificaciones();
+
+    int reconciliarPopularidad();
+
+    List<ClusterMapaDTO> clustersDelMapa(Double latitudMin, Double longitudMin,
+                                         Double latitudMax, Double longitudMax, Integer zoom);
+
     AlojamientoDTO agregarImagenes(Integer usuarioIdAnfitrion, Integer alojamientoId, List<String> urls);
 
     AlojamientoDTO eliminarImagen(Integer usuarioIdAnfitrion, Integer alojamientoId, Integer imagenId);
@@ -37,8 +60,16 @@ public interface AlojamientoService {
 
     Boolean estaDisponible(Integer id, LocalDate checkin, LocalDate checkout);
 
+    Map<String, Boolean> disponibilidadLote(DisponibilidadLoteRequest request);
+
+    CalendarioDisponibilidadDTO calendario(Integer alojamientoId, LocalDate desde, LocalDate hasta);
+
     PaginacionResponse<AlojamientoDTO> listarActivos(int pagina, int tamano);
 
+    PaginacionResponse<AlojamientoDTO> listarActivosPorCursor(String cursor, int tamano);
+
+    PaginacionResponse<AlojamientoDTO> listarPopulares(int pagina, int tamano);
+
     AlojamientoDTO actualizarDeUsuario(Integer usuarioId, Integer alojamientoId, ActualizarAlojamientoRequest request);
 
     boolean eliminarDeUsuario(Integer userId, Integer alojamientoId);
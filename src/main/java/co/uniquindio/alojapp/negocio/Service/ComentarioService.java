@@ -16,6 +16,7 @@ public interface ComentarioService {
     // Lectura
     ComentarioDTO obtenerPorId(Integer comentarioId);
     PaginacionResponse<ComentarioDTO> listarPorAlojamiento(Integer alojamientoId, int pagina, int tamano);
+    PaginacionResponse<ComentarioDTO> listarPorAlojamientoPorCursor(Integer alojamientoId, String cursor, int tamano);
     List<ComentarioDTO> listarPorUsuario(Integer usuarioId);
     PaginacionResponse<ComentarioDTO> listarPorAnfitrion(Integer anfitrionId, int pagina, int tamano);
     List<ComentarioDTO> listarSinRespuestaPorAnfitrion(Integer anfitrionId);
@@ -15,6 +15,13 @@ public interface PagoService {
                          String metodoPago,
                          BigDecimal monto);
 
+    // Igual, con Idempotency-Key: un reintento con la misma clave devuelve el pago original
+    PagoDTO pagarReserva(Integer usuarioId,
+                         Integer reservaId,
+                         String metodoPago,
+                         BigDecimal monto,
+                         String claveIdempotencia);
+
     // Consultas
     PagoDTO obtenerPorId(Integer pagoId);
     PagoDTO obtenerPorReserva(Integer reservaId);
@@ -37,4 +44,7 @@ public interface PagoService {
     PagoDTO obtenerDeUsuarioPorReserva(Integer userId, Integer reservaId);
 
     PagoDTO registrarPago(Integer userId, Integer reservaId, String metodoPago, double monto, LocalDateTime now);
+
+    PagoDTO registrarPago(Integer userId, Integer reservaId, String metodoPago, double monto, LocalDateTime now,
+                          String claveIdempotencia);
 }
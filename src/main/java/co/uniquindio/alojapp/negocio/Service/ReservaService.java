@@ -1,5 +1,6 @@
 package co.uniquindio.alojapp.negocio.Service;
 
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasLotesDTO;
 import co.uniquindio.alojapp.negocio.DTO.ReservaDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.CancelarReservaRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearReservaRequest;
@@ -14,6 +15,11 @@ public interface ReservaService {
 
     ReservaDTO crear(Integer usuarioId, CrearReservaRequest request);
 
+    /**
+     * Igual que crear(...) con Idempotency-Key: un reintento con la misma clave devuelve la reserva original
+     */
+    ReservaDTO crear(Integer usuarioId, CrearReservaRequest request, String claveIdempotencia);
+
     ReservaDTO cancelar(Integer usuarioId, Integer reservaId, CancelarReservaRequest request);
 
     ReservaDTO obtenerPorId(Integer reservaId);
@@ -22,6 +28,10 @@ public interface ReservaService {
 
     PaginacionResponse<ReservaDTO> listarPorAnfitrion(Integer anfitrionId, int pagina, int tamanoPagina);
 
+    PaginacionResponse<ReservaDTO> listarPorHuespedPorCursor(Integer huespedId, String cursor, int tamanoPagina);
+
+    PaginacionResponse<ReservaDTO> listarPorAnfitrionPorCursor(Integer anfitrionId, String cursor, int tamanoPagina);
+
     List<ReservaDTO> listarCompletadasSinComentario(Integer huespedId);
 
     Long contarPorEstado(EstadoReserva estado);
@@ -30,5 +40,9 @@ public interface ReservaService {
 
     BigDecimal calcularIngresosPorPeriodo(Integer anfitrionId, LocalDate inicio, LocalDate fin);
 
-    void completarReservasVencidas();
+    int completarReservasVencidas();
+
+    int cancelarRetencionesVencidas();
+
+    EstadisticasLotesDTO estadisticasCompletarReservas();
 }
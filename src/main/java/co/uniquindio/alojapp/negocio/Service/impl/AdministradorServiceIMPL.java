@@ -6,6 +6,7 @@ import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAdministradorRequest;
 import co.uniquindio.alojapp.negocio.Service.AdministradorService;
 import co.uniquindio.alojapp.persistencia.Entity.Administrador;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Indice.ContadoresEstado;
 import co.uniquindio.alojapp.persistencia.Mapper.AdministradorMapper;
 import co.uniquindio.alojapp.persistencia.Repository.AdministradorRepository;
 import co.uniquindio.alojapp.persistencia.Repository.UsuarioRepository;
@@ -27,6 +28,7 @@ public class AdministradorServiceIMPL implements AdministradorService {
     private final AdministradorRepository administradorRepository;
     private final UsuarioRepository usuarioRepository;
     private final AdministradorMapper administradorMapper;
+    private final ContadoresEstado contadores;
     private final ObjectMapper objectMapper = new ObjectMapper(); // para validar JSON si llega
 
     private static final Set<String> NIVELES_VALIDOS =
@@ -135,6 +137,15 @@ public class AdministradorServiceIMPL implements AdministradorService {
         return Optional.ofNullable(administradorRepository.countByNivelAcceso(nivel)).orElse(0L);
     }
 
+    /**
+     * Conteos por estado de alojamientos, reservas, pagos y usuarios (en memoria, sin consultar la BD)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, Long>> contadoresPlataforma() {
+        return contadores.resumen();
+    }
+
     // ==== helpers ====
 
     private String normalizarNivel(String nivel) {
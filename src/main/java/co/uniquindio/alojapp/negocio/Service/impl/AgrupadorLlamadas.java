@@ -0,0 +1,65 @@
+package co.uniquindio.alojapp.negocio.Service.impl;
+
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasAgrupacionDTO;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa llamadas concurrentes idénticas (single-flight)
+ * La primera llamada con una clave ejecuta la acción; las que llegan mientras sigue en curso
+ * esperan y reciben el mismo resultado (o la misma excepción) sin volver a consultar la BD.
+ * No guarda resultados: al terminar, la siguiente llamada vuelve a ejecutar.
+ */
+final class AgrupadorLlamadas<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+
+    private final LongAdder llamadas = new LongAdder();
+    private final LongAdder ejecuciones = new LongAdder();
+    private final LongAdder agrupadas = new LongAdder();
+
+    V ejecutar(K clave, Supplier<V> accion) {
+        llamadas.increment();
+        CompletableFuture<V> propio = new CompletableFuture<>();
+        CompletableFuture<V> existente = enCurso.putIfAbsent(clave, propio);
+        if (existente != null) {
+            agrupadas.increment();
+            return esperar(existente);
+        }
+
+        ejecuciones.increment();
+        try {
+            V valor = accion.get();
+            propio.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propio);
+        }
+    }
+
+    EstadisticasAgrupacionDTO estadisticas() {
+        return EstadisticasAgrupacionDTO.builder()
+                .llamadas(llamadas.sum())
+                .ejecuciones(ejecuciones.sum())
+                .agrupadas(agrupadas.sum())
+                .enCurso(enCurso.size())
+                .build();
+    }
+
+    private static <V> V esperar(CompletableFuture<V> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+}
@@ -1,29 +1,48 @@
 package co.uniquindio.alojapp.negocio.Service.impl;
 
 import co.uniquindio.alojapp.negocio.DTO.AlojamientoDTO;
+import co.uniquindio.alojapp.negocio.DTO.AlojamientoResumenDTO;
+import co.uniquindio.alojapp.negocio.DTO.CalendarioDisponibilidadDTO;
+import co.uniquindio.alojapp.negocio.DTO.ClusterMapaDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasAgrupacionDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasCacheDTO;
+import co.uniquindio.alojapp.negocio.DTO.SugerenciaCiudadDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.BuscarAlojamientosRequest;
+import co.uniquindio.alojapp.negocio.DTO.request.DisponibilidadLoteRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
 import co.uniquindio.alojapp.negocio.Service.AlojamientoService;
+import co.uniquindio.alojapp.negocio.excepciones.BadRequestException;
 import co.uniquindio.alojapp.negocio.excepciones.RecursoNoEncontradoException;
+import co.uniquindio.alojapp.persistencia.Cache.ClaveBusqueda;
 import co.uniquindio.alojapp.persistencia.DAO.AlojamientoDAO;
+import co.uniquindio.alojapp.persistencia.DAO.OrdenBusqueda;
 import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
 import co.uniquindio.alojapp.persistencia.Entity.Anfitrion;
 import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoAlojamiento;
-import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import co.uniquindio.alojapp.persistencia.Indice.PuntajeRelevancia;
 import co.uniquindio.alojapp.persistencia.Repository.AnfitrionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -32,7 +51,20 @@ public class AlojamientoServiceIMPL implements AlojamientoService {
 
     private final AlojamientoDAO alojamientoDAO;
     private final AnfitrionRepository anfitrionRepository;
-    private final AlojamientoRepository alojamientoRepository;
+    private final TransactionTemplate transacciones;
+
+    @Value("${app.relevancia.recalculo-lote:1000}")
+    private int tamanoLoteRelevancia;
+
+    /** Lecturas y búsquedas idénticas simultáneas comparten una sola consulta */
+    private final AgrupadorLlamadas<Integer, AlojamientoDTO> lecturasPorId = new AgrupadorLlamadas<>();
+    private final AgrupadorLlamadas<ClaveBusqueda, PaginacionResponse<AlojamientoDTO>> busquedas =
+            new AgrupadorLlamadas<>();
+
+    private static final double RADIO_MAXIMO_KM = 500;
+    private static final int ZOOM_MAXIMO = 22;
+    private static final int VENTANA_MAXIMA_DIAS = 90;
+    private static final int CALENDARIO_MAXIMO_DIAS = 366;
 
 
     private Integer anfitrionIdDeUsuario(Integer usuarioId) {
@@ -101,11 +133,51 @@ public class AlojamientoServiceIMPL implements AlojamientoService {
         return alojamientoDAO.verificarDisponibilidad(alojamientoId, checkin, checkout);
     }
 
+    @Override
+    public Map<String, Boolean> disponibilidadLote(DisponibilidadLoteRequest request) {
+        List<DisponibilidadLoteRequest.Consulta> consultas = request == null ? null : request.getConsultas();
+        if (consultas == null || consultas.isEmpty()) {
+            throw new BadRequestException("Debe enviar al menos una consulta");
+        }
+        if (consultas.size() > DisponibilidadLoteRequest.MAX_CONSULTAS) {
+            throw new BadRequestException("Máximo " + DisponibilidadLoteRequest.MAX_CONSULTAS + " consultas por solicitud");
+        }
+        for (DisponibilidadLoteRequest.Consulta c : consultas) {
+            if (c == null || c.getAlojamientoId() == null || c.getCheckin() == null || c.getCheckout() == null
+                    || !c.getCheckout().isAfter(c.getCheckin())) {
+                throw new BadRequestException("Rango de fechas inválido en la consulta " + (c == null ? null : c.clave()));
+            }
+        }
+        return alojamientoDAO.verificarDisponibilidadLote(consultas);
+    }
+
+    @Override
+    public CalendarioDisponibilidadDTO calendario(Integer alojamientoId, LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new BadRequestException("Rango de fechas inválido");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= CALENDARIO_MAXIMO_DIAS) {
+            throw new BadRequestException("El calendario no puede superar " + CALENDARIO_MAXIMO_DIAS + " días");
+        }
+        return new CalendarioDisponibilidadDTO(alojamientoId, desde, hasta,
+                alojamientoDAO.calendario(alojamientoId, desde, hasta));
+    }
+
     @Override
     public PaginacionResponse<AlojamientoDTO> listarActivos(int pagina, int tamano) {
         return alojamientoDAO.findActivos(pagina, tamano);
     }
 
+    @Override
+    public PaginacionResponse<AlojamientoDTO> listarActivosPorCursor(String cursor, int tamano) {
+        return alojamientoDAO.findActivosPorCursor(cursor, tamano);
+    }
+
+    @Override
+    public PaginacionResponse<AlojamientoDTO> listarPopulares(int pagina, int tamano) {
+        return alojamientoDAO.findMasPopulares(pagina, tamano);
+    }
+
     @Override
     @Transactional
     public AlojamientoDTO actualizarDeUsuario(Integer usuarioId, Integer alojamientoId, ActualizarAlojamientoRequest req) {
@@ -122,18 +194,20 @@ public class AlojamientoServiceIMPL implements AlojamientoService {
     @Override
     @Transactional
     public void actualizarPortada(Integer alojamientoId, String urlPortada) {
-        var ent = alojamientoRepository.findById(alojamientoId)
-                .orElseThrow(() -> new RecursoNoEncontradoException("Alojamiento no encontrado"));
-
-        ent.setImagenPrincipalUrl(urlPortada);
-        alojamientoRepository.save(ent);
+        if (!alojamientoDAO.actualizarPortada(alojamientoId, urlPortada)) {
+            throw new RecursoNoEncontradoException("Alojamiento no encontrado");
+        }
     }
 
+    /**
+     * SUPPORTS: no abre una transacción (ni toma conexión del pool) antes de saber si la
+     * llamada se agrupa con otra en curso; solo la que ejecuta llega a consultar
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public AlojamientoDTO obtenerPorId(Integer alojamientoId) {
-        return alojamientoDAO.findById(alojamientoId)
-                .orElseThrow(() -> new IllegalArgumentException("Alojamiento no encontrado"));
+        return lecturasPorId.ejecutar(alojamientoId, () -> alojamientoDAO.findById(alojamientoId)
+                .orElseThrow(() -> new IllegalArgumentException("Alojamiento no encontrado")));
     }
 
     @Override
@@ -154,7 +228,136 @@ public class AlojamientoServiceIMPL implements AlojamientoService {
         if ((request.getFechaCheckin() == null) ^ (request.getFechaCheckout() == null)) {
             throw new IllegalArgumentException("Debe enviar checkin y checkout juntos");
         }
-        return alojamientoDAO.buscarConFiltros(request);
+        validarFiltroGeografico(request);
+        validarFechasFlexibles(request);
+        OrdenBusqueda.de(request.getOrdenarPor());
+        return busquedas.ejecutar(ClaveBusqueda.de(request), () -> alojamientoDAO.buscarConFiltros(request));
+    }
+
+    /**
+     * Vista resumen para tarjetas de listado: sin caché ni agrupación, la proyección ya es barata
+     */
+    @Override
+    public PaginacionResponse<AlojamientoResumenDTO> buscarResumen(BuscarAlojamientosRequest request) {
+        if ((request.getFechaCheckin() == null) ^ (request.getFechaCheckout() == null)) {
+            throw new IllegalArgumentException("Debe enviar checkin y checkout juntos");
+        }
+        if (request.getCursor() != null || Boolean.TRUE.equals(request.getFacetas()) || request.tieneFechasFlexibles()) {
+            throw new BadRequestException("La vista resumen no admite cursor, facetas ni fechas flexibles");
+        }
+        validarFiltroGeografico(request);
+        OrdenBusqueda.de(request.getOrdenarPor());
+        return alojamientoDAO.buscarResumen(request);
+    }
+
+    @Override
+    public Map<String, EstadisticasAgrupacionDTO> estadisticasAgrupacion() {
+        Map<String, EstadisticasAgrupacionDTO> resultado = new LinkedHashMap<>();
+        resultado.put("obtenerPorId", lecturasPorId.estadisticas());
+        resultado.put("buscar", busquedas.estadisticas());
+        return resultado;
+    }
+
+    /**
+     * Recálculo completo de los agregados de calificación (mantenimiento / backfill)
+     */
+    @Override
+    @Transactional
+    public int recalcularCalificaciones() {
+        int recalculados = alojamientoDAO.recalcularCalificaciones(false);
+        log.info("Calificaciones recalculadas en {} alojamientos", recalculados);
+        return recalculados;
+    }
+
+    /**
+     * Al arrancar, completar los alojamientos que aún no tienen agregados de calificación
+     * (filas anteriores a las columnas cuando las agrega ddl-auto=update; en prod las rellena la migración)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void completarCalificacionesPendientes() {
+        int completados = alojamientoDAO.recalcularCalificaciones(true);
+        if (completados > 0) {
+            log.info("Calificaciones calculadas para {} alojamientos sin agregados", completados);
+        }
+    }
+
+    /**
+     * Reconciliación periódica del puntaje de popularidad contra las reservas
+     * (corrige la deriva de las sumas/restas incrementales)
+     */
+    @Override
+    @Scheduled(cron = "${app.popularidad.reconciliacion-cron:0 30 3 * * *}")
+    @Transactional
+    public int reconciliarPopularidad() {
+        int corregidos = alojamientoDAO.reconciliarPopularidad();
+        if (corregidos > 0) {
+            log.info("Puntaje de popularidad corregido en {} alojamientos", corregidos);
+        }
+        return corregidos;
+    }
+
+    /**
+     * Recalcular cada madrugada el puntaje de relevancia de todos los alojamientos,
+     * después de reconciliar la popularidad (la novedad y la popularidad cambian con los días)
+     * Recorre los alojamientos por id en lotes de "tamanoLoteRelevancia", cada uno en su propia
+     * transacción y con sus puntajes escritos en un solo batch.
+     */
+    @Scheduled(cron = "${app.relevancia.recalculo-cron:0 45 3 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recalcularRelevancia() {
+        int lote = Math.max(1, tamanoLoteRelevancia);
+        int total = 0;
+        Integer desdeId = 0;
+        PuntajeRelevancia.Lote hecho;
+        do {
+            Integer desde = desdeId;
+            hecho = transacciones.execute(s -> alojamientoDAO.recalcularRelevanciaLote(desde, lote));
+            total += hecho.cantidad();
+            desdeId = hecho.ultimoId();
+        } while (hecho.cantidad() == lote);
+        log.info("Puntaje de relevancia recalculado en {} alojamientos", total);
+    }
+
+    /**
+     * Al arrancar, calcular la popularidad y luego la relevancia si hay alojamientos sin puntaje
+     * (filas creadas antes de existir las columnas)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarPuntajesPendientes() {
+        boolean popularidadPendiente = alojamientoDAO.hayPopularidadPendiente();
+        if (popularidadPendiente) {
+            transacciones.executeWithoutResult(s -> reconciliarPopularidad());
+        }
+        if (popularidadPendiente || alojamientoDAO.hayRelevanciaPendiente()) {
+            recalcularRelevancia();
+        }
+    }
+
+    @Override
+    public List<SugerenciaCiudadDTO> sugerirCiudades(String prefijo, int limite) {
+        if (!StringUtils.hasText(prefijo)) return List.of();
+        if (limite < 1) throw new BadRequestException("El límite debe ser al menos 1");
+        return alojamientoDAO.sugerirCiudades(prefijo, limite);
+    }
+
+    @Override
+    public EstadisticasCacheDTO estadisticasCacheBusquedas() {
+        return alojamientoDAO.estadisticasCacheBusquedas();
+    }
+
+    @Override
+    public List<ClusterMapaDTO> clustersDelMapa(Double latitudMin, Double longitudMin,
+                                                Double latitudMax, Double longitudMax, Integer zoom) {
+        if (latitudMin == null || longitudMin == null || latitudMax == null || longitudMax == null)
+            throw new BadRequestException("El rectángulo requiere latitudMin, longitudMin, latitudMax y longitudMax");
+        validarCoordenada(latitudMin, longitudMin);
+        validarCoordenada(latitudMax, longitudMax);
+        if (latitudMin > latitudMax)
+            throw new BadRequestException("latitudMin no puede ser mayor que latitudMax");
+        if (zoom == null || zoom < 0 || zoom > ZOOM_MAXIMO)
+            throw new BadRequestException("El zoom debe estar entre 0 y " + ZOOM_MAXIMO);
+        return alojamientoDAO.findClusters(latitudMin, longitudMin, latitudMax, longitudMax, zoom);
     }
 
     @Override
@@ -209,6 +412,55 @@ public class AlojamientoServiceIMPL implements AlojamientoService {
             throw new IllegalArgumentException("capacidadMinima inválida");
     }
 
+    /**
+     * Radio: latitud + longitud + radioKm. Rectángulo: las cuatro esquinas.
+     * El rectángulo puede cruzar el antimeridiano (longitudMin > longitudMax), pero no invertir latitudes.
+     */
+    private void validarFiltroGeografico(BuscarAlojamientosRequest f) {
+        if (f.tieneRadio()) {
+            if (f.getLatitud() == null || f.getLongitud() == null || f.getRadioKm() == null)
+                throw new BadRequestException("La búsqueda por radio requiere latitud, longitud y radioKm");
+            validarCoordenada(f.getLatitud(), f.getLongitud());
+            if (f.getRadioKm() <= 0 || f.getRadioKm() > RADIO_MAXIMO_KM)
+                throw new BadRequestException("El radio debe estar entre 0 y " + (int) RADIO_MAXIMO_KM + " km");
+        }
+        if (f.tieneRectangulo()) {
+            if (f.getLatitudMin() == null || f.getLongitudMin() == null
+                    || f.getLatitudMax() == null || f.getLongitudMax() == null)
+                throw new BadRequestException("El rectángulo requiere latitudMin, longitudMin, latitudMax y longitudMax");
+            validarCoordenada(f.getLatitudMin(), f.getLongitudMin());
+            validarCoordenada(f.getLatitudMax(), f.getLongitudMax());
+            if (f.getLatitudMin() > f.getLatitudMax())
+                throw new BadRequestException("latitudMin no puede ser mayor que latitudMax");
+        }
+    }
+
+    /**
+     * Fechas flexibles: ventanaInicio + ventanaFin + noches, sin checkin/checkout fijos.
+     * La ventana no puede empezar en el pasado, debe caber la estadía y no pasar de VENTANA_MAXIMA_DIAS.
+     */
+    private void validarFechasFlexibles(BuscarAlojamientosRequest f) {
+        if (!f.tieneFechasFlexibles()) return;
+        if (f.getVentanaInicio() == null || f.getVentanaFin() == null || f.getNoches() == null)
+            throw new BadRequestException("Las fechas flexibles requieren ventanaInicio, ventanaFin y noches");
+        if (f.getFechaCheckin() != null || f.getFechaCheckout() != null)
+            throw new BadRequestException("No se pueden combinar fechas flexibles con checkin/checkout");
+        if (f.getVentanaInicio().isBefore(LocalDate.now()))
+            throw new BadRequestException("La ventana no puede empezar en el pasado");
+        if (f.getNoches() < 1)
+            throw new BadRequestException("Las noches deben ser al menos 1");
+        long dias = ChronoUnit.DAYS.between(f.getVentanaInicio(), f.getVentanaFin());
+        if (dias < f.getNoches())
+            throw new BadRequestException("La ventana es más corta que las noches pedidas");
+        if (dias > VENTANA_MAXIMA_DIAS)
+            throw new BadRequestException("La ventana no puede superar " + VENTANA_MAXIMA_DIAS + " días");
+    }
+
+    private void validarCoordenada(double lat, double lon) {
+        if (lat < -90 || lat > 90) throw new BadRequestException("Latitud inválida");
+        if (lon < -180 || lon > 180) throw new BadRequestException("Longitud inválida");
+    }
+
     private void validarLatLon(BigDecimal lat, BigDecimal lon) {
         if (lat == null || lon == null) {
             throw new IllegalArgumentException("Coordenadas obligatorias");
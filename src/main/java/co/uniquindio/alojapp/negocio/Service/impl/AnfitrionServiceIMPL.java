@@ -6,6 +6,7 @@ import co.uniquindio.alojapp.negocio.Service.AnfitrionService;
 import co.uniquindio.alojapp.persistencia.DAO.UsuarioDAO;
 import co.uniquindio.alojapp.persistencia.Entity.Anfitrion;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Indice.PuntajeRelevancia;
 import co.uniquindio.alojapp.persistencia.Repository.AnfitrionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +23,7 @@ public class AnfitrionServiceIMPL implements AnfitrionService {
 
     private final UsuarioDAO usuarioDAO;
     private final AnfitrionRepository anfitrionRepository;
+    private final PuntajeRelevancia puntajeRelevancia;
 
     @Override
     public UsuarioDTO habilitarPerfil(Integer usuarioId, String descripcionPersonal, String documentosLegalesUrl) {
@@ -86,6 +88,8 @@ public class AnfitrionServiceIMPL implements AnfitrionService {
 
         an.setVerificado(verificado);
         anfitrionRepository.save(an);
+        // La verificación del anfitrión entra en la relevancia de sus alojamientos
+        puntajeRelevancia.recalcularDeAnfitrion(an.getId());
 
         return usuarioDAO.findById(usuarioId)
                 .orElseThrow(() -> new RuntimeException("No se pudo leer el usuario luego de cambiar verificación"));
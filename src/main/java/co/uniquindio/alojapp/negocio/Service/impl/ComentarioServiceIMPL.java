@@ -55,6 +55,11 @@ public class ComentarioServiceIMPL implements ComentarioService {
         return comentarioDAO.findByAlojamiento(alojamientoId, pagina, tamano);
     }
 
+    @Override
+    public PaginacionResponse<ComentarioDTO> listarPorAlojamientoPorCursor(Integer alojamientoId, String cursor, int tamano) {
+        return comentarioDAO.findByAlojamientoPorCursor(alojamientoId, cursor, tamano);
+    }
+
     @Override
     public java.util.List<ComentarioDTO> listarPorUsuario(Integer usuarioId) {
         return comentarioDAO.findByUsuario(usuarioId);
@@ -102,6 +107,8 @@ public class ComentarioServiceIMPL implements ComentarioService {
             throw new AccesoNoAutorizadoException("No estás autorizado a modificar este comentario");
         }
 
+        Integer calificacionAnterior = comentario.getCalificacion();
+
         // Validaciones de negocio (RN7/RN8)
         if (request.getCalificacion() != null) {
             int c = request.getCalificacion();
@@ -121,6 +128,7 @@ public class ComentarioServiceIMPL implements ComentarioService {
         // comentario.setFechaComentario(LocalDateTime.now());
 
         Comentario actualizado = comentarioRepository.save(comentario);
+        comentarioDAO.ajustarCalificaciones(idAlojamiento(comentario), calificacionAnterior, comentario.getCalificacion());
         return comentarioMapper.toDTO(actualizado);
     }
 
@@ -136,6 +144,7 @@ public class ComentarioServiceIMPL implements ComentarioService {
         }
 
         comentarioRepository.delete(comentario);
+        comentarioDAO.ajustarCalificaciones(idAlojamiento(comentario), comentario.getCalificacion(), null);
         log.info("Comentario {} eliminado por usuario {} (adminOverride={})", comentarioId, usuarioId, adminOverride);
     }
 
@@ -151,4 +160,8 @@ public class ComentarioServiceIMPL implements ComentarioService {
                 usuarioId, comentarioId, request.getMotivo());
 
     }
+
+    private static Integer idAlojamiento(Comentario comentario) {
+        return comentario.getAlojamiento() != null ? comentario.getAlojamiento().getId() : null;
+    }
 }
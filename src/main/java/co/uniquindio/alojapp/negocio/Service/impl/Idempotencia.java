@@ -0,0 +1,102 @@
+package co.uniquindio.alojapp.negocio.Service.impl;
+
+import co.uniquindio.alojapp.negocio.excepciones.BadRequestException;
+import co.uniquindio.alojapp.negocio.excepciones.ConflictoNegocioException;
+import co.uniquindio.alojapp.persistencia.Cache.CacheIdempotencia;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Ejecución idempotente de operaciones de escritura por Idempotency-Key
+ * - Sin clave: ejecuta la acción en una transacción, como siempre.
+ * - Clave ya usada: devuelve la respuesta original sin tocar las tablas de negocio.
+ * - Clave nueva: la acción y el guardado de su respuesta van en la misma transacción (o ambos o ninguno).
+ * Reintentos simultáneos con la misma clave esperan a la primera ejecución y reciben su respuesta.
+ * Solo se guardan respuestas exitosas: si la acción falla no queda nada escrito y el reintento vuelve a ejecutar.
+ * Reusar la clave con una solicitud distinta es un conflicto.
+ */
+@Component
+@RequiredArgsConstructor
+public class Idempotencia {
+
+    private static final int LARGO_MAXIMO_CLAVE = 100;
+
+    private final CacheIdempotencia cache;
+    private final TransactionTemplate transacciones;
+    private final ObjectMapper objectMapper;
+
+    private final AgrupadorLlamadas<CacheIdempotencia.Clave, CacheIdempotencia.Guardada> enCurso = new AgrupadorLlamadas<>();
+
+    /**
+     * @param operacion nombre estable de la operación (forma parte de la clave)
+     * @param solicitud datos que identifican la solicitud; su huella se compara en cada reintento
+     */
+    public <T> T ejecutar(String operacion, Integer usuarioId, String clave, Object solicitud,
+                          Class<T> tipo, Supplier<T> accion) {
+        if (!StringUtils.hasText(clave)) {
+            return transacciones.execute(s -> accion.get());
+        }
+        if (clave.length() > LARGO_MAXIMO_CLAVE) {
+            throw new BadRequestException("Idempotency-Key admite hasta " + LARGO_MAXIMO_CLAVE + " caracteres");
+        }
+
+        CacheIdempotencia.Clave k = new CacheIdempotencia.Clave(operacion, usuarioId, clave);
+        String huella = huella(solicitud);
+        CacheIdempotencia.Guardada guardada = enCurso.ejecutar(k, () -> ejecutarUnaVez(k, huella, accion));
+        if (!guardada.huella().equals(huella)) {
+            throw new ConflictoNegocioException("La Idempotency-Key ya se usó con una solicitud distinta");
+        }
+        return leer(guardada.respuesta(), tipo);
+    }
+
+    private <T> CacheIdempotencia.Guardada ejecutarUnaVez(CacheIdempotencia.Clave k, String huella, Supplier<T> accion) {
+        return cache.buscar(k).orElseGet(() -> {
+            try {
+                return transacciones.execute(s -> {
+                    String respuesta = escribir(accion.get());
+                    cache.guardar(k, huella, respuesta);
+                    return new CacheIdempotencia.Guardada(huella, respuesta);
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Otra instancia confirmó la misma clave primero: nuestra transacción se deshizo, vale la suya
+                return cache.buscar(k).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    String huella(Object solicitud) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(escribir(solicitud).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String escribir(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta idempotente", e);
+        }
+    }
+
+    private <T> T leer(String json, Class<T> tipo) {
+        try {
+            return objectMapper.readValue(json, tipo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta idempotente guardada", e);
+        }
+    }
+}
@@ -11,6 +11,8 @@ import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoReserva;
 import co.uniquindio.alojapp.persistencia.Entity.Pago;
 import co.uniquindio.alojapp.persistencia.Entity.Reserva;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Indice.ContadoresEstado;
+import co.uniquindio.alojapp.persistencia.Indice.RetencionesPendientes;
 import co.uniquindio.alojapp.persistencia.Mapper.PagoMapper;
 import co.uniquindio.alojapp.persistencia.Repository.PagoRepository;
 import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
@@ -22,6 +24,7 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -35,6 +38,9 @@ public class PagoServiceIMPL implements PagoService {
     private final PagoRepository pagoRepository;
     private final UsuarioRepository usuarioRepository;
     private final PagoMapper pagoMapper;
+    private final ContadoresEstado contadores;
+    private final RetencionesPendientes retenciones;
+    private final Idempotencia idempotencia;
 
     private static final Set<String> METODOS_VALIDOS = Set.of(
             "TARJETA_CREDITO", "TARJETA_DEBITO", "PSE", "NEQUI", "DAVIPLATA"
@@ -43,6 +49,18 @@ public class PagoServiceIMPL implements PagoService {
     // =========================================================
     // Registrar pago de una reserva (reglas de negocio)
     // =========================================================
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public PagoDTO pagarReserva(Integer usuarioId,
+                                Integer reservaId,
+                                String metodoPago,
+                                BigDecimal monto,
+                                String claveIdempotencia) {
+        List<Object> solicitud = Arrays.asList(reservaId, metodoPago, monto == null ? null : monto.stripTrailingZeros());
+        return idempotencia.ejecutar("pago.pagarReserva", usuarioId, claveIdempotencia, solicitud, PagoDTO.class,
+                () -> pagarReserva(usuarioId, reservaId, metodoPago, monto));
+    }
+
     @Override
     @Transactional
     public PagoDTO pagarReserva(Integer usuarioId,
@@ -63,6 +81,11 @@ public class PagoServiceIMPL implements PagoService {
             throw new ReglaNegocioException("No se puede pagar una reserva cancelada o completada");
         }
 
+        // RN: Una reserva pendiente solo se puede pagar mientras dure su retención
+        if (reserva.getEstado() == EstadoReserva.PENDIENTE && retenciones.vencida(reserva.getFechaCreacion())) {
+            throw new ReglaNegocioException("La retención de la reserva venció sin pago");
+        }
+
         // RN: No permitir pago luego del check-in
         if (!LocalDate.now().isBefore(reserva.getFechaCheckin())) { // hoy >= check-in -> no
             throw new ReglaNegocioException("El pago debe realizarse antes del check-in");
@@ -92,6 +115,7 @@ public class PagoServiceIMPL implements PagoService {
         if (reserva.getEstado() == EstadoReserva.PENDIENTE) {
             reserva.setEstado(EstadoReserva.CONFIRMADA);
             reservaRepository.save(reserva);
+            contadores.cambio(ContadoresEstado.Entidad.RESERVA, EstadoReserva.PENDIENTE, EstadoReserva.CONFIRMADA);
         }
 
         return dto;
@@ -165,6 +189,20 @@ public class PagoServiceIMPL implements PagoService {
         return pagoDAO.actualizarEstado(pagoId, nuevoEstado);
     }
 
+    // La fecha no forma parte de la solicitud: cada reintento llega con otra
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public PagoDTO registrarPago(Integer usuarioId,
+                                 Integer reservaId,
+                                 String metodoPago,
+                                 double monto,
+                                 LocalDateTime fechaPago,
+                                 String claveIdempotencia) {
+        List<Object> solicitud = Arrays.asList(reservaId, metodoPago, monto);
+        return idempotencia.ejecutar("pago.registrar", usuarioId, claveIdempotencia, solicitud, PagoDTO.class,
+                () -> registrarPago(usuarioId, reservaId, metodoPago, monto, fechaPago));
+    }
+
     @Override
     public PagoDTO registrarPago(Integer usuarioId,
                                  Integer reservaId,
@@ -207,6 +245,7 @@ public class PagoServiceIMPL implements PagoService {
                 .build();
 
         Pago guardado = pagoRepository.save(nuevo);
+        contadores.cambio(ContadoresEstado.Entidad.PAGO, null, guardado.getEstado());
 
         // (Opcional) actualizar estado de reserva si así lo define tu regla
         // reserva.setEstado(EstadoReserva.PAGADA);
@@ -0,0 +1,73 @@
+package co.uniquindio.alojapp.negocio.Service.impl;
+
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasLotesDTO;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Progreso de una tarea masiva por lotes (una ejecución a la vez)
+ * iniciar() devuelve false si ya hay una ejecución en curso; cada lote confirmado se
+ * registra con su duración. Las estadísticas se pueden leer mientras la tarea avanza.
+ */
+final class ProgresoLotes {
+
+    private boolean enCurso;
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+    private long inicioNanos;
+    private long finNanos;
+    private int lotes;
+    private long filas;
+    private long ultimoLoteNanos;
+    private long maximoLoteNanos;
+    private long ejecuciones;
+    private long filasTotales;
+    private String ultimoError;
+
+    synchronized boolean iniciar() {
+        if (enCurso) return false;
+        enCurso = true;
+        inicio = LocalDateTime.now();
+        fin = null;
+        inicioNanos = System.nanoTime();
+        lotes = 0;
+        filas = 0;
+        ultimoError = null;
+        ejecuciones++;
+        return true;
+    }
+
+    synchronized void lote(int filasLote, long nanos) {
+        lotes++;
+        filas += filasLote;
+        filasTotales += filasLote;
+        ultimoLoteNanos = nanos;
+        maximoLoteNanos = Math.max(maximoLoteNanos, nanos);
+    }
+
+    synchronized void terminar(Throwable error) {
+        enCurso = false;
+        fin = LocalDateTime.now();
+        finNanos = System.nanoTime();
+        ultimoError = error == null ? null : error.getMessage();
+    }
+
+    synchronized EstadisticasLotesDTO estadisticas(int tamanoLote) {
+        long duracion = inicio == null ? 0 : (enCurso ? System.nanoTime() : finNanos) - inicioNanos;
+        return EstadisticasLotesDTO.builder()
+                .enCurso(enCurso)
+                .tamanoLote(tamanoLote)
+                .inicio(inicio)
+                .fin(fin)
+                .lotes(lotes)
+                .filas(filas)
+                .duracionMs(TimeUnit.NANOSECONDS.toMillis(duracion))
+                .duracionUltimoLoteMs(TimeUnit.NANOSECONDS.toMillis(ultimoLoteNanos))
+                .duracionMaximaLoteMs(TimeUnit.NANOSECONDS.toMillis(maximoLoteNanos))
+                .ejecuciones(ejecuciones)
+                .filasTotales(filasTotales)
+                .ultimoError(ultimoError)
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 // src/main/java/co/uniquindio/alojapp/negocio/Service/impl/ReservaServiceIMPL.java
 package co.uniquindio.alojapp.negocio.Service.impl;
 
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasLotesDTO;
 import co.uniquindio.alojapp.negocio.DTO.ReservaDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.CancelarReservaRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearReservaRequest;
@@ -14,16 +15,24 @@ import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
 import co.uniquindio.alojapp.persistencia.Entity.Reserva;
 import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoReserva;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Indice.RetencionesPendientes;
 import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
 import co.uniquindio.alojapp.persistencia.Repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -32,6 +41,21 @@ public class ReservaServiceIMPL implements ReservaService {
     private final ReservaDAO reservaDAO;
     private final UsuarioRepository usuarioRepository;
     private final AlojamientoRepository alojamientoRepository;
+    private final TransactionTemplate transacciones;
+    private final RetencionesPendientes retenciones;
+    private final Idempotencia idempotencia;
+
+    @Value("${app.reservas.completar-lote:5000}")
+    private int tamanoLote;
+
+    private final ProgresoLotes progresoCompletado = new ProgresoLotes();
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReservaDTO crear(Integer usuarioId, CrearReservaRequest request, String claveIdempotencia) {
+        return idempotencia.ejecutar("reserva.crear", usuarioId, claveIdempotencia, request, ReservaDTO.class,
+                () -> crear(usuarioId, request));
+    }
 
     @Override
     public ReservaDTO crear(Integer usuarioId, CrearReservaRequest request) {
@@ -87,6 +111,18 @@ public class ReservaServiceIMPL implements ReservaService {
         return reservaDAO.findByAnfitrion(anfitrionId, pagina, tamanoPagina);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginacionResponse<ReservaDTO> listarPorHuespedPorCursor(Integer huespedId, String cursor, int tamanoPagina) {
+        return reservaDAO.findByHuespedPorCursor(huespedId, cursor, tamanoPagina);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginacionResponse<ReservaDTO> listarPorAnfitrionPorCursor(Integer anfitrionId, String cursor, int tamanoPagina) {
+        return reservaDAO.findByAnfitrionPorCursor(anfitrionId, cursor, tamanoPagina);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ReservaDTO> listarCompletadasSinComentario(Integer huespedId) {
@@ -113,8 +149,78 @@ public class ReservaServiceIMPL implements ReservaService {
         return total != null ? total : BigDecimal.ZERO;
     }
 
+    /**
+     * RN32: pasar a COMPLETADA las reservas confirmadas cuyo checkout ya pasó
+     * Corre por lotes de "tamanoLote" filas, cada uno en su propia transacción: un fallo solo deshace
+     * el lote en curso y no se retienen bloqueos sobre toda la tabla. Si ya hay una ejecución en curso
+     * (programada o manual) no hace nada y devuelve 0.
+     */
+    @Override
+    @Scheduled(cron = "${app.reservas.completar-cron:0 10 0 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int completarReservasVencidas() {
+        if (!progresoCompletado.iniciar()) {
+            log.info("Completado de reservas vencidas ya en curso; se omite esta ejecución");
+            return 0;
+        }
+        LocalDate hoy = LocalDate.now();
+        int lote = Math.max(1, tamanoLote);
+        int total = 0;
+        Throwable error = null;
+        try {
+            int completadas;
+            do {
+                long inicio = System.nanoTime();
+                Integer resultado = transacciones.execute(s -> reservaDAO.completarLoteVencidas(hoy, lote));
+                completadas = resultado != null ? resultado : 0;
+                progresoCompletado.lote(completadas, System.nanoTime() - inicio);
+                total += completadas;
+            } while (completadas == lote);
+        } catch (RuntimeException | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            progresoCompletado.terminar(error);
+        }
+        if (total > 0) {
+            log.info("Reservas completadas por checkout vencido: {}", total);
+        }
+        return total;
+    }
+
+    /**
+     * Cancelar las reservas PENDIENTE cuya retención venció sin pago
+     * Corre en cada tick de la rueda de vencimientos, por lotes de "tamanoLote" en transacciones separadas.
+     * Si un lote falla sus reservas se vuelven a programar para el siguiente tick.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.reservas.retencion-tick-ms:1000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int cancelarRetencionesVencidas() {
+        List<Integer> vencidas = retenciones.vencidas();
+        if (vencidas.isEmpty()) return 0;
+
+        LocalDateTime limite = retenciones.limiteCreacion();
+        int lote = Math.max(1, tamanoLote);
+        int total = 0;
+        for (int i = 0; i < vencidas.size(); i += lote) {
+            List<Integer> ids = vencidas.subList(i, Math.min(i + lote, vencidas.size()));
+            try {
+                Integer canceladas = transacciones.execute(s -> reservaDAO.cancelarRetencionesVencidas(ids, limite));
+                total += canceladas != null ? canceladas : 0;
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron cancelar {} retenciones vencidas; se reintentará", ids.size(), e);
+                retenciones.reintentar(ids);
+            }
+        }
+        if (total > 0) {
+            log.info("Retenciones pendientes vencidas canceladas: {}", total);
+        }
+        return total;
+    }
+
     @Override
-    public void completarReservasVencidas() {
-        reservaDAO.completarReservasVencidas();
+    public EstadisticasLotesDTO estadisticasCompletarReservas() {
+        return progresoCompletado.estadisticas(Math.max(1, tamanoLote));
     }
 }
@@ -0,0 +1,166 @@
+package co.uniquindio.alojapp.persistencia.Cache;
+
+import co.uniquindio.alojapp.negocio.DTO.AlojamientoDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasCacheDTO;
+import co.uniquindio.alojapp.negocio.DTO.request.BuscarAlojamientosRequest;
+import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
+import co.uniquindio.alojapp.persistencia.Evento.AlojamientoModificadoEvent;
+import co.uniquindio.alojapp.persistencia.Evento.DisponibilidadModificadaEvent;
+import co.uniquindio.alojapp.persistencia.Evento.ReservasCompletadasEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Caché acotada de resultados de búsqueda de alojamientos
+ * Clave: la request normalizada (ClaveBusqueda). Cada entrada vence a los ttl-segundos y,
+ * al llenarse, se descarta la usada hace más tiempo (LRU).
+ *
+ * Invalidación precisa, al confirmar la transacción que produjo el cambio:
+ * - AlojamientoModificadoEvent: entradas que lo muestran o cuyo filtro de ciudad lo alcanza.
+ * - DisponibilidadModificadaEvent: entradas cuyo rango de fechas se cruza con el de la reserva.
+ * - ReservasCompletadasEvent: entradas cuyo rango de fechas se cruza con el del lote completado.
+ * Ambos eventos de reservas también invalidan las entradas ordenadas por popularidad o relevancia,
+ * tengan fechas o no: esos puntajes se recalculan con cada reserva, cancelación o completado.
+ * Un resultado calculado mientras ocurría una invalidación no se guarda, para no dejar datos viejos.
+ */
+@Slf4j
+@Component
+public class CacheBusquedas {
+
+    @Value("${app.cache.busquedas.max-entradas:1000}")
+    private int maxEntradas;
+
+    @Value("${app.cache.busquedas.ttl-segundos:60}")
+    private long ttlSegundos;
+
+    private Clock reloj = Clock.systemUTC();
+
+    private record Entrada(PaginacionResponse<AlojamientoDTO> valor, Set<Integer> ids, long expiraEn) {
+    }
+
+    private final LinkedHashMap<ClaveBusqueda, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    /** Aumenta con cada invalidación; si cambia durante un cálculo, el resultado no se guarda */
+    private long generacion = 0;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder expulsiones = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    /**
+     * Resultado guardado para la request o, si no hay uno vigente, el calculado (que se guarda)
+     */
+    public PaginacionResponse<AlojamientoDTO> obtener(BuscarAlojamientosRequest request,
+                                                      Supplier<PaginacionResponse<AlojamientoDTO>> calcular) {
+        if (maxEntradas <= 0) {
+            return calcular.get();
+        }
+
+        ClaveBusqueda clave = ClaveBusqueda.de(request);
+        long generacionInicial;
+        synchronized (this) {
+            Entrada e = entradas.get(clave);
+            if (e != null && e.expiraEn() > reloj.millis()) {
+                aciertos.increment();
+                return e.valor();
+            }
+            if (e != null) {
+                entradas.remove(clave);
+                expulsiones.increment();
+            }
+            fallos.increment();
+            generacionInicial = generacion;
+        }
+
+        PaginacionResponse<AlojamientoDTO> valor = calcular.get();
+
+        Set<Integer> ids = valor.getContenido() == null ? Set.of() : valor.getContenido().stream()
+                .map(AlojamientoDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+        synchronized (this) {
+            if (generacion == generacionInicial) {
+                entradas.put(clave, new Entrada(valor, ids, reloj.millis() + ttlSegundos * 1000));
+                recortar();
+            }
+        }
+        return valor;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarAlojamiento(AlojamientoModificadoEvent evento) {
+        invalidar((clave, e) -> e.ids().contains(evento.alojamientoId())
+                || evento.ciudades().stream().anyMatch(clave::filtraCiudad));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarDisponibilidad(DisponibilidadModificadaEvent evento) {
+        invalidar((clave, e) -> clave.tocaFechas(evento.desde(), evento.hasta())
+                || clave.ordenaPorPuntajeDeReservas());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCompletarReservas(ReservasCompletadasEvent evento) {
+        invalidar((clave, e) -> clave.tocaFechas(evento.desde(), evento.hasta())
+                || clave.ordenaPorPuntajeDeReservas());
+    }
+
+    public synchronized EstadisticasCacheDTO estadisticas() {
+        long a = aciertos.sum(), f = fallos.sum();
+        return EstadisticasCacheDTO.builder()
+                .entradas(entradas.size())
+                .capacidad(maxEntradas)
+                .aciertos(a)
+                .fallos(f)
+                .tasaAciertos(a + f == 0 ? 0.0 : (double) a / (a + f))
+                .expulsiones(expulsiones.sum())
+                .invalidaciones(invalidaciones.sum())
+                .build();
+    }
+
+    // ==================== Helpers ====================
+
+    private synchronized void invalidar(BiPredicate<ClaveBusqueda, Entrada> afecta) {
+        generacion++;
+        int antes = entradas.size();
+        entradas.entrySet().removeIf(en -> afecta.test(en.getKey(), en.getValue()));
+        int quitadas = antes - entradas.size();
+        if (quitadas > 0) {
+            invalidaciones.add(quitadas);
+            log.debug("Caché de búsquedas: {} entradas invalidadas", quitadas);
+        }
+    }
+
+    /** Quitar vencidas y, si sigue llena, las menos usadas recientemente */
+    private void recortar() {
+        if (entradas.size() <= maxEntradas) return;
+        long ahora = reloj.millis();
+        expulsar(en -> en.getValue().expiraEn() <= ahora);
+        Iterator<Map.Entry<ClaveBusqueda, Entrada>> it = entradas.entrySet().iterator();
+        while (entradas.size() > maxEntradas && it.hasNext()) {
+            it.next();
+            it.remove();
+            expulsiones.increment();
+        }
+    }
+
+    private void expulsar(Predicate<Map.Entry<ClaveBusqueda, Entrada>> condicion) {
+        int antes = entradas.size();
+        entradas.entrySet().removeIf(condicion);
+        expulsiones.add(antes - entradas.size());
+    }
+}
@@ -0,0 +1,142 @@
+package co.uniquindio.alojapp.persistencia.Cache;
+
+import co.uniquindio.alojapp.persistencia.Entity.RespuestaIdempotente;
+import co.uniquindio.alojapp.persistencia.Evento.Transacciones;
+import co.uniquindio.alojapp.persistencia.Repository.RespuestaIdempotenteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Respuestas guardadas por Idempotency-Key
+ * La fuente es la tabla respuestas_idempotentes (sobrevive reinicios y la comparten las instancias);
+ * delante hay una caché acotada en memoria (LRU) para que los reintentos no consulten la BD.
+ * Cada respuesta vence a las ttl-horas; las filas vencidas se borran periódicamente.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheIdempotencia {
+
+    private final RespuestaIdempotenteRepository repository;
+
+    @Value("${app.idempotencia.max-entradas:10000}")
+    private int maxEntradas;
+
+    @Value("${app.idempotencia.ttl-horas:24}")
+    private long ttlHoras;
+
+    private Clock reloj = Clock.systemDefaultZone();
+
+    /**
+     * Operación + usuario + valor del header: la misma clave de dos usuarios no choca
+     */
+    public record Clave(String operacion, Integer usuarioId, String clave) {
+    }
+
+    /**
+     * huella: SHA-256 de la solicitud original; respuesta: JSON de la respuesta original
+     */
+    public record Guardada(String huella, String respuesta) {
+    }
+
+    private record Entrada(Guardada guardada, LocalDateTime expira) {
+    }
+
+    private final LinkedHashMap<Clave, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Respuesta vigente para la clave: primero en memoria y, si no está, en la BD
+     */
+    public Optional<Guardada> buscar(Clave clave) {
+        LocalDateTime ahora = LocalDateTime.now(reloj);
+        synchronized (this) {
+            Entrada e = entradas.get(clave);
+            if (e != null && e.expira().isAfter(ahora)) return Optional.of(e.guardada());
+            if (e != null) entradas.remove(clave);
+        }
+
+        return repository.findByOperacionAndUsuarioIdAndClave(clave.operacion(), clave.usuarioId(), clave.clave())
+                .filter(r -> r.getFechaExpiracion().isAfter(ahora))
+                .map(r -> {
+                    Guardada g = new Guardada(r.getHuella(), r.getRespuesta());
+                    recordar(clave, g, r.getFechaExpiracion());
+                    return g;
+                });
+    }
+
+    /**
+     * Guardar la respuesta en la BD dentro de la transacción en curso (junto con la operación que la produjo)
+     * Pasa a memoria al confirmar. Si otra instancia ya guardó la misma clave, el flush falla por la
+     * restricción única y la transacción completa se deshace.
+     */
+    public void guardar(Clave clave, String huella, String respuesta) {
+        LocalDateTime ahora = LocalDateTime.now(reloj);
+        LocalDateTime expira = ahora.plusHours(ttlHoras);
+
+        // Una fila vencida que aún no se purgó se reutiliza; una vigente es de otra ejecución que ya confirmó
+        Optional<RespuestaIdempotente> existente = repository
+                .findByOperacionAndUsuarioIdAndClave(clave.operacion(), clave.usuarioId(), clave.clave());
+        if (existente.isPresent() && existente.get().getFechaExpiracion().isAfter(ahora)) {
+            throw new DataIntegrityViolationException("Idempotency-Key ya registrada: " + clave.clave());
+        }
+        RespuestaIdempotente fila = existente
+                .orElseGet(() -> RespuestaIdempotente.builder()
+                        .operacion(clave.operacion())
+                        .usuarioId(clave.usuarioId())
+                        .clave(clave.clave())
+                        .build());
+        fila.setHuella(huella);
+        fila.setRespuesta(respuesta);
+        fila.setFechaCreacion(ahora);
+        fila.setFechaExpiracion(expira);
+        repository.saveAndFlush(fila);
+
+        Guardada guardada = new Guardada(huella, respuesta);
+        Transacciones.despuesDelCommit(() -> recordar(clave, guardada, expira));
+    }
+
+    /**
+     * Borrar de la BD y de memoria las respuestas vencidas
+     */
+    @Scheduled(cron = "${app.idempotencia.purga-cron:0 20 * * * *}")
+    @Transactional
+    public int purgarVencidas() {
+        LocalDateTime ahora = LocalDateTime.now(reloj);
+        synchronized (this) {
+            entradas.values().removeIf(e -> !e.expira().isAfter(ahora));
+        }
+        int borradas = repository.deleteVencidas(ahora);
+        if (borradas > 0) {
+            log.info("Respuestas idempotentes vencidas borradas: {}", borradas);
+        }
+        return borradas;
+    }
+
+    public synchronized int entradasEnMemoria() {
+        return entradas.size();
+    }
+
+    // ==================== Helpers ====================
+
+    private synchronized void recordar(Clave clave, Guardada guardada, LocalDateTime expira) {
+        if (maxEntradas <= 0) return;
+        entradas.put(clave, new Entrada(guardada, expira));
+        Iterator<Map.Entry<Clave, Entrada>> it = entradas.entrySet().iterator();
+        while (entradas.size() > maxEntradas && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package co.uniquindio.alojapp.persistencia.Cache;
+
+import co.uniquindio.alojapp.negocio.DTO.request.BuscarAlojamientosRequest;
+import co.uniquindio.alojapp.persistencia.DAO.OrdenBusqueda;
+import co.uniquindio.alojapp.persistencia.Indice.AnalizadorTexto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Clave normalizada de una búsqueda: dos requests que devuelven lo mismo dan la misma clave
+ * (ciudad en minúsculas, servicios ordenados y sin repetir, precios sin ceros de más,
+ * dirección en mayúsculas, texto sin tildes ni espacios repetidos, listas vacías = null).
+ */
+public record ClaveBusqueda(
+        String ciudad,
+        BigDecimal precioMin,
+        BigDecimal precioMax,
+        Integer capacidadMinima,
+        List<Integer> serviciosIds,
+        LocalDate fechaCheckin,
+        LocalDate fechaCheckout,
+        String ordenarPor,
+        String direccionOrden,
+        Integer pagina,
+        Integer tamanoPagina,
+        String cursor,
+        Double latitud,
+        Double longitud,
+        Double radioKm,
+        Double latitudMin,
+        Double longitudMin,
+        Double latitudMax,
+        Double longitudMax,
+        String texto,
+        boolean facetas,
+        LocalDate ventanaInicio,
+        LocalDate ventanaFin,
+        Integer noches
+) {
+
+    public static ClaveBusqueda de(BuscarAlojamientosRequest r) {
+        List<Integer> servicios = r.getServiciosIds() == null ? null : r.getServiciosIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+        String texto = r.getTexto() == null ? null : AnalizadorTexto.plegar(r.getTexto()).trim().replaceAll("\\s+", " ");
+
+        return new ClaveBusqueda(
+                vacioANull(r.getCiudad() == null ? null : r.getCiudad().toLowerCase(Locale.ROOT)),
+                normalizar(r.getPrecioMin()),
+                normalizar(r.getPrecioMax()),
+                r.getCapacidadMinima(),
+                servicios == null || servicios.isEmpty() ? null : servicios,
+                r.getFechaCheckin(),
+                r.getFechaCheckout(),
+                r.getOrdenarPor(),
+                r.getDireccionOrden() == null ? null : r.getDireccionOrden().toUpperCase(Locale.ROOT),
+                r.getPagina(),
+                r.getTamanoPagina(),
+                r.getCursor(),
+                r.getLatitud(),
+                r.getLongitud(),
+                r.getRadioKm(),
+                r.getLatitudMin(),
+                r.getLongitudMin(),
+                r.getLatitudMax(),
+                r.getLongitudMax(),
+                vacioANull(texto),
+                Boolean.TRUE.equals(r.getFacetas()),
+                r.getVentanaInicio(),
+                r.getVentanaFin(),
+                r.getNoches()
+        );
+    }
+
+    /**
+     * Las fechas de la búsqueda (fijas o ventana flexible) tocan [desde, hasta] (ambos inclusive; null = cualquier fecha)
+     */
+    boolean tocaFechas(LocalDate desde, LocalDate hasta) {
+        return seCruzan(fechaCheckin, fechaCheckout, desde, hasta)
+                || seCruzan(ventanaInicio, ventanaFin, desde, hasta);
+    }
+
+    private static boolean seCruzan(LocalDate inicio, LocalDate fin, LocalDate desde, LocalDate hasta) {
+        if (inicio == null || fin == null) return false;
+        return (hasta == null || !inicio.isAfter(hasta))
+                && (desde == null || !fin.isBefore(desde));
+    }
+
+    /**
+     * Ordena por un puntaje que cambia con cada reserva o cancelación (popularidad, relevancia)
+     */
+    boolean ordenaPorPuntajeDeReservas() {
+        return OrdenBusqueda.POPULARIDAD.clave().equals(ordenarPor)
+                || OrdenBusqueda.RELEVANCIA.clave().equals(ordenarPor);
+    }
+
+    /**
+     * Un alojamiento de esta ciudad podría entrar o salir de los resultados
+     */
+    boolean filtraCiudad(String ciudadAlojamiento) {
+        return ciudad == null
+                || (ciudadAlojamiento != null && ciudadAlojamiento.toLowerCase(Locale.ROOT).contains(ciudad));
+    }
+
+    private static BigDecimal normalizar(BigDecimal valor) {
+        return valor == null ? null : valor.stripTrailingZeros();
+    }
+
+    private static String vacioANull(String valor) {
+        return valor == null || valor.isEmpty() ? null : valor;
+    }
+}
@@ -0,0 +1,109 @@
+package co.uniquindio.alojapp.persistencia.DAO;
+
+import co.uniquindio.alojapp.negocio.DTO.response.FacetaDTO;
+import co.uniquindio.alojapp.negocio.DTO.response.FacetasDTO;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cuenta las facetas de una búsqueda en una sola pasada
+ * Recibe filas (id, ciudad, precioNoche, capacidadMaxima, servicioId, servicioNombre);
+ * un alojamiento aparece una vez por servicio, así que ciudad/precio/capacidad
+ * solo se cuentan la primera vez que se ve su ID.
+ */
+final class AcumuladorFacetas {
+
+    /** Límites inferiores de los rangos de precio por noche (COP) */
+    static final long[] LIMITES_PRECIO = {0, 100_000, 200_000, 400_000, 800_000};
+    /** Límites inferiores de los rangos de capacidad */
+    static final int[] LIMITES_CAPACIDAD = {1, 3, 5, 7};
+
+    private static final NumberFormat PESOS = NumberFormat.getIntegerInstance(Locale.forLanguageTag("es-CO"));
+
+    private final Set<Integer> vistos = new HashSet<>();
+    private final Map<String, Long> ciudades = new HashMap<>();
+    private final long[] precios = new long[LIMITES_PRECIO.length];
+    private final long[] capacidades = new long[LIMITES_CAPACIDAD.length];
+    private final Map<Integer, Long> servicios = new HashMap<>();
+    private final Map<Integer, String> nombresServicio = new HashMap<>();
+
+    void agregar(Object[] fila) {
+        Integer id = (Integer) fila[0];
+        if (vistos.add(id)) {
+            String ciudad = (String) fila[1];
+            if (ciudad != null) ciudades.merge(ciudad.trim(), 1L, Long::sum);
+            BigDecimal precio = (BigDecimal) fila[2];
+            if (precio != null) precios[rango(precio.longValue(), LIMITES_PRECIO)]++;
+            Integer capacidad = (Integer) fila[3];
+            if (capacidad != null) capacidades[rango(capacidad, LIMITES_CAPACIDAD)]++;
+        }
+        Integer servicioId = (Integer) fila[4];
+        if (servicioId != null) {
+            servicios.merge(servicioId, 1L, Long::sum);
+            nombresServicio.putIfAbsent(servicioId, (String) fila[5]);
+        }
+    }
+
+    FacetasDTO resultado() {
+        List<FacetaDTO> facetasPrecio = new ArrayList<>();
+        for (int i = 0; i < LIMITES_PRECIO.length; i++) {
+            if (precios[i] == 0) continue;
+            boolean ultimo = i == LIMITES_PRECIO.length - 1;
+            String valor = LIMITES_PRECIO[i] + "-" + (ultimo ? "" : LIMITES_PRECIO[i + 1]);
+            String etiqueta = ultimo
+                    ? "Desde $" + PESOS.format(LIMITES_PRECIO[i])
+                    : "$" + PESOS.format(LIMITES_PRECIO[i]) + " - $" + PESOS.format(LIMITES_PRECIO[i + 1]);
+            facetasPrecio.add(new FacetaDTO(valor, etiqueta, precios[i]));
+        }
+
+        List<FacetaDTO> facetasCapacidad = new ArrayList<>();
+        for (int i = 0; i < LIMITES_CAPACIDAD.length; i++) {
+            if (capacidades[i] == 0) continue;
+            boolean ultimo = i == LIMITES_CAPACIDAD.length - 1;
+            int desde = LIMITES_CAPACIDAD[i];
+            String valor = desde + "-" + (ultimo ? "" : LIMITES_CAPACIDAD[i + 1] - 1);
+            String etiqueta = ultimo ? desde + "+ huéspedes" : desde + " - " + (LIMITES_CAPACIDAD[i + 1] - 1) + " huéspedes";
+            facetasCapacidad.add(new FacetaDTO(valor, etiqueta, capacidades[i]));
+        }
+
+        Map<String, Long> ciudadesOrdenadas = new LinkedHashMap<>();
+        ciudades.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> ciudadesOrdenadas.put(e.getKey(), e.getValue()));
+
+        return FacetasDTO.builder()
+                .total((long) vistos.size())
+                .ciudades(ciudadesOrdenadas.entrySet().stream()
+                        .map(e -> new FacetaDTO(e.getKey(), e.getKey(), e.getValue()))
+                        .toList())
+                .precios(facetasPrecio)
+                .capacidades(facetasCapacidad)
+                .servicios(servicios.entrySet().stream()
+                        .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed()
+                                .thenComparing(Map.Entry.comparingByKey()))
+                        .map(e -> new FacetaDTO(String.valueOf(e.getKey()), nombresServicio.get(e.getKey()), e.getValue()))
+                        .toList())
+                .build();
+    }
+
+    private static int rango(long valor, long[] limites) {
+        int i = limites.length - 1;
+        while (i > 0 && valor < limites[i]) i--;
+        return i;
+    }
+
+    private static int rango(int valor, int[] limites) {
+        int i = limites.length - 1;
+        while (i > 0 && valor < limites[i]) i--;
+        return i;
+    }
+}
@@ -1,29 +1,64 @@
 package co.uniquindio.alojapp.persistencia.DAO;
 
 import co.uniquindio.alojapp.negocio.DTO.AlojamientoDTO;
+import co.uniquindio.alojapp.negocio.DTO.AlojamientoResumenDTO;
+import co.uniquindio.alojapp.negocio.DTO.ClusterMapaDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasCacheDTO;
+import co.uniquindio.alojapp.negocio.DTO.ServicioAlojamientoDTO;
+import co.uniquindio.alojapp.negocio.DTO.SugerenciaCiudadDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.BuscarAlojamientosRequest;
+import co.uniquindio.alojapp.negocio.DTO.request.DisponibilidadLoteRequest;
+import co.uniquindio.alojapp.negocio.DTO.response.FacetasDTO;
 import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
+import co.uniquindio.alojapp.negocio.excepciones.BadRequestException;
+import co.uniquindio.alojapp.persistencia.Cache.CacheBusquedas;
 import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
 import co.uniquindio.alojapp.persistencia.Entity.Anfitrion;
 import co.uniquindio.alojapp.persistencia.Entity.ServicioAlojamiento;
 import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoAlojamiento;
+import co.uniquindio.alojapp.persistencia.Evento.AlojamientoModificadoEvent;
+import co.uniquindio.alojapp.persistencia.Indice.AnalizadorTexto;
+import co.uniquindio.alojapp.persistencia.Indice.ContadoresEstado;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceCiudades;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceClusters;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceDisponibilidad;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceGeografico;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceServicios;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceTexto;
+import co.uniquindio.alojapp.persistencia.Indice.PesoPopularidad;
+import co.uniquindio.alojapp.persistencia.Indice.PuntajeRelevancia;
 import co.uniquindio.alojapp.persistencia.Mapper.AlojamientoMapper;
 import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
 import co.uniquindio.alojapp.persistencia.Repository.AnfitrionRepository;
+import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
 import co.uniquindio.alojapp.persistencia.Repository.ServicioAlojamientoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * DAO para operaciones de persistencia de alojamientos
@@ -37,6 +72,18 @@ public class AlojamientoDAO {
     private final AnfitrionRepository anfitrionRepository;
     private final ServicioAlojamientoRepository servicioRepository;
     private final AlojamientoMapper alojamientoMapper;
+    private final ReservaRepository reservaRepository;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final IndiceGeografico indiceGeografico;
+    private final IndiceClusters indiceClusters;
+    private final IndiceTexto indiceTexto;
+    private final IndiceCiudades indiceCiudades;
+    private final IndiceServicios indiceServicios;
+    private final CacheBusquedas cacheBusquedas;
+    private final PesoPopularidad pesoPopularidad;
+    private final PuntajeRelevancia puntajeRelevancia;
+    private final ContadoresEstado contadores;
+    private final ApplicationEventPublisher eventos;
 
     /**
      * Crear nuevo alojamiento
@@ -72,6 +119,9 @@ public class AlojamientoDAO {
         }
 
         Alojamiento saved = alojamientoRepository.save(alojamiento);
+        contadores.cambio(ContadoresEstado.Entidad.ALOJAMIENTO, null, saved.getEstado());
+        puntajeRelevancia.recalcular(List.of(saved.getId()));
+        sincronizarIndices(saved, saved.getCiudad());
         return alojamientoMapper.toDTO(saved);
     }
 
@@ -102,13 +152,27 @@ public class AlojamientoDAO {
         return buildPaginacionResponse(page);
     }
 
+    /**
+     * Buscar alojamientos activos por cursor (más recientes primero)
+     * RN23, RN24: sin OFFSET ni COUNT, la página N cuesta lo mismo que la primera
+     */
+    public PaginacionResponse<AlojamientoDTO> findActivosPorCursor(String cursor, int tamanoPagina) {
+        CursorPaginacion c = CursorPaginacion.decodificar(cursor);
+        Pageable limite = PageRequest.of(0, tamanoPagina + 1);
+        List<Alojamiento> filas = c == null
+                ? alojamientoRepository.findActivosRecientes(limite)
+                : alojamientoRepository.findActivosDespuesDe(c.claveFecha(), c.id(), limite);
+
+        return CursorPaginacion.construirRespuesta(filas, tamanoPagina, c == null,
+                this::aDTOs,
+                a -> CursorPaginacion.codificar(a.getFechaCreacion(), a.getId()));
+    }
+
     /**
      * Buscar alojamientos por anfitrión
      */
     public List<AlojamientoDTO> findByAnfitrion(Integer anfitrionId) {
-        return alojamientoMapper.toDTOList(
-                alojamientoRepository.findByAnfitrionId(anfitrionId)
-        );
+        return aDTOs(alojamientoRepository.findByAnfitrionId(anfitrionId));
     }
 
     public PaginacionResponse<AlojamientoDTO> findByAnfitrion(Integer anfitrionId, int pagina, int tamanoPagina) {
@@ -121,36 +185,255 @@ public class AlojamientoDAO {
     /**
      * Búsqueda con filtros completos
      * RN25: Solo alojamientos disponibles en fechas seleccionadas
+     * Con texto y sin ordenarPor, los resultados salen por puntaje de coincidencia.
+     * Con facetas=true se agregan los conteos sobre todos los resultados.
+     * Los resultados se sirven desde CacheBusquedas mientras no cambien alojamientos o reservas que los afecten.
      */
     public PaginacionResponse<AlojamientoDTO> buscarConFiltros(BuscarAlojamientosRequest request) {
-        // Crear ordenamiento
-        Sort sort = Sort.by(
-                "DESC".equalsIgnoreCase(request.getDireccionOrden())
-                        ? Sort.Direction.DESC
-                        : Sort.Direction.ASC,
-                request.getOrdenarPor() != null ? request.getOrdenarPor() : "fechaCreacion"
-        );
+        return cacheBusquedas.obtener(request, () -> buscarConFiltrosSinCache(request));
+    }
+
+    /**
+     * Búsqueda en vista resumen: la página sale de una proyección (sin hidratar entidades)
+     * Mismos filtros que buscarConFiltros salvo cursor, facetas y fechas flexibles.
+     */
+    public PaginacionResponse<AlojamientoResumenDTO> buscarResumen(BuscarAlojamientosRequest request) {
+        Map<Integer, Double> coincidencias = coincidenciasDeTexto(request);
+        Set<Integer> incluidos = candidatos(request, coincidencias);
+        Pageable pageable = PageRequest.of(request.getPagina(), request.getTamanoPagina(), ordenDe(request));
+        if (incluidos != null && incluidos.isEmpty()) {
+            return respuestaPaginada(Page.empty(pageable), List.of());
+        }
+        Set<Integer> excluidos = alojamientosOcupados(request.getFechaCheckin(), request.getFechaCheckout());
+
+        if (coincidencias != null && request.getOrdenarPor() == null) {
+            PaginaPorCoincidencia pagina = paginaPorCoincidencia(request, coincidencias, excluidos, incluidos);
+            List<AlojamientoResumenDTO> contenido = pagina.ids().isEmpty()
+                    ? List.of()
+                    : enOrden(pagina.ids(), alojamientoRepository.findResumenPorIds(pagina.ids()), AlojamientoResumenDTO::getId);
+            return respuestaPaginada(pagina.con(contenido), contenido);
+        }
+
+        Page<AlojamientoResumenDTO> page = alojamientoRepository.buscarResumenConFiltros(
+                request.getCiudad(), request.getPrecioMin(), request.getPrecioMax(),
+                request.getCapacidadMinima(), arreglo(excluidos), arreglo(incluidos), pageable);
+        return respuestaPaginada(page, page.getContent());
+    }
+
+    /**
+     * Métricas de la caché de resultados de búsqueda
+     */
+    public EstadisticasCacheDTO estadisticasCacheBusquedas() {
+        return cacheBusquedas.estadisticas();
+    }
+
+    private PaginacionResponse<AlojamientoDTO> buscarConFiltrosSinCache(BuscarAlojamientosRequest request) {
+        Map<Integer, Double> coincidencias = coincidenciasDeTexto(request);
+        Set<Integer> incluidos = candidatos(request, coincidencias);
+        boolean sinCandidatos = incluidos != null && incluidos.isEmpty();
+        IndiceDisponibilidad.HuecosLibres huecos = !sinCandidatos && request.tieneFechasFlexibles()
+                ? huecosLibres(request)
+                : null;
+        Set<Integer> excluidos;
+        if (sinCandidatos) {
+            excluidos = null;
+        } else if (huecos != null) {
+            excluidos = huecos.sinHueco().isEmpty() ? null : huecos.sinHueco();
+        } else {
+            excluidos = alojamientosOcupados(request.getFechaCheckin(), request.getFechaCheckout());
+        }
+
+        PaginacionResponse<AlojamientoDTO> respuesta = request.getCursor() != null
+                ? buscarConFiltrosPorCursor(request, excluidos, incluidos)
+                : buscarConFiltrosPaginado(request, coincidencias, excluidos, incluidos);
+
+        if (huecos != null) {
+            respuesta.getContenido().forEach(dto -> dto.setPrimeraFechaLibre(
+                    huecos.primerInicio().getOrDefault(dto.getId(), request.getVentanaInicio())));
+        }
+
+        if (Boolean.TRUE.equals(request.getFacetas())) {
+            respuesta.setFacetas(sinCandidatos
+                    ? new AcumuladorFacetas().resultado()
+                    : calcularFacetas(request, excluidos, incluidos));
+        }
+        return respuesta;
+    }
 
+    private PaginacionResponse<AlojamientoDTO> buscarConFiltrosPaginado(BuscarAlojamientosRequest request,
+                                                                        Map<Integer, Double> coincidencias,
+                                                                        Set<Integer> excluidos,
+                                                                        Set<Integer> incluidos) {
         Pageable pageable = PageRequest.of(
                 request.getPagina(),
                 request.getTamanoPagina(),
-                sort
+                ordenDe(request)
         );
 
+        if (incluidos != null && incluidos.isEmpty()) {
+            return buildPaginacionResponse(Page.empty(pageable));
+        }
+
+        if (coincidencias != null && request.getOrdenarPor() == null) {
+            return buscarOrdenadoPorCoincidencia(request, coincidencias, excluidos, incluidos);
+        }
+
         Page<Alojamiento> page = alojamientoRepository.buscarConFiltros(
                 request.getCiudad(),
                 request.getPrecioMin(),
                 request.getPrecioMax(),
                 request.getCapacidadMinima(),
-                request.getServiciosIds(),
-                request.getFechaCheckin(),
-                request.getFechaCheckout(),
+                arreglo(excluidos),
+                arreglo(incluidos),
                 pageable
         );
 
         return buildPaginacionResponse(page);
     }
 
+    /**
+     * Facetas (ciudad, rango de precio, capacidad, servicio) de todos los resultados
+     * Una sola consulta con los mismos filtros, agregada en una pasada
+     */
+    private FacetasDTO calcularFacetas(BuscarAlojamientosRequest request,
+                                       Set<Integer> excluidos,
+                                       Set<Integer> incluidos) {
+        AcumuladorFacetas acumulador = new AcumuladorFacetas();
+        alojamientoRepository.buscarFilasFacetas(
+                request.getCiudad(), request.getPrecioMin(), request.getPrecioMax(),
+                request.getCapacidadMinima(), arreglo(excluidos), arreglo(incluidos))
+                .forEach(acumulador::agregar);
+        return acumulador.resultado();
+    }
+
+    /**
+     * Ordenar por puntaje de texto cargando solo las entidades de la página (ver paginaPorCoincidencia)
+     */
+    private PaginacionResponse<AlojamientoDTO> buscarOrdenadoPorCoincidencia(BuscarAlojamientosRequest request,
+                                                                             Map<Integer, Double> coincidencias,
+                                                                             Set<Integer> excluidos,
+                                                                             Set<Integer> incluidos) {
+        PaginaPorCoincidencia pagina = paginaPorCoincidencia(request, coincidencias, excluidos, incluidos);
+        List<Alojamiento> contenido = enOrden(pagina.ids(),
+                alojamientoRepository.findAllById(pagina.ids()), Alojamiento::getId);
+        return buildPaginacionResponse(pagina.con(contenido));
+    }
+
+    /**
+     * IDs de una página ordenada por puntaje de texto y total de resultados
+     */
+    private record PaginaPorCoincidencia(List<Integer> ids, Pageable pageable, int total) {
+        <T> Page<T> con(List<T> contenido) {
+            return new PageImpl<>(contenido, pageable, total);
+        }
+    }
+
+    /**
+     * Ordenar por puntaje de texto: la BD solo devuelve los IDs que pasan los filtros,
+     * se ordenan en memoria con el puntaje del índice y se recortan los de la página pedida
+     */
+    private PaginaPorCoincidencia paginaPorCoincidencia(BuscarAlojamientosRequest request,
+                                                        Map<Integer, Double> coincidencias,
+                                                        Set<Integer> excluidos,
+                                                        Set<Integer> incluidos) {
+        Set<Integer> filtrados = new HashSet<>(alojamientoRepository.buscarIdsConFiltros(
+                request.getCiudad(), request.getPrecioMin(), request.getPrecioMax(),
+                request.getCapacidadMinima(), arreglo(excluidos), arreglo(incluidos)));
+        List<Integer> ordenados = coincidencias.keySet().stream().filter(filtrados::contains).toList();
+
+        int desde = Math.min(ordenados.size(), request.getPagina() * request.getTamanoPagina());
+        int hasta = Math.min(ordenados.size(), desde + request.getTamanoPagina());
+        return new PaginaPorCoincidencia(ordenados.subList(desde, hasta),
+                PageRequest.of(request.getPagina(), request.getTamanoPagina()), ordenados.size());
+    }
+
+    /**
+     * Filas cargadas por IDs, devueltas en el orden de esos IDs (las que ya no existen se omiten)
+     */
+    private static <T> List<T> enOrden(List<Integer> ids, Iterable<T> filas, Function<T, Integer> id) {
+        Map<Integer, T> porId = new HashMap<>();
+        filas.forEach(f -> porId.put(id.apply(f), f));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Búsqueda con filtros por cursor (keyset sobre el campo de orden + id)
+     * Solo admite ordenar por fechaCreacion, precioNoche o capacidadMaxima.
+     */
+    private PaginacionResponse<AlojamientoDTO> buscarConFiltrosPorCursor(BuscarAlojamientosRequest request,
+                                                                         Set<Integer> excluidos,
+                                                                         Set<Integer> enZona) {
+        CursorPaginacion c = CursorPaginacion.decodificar(request.getCursor());
+        OrdenBusqueda pedido = OrdenBusqueda.de(request.getOrdenarPor());
+        OrdenBusqueda orden = pedido != null ? pedido : OrdenBusqueda.FECHA_CREACION;
+        Sort.Direction direccion = orden.direccion(request.getDireccionOrden());
+        boolean asc = direccion.isAscending();
+        Pageable limite = PageRequest.of(0, request.getTamanoPagina() + 1,
+                Sort.by(direccion, orden.propiedad()).and(Sort.by(direccion, "id")));
+
+        if (enZona != null && enZona.isEmpty()) {
+            return CursorPaginacion.construirRespuesta(List.<Alojamiento>of(), request.getTamanoPagina(), c == null,
+                    this::aDTOs, a -> null);
+        }
+
+        String ciudad = request.getCiudad();
+        BigDecimal precioMin = request.getPrecioMin();
+        BigDecimal precioMax = request.getPrecioMax();
+        Integer capacidad = request.getCapacidadMinima();
+        Integer[] fuera = arreglo(excluidos);
+        Integer[] dentro = arreglo(enZona);
+
+        Function<Alojamiento, Object> clave = switch (orden) {
+            case FECHA_CREACION -> Alojamiento::getFechaCreacion;
+            case PRECIO -> Alojamiento::getPrecioNoche;
+            case CAPACIDAD -> Alojamiento::getCapacidadMaxima;
+            default -> throw new BadRequestException("Orden no soportado en modo cursor: " + orden.clave());
+        };
+
+        // Una consulta por caso: sin cursor no hay condición de keyset, y con cursor cada dirección
+        // usa su comparación de fila para que PostgreSQL la resuelva como rango del índice
+        List<Alojamiento> filas;
+        if (c == null) {
+            filas = alojamientoRepository.buscarConFiltrosPrimeraPagina(
+                    ciudad, precioMin, precioMax, capacidad, fuera, dentro, limite);
+        } else {
+            filas = switch (orden) {
+                case FECHA_CREACION -> asc
+                        ? alojamientoRepository.buscarConFiltrosPorFechaCreacionAscDespuesDe(
+                                ciudad, precioMin, precioMax, capacidad, fuera, dentro, c.claveFecha(), c.id(), limite)
+                        : alojamientoRepository.buscarConFiltrosPorFechaCreacionDescDespuesDe(
+                                ciudad, precioMin, precioMax, capacidad, fuera, dentro, c.claveFecha(), c.id(), limite);
+                case PRECIO -> asc
+                        ? alojamientoRepository.buscarConFiltrosPorPrecioAscDespuesDe(
+                                ciudad, precioMin, precioMax, capacidad, fuera, dentro, c.claveDecimal(), c.id(), limite)
+                        : alojamientoRepository.buscarConFiltrosPorPrecioDescDespuesDe(
+                                ciudad, precioMin, precioMax, capacidad, fuera, dentro, c.claveDecimal(), c.id(), limite);
+                default -> asc
+                        ? alojamientoRepository.buscarConFiltrosPorCapacidadAscDespuesDe(
+                                ciudad, precioMin, precioMax, capacidad, fuera, dentro, c.claveEntero(), c.id(), limite)
+                        : alojamientoRepository.buscarConFiltrosPorCapacidadDescDespuesDe(
+                                ciudad, precioMin, precioMax, capacidad, fuera, dentro, c.claveEntero(), c.id(), limite);
+            };
+        }
+
+        return CursorPaginacion.construirRespuesta(filas, request.getTamanoPagina(), c == null,
+                this::aDTOs,
+                a -> CursorPaginacion.codificar(clave.apply(a), a.getId()));
+    }
+
+    /**
+     * Clusters del mapa (cantidad, centroide y precio mínimo) para un rectángulo y zoom
+     * Se leen del quadtree; si aún no está construido se agrupan las filas de la franja de latitud.
+     */
+    public List<ClusterMapaDTO> findClusters(double latitudMin, double longitudMin,
+                                             double latitudMax, double longitudMax, int zoom) {
+        return indiceClusters.clusters(latitudMin, longitudMin, latitudMax, longitudMax, zoom)
+                .orElseGet(() -> IndiceClusters.agrupar(
+                        alojamientoRepository.findPuntosMapaActivosEntreLatitudes(
+                                BigDecimal.valueOf(latitudMin), BigDecimal.valueOf(latitudMax)),
+                        latitudMin, longitudMin, latitudMax, longitudMax, zoom));
+    }
+
     /**
      * Verificar disponibilidad
      * RN14: Validar no solapamiento
@@ -158,7 +441,181 @@ public class AlojamientoDAO {
     public boolean verificarDisponibilidad(Integer alojamientoId,
                                            java.time.LocalDate fechaCheckin,
                                            java.time.LocalDate fechaCheckout) {
-        return alojamientoRepository.estaDisponible(alojamientoId, fechaCheckin, fechaCheckout);
+        return indiceDisponibilidad.estaDisponible(alojamientoId, fechaCheckin, fechaCheckout)
+                .orElseGet(() -> alojamientoRepository.estaDisponible(alojamientoId, fechaCheckin, fechaCheckout));
+    }
+
+    /**
+     * Noches ocupadas de un alojamiento entre desde y hasta (inclusive), una por carácter
+     * Del índice si cubre el rango; si no, con una consulta ordenada de sus reservas activas
+     */
+    public String calendario(Integer alojamientoId, LocalDate desde, LocalDate hasta) {
+        return indiceDisponibilidad.nochesOcupadas(alojamientoId, desde, hasta)
+                .orElseGet(() -> IndiceDisponibilidad.nochesDesdeRangos(
+                        reservaRepository.findRangosActivosDeAlojamientoEntre(alojamientoId, desde, hasta), desde, hasta));
+    }
+
+    /**
+     * Verificar disponibilidad de varias consultas (alojamientoId, checkin, checkout) a la vez
+     * Lo que cubre el índice se responde en memoria; el resto con una sola consulta de rangos
+     * (misma semántica de solapamiento que AlojamientoRepository.estaDisponible).
+     * Respuesta en el orden de las consultas, con clave "alojamientoId:checkin:checkout".
+     */
+    public Map<String, Boolean> verificarDisponibilidadLote(List<DisponibilidadLoteRequest.Consulta> consultas) {
+        Map<String, Boolean> resultado = new LinkedHashMap<>();
+        List<DisponibilidadLoteRequest.Consulta> pendientes = new ArrayList<>();
+        for (DisponibilidadLoteRequest.Consulta c : consultas) {
+            Optional<Boolean> libre = indiceDisponibilidad.estaDisponible(c.getAlojamientoId(), c.getCheckin(), c.getCheckout());
+            resultado.put(c.clave(), libre.orElse(null));
+            if (libre.isEmpty()) pendientes.add(c);
+        }
+        if (pendientes.isEmpty()) {
+            return resultado;
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        LocalDate desde = null, hasta = null;
+        for (DisponibilidadLoteRequest.Consulta c : pendientes) {
+            ids.add(c.getAlojamientoId());
+            desde = desde == null || c.getCheckin().isBefore(desde) ? c.getCheckin() : desde;
+            hasta = hasta == null || c.getCheckout().isAfter(hasta) ? c.getCheckout() : hasta;
+        }
+        Map<Integer, List<LocalDate[]>> rangos = new HashMap<>();
+        for (Object[] fila : reservaRepository.findRangosActivosDeAlojamientosEntre(ids, desde, hasta)) {
+            rangos.computeIfAbsent((Integer) fila[0], k -> new ArrayList<>())
+                    .add(new LocalDate[]{(LocalDate) fila[1], (LocalDate) fila[2]});
+        }
+        for (DisponibilidadLoteRequest.Consulta c : pendientes) {
+            boolean libre = rangos.getOrDefault(c.getAlojamientoId(), List.of()).stream()
+                    .noneMatch(r -> r[0].isBefore(c.getCheckout()) && c.getCheckin().isBefore(r[1]));
+            resultado.put(c.clave(), libre);
+        }
+        return resultado;
+    }
+
+    /**
+     * Alojamientos a excluir por fechas (null = no excluir ninguno)
+     * RN25: se resuelve con el índice; si las fechas salen del horizonte se consulta la BD
+     */
+    private Set<Integer> alojamientosOcupados(LocalDate fechaCheckin, LocalDate fechaCheckout) {
+        if (fechaCheckin == null || fechaCheckout == null) {
+            return null;
+        }
+        Set<Integer> ocupados = indiceDisponibilidad.alojamientosOcupados(fechaCheckin, fechaCheckout)
+                .orElseGet(() -> new HashSet<>(reservaRepository.findAlojamientosOcupados(fechaCheckin, fechaCheckout)));
+        return ocupados.isEmpty() ? null : ocupados;
+    }
+
+    /**
+     * Fechas flexibles (RN25): qué alojamientos no tienen las noches seguidas en la ventana y
+     * desde cuándo las tienen los demás. Índice en memoria o, fuera de su horizonte, rangos de la BD.
+     */
+    private IndiceDisponibilidad.HuecosLibres huecosLibres(BuscarAlojamientosRequest request) {
+        LocalDate inicio = request.getVentanaInicio();
+        LocalDate fin = request.getVentanaFin();
+        int noches = request.getNoches();
+        return indiceDisponibilidad.huecosLibres(inicio, fin, noches)
+                .orElseGet(() -> IndiceDisponibilidad.huecosDesdeRangos(
+                        reservaRepository.findRangosActivosEntre(inicio, fin), inicio, fin, noches));
+    }
+
+    /**
+     * Puntajes de texto de mayor a menor (null = la búsqueda no trae texto)
+     */
+    private Map<Integer, Double> coincidenciasDeTexto(BuscarAlojamientosRequest request) {
+        if (!StringUtils.hasText(request.getTexto())) return null;
+        return indiceTexto.buscar(request.getTexto()).orElseGet(() -> coincidenciasEnBD(request.getTexto()));
+    }
+
+    /**
+     * Respaldo mientras el índice de texto se construye: activos que contienen todos los términos.
+     * LIKE sobre la raíz de cada término (la BD no pliega tildes), sin puntaje y en orden de id.
+     */
+    private Map<Integer, Double> coincidenciasEnBD(String texto) {
+        Set<Integer> ids = null;
+        for (String termino : new LinkedHashSet<>(AnalizadorTexto.terminos(texto))) {
+            ids = intersectar(ids, new HashSet<>(alojamientoRepository.findIdsActivosConTermino(termino)));
+            if (ids.isEmpty()) break;
+        }
+        Map<Integer, Double> resultado = new LinkedHashMap<>();
+        if (ids != null) ids.stream().sorted().forEach(id -> resultado.put(id, 0.0));
+        return resultado;
+    }
+
+    /**
+     * IDs a los que se restringe la consulta: zona del mapa ∩ coincidencias de texto ∩ servicios
+     * (null = sin restricción; vacío = no hay resultados)
+     */
+    private Set<Integer> candidatos(BuscarAlojamientosRequest request, Map<Integer, Double> coincidencias) {
+        Set<Integer> resultado = alojamientosEnZona(request);
+        if (coincidencias != null) {
+            resultado = intersectar(resultado, coincidencias.keySet());
+        }
+        if (request.getServiciosIds() != null && !request.getServiciosIds().isEmpty()) {
+            Set<Integer> pedidos = new HashSet<>(request.getServiciosIds());
+            resultado = intersectar(resultado, indiceServicios.conTodos(pedidos)
+                    .orElseGet(() -> new HashSet<>(
+                            alojamientoRepository.findIdsActivosConTodosLosServicios(pedidos, pedidos.size()))));
+        }
+        return resultado;
+    }
+
+    private static Set<Integer> intersectar(Set<Integer> actual, Set<Integer> otro) {
+        if (actual == null) {
+            return new HashSet<>(otro);
+        }
+        actual.retainAll(otro);
+        return actual;
+    }
+
+    /**
+     * Conjunto de IDs como un solo parámetro de arreglo (null = vacío: nada que excluir / sin restricción)
+     * Los conjuntos de los índices no tienen tope; como lista IN serían un parámetro por ID.
+     */
+    private static Integer[] arreglo(Set<Integer> ids) {
+        return ids == null ? new Integer[0] : ids.toArray(Integer[]::new);
+    }
+
+    /**
+     * Alojamientos dentro de la zona pedida (null = sin filtro geográfico)
+     * Radio y rectángulo se pueden combinar: se devuelve la intersección.
+     * Se resuelve con el índice geográfico; si aún no está listo se consulta la BD por franja de latitud.
+     */
+    private Set<Integer> alojamientosEnZona(BuscarAlojamientosRequest request) {
+        Set<Integer> enZona = null;
+
+        if (request.tieneRadio()) {
+            double lat = request.getLatitud(), lon = request.getLongitud(), radio = request.getRadioKm();
+            enZona = indiceGeografico.enRadio(lat, lon, radio).orElseGet(() -> {
+                double[] caja = IndiceGeografico.cajaDelRadio(lat, lon, radio);
+                return posicionesEntre(caja[0], caja[2], p ->
+                        IndiceGeografico.distanciaKm(lat, lon, p[0], p[1]) <= radio);
+            });
+        }
+
+        if (request.tieneRectangulo()) {
+            double latMin = request.getLatitudMin(), lonMin = request.getLongitudMin();
+            double latMax = request.getLatitudMax(), lonMax = request.getLongitudMax();
+            Set<Integer> enRectangulo = indiceGeografico.enRectangulo(latMin, lonMin, latMax, lonMax)
+                    .orElseGet(() -> posicionesEntre(latMin, latMax, p ->
+                            IndiceGeografico.dentro(p[0], p[1], latMin, lonMin, latMax, lonMax)));
+            if (enZona == null) {
+                enZona = enRectangulo;
+            } else {
+                enZona.retainAll(enRectangulo);
+            }
+        }
+        return enZona;
+    }
+
+    private Set<Integer> posicionesEntre(double latMin, double latMax, Predicate<double[]> filtro) {
+        Set<Integer> ids = new HashSet<>();
+        for (Object[] fila : alojamientoRepository.findPosicionesActivasEntreLatitudes(
+                BigDecimal.valueOf(latMin), BigDecimal.valueOf(latMax))) {
+            double[] p = {((BigDecimal) fila[1]).doubleValue(), ((BigDecimal) fila[2]).doubleValue()};
+            if (filtro.test(p)) ids.add((Integer) fila[0]);
+        }
+        return ids;
     }
 
     /**
@@ -169,6 +626,8 @@ public class AlojamientoDAO {
         return alojamientoRepository.findById(id)
                 .filter(a -> a.getAnfitrion().getId().equals(anfitrionId)) // Validar propietario
                 .map(alojamiento -> {
+                    String ciudadAnterior = alojamiento.getCiudad();
+                    EstadoAlojamiento estadoAnterior = alojamiento.getEstado();
                     if (request.getTitulo() != null) {
                         alojamiento.setTitulo(request.getTitulo());
                     }
@@ -181,6 +640,10 @@ public class AlojamientoDAO {
                     if (request.getDireccion() != null) {
                         alojamiento.setDireccion(request.getDireccion());
                     }
+                    if (request.getLatitud() != null && request.getLongitud() != null) {
+                        alojamiento.setLatitud(request.getLatitud());
+                        alojamiento.setLongitud(request.getLongitud());
+                    }
                     if (request.getPrecioNoche() != null) {
                         alojamiento.setPrecioNoche(request.getPrecioNoche());
                     }
@@ -197,10 +660,76 @@ public class AlojamientoDAO {
 
                     alojamiento.setFechaActualizacion(LocalDateTime.now());
                     Alojamiento updated = alojamientoRepository.save(alojamiento);
+                    contadores.cambio(ContadoresEstado.Entidad.ALOJAMIENTO, estadoAnterior, updated.getEstado());
+                    sincronizarIndices(updated, ciudadAnterior);
                     return alojamientoMapper.toDTO(updated);
                 });
     }
 
+    /**
+     * Recalcular suma, cantidad y distribución de calificaciones desde los comentarios
+     * soloPendientes = true: solo alojamientos que aún no tienen agregados
+     */
+    public int recalcularCalificaciones(boolean soloPendientes) {
+        return alojamientoRepository.recalcularCalificaciones(soloPendientes);
+    }
+
+    /**
+     * Corregir los puntajes de popularidad que se desviaron de las reservas
+     * Lee primero los puntajes y luego las reservas: si una reserva se confirma entre ambas
+     * lecturas, el puntaje ya cambió y fijarPopularidad no lo pisa (queda para la próxima pasada).
+     */
+    public int reconciliarPopularidad() {
+        List<Object[]> guardados = alojamientoRepository.findPuntajesPopularidad();
+
+        Map<Integer, Double> calculados = new HashMap<>();
+        for (Object[] fila : reservaRepository.contarVigentesPorAlojamientoYDia()) {
+            double peso = pesoPopularidad.peso((LocalDate) fila[1]) * ((Number) fila[2]).longValue();
+            calculados.merge((Integer) fila[0], peso, Double::sum);
+        }
+
+        int corregidos = 0;
+        for (Object[] fila : guardados) {
+            Integer id = (Integer) fila[0];
+            Double guardado = (Double) fila[1];
+            double calculado = calculados.getOrDefault(id, 0.0);
+            if (guardado == null || PesoPopularidad.difieren(guardado, calculado)) {
+                corregidos += alojamientoRepository.fijarPopularidad(id, guardado != null ? guardado : -1.0, calculado);
+            }
+        }
+        return corregidos;
+    }
+
+    public boolean hayPopularidadPendiente() {
+        return alojamientoRepository.existsByPuntajePopularidadIsNull();
+    }
+
+    /**
+     * Recalcular el puntaje de relevancia del siguiente lote de alojamientos con id mayor que desdeId
+     * (la novedad y la popularidad envejecen a diario). Debe llamarse dentro de una transacción.
+     */
+    public PuntajeRelevancia.Lote recalcularRelevanciaLote(Integer desdeId, int tamanoLote) {
+        return puntajeRelevancia.recalcularLote(desdeId, tamanoLote);
+    }
+
+    public boolean hayRelevanciaPendiente() {
+        return alojamientoRepository.existsByPuntajeRelevanciaIsNull();
+    }
+
+    /**
+     * Cambiar la imagen de portada
+     */
+    public boolean actualizarPortada(Integer id, String urlPortada) {
+        return alojamientoRepository.findById(id)
+                .map(alojamiento -> {
+                    alojamiento.setImagenPrincipalUrl(urlPortada);
+                    alojamientoRepository.save(alojamiento);
+                    sincronizarIndices(alojamiento, alojamiento.getCiudad());
+                    return true;
+                })
+                .orElse(false);
+    }
+
     /**
      * Eliminar alojamiento (soft delete)
      * RN21: Solo si no tiene reservas futuras
@@ -216,8 +745,11 @@ public class AlojamientoDAO {
                     }
 
                     // Soft delete
+                    EstadoAlojamiento estadoAnterior = alojamiento.getEstado();
                     alojamiento.setEstado(EstadoAlojamiento.ELIMINADO);
                     alojamientoRepository.save(alojamiento);
+                    contadores.cambio(ContadoresEstado.Entidad.ALOJAMIENTO, estadoAnterior, EstadoAlojamiento.ELIMINADO);
+                    sincronizarIndices(alojamiento, alojamiento.getCiudad());
                     return true;
                 })
                 .orElse(false);
@@ -225,6 +757,7 @@ public class AlojamientoDAO {
 
     /**
      * Buscar alojamientos más populares
+     * Lectura top-K sobre el puntaje guardado (índice estado, puntaje_popularidad)
      */
     public PaginacionResponse<AlojamientoDTO> findMasPopulares(int pagina, int tamanoPagina) {
         Pageable pageable = PageRequest.of(pagina, tamanoPagina);
@@ -247,6 +780,14 @@ public class AlojamientoDAO {
         return buildPaginacionResponse(page);
     }
 
+    /**
+     * Sugerencias de ciudades por prefijo (autocompletado), servidas desde el trie sin consultar la BD
+     * Durante el arranque, mientras el trie se construye, la lista sale vacía.
+     */
+    public List<SugerenciaCiudadDTO> sugerirCiudades(String prefijo, int limite) {
+        return indiceCiudades.sugerir(prefijo, limite).orElseGet(List::of);
+    }
+
     /**
      * Contar alojamientos por ciudad
      */
@@ -262,18 +803,88 @@ public class AlojamientoDAO {
     }
 
     /**
-     * Contar total de alojamientos activos
+     * Contar total de alojamientos activos (contador en memoria; COUNT en BD si aún no está listo)
      */
     public long countActivos() {
-        return alojamientoRepository.findByEstado(EstadoAlojamiento.ACTIVO).size();
+        return contadores.contar(ContadoresEstado.Entidad.ALOJAMIENTO, EstadoAlojamiento.ACTIVO)
+                .orElseGet(() -> alojamientoRepository.countByEstado(EstadoAlojamiento.ACTIVO));
+    }
+
+    /**
+     * Propagar a los índices en memoria el estado del alojamiento (se aplica al confirmar la transacción)
+     * Los que no están ACTIVOS se retiran de todos. También avisa a la caché de búsquedas
+     * con la ciudad anterior y la actual.
+     */
+    private void sincronizarIndices(Alojamiento a, String ciudadAnterior) {
+        boolean activo = a.getEstado() == EstadoAlojamiento.ACTIVO;
+        indiceGeografico.actualizar(a.getId(), a.getLatitud(), a.getLongitud(), activo);
+        indiceClusters.actualizar(a.getId(), a.getLatitud(), a.getLongitud(), a.getPrecioNoche(), activo);
+        indiceTexto.actualizar(a.getId(), a.getTitulo(), a.getDescripcion(), activo);
+        indiceCiudades.actualizar(a.getId(), a.getCiudad(), activo);
+        indiceServicios.actualizar(a.getId(), activo
+                ? a.getServicios().stream().map(ServicioAlojamiento::getId).toList()
+                : List.of(), activo);
+
+        Set<String> ciudades = new HashSet<>();
+        if (ciudadAnterior != null) ciudades.add(ciudadAnterior);
+        if (a.getCiudad() != null) ciudades.add(a.getCiudad());
+        eventos.publishEvent(new AlojamientoModificadoEvent(a.getId(), ciudades));
+    }
+
+    /**
+     * Orden de la búsqueda paginada: ordenarPor del catálogo (por defecto fechaCreacion) en la dirección pedida,
+     * con id para desempatar igual que los índices (estado, columna, alojamiento_id)
+     */
+    private static Sort ordenDe(BuscarAlojamientosRequest request) {
+        OrdenBusqueda pedido = OrdenBusqueda.de(request.getOrdenarPor());
+        OrdenBusqueda orden = pedido != null ? pedido : OrdenBusqueda.FECHA_CREACION;
+        return Sort.by(orden.direccion(request.getDireccionOrden()), orden.propiedad(), "id");
+    }
+
+    /**
+     * Mapear un listado sin N+1: las columnas salen de cada fila y cada relación
+     * (imágenes, servicios, nombre del anfitrión) se carga con una sola consulta IN para todo el listado.
+     * Total: 3 consultas sin importar el tamaño de la página.
+     */
+    private List<AlojamientoDTO> aDTOs(List<Alojamiento> alojamientos) {
+        if (alojamientos.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Integer> ids = alojamientos.stream().map(Alojamiento::getId).toList();
+
+        Map<Integer, List<String>> imagenes = new HashMap<>();
+        for (Object[] fila : alojamientoRepository.findUrlsImagenesDe(ids)) {
+            imagenes.computeIfAbsent((Integer) fila[0], k -> new ArrayList<>()).add((String) fila[1]);
+        }
+        Map<Integer, List<ServicioAlojamientoDTO>> servicios = new HashMap<>();
+        for (Object[] fila : alojamientoRepository.findServiciosDe(ids)) {
+            servicios.computeIfAbsent((Integer) fila[0], k -> new ArrayList<>())
+                    .add(new ServicioAlojamientoDTO((Integer) fila[1], (String) fila[2], (String) fila[3]));
+        }
+        Map<Integer, String> anfitriones = new HashMap<>();
+        for (Object[] fila : alojamientoRepository.findNombresAnfitrionDe(ids)) {
+            anfitriones.put((Integer) fila[0], (String) fila[1]);
+        }
+
+        List<AlojamientoDTO> dtos = new ArrayList<>(alojamientos.size());
+        for (Alojamiento a : alojamientos) {
+            AlojamientoDTO dto = alojamientoMapper.toDTOSinRelaciones(a);
+            dto.setImagenes(imagenes.getOrDefault(a.getId(), new ArrayList<>()));
+            dto.setServicios(servicios.getOrDefault(a.getId(), new ArrayList<>()));
+            dto.setAnfitrionNombre(anfitriones.get(a.getId()));
+            dtos.add(dto);
+        }
+        return dtos;
     }
 
     // Método helper para construir respuesta paginada
     private PaginacionResponse<AlojamientoDTO> buildPaginacionResponse(Page<Alojamiento> page) {
-        List<AlojamientoDTO> dtos = alojamientoMapper.toDTOList(page.getContent());
+        return respuestaPaginada(page, aDTOs(page.getContent()));
+    }
 
-        return PaginacionResponse.<AlojamientoDTO>builder()
-                .contenido(dtos)
+    private static <T> PaginacionResponse<T> respuestaPaginada(Page<?> page, List<T> contenido) {
+        return PaginacionResponse.<T>builder()
+                .contenido(contenido)
                 .paginaActual(page.getNumber())
                 .tamanoPagina(page.getSize())
                 .totalElementos(page.getTotalElements())
@@ -4,6 +4,7 @@ import co.uniquindio.alojapp.negocio.DTO.AnfitrionDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.RegistroAnfitrionRequest;
 import co.uniquindio.alojapp.persistencia.Entity.Anfitrion;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Indice.PuntajeRelevancia;
 import co.uniquindio.alojapp.persistencia.Mapper.AnfitrionMapper;
 import co.uniquindio.alojapp.persistencia.Repository.AnfitrionRepository;
 import co.uniquindio.alojapp.persistencia.Repository.UsuarioRepository;
@@ -25,6 +26,7 @@ public class AnfitrionDAO {
     private final AnfitrionRepository anfitrionRepository;
     private final UsuarioRepository usuarioRepository;
     private final AnfitrionMapper anfitrionMapper;
+    private final PuntajeRelevancia puntajeRelevancia;
 
     /**
      * Crear nuevo anfitrión
@@ -119,6 +121,7 @@ public class AnfitrionDAO {
                 .map(anfitrion -> {
                     anfitrion.setVerificado(true);
                     Anfitrion updated = anfitrionRepository.save(anfitrion);
+                    puntajeRelevancia.recalcularDeAnfitrion(updated.getId());
                     return anfitrionMapper.toDTO(updated);
                 });
     }
@@ -7,12 +7,15 @@ import co.uniquindio.alojapp.persistencia.Entity.Comentario;
 import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
 import co.uniquindio.alojapp.persistencia.Entity.Reserva;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Evento.AlojamientoModificadoEvent;
+import co.uniquindio.alojapp.persistencia.Indice.PuntajeRelevancia;
 import co.uniquindio.alojapp.persistencia.Mapper.ComentarioMapper;
 import co.uniquindio.alojapp.persistencia.Repository.ComentarioRepository;
 import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
 import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
 import co.uniquindio.alojapp.persistencia.Repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -20,7 +23,9 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * DAO para operaciones de persistencia de comentarios
@@ -35,6 +40,8 @@ public class ComentarioDAO {
     private final AlojamientoRepository alojamientoRepository;
     private final UsuarioRepository usuarioRepository;
     private final ComentarioMapper comentarioMapper;
+    private final PuntajeRelevancia puntajeRelevancia;
+    private final ApplicationEventPublisher eventos;
 
     /**
      * Crear nuevo comentario
@@ -73,9 +80,36 @@ public class ComentarioDAO {
                 .build();
 
         Comentario saved = comentarioRepository.save(comentario);
+        ajustarCalificaciones(alojamiento.getId(), null, request.getCalificacion());
         return comentarioMapper.toDTO(saved);
     }
 
+    /**
+     * Mantener los agregados de calificación del alojamiento con un UPDATE atómico
+     * anterior = null: comentario nuevo; nueva = null: comentario eliminado
+     */
+    public void ajustarCalificaciones(Integer alojamientoId, Integer anterior, Integer nueva) {
+        if (alojamientoId == null || Objects.equals(anterior, nueva)) return;
+        int[] deltas = new int[5];
+        long deltaSuma = 0;
+        int deltaCantidad = 0;
+        if (anterior != null) {
+            deltas[anterior - 1]--;
+            deltaSuma -= anterior;
+            deltaCantidad--;
+        }
+        if (nueva != null) {
+            deltas[nueva - 1]++;
+            deltaSuma += nueva;
+            deltaCantidad++;
+        }
+        alojamientoRepository.ajustarCalificaciones(alojamientoId, deltaSuma, deltaCantidad,
+                deltas[0], deltas[1], deltas[2], deltas[3], deltas[4]);
+        puntajeRelevancia.recalcular(List.of(alojamientoId));
+        // Las búsquedas en caché que lo muestran tienen el promedio anterior
+        eventos.publishEvent(new AlojamientoModificadoEvent(alojamientoId, Set.of()));
+    }
+
     /**
      * Buscar comentario por ID
      */
@@ -109,6 +143,21 @@ public class ComentarioDAO {
         return buildPaginacionResponse(page);
     }
 
+    /**
+     * Buscar comentarios por alojamiento por cursor (sin COUNT)
+     */
+    public PaginacionResponse<ComentarioDTO> findByAlojamientoPorCursor(Integer alojamientoId, String cursor, int tamanoPagina) {
+        CursorPaginacion c = CursorPaginacion.decodificar(cursor);
+        Pageable limite = PageRequest.of(0, tamanoPagina + 1);
+        List<Comentario> filas = c == null
+                ? comentarioRepository.findByAlojamientoIdRecientes(alojamientoId, limite)
+                : comentarioRepository.findByAlojamientoIdDespuesDe(alojamientoId, c.claveFecha(), c.id(), limite);
+
+        return CursorPaginacion.construirRespuesta(filas, tamanoPagina, c == null,
+                comentarioMapper::toDTOList,
+                com -> CursorPaginacion.codificar(com.getFechaComentario(), com.getId()));
+    }
+
     /**
      * Buscar comentarios por usuario
      */
@@ -0,0 +1,86 @@
+package co.uniquindio.alojapp.persistencia.DAO;
+
+import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
+import co.uniquindio.alojapp.negocio.excepciones.BadRequestException;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cursor opaco para paginación por keyset
+ * Codifica la clave de orden y el ID del último elemento devuelto ("clave|id" en Base64 URL-safe),
+ * de modo que la página siguiente se pide con "clave > ultima" en lugar de OFFSET y sin COUNT(*).
+ */
+record CursorPaginacion(String clave, Integer id) {
+
+    private static final String SEPARADOR = "|";
+
+    /**
+     * Decodificar el cursor recibido; null si es la primera página
+     */
+    static CursorPaginacion decodificar(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String plano = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int corte = plano.lastIndexOf(SEPARADOR);
+            return new CursorPaginacion(plano.substring(0, corte), Integer.valueOf(plano.substring(corte + 1)));
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+    }
+
+    static String codificar(Object clave, Integer id) {
+        String plano = (clave != null ? clave.toString() : "") + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+
+    LocalDateTime claveFecha() {
+        return parsear(LocalDateTime::parse);
+    }
+
+    BigDecimal claveDecimal() {
+        return parsear(BigDecimal::new);
+    }
+
+    Integer claveEntero() {
+        return parsear(Integer::valueOf);
+    }
+
+    private <T> T parsear(Function<String, T> conversor) {
+        try {
+            return conversor.apply(clave);
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+    }
+
+    /**
+     * Construye la respuesta de una página por keyset
+     * "filas" trae tamano + 1 elementos como máximo: el sobrante solo indica que hay más.
+     */
+    static <E, D> PaginacionResponse<D> construirRespuesta(List<E> filas,
+                                                           int tamano,
+                                                           boolean esPrimera,
+                                                           Function<List<E>, List<D>> mapper,
+                                                           Function<E, String> cursorDe) {
+        boolean hayMas = filas.size() > tamano;
+        List<E> pagina = hayMas ? filas.subList(0, tamano) : filas;
+
+        return PaginacionResponse.<D>builder()
+                .contenido(mapper.apply(pagina))
+                .tamanoPagina(tamano)
+                .esPrimera(esPrimera)
+                .esUltima(!hayMas)
+                .tieneSiguiente(hayMas)
+                .tieneAnterior(!esPrimera)
+                .siguienteCursor(hayMas ? cursorDe.apply(pagina.get(pagina.size() - 1)) : null)
+                .build();
+    }
+}
@@ -4,11 +4,13 @@ import co.uniquindio.alojapp.negocio.DTO.ImagenDTO;
 import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
 import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
 import co.uniquindio.alojapp.persistencia.Entity.Imagen;
+import co.uniquindio.alojapp.persistencia.Evento.AlojamientoModificadoEvent;
 import co.uniquindio.alojapp.persistencia.Mapper.ImagenMapper;
 import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
 import co.uniquindio.alojapp.persistencia.Repository.ImagenRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Repository;
 
@@ -31,6 +33,7 @@ public class ImagenDAO {
     private final ImagenRepository imagenRepository;
     private final AlojamientoRepository alojamientoRepository;
     private final ImagenMapper imagenMapper;
+    private final ApplicationEventPublisher eventos;
 
     // ===============================
     // Consultas
@@ -116,6 +119,7 @@ public class ImagenDAO {
                 .build();
 
         Imagen guardada = imagenRepository.save(entidad);
+        publicarCambio(alojamientoId);
         return imagenMapper.toDTO(guardada);
     }
 
@@ -149,6 +153,7 @@ public class ImagenDAO {
         }
 
         List<Imagen> guardadas = imagenRepository.saveAll(aGuardar);
+        publicarCambio(alojamientoId);
         return imagenMapper.toDTOList(guardadas);
     }
 
@@ -165,7 +170,9 @@ public class ImagenDAO {
         if (descripcion != null) img.setDescripcion(descripcion);
         if (nuevoOrden != null && nuevoOrden > 0) img.setOrden(nuevoOrden);
 
-        return imagenMapper.toDTO(imagenRepository.save(img));
+        Imagen guardada = imagenRepository.save(img);
+        publicarCambio(img.getAlojamiento().getId());
+        return imagenMapper.toDTO(guardada);
     }
 
     /**
@@ -193,6 +200,7 @@ public class ImagenDAO {
         }
 
         List<Imagen> guardadas = imagenRepository.saveAll(actuales);
+        publicarCambio(alojamientoId);
         // Devuelve ya ordenadas
         guardadas.sort(Comparator.comparingInt(Imagen::getOrden));
         return imagenMapper.toDTOList(guardadas);
@@ -222,6 +230,7 @@ public class ImagenDAO {
         imagenRepository.delete(img);
         // Recompactar orden tras borrar
         compactarOrden(alojamientoId);
+        publicarCambio(alojamientoId);
 
         return true;
     }
@@ -237,12 +246,18 @@ public class ImagenDAO {
             throw new IllegalStateException("No se permite eliminar todas las imágenes (RN3). Usa reemplazo controlado en el Service.");
         }
         imagenRepository.deleteByAlojamientoId(alojamientoId);
+        publicarCambio(alojamientoId);
     }
 
     // ===============================
     // Helpers
     // ===============================
 
+    /** Las búsquedas en caché incluyen las imágenes de cada alojamiento: se invalidan las que lo muestran */
+    private void publicarCambio(Integer alojamientoId) {
+        eventos.publishEvent(new AlojamientoModificadoEvent(alojamientoId, Set.of()));
+    }
+
     /** Recompacta el orden 1..N después de un borrado/movimiento */
     @Transactional
     protected void compactarOrden(Integer alojamientoId) {
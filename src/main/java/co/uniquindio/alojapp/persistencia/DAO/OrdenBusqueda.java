@@ -0,0 +1,65 @@
+package co.uniquindio.alojapp.persistencia.DAO;
+
+import co.uniquindio.alojapp.negocio.excepciones.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Órdenes admitidos en la búsqueda de alojamientos (valor de ordenarPor)
+ * Cada uno tiene un índice compuesto (estado, columna, alojamiento_id) en Alojamiento, así que la página
+ * se lee en orden del índice en lugar de ordenar todo el conjunto filtrado. Cualquier otro valor se rechaza.
+ * Sin dirección pedida se usa la del orden: lo más nuevo y los puntajes más altos primero, lo más barato
+ * y lo más pequeño primero.
+ */
+public enum OrdenBusqueda {
+
+    FECHA_CREACION("fechaCreacion", "fechaCreacion", Sort.Direction.DESC),
+    PRECIO("precioNoche", "precioNoche", Sort.Direction.ASC),
+    CAPACIDAD("capacidadMaxima", "capacidadMaxima", Sort.Direction.ASC),
+    CALIFICACION("calificacion", "promedioCalificacion", Sort.Direction.DESC),
+    POPULARIDAD("popularidad", "puntajePopularidad", Sort.Direction.DESC),
+    RELEVANCIA("relevancia", "puntajeRelevancia", Sort.Direction.DESC);
+
+    private final String clave;
+    private final String propiedad;
+    private final Sort.Direction direccionPorDefecto;
+
+    OrdenBusqueda(String clave, String propiedad, Sort.Direction direccionPorDefecto) {
+        this.clave = clave;
+        this.propiedad = propiedad;
+        this.direccionPorDefecto = direccionPorDefecto;
+    }
+
+    /** Valor que envía el cliente en ordenarPor */
+    public String clave() {
+        return clave;
+    }
+
+    /** Propiedad de Alojamiento por la que se ordena (el id desempata) */
+    public String propiedad() {
+        return propiedad;
+    }
+
+    /** Dirección pedida (ASC|DESC) o, si no se pidió, la propia de este orden */
+    public Sort.Direction direccion(String direccionOrden) {
+        if (direccionOrden == null) return direccionPorDefecto;
+        return "DESC".equalsIgnoreCase(direccionOrden) ? Sort.Direction.DESC : Sort.Direction.ASC;
+    }
+
+    /**
+     * Orden pedido; null si no se pidió ninguno
+     * @throws BadRequestException si el valor no está en el catálogo
+     */
+    public static OrdenBusqueda de(String ordenarPor) {
+        if (ordenarPor == null) return null;
+        return Arrays.stream(values())
+                .filter(o -> o.clave.equals(ordenarPor))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Orden no soportado: " + ordenarPor
+                        + ". Valores admitidos: " + Arrays.stream(values())
+                        .map(OrdenBusqueda::clave)
+                        .collect(Collectors.joining(", "))));
+    }
+}
@@ -7,6 +7,7 @@ import co.uniquindio.alojapp.negocio.excepciones.RecursoNoEncontradoException;
 import co.uniquindio.alojapp.persistencia.Entity.Pago;
 import co.uniquindio.alojapp.persistencia.Entity.Reserva;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Indice.ContadoresEstado;
 import co.uniquindio.alojapp.persistencia.Mapper.PagoMapper;
 import co.uniquindio.alojapp.persistencia.Repository.PagoRepository;
 import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
@@ -35,6 +36,7 @@ public class PagoDAO {
     private final ReservaRepository reservaRepository;
     private final UsuarioRepository usuarioRepository;
     private final PagoMapper pagoMapper;
+    private final ContadoresEstado contadores;
 
     // =============================
     // Crear / Registrar pago
@@ -89,6 +91,7 @@ public class PagoDAO {
                 .build();
 
         Pago saved = pagoRepository.save(pago);
+        contadores.cambio(ContadoresEstado.Entidad.PAGO, null, saved.getEstado());
         return pagoMapper.pagoToDTO(saved);
     }
 
@@ -146,7 +149,8 @@ public class PagoDAO {
     }
 
     public Long contarPorEstado(String estado) {
-        return pagoRepository.countByEstado(estado);
+        return contadores.contar(ContadoresEstado.Entidad.PAGO, estado)
+                .orElseGet(() -> pagoRepository.countByEstado(estado));
     }
 
     // =============================
@@ -175,6 +179,7 @@ public class PagoDAO {
             throw new ReglaNegocioException("El pago ya fue reembolsado");
         }
 
+        contadores.cambio(ContadoresEstado.Entidad.PAGO, pago.getEstado(), destino);
         pago.setEstado(destino);
         Pago actualizado = pagoRepository.save(pago);
         return pagoMapper.pagoToDTO(actualizado);
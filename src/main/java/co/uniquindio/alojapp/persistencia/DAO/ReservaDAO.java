@@ -4,15 +4,25 @@ import co.uniquindio.alojapp.negocio.DTO.ReservaDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearReservaRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.CancelarReservaRequest;
 import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
+import co.uniquindio.alojapp.negocio.excepciones.ReglaNegocioException;
 import co.uniquindio.alojapp.persistencia.Entity.Reserva;
 import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
 import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoReserva;
+import co.uniquindio.alojapp.persistencia.Esquema.LibroReservas;
+import co.uniquindio.alojapp.persistencia.Evento.DisponibilidadModificadaEvent;
+import co.uniquindio.alojapp.persistencia.Evento.ReservasCompletadasEvent;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceDisponibilidad;
+import co.uniquindio.alojapp.persistencia.Indice.ContadoresEstado;
+import co.uniquindio.alojapp.persistencia.Indice.PesoPopularidad;
+import co.uniquindio.alojapp.persistencia.Indice.PuntajeRelevancia;
 import co.uniquindio.alojapp.persistencia.Mapper.ReservaMapper;
 import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
 import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
 import co.uniquindio.alojapp.persistencia.Repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,8 +33,13 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * DAO para operaciones de persistencia de reservas
@@ -34,10 +49,19 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ReservaDAO {
 
+    private static final String NO_DISPONIBLE = "El alojamiento no está disponible en las fechas seleccionadas";
+    private static final String RETENCION_VENCIDA = "Retención vencida sin pago";
+
     private final ReservaRepository reservaRepository;
     private final AlojamientoRepository alojamientoRepository;
     private final UsuarioRepository usuarioRepository;
     private final ReservaMapper reservaMapper;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final PesoPopularidad pesoPopularidad;
+    private final PuntajeRelevancia puntajeRelevancia;
+    private final LibroReservas libroReservas;
+    private final ContadoresEstado contadores;
+    private final ApplicationEventPublisher eventos;
 
     /**
      * Crear nueva reserva
@@ -46,6 +70,12 @@ public class ReservaDAO {
      * RN11: Mínimo 1 noche
      * RN14: Validar no solapamiento
      * RN15: No exceder capacidad
+     *
+     * Con el libro de reservas activo (PostgreSQL) la reserva es un solo INSERT: la restricción de exclusión
+     * rechaza el solapamiento. Si no, el alojamiento se lee con bloqueo de fila: dos reservas del mismo
+     * alojamiento hacen la verificación y el INSERT una detrás de otra (la segunda ve la primera ya confirmada),
+     * sin subir el aislamiento. En ambos casos las reservas de alojamientos distintos siguen en paralelo.
+     * Debe llamarse dentro de una transacción.
      */
     public ReservaDTO save(CrearReservaRequest request, Integer usuarioId) {
         // Validaciones
@@ -54,7 +84,10 @@ public class ReservaDAO {
         Usuario usuario = usuarioRepository.findById(usuarioId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
-        Alojamiento alojamiento = alojamientoRepository.findById(request.getAlojamientoId())
+        boolean libroActivo = libroReservas.activa();
+        Alojamiento alojamiento = (libroActivo
+                ? alojamientoRepository.findById(request.getAlojamientoId())
+                : alojamientoRepository.findByIdParaReservar(request.getAlojamientoId()))
                 .orElseThrow(() -> new RuntimeException("Alojamiento no encontrado"));
 
         // RN15: Validar capacidad
@@ -62,12 +95,12 @@ public class ReservaDAO {
             throw new RuntimeException("Número de huéspedes excede la capacidad máxima");
         }
 
-        // RN14: Validar disponibilidad
-        if (reservaRepository.existeSolapamiento(
+        // RN14: Validar disponibilidad (con el libro activo lo hace la BD al insertar)
+        if (!libroActivo && reservaRepository.existeSolapamiento(
                 alojamiento.getId(),
                 request.getFechaCheckin(),
                 request.getFechaCheckout())) {
-            throw new RuntimeException("El alojamiento no está disponible en las fechas seleccionadas");
+            throw new ReglaNegocioException(NO_DISPONIBLE);
         }
 
         // Calcular precio total
@@ -85,7 +118,19 @@ public class ReservaDAO {
                 .fechaCreacion(LocalDateTime.now())
                 .build();
 
-        Reserva saved = reservaRepository.save(reserva);
+        Reserva saved;
+        try {
+            saved = reservaRepository.saveAndFlush(reserva);
+        } catch (DataIntegrityViolationException e) {
+            if (LibroReservas.esSolapamiento(e)) throw new ReglaNegocioException(NO_DISPONIBLE);
+            throw e;
+        }
+        contadores.cambio(ContadoresEstado.Entidad.RESERVA, null, saved.getEstado());
+        alojamientoRepository.sumarPopularidad(alojamiento.getId(), pesoPopularidad.peso(saved.getFechaCreacion().toLocalDate()));
+        puntajeRelevancia.recalcular(List.of(alojamiento.getId()));
+        indiceDisponibilidad.registrarReserva(alojamiento.getId(), saved.getFechaCheckin(), saved.getFechaCheckout());
+        eventos.publishEvent(new DisponibilidadModificadaEvent(
+                alojamiento.getId(), saved.getFechaCheckin(), saved.getFechaCheckout()));
         return reservaMapper.toDTO(saved);
     }
 
@@ -120,6 +165,21 @@ public class ReservaDAO {
         return buildPaginacionResponse(page);
     }
 
+    /**
+     * Buscar reservas por huésped por cursor (sin COUNT)
+     */
+    public PaginacionResponse<ReservaDTO> findByHuespedPorCursor(Integer huespedId, String cursor, int tamanoPagina) {
+        CursorPaginacion c = CursorPaginacion.decodificar(cursor);
+        Pageable limite = PageRequest.of(0, tamanoPagina + 1);
+        List<Reserva> filas = c == null
+                ? reservaRepository.findByHuespedIdRecientes(huespedId, limite)
+                : reservaRepository.findByHuespedIdDespuesDe(huespedId, c.claveFecha(), c.id(), limite);
+
+        return CursorPaginacion.construirRespuesta(filas, tamanoPagina, c == null,
+                reservaMapper::toDTOList,
+                r -> CursorPaginacion.codificar(r.getFechaCreacion(), r.getId()));
+    }
+
     /**
      * Buscar reservas por huésped y estado
      */
@@ -145,6 +205,21 @@ public class ReservaDAO {
         return buildPaginacionResponse(page);
     }
 
+    /**
+     * Buscar reservas por anfitrión por cursor (sin COUNT)
+     */
+    public PaginacionResponse<ReservaDTO> findByAnfitrionPorCursor(Integer anfitrionId, String cursor, int tamanoPagina) {
+        CursorPaginacion c = CursorPaginacion.decodificar(cursor);
+        Pageable limite = PageRequest.of(0, tamanoPagina + 1);
+        List<Reserva> filas = c == null
+                ? reservaRepository.findByAnfitrionIdRecientes(anfitrionId, limite)
+                : reservaRepository.findByAnfitrionIdDespuesDe(anfitrionId, c.claveFecha(), c.id(), limite);
+
+        return CursorPaginacion.construirRespuesta(filas, tamanoPagina, c == null,
+                reservaMapper::toDTOList,
+                r -> CursorPaginacion.codificar(r.getFechaCreacion(), r.getId()));
+    }
+
     /**
      * Buscar reservas por anfitrión y estado
      */
@@ -174,26 +249,77 @@ public class ReservaDAO {
                         throw new RuntimeException("No se puede cancelar con menos de 48 horas de anticipación");
                     }
 
+                    contadores.cambio(ContadoresEstado.Entidad.RESERVA, reserva.getEstado(), EstadoReserva.CANCELADA);
                     reserva.setEstado(EstadoReserva.CANCELADA);
                     reserva.setFechaCancelacion(LocalDateTime.now());
                     reserva.setMotivoCancelacion(request.getMotivoCancelacion());
 
                     Reserva updated = reservaRepository.save(reserva);
+                    alojamientoRepository.sumarPopularidad(reserva.getAlojamiento().getId(),
+                            -pesoPopularidad.peso(reserva.getFechaCreacion().toLocalDate()));
+                    puntajeRelevancia.recalcular(List.of(reserva.getAlojamiento().getId()));
+                    indiceDisponibilidad.recalcular(List.of(reserva.getAlojamiento().getId()));
+                    eventos.publishEvent(new DisponibilidadModificadaEvent(
+                            reserva.getAlojamiento().getId(), reserva.getFechaCheckin(), reserva.getFechaCheckout()));
                     return reservaMapper.toDTO(updated);
                 });
     }
 
     /**
-     * Marcar reserva como completada
-     * RN32: Automático después del checkout
+     * Cancelar las reservas PENDIENTE indicadas cuya retención ya venció (creadas en o antes de "limite")
+     * Las que se pagaron o cancelaron mientras tanto se ignoran. Un solo UPDATE para todas; las fechas
+     * liberadas llegan al índice de disponibilidad y a la caché de búsquedas al confirmar.
+     * Debe llamarse dentro de una transacción; devuelve cuántas canceló.
      */
-    public void completarReservasVencidas() {
-        List<Reserva> reservasParaCompletar = reservaRepository.findReservasParaCompletar();
+    public int cancelarRetencionesVencidas(Collection<Integer> reservaIds, LocalDateTime limite) {
+        if (reservaIds.isEmpty()) return 0;
+        List<Object[]> vencidas = reservaRepository.findRetencionesVencidas(reservaIds, limite);
+        if (vencidas.isEmpty()) return 0;
+
+        List<Integer> ids = vencidas.stream().map(f -> (Integer) f[0]).toList();
+        int canceladas = reservaRepository.cancelarRetenciones(ids, limite, LocalDateTime.now(), RETENCION_VENCIDA);
+        contadores.cambio(ContadoresEstado.Entidad.RESERVA, EstadoReserva.PENDIENTE, EstadoReserva.CANCELADA, canceladas);
+
+        // Misma resta de popularidad que una cancelación normal, agrupada por alojamiento
+        Map<Integer, Double> popularidad = new HashMap<>();
+        for (Object[] fila : vencidas) {
+            LocalDateTime creacion = (LocalDateTime) fila[4];
+            popularidad.merge((Integer) fila[1], -pesoPopularidad.peso(creacion.toLocalDate()), Double::sum);
+        }
+        popularidad.forEach(alojamientoRepository::sumarPopularidad);
+        puntajeRelevancia.recalcular(popularidad.keySet());
+        indiceDisponibilidad.recalcular(popularidad.keySet());
+        vencidas.forEach(f -> eventos.publishEvent(new DisponibilidadModificadaEvent(
+                (Integer) f[1], (LocalDate) f[2], (LocalDate) f[3])));
+        return canceladas;
+    }
 
-        reservasParaCompletar.forEach(reserva -> {
-            reserva.setEstado(EstadoReserva.COMPLETADA);
-            reservaRepository.save(reserva);
-        });
+    /**
+     * Marcar como completado el siguiente lote de reservas vencidas
+     * RN32: Automático después del checkout
+     *
+     * Lee hasta "tamanoLote" reservas CONFIRMADA con checkout anterior a "hoy" (bloqueadas hasta el commit)
+     * y las cambia con un solo UPDATE. No toca el índice de disponibilidad: sus noches ya quedaron antes del
+     * horizonte. Debe llamarse dentro de una transacción; devuelve cuántas reservas completó.
+     */
+    public int completarLoteVencidas(LocalDate hoy, int tamanoLote) {
+        List<Object[]> lote = reservaRepository.findLoteParaCompletar(hoy, PageRequest.of(0, tamanoLote));
+        if (lote.isEmpty()) return 0;
+
+        List<Integer> ids = lote.stream().map(f -> (Integer) f[0]).toList();
+        int completadas = reservaRepository.completarLote(ids, hoy);
+
+        Set<Integer> alojamientoIds = new HashSet<>();
+        LocalDate desde = null, hasta = null;
+        for (Object[] fila : lote) {
+            alojamientoIds.add((Integer) fila[1]);
+            LocalDate checkin = (LocalDate) fila[2], checkout = (LocalDate) fila[3];
+            if (desde == null || checkin.isBefore(desde)) desde = checkin;
+            if (hasta == null || checkout.isAfter(hasta)) hasta = checkout;
+        }
+        contadores.cambio(ContadoresEstado.Entidad.RESERVA, EstadoReserva.CONFIRMADA, EstadoReserva.COMPLETADA, completadas);
+        eventos.publishEvent(new ReservasCompletadasEvent(ids, alojamientoIds, desde, hasta));
+        return completadas;
     }
 
     /**
@@ -210,7 +336,8 @@ public class ReservaDAO {
      * Contar reservas por estado
      */
     public Long countByEstado(EstadoReserva estado) {
-        return reservaRepository.countByEstado(estado);
+        return contadores.contar(ContadoresEstado.Entidad.RESERVA, estado)
+                .orElseGet(() -> reservaRepository.countByEstado(estado));
     }
 
     /**
@@ -6,6 +6,7 @@
     import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoReserva;
     import co.uniquindio.alojapp.persistencia.Entity.Usuario;
     import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoUsuario;
+    import co.uniquindio.alojapp.persistencia.Indice.ContadoresEstado;
     import co.uniquindio.alojapp.persistencia.Mapper.UsuarioMapper;
     import co.uniquindio.alojapp.persistencia.Repository.AdministradorRepository;
     import co.uniquindio.alojapp.persistencia.Repository.AnfitrionRepository;
@@ -38,6 +39,7 @@
         private final AdministradorRepository administradorRepository;
         private final AnfitrionRepository anfitrionRepository;
         private final ReservaRepository reservaRepository;
+        private final ContadoresEstado contadores;
 
         /**
          * Crear nuevo usuario
@@ -56,6 +58,7 @@
             entity.setFechaRegistro(LocalDateTime.now());
 
             Usuario savedEntity = usuarioRepository.save(entity);
+            contadores.cambio(ContadoresEstado.Entidad.USUARIO, null, savedEntity.getEstado());
             return usuarioMapper.toDTO(savedEntity);
         }
 
@@ -181,6 +184,7 @@
         public Optional<UsuarioDTO> cambiarEstado(Integer id, EstadoUsuario nuevoEstado) {
             return usuarioRepository.findById(id)
                     .map(usuario -> {
+                        contadores.cambio(ContadoresEstado.Entidad.USUARIO, usuario.getEstado(), nuevoEstado);
                         usuario.setEstado(nuevoEstado);
                         Usuario updated = usuarioRepository.save(usuario);
                         return usuarioMapper.toDTO(updated);
@@ -193,6 +197,7 @@
         public boolean desactivar(Integer id) {
             return usuarioRepository.findById(id)
                     .map(usuario -> {
+                        contadores.cambio(ContadoresEstado.Entidad.USUARIO, usuario.getEstado(), EstadoUsuario.INACTIVO);
                         usuario.setEstado(EstadoUsuario.INACTIVO);
                         usuarioRepository.save(usuario);
                         return true;
@@ -204,7 +209,8 @@
          * Contar usuarios por estado
          */
         public Long countByEstado(EstadoUsuario estado) {
-            return usuarioRepository.countByEstado(estado);
+            return contadores.contar(ContadoresEstado.Entidad.USUARIO, estado)
+                    .orElseGet(() -> usuarioRepository.countByEstado(estado));
         }
 
         public boolean existeAdminPorUsuarioId(Integer usuarioId) {
@@ -280,7 +286,8 @@
          * Contar total de usuarios
          */
         public long count() {
-            return usuarioRepository.count();
+            return contadores.total(ContadoresEstado.Entidad.USUARIO)
+                    .orElseGet(usuarioRepository::count);
         }
 
         /**
@@ -303,7 +310,12 @@
 
         public boolean activar(Integer id) {
                   return usuarioRepository.findById(id)
-                       .map(u -> { u.setEstado(EstadoUsuario.ACTIVO); usuarioRepository.save(u); return true; })
+                       .map(u -> {
+                           contadores.cambio(ContadoresEstado.Entidad.USUARIO, u.getEstado(), EstadoUsuario.ACTIVO);
+                           u.setEstado(EstadoUsuario.ACTIVO);
+                           usuarioRepository.save(u);
+                           return true;
+                       })
                        .orElse(false);
                }
 
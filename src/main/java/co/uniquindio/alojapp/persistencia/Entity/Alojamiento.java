@@ -9,10 +9,19 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Entity
-@Table(name = "alojamientos")
+@Table(name = "alojamientos", indexes = {
+        @Index(name = "idx_alojamientos_lat_lon", columnList = "latitud, longitud"),
+        @Index(name = "idx_alojamientos_estado_fecha", columnList = "estado, fecha_creacion, alojamiento_id"),
+        @Index(name = "idx_alojamientos_estado_precio", columnList = "estado, precio_noche, alojamiento_id"),
+        @Index(name = "idx_alojamientos_estado_capacidad", columnList = "estado, capacidad_maxima, alojamiento_id"),
+        @Index(name = "idx_alojamientos_estado_calificacion", columnList = "estado, promedio_calificacion, alojamiento_id"),
+        @Index(name = "idx_alojamientos_estado_popularidad", columnList = "estado, puntaje_popularidad, alojamiento_id"),
+        @Index(name = "idx_alojamientos_estado_relevancia", columnList = "estado, puntaje_relevancia, alojamiento_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -92,6 +101,58 @@ public class Alojamiento {
     @Schema(description = "Fecha de última actualización")
     private LocalDateTime fechaActualizacion;
 
+    // ========= Calificaciones (desnormalizadas) =========
+    // Se ajustan con UPDATE atómicos al crear, editar o eliminar comentarios.
+    // En prod las crea y rellena db/migracion/V2__calificaciones_alojamientos.sql.
+    // null = fila anterior a estas columnas creada por ddl-auto=update (dev), pendiente del recálculo inicial.
+
+    @Column(name = "suma_calificaciones")
+    @Builder.Default
+    @Schema(description = "Suma de las calificaciones de sus comentarios", example = "108")
+    private Long sumaCalificaciones = 0L;
+
+    @Column(name = "cantidad_comentarios")
+    @Builder.Default
+    @Schema(description = "Cantidad de comentarios", example = "23")
+    private Integer cantidadComentarios = 0;
+
+    @Column(name = "calificaciones_1")
+    @Builder.Default
+    private Integer calificaciones1 = 0;
+
+    @Column(name = "calificaciones_2")
+    @Builder.Default
+    private Integer calificaciones2 = 0;
+
+    @Column(name = "calificaciones_3")
+    @Builder.Default
+    private Integer calificaciones3 = 0;
+
+    @Column(name = "calificaciones_4")
+    @Builder.Default
+    private Integer calificaciones4 = 0;
+
+    @Column(name = "calificaciones_5")
+    @Builder.Default
+    private Integer calificaciones5 = 0;
+
+    /** sumaCalificaciones / cantidadComentarios guardado para ordenar por calificación con índice */
+    @Column(name = "promedio_calificacion")
+    @Builder.Default
+    private Double promedioCalificacion = 0.0;
+
+    /** Suma de pesos de las reservas no canceladas (ver PesoPopularidad); null = aún sin calcular */
+    @Column(name = "puntaje_popularidad")
+    @Builder.Default
+    @Schema(description = "Puntaje de popularidad (reservas recientes pesan más)")
+    private Double puntajePopularidad = 0.0;
+
+    /** Puntaje 0-100 para ordenar por relevancia (ver PuntajeRelevancia); null = aún sin calcular */
+    @Column(name = "puntaje_relevancia")
+    @Builder.Default
+    @Schema(description = "Puntaje de relevancia (calificación, comentarios, popularidad, verificación y novedad)")
+    private Double puntajeRelevancia = 0.0;
+
     // ========= Relaciones =========
 
     @OneToMany(mappedBy = "alojamiento", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -134,6 +195,30 @@ public class Alojamiento {
     }
 
     // Métodos de utilidad
+
+    /**
+     * Promedio a partir de las columnas desnormalizadas (no carga comentarios)
+     */
+    public Double promedioCalificaciones() {
+        if (sumaCalificaciones == null || cantidadComentarios == null || cantidadComentarios == 0) {
+            return 0.0;
+        }
+        return (double) sumaCalificaciones / cantidadComentarios;
+    }
+
+    /**
+     * Cantidad de comentarios por estrellas: posición 0 = 1 estrella ... posición 4 = 5 estrellas
+     */
+    public List<Integer> distribucionCalificaciones() {
+        return Arrays.asList(
+                valorOCero(calificaciones1), valorOCero(calificaciones2), valorOCero(calificaciones3),
+                valorOCero(calificaciones4), valorOCero(calificaciones5));
+    }
+
+    private static Integer valorOCero(Integer valor) {
+        return valor != null ? valor : 0;
+    }
+
     public Double calcularCalificacionPromedio() {
         if (comentarios == null || comentarios.isEmpty()) {
             return 0.0;
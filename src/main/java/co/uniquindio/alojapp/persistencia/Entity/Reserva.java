@@ -13,7 +13,10 @@ import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Entity
-@Table(name = "reservas")
+@Table(name = "reservas", indexes = {
+        @Index(name = "idx_reservas_alojamiento_fechas", columnList = "alojamiento_id, fecha_checkin, fecha_checkout"),
+        @Index(name = "idx_reservas_estado_creacion", columnList = "estado, fecha_creacion")
+})
 @Getter
 @Setter
 @NoArgsConstructor
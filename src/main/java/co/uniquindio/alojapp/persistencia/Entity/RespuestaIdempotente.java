@@ -0,0 +1,55 @@
+package co.uniquindio.alojapp.persistencia.Entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta guardada de una operación con Idempotency-Key
+ * Un reintento con la misma clave (mismo usuario y operación) recibe esta respuesta sin volver a ejecutar.
+ */
+@Entity
+@Table(name = "respuestas_idempotentes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_respuestas_idempotentes_clave",
+                columnNames = {"operacion", "usuario_id", "clave"}),
+        indexes = @Index(name = "idx_respuestas_idempotentes_expiracion", columnList = "fecha_expiracion"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RespuestaIdempotente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "respuesta_id")
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    @Schema(description = "Operación protegida", example = "reserva.crear")
+    private String operacion;
+
+    @Column(name = "usuario_id", nullable = false)
+    @Schema(description = "Usuario que envió la solicitud", example = "12")
+    private Integer usuarioId;
+
+    @Column(nullable = false, length = 100)
+    @Schema(description = "Valor del header Idempotency-Key", example = "5f0c1d9e-7a4b-4c1e-9f0a-2b6d8e3c4a11")
+    private String clave;
+
+    @Column(nullable = false, length = 64)
+    @Schema(description = "SHA-256 de la solicitud original, para rechazar la clave reutilizada con otros datos")
+    private String huella;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    @Schema(description = "Respuesta original en JSON")
+    private String respuesta;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+}
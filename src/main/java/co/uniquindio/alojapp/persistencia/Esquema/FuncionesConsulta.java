@@ -0,0 +1,38 @@
+package co.uniquindio.alojapp.persistencia.Esquema;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Funciones HQL para filtrar por un conjunto de IDs pasado como un solo parámetro de arreglo
+ *
+ *   id_en(a.id, :ids)        a.id = ANY(:ids); con el arreglo vacío no restringe
+ *   id_fuera_de(a.id, :ids)  a.id <> ALL(:ids); con el arreglo vacío no excluye nada
+ *
+ * Los índices en memoria entregan conjuntos sin tope (ocupados, zona del mapa, texto, servicios).
+ * Como lista IN cada ID es un parámetro: el plan cambia con cada tamaño y PostgreSQL rechaza la
+ * sentencia pasados 32767 parámetros. ANY/ALL sobre un arreglo se escribe igual en PostgreSQL y H2.
+ *
+ * Hibernate la carga desde META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class FuncionesConsulta implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions funciones) {
+        BasicType<Boolean> booleano = funciones.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+
+        funciones.getFunctionRegistry()
+                .patternDescriptorBuilder("id_en", "(cardinality(?2) = 0 or ?1 = any(?2))")
+                .setExactArgumentCount(2)
+                .setInvariantType(booleano)
+                .register();
+        funciones.getFunctionRegistry()
+                .patternDescriptorBuilder("id_fuera_de", "(?1 <> all(?2))")
+                .setExactArgumentCount(2)
+                .setInvariantType(booleano)
+                .register();
+    }
+}
@@ -0,0 +1,71 @@
+package co.uniquindio.alojapp.persistencia.Esquema;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * Libro de reservas en PostgreSQL: la BD garantiza que no haya estadías solapadas
+ *
+ * La migración V10__exclusion_reservas.sql crea la columna generada reservas.estadia y la restricción de
+ * exclusión GiST sobre (alojamiento_id =, estadia &&) para las reservas PENDIENTE o CONFIRMADA; si no puede
+ * aplicarse, la aplicación no arranca. Con la restricción una reserva es un solo INSERT: si se solapa,
+ * falla con SQLState 23P01.
+ *
+ * Al arrancar solo se comprueba que la restricción exista. Donde no corren las migraciones (H2 en tests,
+ * perfil por defecto con ddl-auto) queda inactiva y ReservaDAO verifica con el alojamiento bloqueado.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LibroReservas {
+
+    static final String RESTRICCION = "reservas_sin_solapamiento";
+    static final String SQLSTATE_EXCLUSION = "23P01";
+
+    static final String EXISTE_RESTRICCION = "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ?)";
+
+    private final JdbcTemplate jdbc;
+
+    @Value("${app.reservas.restriccion-solapamiento:true}")
+    private boolean habilitada;
+
+    private volatile boolean activa;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void detectar() {
+        if (!habilitada) return;
+        String motor = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        activa = "PostgreSQL".equalsIgnoreCase(motor)
+                && Boolean.TRUE.equals(jdbc.queryForObject(EXISTE_RESTRICCION, Boolean.class, RESTRICCION));
+        if (activa) {
+            log.info("Libro de reservas: restricción {} activa", RESTRICCION);
+        } else {
+            log.info("Libro de reservas: {} sin la restricción {}; se usa la verificación con bloqueo", motor, RESTRICCION);
+        }
+    }
+
+    /**
+     * true si la BD rechaza por sí misma las reservas solapadas
+     */
+    public boolean activa() {
+        return activa;
+    }
+
+    /**
+     * ¿La excepción viene de la restricción de exclusión (reserva solapada)?
+     */
+    public static boolean esSolapamiento(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && SQLSTATE_EXCLUSION.equals(sql.getSQLState())) return true;
+        }
+        return false;
+    }
+}
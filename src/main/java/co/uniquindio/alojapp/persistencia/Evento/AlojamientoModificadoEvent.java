@@ -0,0 +1,10 @@
+package co.uniquindio.alojapp.persistencia.Evento;
+
+import java.util.Set;
+
+/**
+ * Se creó, modificó o retiró un alojamiento
+ * Lleva las ciudades afectadas (la anterior y la nueva si cambió) para invalidar con precisión.
+ */
+public record AlojamientoModificadoEvent(Integer alojamientoId, Set<String> ciudades) {
+}
@@ -0,0 +1,9 @@
+package co.uniquindio.alojapp.persistencia.Evento;
+
+import java.time.LocalDate;
+
+/**
+ * Cambió la ocupación de un alojamiento entre dos fechas (reserva creada, cancelada o completada)
+ */
+public record DisponibilidadModificadaEvent(Integer alojamientoId, LocalDate desde, LocalDate hasta) {
+}
@@ -0,0 +1,13 @@
+package co.uniquindio.alojapp.persistencia.Evento;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Un lote de reservas pasó a COMPLETADA (RN32)
+ * desde/hasta cubren las estadías de todo el lote (checkin más temprano, checkout más tardío).
+ */
+public record ReservasCompletadasEvent(List<Integer> reservaIds, Set<Integer> alojamientoIds,
+                                       LocalDate desde, LocalDate hasta) {
+}
@@ -0,0 +1,28 @@
+package co.uniquindio.alojapp.persistencia.Evento;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Acciones atadas a la transacción en curso
+ * Los índices y cachés en memoria solo reflejan cambios confirmados: la acción corre al confirmar
+ * y se descarta si la transacción se deshace. Sin transacción activa corre de inmediato.
+ */
+public final class Transacciones {
+
+    private Transacciones() {
+    }
+
+    public static void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
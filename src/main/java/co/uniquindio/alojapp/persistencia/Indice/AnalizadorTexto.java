@@ -0,0 +1,94 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Análisis de texto en español para el índice invertido
+ * Minúsculas, sin tildes (también ñ → n), sin palabras vacías y con un
+ * stemmer ligero (plurales y vocal final de género) para que
+ * "Piscinas" y "piscina" o "Habitación" y "habitaciones" coincidan.
+ */
+public final class AnalizadorTexto {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern PALABRAS = Pattern.compile("[^\\p{L}\\p{M}\\p{N}]+");
+    private static final Pattern AGUDA_EN_S = Pattern.compile("[áéíóú]s$");
+
+    /** Singulares terminados en -s que suelen escribirse sin tilde; la -s es parte de la raíz */
+    private static final Set<String> SINGULARES_EN_S = Set.of(
+            "pais", "autobus", "interes", "ingles", "frances", "compas", "anis"
+    );
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "algo", "ante", "bajo", "como", "con", "contra", "cual", "de", "del", "desde",
+            "donde", "el", "ella", "en", "entre", "es", "esta", "este", "esto", "ha", "hay", "la", "las",
+            "le", "les", "lo", "los", "mas", "me", "mi", "muy", "no", "nos", "o", "para", "pero", "por",
+            "que", "se", "sin", "sobre", "su", "sus", "tambien", "te", "tu", "un", "una", "uno", "unos",
+            "unas", "y", "ya"
+    );
+
+    private AnalizadorTexto() {
+    }
+
+    /**
+     * Términos indexables del texto, en orden y con repeticiones
+     */
+    public static List<String> terminos(String texto) {
+        List<String> resultado = new ArrayList<>();
+        if (texto == null || texto.isBlank()) return resultado;
+
+        // La tilde final decide si la -s es plural, así que raiz recibe la palabra sin plegar
+        String minusculas = Normalizer.normalize(texto.toLowerCase(Locale.ROOT), Normalizer.Form.NFC);
+        for (String cruda : PALABRAS.split(minusculas)) {
+            String plegada = plegar(cruda);
+            for (String palabra : SEPARADORES.split(plegada)) {
+                if (palabra.isEmpty() || PALABRAS_VACIAS.contains(palabra)) continue;
+                resultado.add(raiz(palabra.equals(plegada) ? cruda : palabra));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Minúsculas y sin diacríticos
+     */
+    public static String plegar(String texto) {
+        String descompuesto = Normalizer.normalize(texto.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return MARCAS.matcher(descompuesto).replaceAll("");
+    }
+
+    /**
+     * Stemmer ligero: quita el plural y luego la vocal final a/o/e
+     * La -s final no se quita en agudas con tilde (país, autobús) ni en SINGULARES_EN_S: su plural
+     * en -es ya deja ese singular ("países" -> "pais"), igual que "clases" -> "clas" como "clase".
+     */
+    static String raiz(String palabra) {
+        String minuscula = Normalizer.normalize(palabra.toLowerCase(Locale.ROOT), Normalizer.Form.NFC);
+        String p = plegar(minuscula);
+        if (p.length() <= 3 || Character.isDigit(p.charAt(p.length() - 1))) return p;
+
+        if (p.endsWith("ces") && p.length() > 4) {
+            p = p.substring(0, p.length() - 3) + "z";            // luces -> luz
+        } else if (p.endsWith("es") && p.length() > 4 && !esVocal(p.charAt(p.length() - 3))) {
+            p = p.substring(0, p.length() - 2);                  // habitaciones -> habitacion
+        } else if (p.endsWith("s") && p.length() > 3
+                && !AGUDA_EN_S.matcher(minuscula).find() && !SINGULARES_EN_S.contains(p)) {
+            p = p.substring(0, p.length() - 1);                  // casas -> casa
+        }
+
+        if (p.length() > 4 && (p.endsWith("a") || p.endsWith("o") || p.endsWith("e"))) {
+            p = p.substring(0, p.length() - 1);                  // piscina -> piscin
+        }
+        return p;
+    }
+
+    private static boolean esVocal(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
@@ -0,0 +1,156 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Evento.Transacciones;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import co.uniquindio.alojapp.persistencia.Repository.PagoRepository;
+import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
+import co.uniquindio.alojapp.persistencia.Repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores en memoria por estado de alojamientos, reservas, pagos y usuarios
+ * Los DAOs avisan cada alta o cambio de estado (se aplica al confirmar la transacción),
+ * así los conteos del panel cuestan O(1) y no cargan entidades.
+ *
+ * Se reconstruyen desde la BD al arrancar y se reconcilian periódicamente: un cambio que no
+ * pase por los DAOs (o que se cruce con la reconciliación) solo deja un error transitorio.
+ * Mientras no se hayan construido, contar() devuelve vacío y el llamador debe consultar la BD.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContadoresEstado {
+
+    public enum Entidad { ALOJAMIENTO, RESERVA, PAGO, USUARIO }
+
+    static final String SIN_ESTADO = "SIN_ESTADO";
+
+    private final AlojamientoRepository alojamientoRepository;
+    private final ReservaRepository reservaRepository;
+    private final PagoRepository pagoRepository;
+    private final UsuarioRepository usuarioRepository;
+
+    private final Map<Entidad, ConcurrentHashMap<String, AtomicLong>> conteos = new ConcurrentHashMap<>();
+
+    private volatile boolean listo = false;
+
+    /**
+     * Reconstruye todos los contadores desde la BD (un GROUP BY por entidad)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.contadores.reconciliacion-cron:0 */15 * * * *}")
+    public void reconciliar() {
+        Map<Entidad, List<Object[]>> filas = new EnumMap<>(Entidad.class);
+        filas.put(Entidad.ALOJAMIENTO, alojamientoRepository.contarPorEstado());
+        filas.put(Entidad.RESERVA, reservaRepository.contarPorEstado());
+        filas.put(Entidad.PAGO, pagoRepository.contarPorEstado());
+        filas.put(Entidad.USUARIO, usuarioRepository.contarPorEstado());
+
+        long desviados = 0;
+        for (Map.Entry<Entidad, List<Object[]>> e : filas.entrySet()) {
+            ConcurrentHashMap<String, AtomicLong> nuevo = new ConcurrentHashMap<>();
+            for (Object[] fila : e.getValue()) {
+                nuevo.put(clave(fila[0]), new AtomicLong(((Number) fila[1]).longValue()));
+            }
+            if (listo) {
+                desviados += desviacion(conteos.getOrDefault(e.getKey(), new ConcurrentHashMap<>()), nuevo);
+            }
+            conteos.put(e.getKey(), nuevo);
+        }
+
+        if (desviados > 0) {
+            log.warn("Contadores por estado reconciliados: {} unidades de diferencia con la BD", desviados);
+        }
+        listo = true;
+    }
+
+    /**
+     * Registrar un alta (anterior = null), un cambio de estado o una baja (nuevo = null)
+     */
+    public void cambio(Entidad entidad, Object anterior, Object nuevo) {
+        cambio(entidad, anterior, nuevo, 1);
+    }
+
+    /**
+     * Igual que cambio(...) para "cantidad" filas a la vez (actualizaciones masivas)
+     */
+    public void cambio(Entidad entidad, Object anterior, Object nuevo, long cantidad) {
+        if (cantidad <= 0 || Objects.equals(anterior, nuevo)) return;
+        Transacciones.despuesDelCommit(() -> {
+            ConcurrentHashMap<String, AtomicLong> mapa = conteos.computeIfAbsent(entidad, k -> new ConcurrentHashMap<>());
+            if (anterior != null) {
+                mapa.computeIfAbsent(clave(anterior), k -> new AtomicLong()).addAndGet(-cantidad);
+            }
+            if (nuevo != null) {
+                mapa.computeIfAbsent(clave(nuevo), k -> new AtomicLong()).addAndGet(cantidad);
+            }
+        });
+    }
+
+    public OptionalLong contar(Entidad entidad, Object estado) {
+        if (!listo) return OptionalLong.empty();
+        AtomicLong valor = conteos.getOrDefault(entidad, new ConcurrentHashMap<>()).get(clave(estado));
+        return OptionalLong.of(valor != null ? Math.max(0, valor.get()) : 0);
+    }
+
+    public OptionalLong total(Entidad entidad) {
+        if (!listo) return OptionalLong.empty();
+        return OptionalLong.of(conteos.getOrDefault(entidad, new ConcurrentHashMap<>()).values().stream()
+                .mapToLong(v -> Math.max(0, v.get()))
+                .sum());
+    }
+
+    /**
+     * Conteos por entidad y estado, más el total de cada entidad (clave "TOTAL")
+     */
+    public Map<String, Map<String, Long>> resumen() {
+        if (!listo) reconciliar();
+        Map<String, Map<String, Long>> resultado = new TreeMap<>();
+        for (Entidad entidad : Entidad.values()) {
+            Map<String, Long> porEstado = new TreeMap<>();
+            conteos.getOrDefault(entidad, new ConcurrentHashMap<>())
+                    .forEach((estado, valor) -> porEstado.put(estado, Math.max(0, valor.get())));
+            porEstado.put("TOTAL", total(entidad).orElse(0));
+            resultado.put(entidad.name(), porEstado);
+        }
+        return resultado;
+    }
+
+    // ==================== Helpers ====================
+
+    private static String clave(Object estado) {
+        return estado == null ? SIN_ESTADO : estado.toString().toUpperCase(Locale.ROOT);
+    }
+
+    private static long desviacion(Map<String, AtomicLong> actual, Map<String, AtomicLong> real) {
+        long total = 0;
+        for (String estado : union(actual, real)) {
+            AtomicLong a = actual.get(estado), r = real.get(estado);
+            total += Math.abs((a != null ? a.get() : 0) - (r != null ? r.get() : 0));
+        }
+        return total;
+    }
+
+    private static Set<String> union(Map<String, ?> a, Map<String, ?> b) {
+        Set<String> claves = new HashSet<>(a.keySet());
+        claves.addAll(b.keySet());
+        return claves;
+    }
+}
@@ -0,0 +1,174 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.negocio.DTO.SugerenciaCiudadDTO;
+import co.uniquindio.alojapp.persistencia.Evento.Transacciones;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trie en memoria de ciudades con alojamientos ACTIVOS, sin tildes ni mayúsculas
+ * Cada nodo guarda ya calculadas las MAX_SUGERENCIAS ciudades con más alojamientos
+ * de su subárbol, así que sugerir() solo baja por el prefijo y copia esa lista.
+ * Al cambiar el conteo de una ciudad se recalcula la ruta de esa ciudad hasta la raíz.
+ *
+ * Hasta que termina la carga inicial (ApplicationReadyEvent) sugerir() devuelve Optional.empty():
+ * una petición nunca dispara la construcción.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceCiudades {
+
+    public static final int MAX_SUGERENCIAS = 10;
+
+    private static final Comparator<Ciudad> POR_CANTIDAD =
+            Comparator.comparingInt(Ciudad::cantidad).reversed().thenComparing(Ciudad::nombre);
+
+    private final AlojamientoRepository alojamientoRepository;
+
+    private record Ciudad(String nombre, int cantidad) {
+    }
+
+    private static final class Nodo {
+        final Map<Character, Nodo> hijos = new ConcurrentHashMap<>();
+        /** Conteo por forma escrita ("Cartagena", "cartagena"...); solo en nodos terminales */
+        final Map<String, Integer> variantes = new HashMap<>();
+        volatile List<Ciudad> mejores = List.of();
+    }
+
+    private final Object escritura = new Object();
+    private volatile Nodo raiz;
+    /** Ciudad indexada de cada alojamiento, para saber qué descontar al moverlo o retirarlo */
+    private final Map<Integer, String> ciudadPorAlojamiento = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        synchronized (escritura) {
+            Nodo nueva = new Nodo();
+            ciudadPorAlojamiento.clear();
+            for (Object[] fila : alojamientoRepository.findCiudadesActivas()) {
+                String ciudad = limpiar((String) fila[1]);
+                if (ciudad.isEmpty()) continue;
+                ciudadPorAlojamiento.put((Integer) fila[0], ciudad);
+                bajar(nueva, clave(ciudad), true).variantes.merge(ciudad, 1, Integer::sum);
+            }
+            recalcularTodo(nueva);
+            raiz = nueva;
+            log.info("Trie de ciudades reconstruido: {} alojamientos", ciudadPorAlojamiento.size());
+        }
+    }
+
+    /**
+     * Registrar, mover de ciudad o retirar un alojamiento (al confirmar la transacción)
+     */
+    public void actualizar(Integer alojamientoId, String ciudad, boolean activo) {
+        Transacciones.despuesDelCommit(() -> {
+            synchronized (escritura) {
+                Nodo r = raiz;
+                if (r == null) return;
+
+                String nueva = activo ? limpiar(ciudad) : "";
+                String anterior = ciudadPorAlojamiento.get(alojamientoId);
+                if (nueva.equals(anterior)) return;
+
+                if (anterior != null) {
+                    ciudadPorAlojamiento.remove(alojamientoId);
+                    Nodo hoja = bajar(r, clave(anterior), false);
+                    if (hoja != null) {
+                        hoja.variantes.computeIfPresent(anterior, (k, n) -> n > 1 ? n - 1 : null);
+                        recalcularRuta(r, clave(anterior));
+                    }
+                }
+                if (!nueva.isEmpty()) {
+                    ciudadPorAlojamiento.put(alojamientoId, nueva);
+                    bajar(r, clave(nueva), true).variantes.merge(nueva, 1, Integer::sum);
+                    recalcularRuta(r, clave(nueva));
+                }
+            }
+        });
+    }
+
+    /**
+     * Ciudades que empiezan por el prefijo (sin importar tildes ni mayúsculas), más alojamientos primero
+     * Optional.empty() si el trie aún no está construido.
+     */
+    public Optional<List<SugerenciaCiudadDTO>> sugerir(String prefijo, int limite) {
+        Nodo r = raiz;
+        if (r == null) return Optional.empty();
+        Nodo nodo = bajar(r, clave(limpiar(prefijo)), false);
+        if (nodo == null) return Optional.of(List.of());
+
+        return Optional.of(nodo.mejores.stream()
+                .limit(Math.min(limite, MAX_SUGERENCIAS))
+                .map(c -> new SugerenciaCiudadDTO(c.nombre(), c.cantidad()))
+                .toList());
+    }
+
+    // ==================== Helpers ====================
+
+    private static String limpiar(String ciudad) {
+        return ciudad == null ? "" : ciudad.trim().replaceAll("\\s+", " ");
+    }
+
+    private static String clave(String ciudad) {
+        return AnalizadorTexto.plegar(ciudad);
+    }
+
+    private static Nodo bajar(Nodo raiz, String clave, boolean crear) {
+        Nodo nodo = raiz;
+        for (int i = 0; i < clave.length() && nodo != null; i++) {
+            char c = clave.charAt(i);
+            nodo = crear ? nodo.hijos.computeIfAbsent(c, k -> new Nodo()) : nodo.hijos.get(c);
+        }
+        return nodo;
+    }
+
+    private static void recalcularRuta(Nodo raiz, String clave) {
+        List<Nodo> ruta = new ArrayList<>();
+        Nodo nodo = raiz;
+        ruta.add(nodo);
+        for (int i = 0; i < clave.length() && nodo != null; i++) {
+            nodo = nodo.hijos.get(clave.charAt(i));
+            if (nodo != null) ruta.add(nodo);
+        }
+        for (int i = ruta.size() - 1; i >= 0; i--) {
+            recalcularNodo(ruta.get(i));
+            // Podar ramas que se quedaron sin ciudades
+            if (i > 0 && ruta.get(i).mejores.isEmpty() && ruta.get(i).hijos.isEmpty()) {
+                ruta.get(i - 1).hijos.remove(clave.charAt(i - 1));
+            }
+        }
+    }
+
+    private static void recalcularTodo(Nodo nodo) {
+        nodo.hijos.values().forEach(IndiceCiudades::recalcularTodo);
+        recalcularNodo(nodo);
+    }
+
+    private static void recalcularNodo(Nodo nodo) {
+        List<Ciudad> candidatas = new ArrayList<>();
+        if (!nodo.variantes.isEmpty()) {
+            int total = nodo.variantes.values().stream().mapToInt(Integer::intValue).sum();
+            String nombre = nodo.variantes.entrySet().stream()
+                    .max(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .orElseThrow();
+            candidatas.add(new Ciudad(nombre, total));
+        }
+        nodo.hijos.values().forEach(h -> candidatas.addAll(h.mejores));
+        candidatas.sort(POR_CANTIDAD);
+        nodo.mejores = List.copyOf(candidatas.subList(0, Math.min(MAX_SUGERENCIAS, candidatas.size())));
+    }
+}
@@ -0,0 +1,304 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.negocio.DTO.ClusterMapaDTO;
+import co.uniquindio.alojapp.persistencia.Evento.Transacciones;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Quadtree en memoria de alojamientos ACTIVOS para agrupar pines del mapa
+ * Cada nivel n corresponde a la rejilla de teselas Web Mercator 2^n x 2^n; cada nodo guarda
+ * cantidad, suma de coordenadas (para el centroide) y precio mínimo de su subárbol.
+ * Un mapa con zoom z se agrupa con los nodos del nivel z + NIVELES_POR_TESELA, de modo que
+ * cada cluster ocupa ~64 px y una pantalla toca unos pocos cientos de nodos.
+ *
+ * El árbol es inmutable: actualizar copia solo la ruta hoja → raíz y publica la nueva raíz con una
+ * escritura volatile. Cada consulta recorre la raíz que leyó al empezar, así que nunca ve un
+ * alojamiento a medio mover ni agregados de niveles distintos que no cuadran entre sí.
+ *
+ * Si el índice aún no se ha construido clusters() devuelve Optional.empty()
+ * y el llamador puede agrupar con agrupar() sobre las filas de la BD.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceClusters {
+
+    /** Nivel más profundo (~2,4 km por celda en el ecuador). Más cerca conviene pedir los alojamientos */
+    public static final int NIVEL_MAXIMO = 14;
+    /** 256 px por tesela / 4 = celdas de ~64 px */
+    static final int NIVELES_POR_TESELA = 2;
+    private static final double LATITUD_MERCATOR = 85.05112878;
+
+    private final AlojamientoRepository alojamientoRepository;
+
+    /** Agregado inmutable de un nodo: se reemplaza completo al actualizar */
+    record Nodo(int cantidad, double sumaLatitud, double sumaLongitud, BigDecimal precioMin) {
+
+        static final Nodo VACIO = new Nodo(0, 0, 0, null);
+
+        Nodo mas(Nodo otro) {
+            if (otro == null || otro.cantidad == 0) return this;
+            if (cantidad == 0) return otro;
+            BigDecimal min = precioMin == null ? otro.precioMin
+                    : otro.precioMin == null ? precioMin : precioMin.min(otro.precioMin);
+            return new Nodo(cantidad + otro.cantidad, sumaLatitud + otro.sumaLatitud,
+                    sumaLongitud + otro.sumaLongitud, min);
+        }
+    }
+
+    private record Punto(double latitud, double longitud, BigDecimal precio) {
+        Nodo comoNodo() {
+            return new Nodo(1, latitud, longitud, precio);
+        }
+    }
+
+    /**
+     * Nodo del árbol, nunca se modifica después de construido
+     * Internos: hijos por cuadrante (ver cuadrante()), null = subárbol vacío. Hojas (NIVEL_MAXIMO): sus puntos.
+     */
+    private record Rama(Nodo agregado, Rama[] hijos, Map<Integer, Punto> puntos) {
+
+        static Rama hoja(Map<Integer, Punto> puntos) {
+            if (puntos.isEmpty()) return null;
+            Nodo agregado = Nodo.VACIO;
+            for (Punto p : puntos.values()) agregado = agregado.mas(p.comoNodo());
+            return new Rama(agregado, null, Map.copyOf(puntos));
+        }
+
+        static Rama interna(Rama[] hijos) {
+            Nodo agregado = Nodo.VACIO;
+            for (Rama h : hijos) {
+                if (h != null) agregado = agregado.mas(h.agregado());
+            }
+            return agregado.cantidad() == 0 ? null : new Rama(agregado, hijos, null);
+        }
+    }
+
+    /** Raíz publicada (nivel 0); null hasta la primera reconstrucción o si no hay alojamientos */
+    private volatile Rama raiz;
+    private volatile boolean listo;
+
+    /** Ubicación actual de cada alojamiento, para encontrar su hoja al moverlo. Solo bajo "escritura" */
+    private Map<Integer, Punto> ubicaciones = new HashMap<>();
+    private final Object escritura = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        synchronized (escritura) {
+            Map<Integer, Punto> nuevas = new HashMap<>();
+            Map<Long, Map<Integer, Punto>> hojas = new HashMap<>();
+            for (Object[] fila : alojamientoRepository.findPuntosMapaActivos()) {
+                Punto p = new Punto(((BigDecimal) fila[1]).doubleValue(), ((BigDecimal) fila[2]).doubleValue(),
+                        (BigDecimal) fila[3]);
+                Integer id = (Integer) fila[0];
+                nuevas.put(id, p);
+                long[] celda = celda(p.latitud(), p.longitud(), NIVEL_MAXIMO);
+                hojas.computeIfAbsent(clave(celda[0], celda[1], NIVEL_MAXIMO), k -> new HashMap<>()).put(id, p);
+            }
+            ubicaciones = nuevas;
+            raiz = construir(hojas);
+            listo = true;
+            log.info("Quadtree de mapa reconstruido: {} alojamientos, {} hojas", nuevas.size(), hojas.size());
+        }
+    }
+
+    /**
+     * Insertar, mover o retirar un alojamiento (al confirmar la transacción).
+     * Solo se copian las rutas hoja → raíz de la celda vieja y de la nueva; la raíz se publica una vez.
+     */
+    public void actualizar(Integer alojamientoId, BigDecimal latitud, BigDecimal longitud,
+                           BigDecimal precioNoche, boolean activo) {
+        Transacciones.despuesDelCommit(() -> {
+            synchronized (escritura) {
+                if (!listo) return;
+
+                Rama nueva = raiz;
+                Punto anterior = ubicaciones.remove(alojamientoId);
+                if (anterior != null) {
+                    long[] celda = celda(anterior.latitud(), anterior.longitud(), NIVEL_MAXIMO);
+                    nueva = cambiar(nueva, 0, celda[0], celda[1], alojamientoId, null);
+                }
+                if (activo && latitud != null && longitud != null) {
+                    Punto p = new Punto(latitud.doubleValue(), longitud.doubleValue(), precioNoche);
+                    ubicaciones.put(alojamientoId, p);
+                    long[] celda = celda(p.latitud(), p.longitud(), NIVEL_MAXIMO);
+                    nueva = cambiar(nueva, 0, celda[0], celda[1], alojamientoId, p);
+                }
+                raiz = nueva;
+            }
+        });
+    }
+
+    /**
+     * Clusters visibles en el rectángulo para el zoom del mapa. Empty si el índice no puede responder.
+     * Se baja desde la raíz solo por los subárboles no vacíos que tocan el rectángulo.
+     */
+    public Optional<List<ClusterMapaDTO>> clusters(double latitudMin, double longitudMin,
+                                                   double latitudMax, double longitudMax, int zoom) {
+        if (!listo) return Optional.empty();
+        Rama r = raiz;
+
+        int nivel = nivelDeZoom(zoom);
+        List<ClusterMapaDTO> resultado = new ArrayList<>();
+        for (long[] rango : rangosDeCeldas(latitudMin, longitudMin, latitudMax, longitudMax, nivel)) {
+            recolectar(r, 0, 0, 0, nivel, rango, resultado);
+        }
+        return Optional.of(resultado);
+    }
+
+    /**
+     * Agrupa filas (id, latitud, longitud, precio) sin índice, con la misma rejilla.
+     * Respaldo mientras el quadtree no está construido.
+     */
+    public static List<ClusterMapaDTO> agrupar(List<Object[]> filas, double latitudMin, double longitudMin,
+                                               double latitudMax, double longitudMax, int zoom) {
+        int nivel = nivelDeZoom(zoom);
+        Map<Long, Nodo> nodos = new HashMap<>();
+        Map<Long, Integer> unicos = new HashMap<>();
+        for (Object[] fila : filas) {
+            double lat = ((BigDecimal) fila[1]).doubleValue(), lon = ((BigDecimal) fila[2]).doubleValue();
+            if (!IndiceGeografico.dentro(lat, lon, latitudMin, longitudMin, latitudMax, longitudMax)) continue;
+            long[] celda = celda(lat, lon, nivel);
+            long k = clave(celda[0], celda[1], nivel);
+            nodos.merge(k, new Punto(lat, lon, (BigDecimal) fila[3]).comoNodo(), Nodo::mas);
+            unicos.put(k, (Integer) fila[0]);
+        }
+        List<ClusterMapaDTO> resultado = new ArrayList<>();
+        nodos.forEach((k, nodo) -> resultado.add(aCluster(nodo, nodo.cantidad() == 1 ? unicos.get(k) : null)));
+        return resultado;
+    }
+
+    // ==================== Helpers ====================
+
+    static int nivelDeZoom(int zoom) {
+        return Math.max(0, Math.min(NIVEL_MAXIMO, zoom + NIVELES_POR_TESELA));
+    }
+
+    private static ClusterMapaDTO aCluster(Nodo nodo, Integer alojamientoId) {
+        return ClusterMapaDTO.builder()
+                .latitud(nodo.sumaLatitud() / nodo.cantidad())
+                .longitud(nodo.sumaLongitud() / nodo.cantidad())
+                .cantidad(nodo.cantidad())
+                .precioMin(nodo.precioMin())
+                .alojamientoId(alojamientoId)
+                .build();
+    }
+
+    /** Árbol completo a partir de las hojas agrupadas por celda, de abajo hacia arriba */
+    private static Rama construir(Map<Long, Map<Integer, Punto>> hojas) {
+        Map<Long, Rama> nivel = new HashMap<>();
+        hojas.forEach((k, puntos) -> nivel.put(k, Rama.hoja(puntos)));
+        for (int n = NIVEL_MAXIMO - 1; n >= 0; n--) {
+            int padre = n, hijo = n + 1;
+            long mascara = (1L << hijo) - 1;
+            Map<Long, Rama[]> hijosPorPadre = new HashMap<>();
+            nivel.forEach((k, rama) -> {
+                long x = k >> hijo, y = k & mascara;
+                hijosPorPadre.computeIfAbsent(clave(x >> 1, y >> 1, padre), c -> new Rama[4])[cuadrante(x, y)] = rama;
+            });
+            nivel.clear();
+            hijosPorPadre.forEach((k, hijos) -> nivel.put(k, Rama.interna(hijos)));
+        }
+        return nivel.get(clave(0, 0, 0));
+    }
+
+    /**
+     * Copia de "rama" (nivel n) con el punto puesto (o quitado si es null) en la hoja (x, y) de NIVEL_MAXIMO
+     * Solo se crean los nodos de la ruta; el resto del árbol se comparte con la versión anterior.
+     */
+    private static Rama cambiar(Rama rama, int n, long x, long y, Integer id, Punto punto) {
+        if (n == NIVEL_MAXIMO) {
+            Map<Integer, Punto> puntos = new HashMap<>(rama != null ? rama.puntos() : Map.of());
+            if (punto != null) puntos.put(id, punto);
+            else puntos.remove(id);
+            return Rama.hoja(puntos);
+        }
+        int d = NIVEL_MAXIMO - n - 1;
+        int c = cuadrante(x >> d, y >> d);
+        Rama[] hijos = rama != null ? rama.hijos().clone() : new Rama[4];
+        hijos[c] = cambiar(hijos[c], n + 1, x, y, id, punto);
+        return Rama.interna(hijos);
+    }
+
+    /** Agregar los nodos del nivel pedido dentro del rango {xMin, xMax, yMin, yMax} bajo "rama" (celda x, y del nivel n) */
+    private static void recolectar(Rama rama, int n, long x, long y, int nivel, long[] rango,
+                                   List<ClusterMapaDTO> resultado) {
+        if (rama == null) return;
+        int d = nivel - n;
+        if (((x + 1) << d) - 1 < rango[0] || x << d > rango[1]
+                || ((y + 1) << d) - 1 < rango[2] || y << d > rango[3]) return;
+        if (n == nivel) {
+            Nodo nodo = rama.agregado();
+            resultado.add(aCluster(nodo, nodo.cantidad() == 1 ? unicoDeRama(rama) : null));
+            return;
+        }
+        for (int c = 0; c < 4; c++) {
+            recolectar(rama.hijos()[c], n + 1, x * 2 + (c >> 1), y * 2 + (c & 1), nivel, rango, resultado);
+        }
+    }
+
+    /** ID del único alojamiento de un nodo con cantidad 1: se baja por el hijo no vacío hasta la hoja */
+    private static Integer unicoDeRama(Rama rama) {
+        while (rama.hijos() != null) {
+            Rama siguiente = null;
+            for (Rama h : rama.hijos()) {
+                if (h != null) siguiente = h;
+            }
+            if (siguiente == null) return null;
+            rama = siguiente;
+        }
+        return rama.puntos().size() == 1 ? rama.puntos().keySet().iterator().next() : null;
+    }
+
+    /** Posición (0-3) de la celda (x, y) entre los cuatro hijos de su padre */
+    private static int cuadrante(long x, long y) {
+        return (int) ((x & 1) << 1 | (y & 1));
+    }
+
+    /** Rangos {xMin, xMax, yMin, yMax} de celdas; dos si el rectángulo cruza el antimeridiano */
+    private static List<long[]> rangosDeCeldas(double latMin, double lonMin, double latMax, double lonMax, int nivel) {
+        List<long[]> rangos = new ArrayList<>();
+        if (lonMin > lonMax) {
+            rangos.add(rango(latMin, lonMin, latMax, 180, nivel));
+            rangos.add(rango(latMin, -180, latMax, lonMax, nivel));
+        } else {
+            rangos.add(rango(latMin, lonMin, latMax, lonMax, nivel));
+        }
+        return rangos;
+    }
+
+    private static long[] rango(double latMin, double lonMin, double latMax, double lonMax, int nivel) {
+        long[] so = celda(latMin, lonMin, nivel);
+        long[] ne = celda(latMax, lonMax, nivel);
+        // En Mercator la y crece hacia el sur
+        return new long[]{so[0], ne[0], ne[1], so[1]};
+    }
+
+    /** Tesela Web Mercator {x, y} que contiene el punto en el nivel dado */
+    static long[] celda(double lat, double lon, int nivel) {
+        long lado = 1L << nivel;
+        double latR = Math.toRadians(Math.max(-LATITUD_MERCATOR, Math.min(LATITUD_MERCATOR, lat)));
+        double x = (lon + 180) / 360 * lado;
+        double y = (1 - Math.log(Math.tan(latR) + 1 / Math.cos(latR)) / Math.PI) / 2 * lado;
+        return new long[]{
+                Math.max(0, Math.min(lado - 1, (long) Math.floor(x))),
+                Math.max(0, Math.min(lado - 1, (long) Math.floor(y)))
+        };
+    }
+
+    private static long clave(long x, long y, int nivel) {
+        return (x << nivel) | y;
+    }
+}
@@ -0,0 +1,303 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Evento.Transacciones;
+import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de noches ocupadas por alojamiento
+ * Cada alojamiento guarda un bitmap (un bit por noche) sobre un horizonte móvil
+ * de HORIZONTE_DIAS a partir de "origen". Solo cuenta reservas CONFIRMADA/PENDIENTE.
+ * RN14, RN25: responde disponibilidad sin consultar la tabla de reservas.
+ *
+ * Si el rango consultado cae fuera del horizonte (o el índice aún no se ha
+ * construido) los métodos devuelven Optional.empty() y el llamador debe
+ * consultar la BD.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceDisponibilidad {
+
+    public static final int HORIZONTE_DIAS = 730;
+    private static final int PALABRAS = (HORIZONTE_DIAS + 63) / 64;
+
+    private final ReservaRepository reservaRepository;
+
+    /**
+     * Estado completo; se reemplaza al reconstruir con una sola escritura volátil, así un lector
+     * nunca ve el mapa a medio llenar ni bitmaps nuevos con el origen anterior.
+     * Los arreglos nunca se modifican en sitio: se copian y se reemplazan (lecturas sin bloqueo).
+     */
+    private record Estado(LocalDate origen, Map<Integer, long[]> ocupacion) {
+    }
+
+    // null hasta la primera reconstrucción
+    private volatile Estado estado;
+    private final Object escritura = new Object();
+
+    /**
+     * Reconstruye el índice completo desde la BD.
+     * Se ejecuta al arrancar y cada madrugada para desplazar el horizonte.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 5 0 * * *")
+    public void reconstruir() {
+        synchronized (escritura) {
+            LocalDate nuevoOrigen = LocalDate.now().minusDays(1);
+            Map<Integer, long[]> nuevo = new ConcurrentHashMap<>();
+
+            for (Object[] fila : reservaRepository.findRangosActivosDesde(nuevoOrigen)) {
+                Integer alojamientoId = (Integer) fila[0];
+                long[] bits = nuevo.computeIfAbsent(alojamientoId, k -> new long[PALABRAS]);
+                marcar(bits, nuevoOrigen, (LocalDate) fila[1], (LocalDate) fila[2]);
+            }
+
+            estado = new Estado(nuevoOrigen, nuevo);
+            log.info("Índice de disponibilidad reconstruido: {} alojamientos con ocupación", nuevo.size());
+        }
+    }
+
+    /**
+     * Registrar las noches de una reserva nueva (al confirmar la transacción)
+     */
+    public void registrarReserva(Integer alojamientoId, LocalDate checkin, LocalDate checkout) {
+        Transacciones.despuesDelCommit(() -> {
+            synchronized (escritura) {
+                Estado e = estado;
+                if (e == null) return;
+                long[] actual = e.ocupacion().get(alojamientoId);
+                long[] copia = actual != null ? actual.clone() : new long[PALABRAS];
+                marcar(copia, e.origen(), checkin, checkout);
+                e.ocupacion().put(alojamientoId, copia);
+            }
+        });
+    }
+
+    /**
+     * Recalcular un alojamiento desde la BD (cancelaciones, completadas)
+     * Se recalcula en lugar de limpiar bits para no perder noches de otras reservas.
+     */
+    public void recalcular(Collection<Integer> alojamientoIds) {
+        if (alojamientoIds.isEmpty()) return;
+        Set<Integer> ids = new HashSet<>(alojamientoIds);
+        Transacciones.despuesDelCommit(() -> {
+            synchronized (escritura) {
+                Estado e = estado;
+                if (e == null) return;
+                for (Integer id : ids) {
+                    long[] bits = new long[PALABRAS];
+                    for (Object[] fila : reservaRepository.findRangosActivosDeAlojamientoDesde(id, e.origen())) {
+                        marcar(bits, e.origen(), (LocalDate) fila[1], (LocalDate) fila[2]);
+                    }
+                    e.ocupacion().put(id, bits);
+                }
+            }
+        });
+    }
+
+    /**
+     * ¿Está libre el alojamiento en el rango? Empty si el índice no puede responder.
+     * Estadías [checkin, checkout): el día de checkout de una reserva puede ser el checkin de otra.
+     */
+    public Optional<Boolean> estaDisponible(Integer alojamientoId, LocalDate checkin, LocalDate checkout) {
+        Estado e = estado;
+        int[] rango = rangoConsulta(e, checkin, checkout);
+        if (rango == null) return Optional.empty();
+
+        long[] bits = e.ocupacion().get(alojamientoId);
+        return Optional.of(bits == null || rangoLibre(bits, rango[0], rango[1]));
+    }
+
+    /**
+     * IDs de alojamientos ocupados en el rango. Empty si el índice no puede responder.
+     */
+    public Optional<Set<Integer>> alojamientosOcupados(LocalDate checkin, LocalDate checkout) {
+        Estado e = estado;
+        int[] rango = rangoConsulta(e, checkin, checkout);
+        if (rango == null) return Optional.empty();
+
+        Set<Integer> ocupados = new HashSet<>();
+        e.ocupacion().forEach((id, bits) -> {
+            if (!rangoLibre(bits, rango[0], rango[1])) ocupados.add(id);
+        });
+        return Optional.of(ocupados);
+    }
+
+    /**
+     * Noches desde..hasta (inclusive) como texto: '1' ocupada, '0' libre
+     * El día de checkout de una reserva aparece libre.
+     * Empty si el rango sale del horizonte o el índice no está listo.
+     */
+    public Optional<String> nochesOcupadas(Integer alojamientoId, LocalDate desde, LocalDate hasta) {
+        Estado e = estado;
+        if (e == null) return Optional.empty();
+        long inicio = ChronoUnit.DAYS.between(e.origen(), desde);
+        long fin = ChronoUnit.DAYS.between(e.origen(), hasta);
+        if (inicio < 0 || fin >= HORIZONTE_DIAS || inicio > fin) return Optional.empty();
+
+        long[] bits = e.ocupacion().get(alojamientoId);
+        return Optional.of(codificar(bits, (int) inicio, (int) fin));
+    }
+
+    /**
+     * Igual que nochesOcupadas pero a partir de rangos (alojamientoId, checkin, checkout) leídos de la BD
+     */
+    public static String nochesDesdeRangos(List<Object[]> rangos, LocalDate desde, LocalDate hasta) {
+        long[] bits = new long[PALABRAS];
+        for (Object[] fila : rangos) {
+            marcar(bits, desde, (LocalDate) fila[1], (LocalDate) fila[2]);
+        }
+        return codificar(bits, 0, (int) ChronoUnit.DAYS.between(desde, hasta));
+    }
+
+    /**
+     * Resultado de una búsqueda de fechas flexibles
+     * sinHueco: alojamientos sin ninguna racha libre de las noches pedidas dentro de la ventana.
+     * primerInicio: primer checkin posible de los que tienen ocupación y sí tienen hueco;
+     * los que no aparecen en ninguno de los dos están libres desde el inicio de la ventana.
+     */
+    public record HuecosLibres(Set<Integer> sinHueco, Map<Integer, LocalDate> primerInicio) {
+    }
+
+    /**
+     * Fechas flexibles: "noches" seguidas en algún momento entre inicio y fin (checkout <= fin)
+     * Un recorrido del bitmap por alojamiento, saltando de noche ocupada en noche ocupada.
+     * Empty si la ventana sale del horizonte o el índice no está listo.
+     */
+    public Optional<HuecosLibres> huecosLibres(LocalDate inicio, LocalDate fin, int noches) {
+        Estado e = estado;
+        int[] rango = rangoConsulta(e, inicio, fin);
+        if (rango == null) return Optional.empty();
+        return Optional.of(huecos(e.ocupacion(), e.origen(), rango[0], rango[1], noches));
+    }
+
+    /**
+     * Igual que huecosLibres pero a partir de rangos (alojamientoId, checkin, checkout) leídos de la BD
+     */
+    public static HuecosLibres huecosDesdeRangos(List<Object[]> rangos, LocalDate inicio, LocalDate fin, int noches) {
+        int palabras = (int) ((ChronoUnit.DAYS.between(inicio, fin) + 64) / 64);
+        Map<Integer, long[]> bitsPorAlojamiento = new HashMap<>();
+        for (Object[] fila : rangos) {
+            long[] bits = bitsPorAlojamiento.computeIfAbsent((Integer) fila[0], k -> new long[palabras]);
+            LocalDate checkout = (LocalDate) fila[2];
+            marcar(bits, inicio, (LocalDate) fila[1], checkout.isAfter(fin) ? fin : checkout);
+        }
+        return huecos(bitsPorAlojamiento, inicio, 0, (int) ChronoUnit.DAYS.between(inicio, fin) - 1, noches);
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * La estadía [s, s + noches) está libre si sus noches [s, s + noches - 1] lo están:
+     * se buscan "noches" bits libres seguidos dentro de [desde, hasta].
+     */
+    private static HuecosLibres huecos(Map<Integer, long[]> ocupacion, LocalDate base,
+                                       int desde, int hasta, int noches) {
+        int largo = noches;
+        Set<Integer> sinHueco = new HashSet<>();
+        Map<Integer, LocalDate> primerInicio = new HashMap<>();
+        ocupacion.forEach((id, bits) -> {
+            int p = primerHueco(bits, desde, hasta, largo);
+            if (p < 0) {
+                sinHueco.add(id);
+            } else if (p > desde) {
+                primerInicio.put(id, base.plusDays(p));
+            }
+        });
+        return new HuecosLibres(sinHueco, primerInicio);
+    }
+
+    /**
+     * Primera posición p en [desde, hasta - largo + 1] con [p, p + largo - 1] libre, o -1
+     */
+    static int primerHueco(long[] bits, int desde, int hasta, int largo) {
+        int p = desde;
+        while (p + largo - 1 <= hasta) {
+            int ocupada = primeraOcupada(bits, p, p + largo - 1);
+            if (ocupada < 0) return p;
+            p = ocupada + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Primer bit encendido en [desde, hasta] (inclusive), o -1
+     */
+    private static int primeraOcupada(long[] bits, int desde, int hasta) {
+        int primera = desde >>> 6;
+        int ultima = Math.min(hasta >>> 6, bits.length - 1);
+        for (int p = primera; p <= ultima; p++) {
+            long mascara = -1L;
+            if (p == primera) mascara &= -1L << (desde & 63);
+            if (p == (hasta >>> 6)) mascara &= -1L >>> (63 - (hasta & 63));
+            long ocupadas = bits[p] & mascara;
+            if (ocupadas != 0) return (p << 6) + Long.numberOfTrailingZeros(ocupadas);
+        }
+        return -1;
+    }
+
+    /**
+     * Convierte la estadía [checkin, checkout) en el rango de noches a revisar.
+     * Una reserva [rIn, rOut) choca con la consultada si rIn < checkout y checkin < rOut,
+     * es decir, si ocupa alguna noche en [checkin, checkout - 1].
+     */
+    private static int[] rangoConsulta(Estado e, LocalDate checkin, LocalDate checkout) {
+        if (e == null || checkin == null || checkout == null) return null;
+
+        long desde = ChronoUnit.DAYS.between(e.origen(), checkin);
+        long hasta = ChronoUnit.DAYS.between(e.origen(), checkout) - 1;
+        if (desde < 0 || hasta >= HORIZONTE_DIAS || desde > hasta) return null;
+        return new int[]{(int) desde, (int) hasta};
+    }
+
+    private static void marcar(long[] bits, LocalDate base, LocalDate checkin, LocalDate checkout) {
+        long desde = Math.max(0, ChronoUnit.DAYS.between(base, checkin));
+        long hasta = Math.min(HORIZONTE_DIAS, ChronoUnit.DAYS.between(base, checkout)); // exclusivo
+        for (long n = desde; n < hasta; n++) {
+            int palabra = (int) (n >>> 6);
+            long mascara = 1L << (n & 63);
+            bits[palabra] |= mascara;
+        }
+    }
+
+    private static String codificar(long[] bits, int desde, int hasta) {
+        char[] noches = new char[hasta - desde + 1];
+        for (int n = desde; n <= hasta; n++) {
+            boolean ocupada = bits != null && (bits[n >>> 6] & (1L << (n & 63))) != 0;
+            noches[n - desde] = ocupada ? '1' : '0';
+        }
+        return new String(noches);
+    }
+
+    /**
+     * true si ningún bit en [desde, hasta] (inclusive) está encendido
+     */
+    static boolean rangoLibre(long[] bits, int desde, int hasta) {
+        int primera = desde >>> 6;
+        int ultima = hasta >>> 6;
+        for (int p = primera; p <= ultima; p++) {
+            long mascara = -1L;
+            if (p == primera) mascara &= -1L << (desde & 63);
+            if (p == ultima) mascara &= -1L >>> (63 - (hasta & 63));
+            if ((bits[p] & mascara) != 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,234 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Evento.Transacciones;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice espacial en memoria de alojamientos ACTIVOS
+ * Rejilla regular de celdas de TAMANO_CELDA grados: cada celda guarda los IDs que caen en ella.
+ * Una consulta por radio o por rectángulo solo recorre las celdas que toca y
+ * filtra los candidatos por su posición exacta (haversine para el radio).
+ *
+ * Si el índice aún no se ha construido los métodos devuelven Optional.empty()
+ * y el llamador debe consultar la BD.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceGeografico {
+
+    /** 0.05° ≈ 5,5 km de latitud */
+    static final double TAMANO_CELDA = 0.05;
+    private static final int COLUMNAS = (int) Math.ceil(360 / TAMANO_CELDA);
+    public static final double RADIO_TIERRA_KM = 6371.0088;
+
+    private final AlojamientoRepository alojamientoRepository;
+
+    /**
+     * Estado completo; se reemplaza al reconstruir con una sola escritura volátil, así un lector
+     * nunca ve posiciones nuevas con las celdas anteriores ni un índice a medio llenar.
+     */
+    private record Estado(Map<Integer, double[]> posiciones, Map<Long, Set<Integer>> celdas) {
+    }
+
+    // null hasta la primera reconstrucción
+    private volatile Estado estado;
+    private final Object escritura = new Object();
+
+    /**
+     * Carga las posiciones de todos los alojamientos activos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        synchronized (escritura) {
+            Map<Integer, double[]> nuevasPosiciones = new ConcurrentHashMap<>();
+            Map<Long, Set<Integer>> nuevasCeldas = new ConcurrentHashMap<>();
+            for (Object[] fila : alojamientoRepository.findPosicionesActivas()) {
+                colocar(nuevasPosiciones, nuevasCeldas, (Integer) fila[0],
+                        ((BigDecimal) fila[1]).doubleValue(), ((BigDecimal) fila[2]).doubleValue());
+            }
+            estado = new Estado(nuevasPosiciones, nuevasCeldas);
+            log.info("Índice geográfico reconstruido: {} alojamientos en {} celdas",
+                    nuevasPosiciones.size(), nuevasCeldas.size());
+        }
+    }
+
+    /**
+     * Registrar o mover un alojamiento (al confirmar la transacción).
+     * Si no está activo o no tiene coordenadas se retira del índice.
+     */
+    public void actualizar(Integer alojamientoId, BigDecimal latitud, BigDecimal longitud, boolean activo) {
+        Transacciones.despuesDelCommit(() -> {
+            synchronized (escritura) {
+                Estado e = estado;
+                if (e == null) return;
+                retirar(e, alojamientoId);
+                if (activo && latitud != null && longitud != null) {
+                    colocar(e.posiciones(), e.celdas(), alojamientoId, latitud.doubleValue(), longitud.doubleValue());
+                }
+            }
+        });
+    }
+
+    /**
+     * IDs a menos de radioKm del punto. Empty si el índice no puede responder.
+     */
+    public Optional<Set<Integer>> enRadio(double latitud, double longitud, double radioKm) {
+        Estado e = estado;
+        if (e == null) return Optional.empty();
+
+        double[] caja = cajaDelRadio(latitud, longitud, radioKm);
+        Set<Integer> resultado = new HashSet<>();
+        recorrer(e, caja[0], caja[1], caja[2], caja[3], (id, pos) -> {
+            if (distanciaKm(latitud, longitud, pos[0], pos[1]) <= radioKm) resultado.add(id);
+        });
+        return Optional.of(resultado);
+    }
+
+    /**
+     * IDs dentro del rectángulo del mapa. Si longitudMin > longitudMax el
+     * rectángulo cruza el antimeridiano. Empty si el índice no puede responder.
+     */
+    public Optional<Set<Integer>> enRectangulo(double latitudMin, double longitudMin,
+                                               double latitudMax, double longitudMax) {
+        Estado e = estado;
+        if (e == null) return Optional.empty();
+
+        Set<Integer> resultado = new HashSet<>();
+        recorrer(e, latitudMin, longitudMin, latitudMax, longitudMax, (id, pos) -> {
+            if (dentro(pos[0], pos[1], latitudMin, longitudMin, latitudMax, longitudMax)) resultado.add(id);
+        });
+        return Optional.of(resultado);
+    }
+
+    // ==================== Geometría ====================
+
+    /**
+     * Distancia ortodrómica (haversine) en km
+     */
+    public static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Rectángulo {latMin, lonMin, latMax, lonMax} que contiene el círculo.
+     * Cerca de los polos se amplía a todas las longitudes.
+     */
+    public static double[] cajaDelRadio(double latitud, double longitud, double radioKm) {
+        double dLat = Math.toDegrees(radioKm / RADIO_TIERRA_KM);
+        double latMin = Math.max(-90, latitud - dLat);
+        double latMax = Math.min(90, latitud + dLat);
+        if (latMin <= -90 || latMax >= 90) {
+            return new double[]{latMin, -180, latMax, 180};
+        }
+        double dLon = Math.toDegrees(radioKm / (RADIO_TIERRA_KM * Math.cos(Math.toRadians(latitud))));
+        if (dLon >= 180) {
+            return new double[]{latMin, -180, latMax, 180};
+        }
+        return new double[]{latMin, normalizarLongitud(longitud - dLon), latMax, normalizarLongitud(longitud + dLon)};
+    }
+
+    public static boolean dentro(double lat, double lon,
+                                 double latMin, double lonMin, double latMax, double lonMax) {
+        if (lat < latMin || lat > latMax) return false;
+        return lonMin <= lonMax
+                ? lon >= lonMin && lon <= lonMax
+                : lon >= lonMin || lon <= lonMax;
+    }
+
+    // ==================== Helpers ====================
+
+    private interface Visitante {
+        void visitar(Integer id, double[] posicion);
+    }
+
+    private static void recorrer(Estado e, double latMin, double lonMin, double latMax, double lonMax,
+                                 Visitante visitante) {
+        if (lonMin > lonMax) {
+            recorrerSinCruce(e, latMin, lonMin, latMax, 180, visitante);
+            recorrerSinCruce(e, latMin, -180, latMax, lonMax, visitante);
+        } else {
+            recorrerSinCruce(e, latMin, lonMin, latMax, lonMax, visitante);
+        }
+    }
+
+    private static void recorrerSinCruce(Estado e, double latMin, double lonMin, double latMax, double lonMax,
+                                         Visitante visitante) {
+        Map<Long, Set<Integer>> celdas = e.celdas();
+        int filaMin = fila(latMin), filaMax = fila(latMax);
+        int colMin = columna(lonMin), colMax = columna(lonMax);
+        long totalCeldas = (long) (filaMax - filaMin + 1) * (colMax - colMin + 1);
+
+        if (totalCeldas > celdas.size()) {
+            // Rectángulo muy grande: sale más barato revisar solo las celdas ocupadas
+            celdas.forEach((clave, ids) -> {
+                int f = (int) (clave / COLUMNAS), c = (int) (clave % COLUMNAS);
+                if (f >= filaMin && f <= filaMax && c >= colMin && c <= colMax) visitarCelda(e, ids, visitante);
+            });
+            return;
+        }
+        for (int f = filaMin; f <= filaMax; f++) {
+            for (int c = colMin; c <= colMax; c++) {
+                Set<Integer> ids = celdas.get(clave(f, c));
+                if (ids != null) visitarCelda(e, ids, visitante);
+            }
+        }
+    }
+
+    private static void visitarCelda(Estado e, Set<Integer> ids, Visitante visitante) {
+        for (Integer id : ids) {
+            double[] pos = e.posiciones().get(id);
+            if (pos != null) visitante.visitar(id, pos);
+        }
+    }
+
+    private static void colocar(Map<Integer, double[]> posiciones, Map<Long, Set<Integer>> celdas,
+                                Integer id, double lat, double lon) {
+        posiciones.put(id, new double[]{lat, lon});
+        celdas.computeIfAbsent(clave(fila(lat), columna(lon)), k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    private static void retirar(Estado e, Integer id) {
+        double[] pos = e.posiciones().remove(id);
+        if (pos == null) return;
+        long clave = clave(fila(pos[0]), columna(pos[1]));
+        Set<Integer> ids = e.celdas().get(clave);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) e.celdas().remove(clave);
+        }
+    }
+
+    private static int fila(double lat) {
+        return (int) Math.floor((Math.max(-90, Math.min(90, lat)) + 90) / TAMANO_CELDA);
+    }
+
+    private static int columna(double lon) {
+        return Math.min(COLUMNAS - 1, (int) Math.floor((normalizarLongitud(lon) + 180) / TAMANO_CELDA));
+    }
+
+    private static long clave(int fila, int columna) {
+        return (long) fila * COLUMNAS + columna;
+    }
+
+    private static double normalizarLongitud(double lon) {
+        if (lon >= -180 && lon <= 180) return lon;
+        return ((lon + 180) % 360 + 360) % 360 - 180;
+    }
+}
@@ -0,0 +1,132 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Evento.Transacciones;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo en memoria de los servicios de cada alojamiento ACTIVO como máscara de bits
+ * Cada servicio recibe una posición fija (bit) la primera vez que aparece; la máscara de un
+ * alojamiento es un long[] con un bit por servicio. "Tiene todos los servicios pedidos"
+ * es (mascara & pedida) == pedida, sin join ni DISTINCT en la consulta.
+ *
+ * Hasta que termina la carga inicial (ApplicationReadyEvent) conTodos() devuelve Optional.empty()
+ * y AlojamientoDAO filtra los servicios en la BD; una petición nunca dispara la construcción.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceServicios {
+
+    private final AlojamientoRepository alojamientoRepository;
+
+    /** Estado completo; se reemplaza al reconstruir */
+    private static final class Estado {
+        final Map<Integer, Integer> bitPorServicio = new ConcurrentHashMap<>();
+        final Map<Integer, long[]> mascaras = new ConcurrentHashMap<>();
+    }
+
+    private volatile Estado estado;
+    private final Object escritura = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        synchronized (escritura) {
+            Estado nuevo = new Estado();
+            Map<Integer, Set<Integer>> servicios = new HashMap<>();
+            for (Object[] fila : alojamientoRepository.findServiciosDeActivos()) {
+                Set<Integer> ids = servicios.computeIfAbsent((Integer) fila[0], k -> new HashSet<>());
+                if (fila[1] != null) ids.add((Integer) fila[1]);
+            }
+            servicios.forEach((id, ids) -> nuevo.mascaras.put(id, mascara(nuevo, ids)));
+            estado = nuevo;
+            log.info("Catálogo de servicios reconstruido: {} alojamientos, {} servicios",
+                    nuevo.mascaras.size(), nuevo.bitPorServicio.size());
+        }
+    }
+
+    /**
+     * Reemplazar los servicios de un alojamiento o retirarlo (al confirmar la transacción)
+     */
+    public void actualizar(Integer alojamientoId, Collection<Integer> serviciosIds, boolean activo) {
+        Transacciones.despuesDelCommit(() -> {
+            synchronized (escritura) {
+                Estado e = estado;
+                if (e == null) return;
+                if (activo) {
+                    e.mascaras.put(alojamientoId, mascara(e, serviciosIds));
+                } else {
+                    e.mascaras.remove(alojamientoId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Alojamientos activos que tienen TODOS los servicios indicados
+     * Vacío si alguno de los servicios no lo tiene ningún alojamiento;
+     * Optional.empty() si el catálogo aún no está construido.
+     */
+    public Optional<Set<Integer>> conTodos(Collection<Integer> serviciosIds) {
+        Estado e = estado;
+        if (e == null) return Optional.empty();
+
+        long[] pedida = new long[0];
+        for (Integer servicioId : serviciosIds) {
+            Integer bit = e.bitPorServicio.get(servicioId);
+            if (bit == null) return Optional.of(new HashSet<>());
+            pedida = encender(pedida, bit);
+        }
+
+        Set<Integer> resultado = new HashSet<>();
+        for (Map.Entry<Integer, long[]> en : e.mascaras.entrySet()) {
+            if (contiene(en.getValue(), pedida)) resultado.add(en.getKey());
+        }
+        return Optional.of(resultado);
+    }
+
+    // ==================== Helpers ====================
+
+    private static long[] mascara(Estado e, Collection<Integer> serviciosIds) {
+        long[] m = new long[0];
+        if (serviciosIds == null) return m;
+        for (Integer servicioId : serviciosIds) {
+            if (servicioId == null) continue;
+            Integer bit = e.bitPorServicio.get(servicioId);
+            if (bit == null) {
+                bit = e.bitPorServicio.size();
+                e.bitPorServicio.put(servicioId, bit);
+            }
+            m = encender(m, bit);
+        }
+        return m;
+    }
+
+    private static long[] encender(long[] m, int bit) {
+        int palabra = bit >>> 6;
+        long[] r = palabra < m.length ? m : Arrays.copyOf(m, palabra + 1);
+        r[palabra] |= 1L << (bit & 63);
+        return r;
+    }
+
+    static boolean contiene(long[] mascara, long[] pedida) {
+        for (int i = 0; i < pedida.length; i++) {
+            long tiene = i < mascara.length ? mascara[i] : 0L;
+            if ((tiene & pedida[i]) != pedida[i]) return false;
+        }
+        return true;
+    }
+}
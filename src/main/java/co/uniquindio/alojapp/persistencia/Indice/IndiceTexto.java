@@ -0,0 +1,157 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Evento.Transacciones;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice invertido en memoria sobre titulo + descripcion de los alojamientos ACTIVOS
+ * Cada término (ver AnalizadorTexto) apunta a su lista de alojamientos con la frecuencia
+ * del término; las apariciones en el título pesan PESO_TITULO veces.
+ * La búsqueda exige todos los términos (AND) y puntúa con BM25.
+ *
+ * Hasta que termina la carga inicial (ApplicationReadyEvent) buscar() devuelve Optional.empty()
+ * y AlojamientoDAO resuelve el texto en la BD; una petición nunca dispara la construcción.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceTexto {
+
+    static final int PESO_TITULO = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final AlojamientoRepository alojamientoRepository;
+
+    /** Estado completo; se reemplaza al reconstruir */
+    private static final class Estado {
+        final Map<String, Map<Integer, Integer>> postings = new ConcurrentHashMap<>();
+        /** Términos distintos y longitud (ponderada) de cada documento, para poder retirarlo */
+        final Map<Integer, Map<String, Integer>> documentos = new ConcurrentHashMap<>();
+        volatile long longitudTotal = 0;
+    }
+
+    private volatile Estado estado;
+    private final Object escritura = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        synchronized (escritura) {
+            Estado nuevo = new Estado();
+            for (Object[] fila : alojamientoRepository.findTextosActivos()) {
+                agregar(nuevo, (Integer) fila[0], (String) fila[1], (String) fila[2]);
+            }
+            estado = nuevo;
+            log.info("Índice de texto reconstruido: {} alojamientos, {} términos",
+                    nuevo.documentos.size(), nuevo.postings.size());
+        }
+    }
+
+    /**
+     * Reindexar o retirar un alojamiento (al confirmar la transacción)
+     */
+    public void actualizar(Integer alojamientoId, String titulo, String descripcion, boolean activo) {
+        Transacciones.despuesDelCommit(() -> {
+            synchronized (escritura) {
+                Estado e = estado;
+                if (e == null) return;
+                retirar(e, alojamientoId);
+                if (activo) agregar(e, alojamientoId, titulo, descripcion);
+            }
+        });
+    }
+
+    /**
+     * Alojamientos que contienen todos los términos de la consulta, de mayor a menor puntaje.
+     * Mapa vacío si la consulta no tiene términos indexables o nada coincide;
+     * Optional.empty() si el índice aún no está construido.
+     */
+    public Optional<Map<Integer, Double>> buscar(String consulta) {
+        Estado e = estado;
+        if (e == null) return Optional.empty();
+        return Optional.of(puntuar(e, consulta));
+    }
+
+    private static Map<Integer, Double> puntuar(Estado e, String consulta) {
+        Set<String> terminos = new LinkedHashSet<>(AnalizadorTexto.terminos(consulta));
+        Map<Integer, Double> resultado = new LinkedHashMap<>();
+        if (terminos.isEmpty()) return resultado;
+
+        List<Map<Integer, Integer>> listas = new ArrayList<>();
+        for (String t : terminos) {
+            Map<Integer, Integer> lista = e.postings.get(t);
+            if (lista == null || lista.isEmpty()) return resultado;
+            listas.add(lista);
+        }
+        // Intersección empezando por la lista más corta
+        listas.sort(Comparator.comparingInt(Map::size));
+
+        int n = Math.max(1, e.documentos.size());
+        double longitudMedia = Math.max(1.0, (double) e.longitudTotal / n);
+        Map<Integer, Double> puntajes = new HashMap<>();
+        for (Integer id : listas.get(0).keySet()) {
+            Map<String, Integer> doc = e.documentos.get(id);
+            if (doc == null) continue;
+            double longitud = doc.values().stream().mapToInt(Integer::intValue).sum();
+            double puntaje = 0;
+            boolean todos = true;
+            for (Map<Integer, Integer> lista : listas) {
+                Integer tf = lista.get(id);
+                if (tf == null) {
+                    todos = false;
+                    break;
+                }
+                double idf = Math.log(1 + (n - lista.size() + 0.5) / (lista.size() + 0.5));
+                puntaje += idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * longitud / longitudMedia));
+            }
+            if (todos) puntajes.put(id, puntaje);
+        }
+
+        puntajes.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(en -> resultado.put(en.getKey(), en.getValue()));
+        return resultado;
+    }
+
+    // ==================== Helpers ====================
+
+    private static void agregar(Estado e, Integer id, String titulo, String descripcion) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        for (String t : AnalizadorTexto.terminos(titulo)) frecuencias.merge(t, PESO_TITULO, Integer::sum);
+        for (String t : AnalizadorTexto.terminos(descripcion)) frecuencias.merge(t, 1, Integer::sum);
+        if (frecuencias.isEmpty()) return;
+
+        frecuencias.forEach((t, tf) -> e.postings.computeIfAbsent(t, k -> new ConcurrentHashMap<>()).put(id, tf));
+        e.documentos.put(id, frecuencias);
+        e.longitudTotal += frecuencias.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private static void retirar(Estado e, Integer id) {
+        Map<String, Integer> anterior = e.documentos.remove(id);
+        if (anterior == null) return;
+        anterior.keySet().forEach(t -> {
+            Map<Integer, Integer> lista = e.postings.get(t);
+            if (lista != null) {
+                lista.remove(id);
+                if (lista.isEmpty()) e.postings.remove(t);
+            }
+        });
+        e.longitudTotal -= anterior.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,37 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Peso de una reserva en el puntaje de popularidad de su alojamiento
+ * peso = 2^(días desde EPOCA / vida-media-dias): una reserva de hoy pesa el doble que una
+ * de hace vida-media-dias. Como todos los pesos crecen al mismo ritmo, ordenar por la suma
+ * equivale a ordenar por el puntaje con decaimiento, sin envejecer los puntajes guardados.
+ *
+ * vida-media-dias <= 0 desactiva el decaimiento (cada reserva cuenta 1).
+ * Con 60 días el exponente llega a 1000 (límite práctico de double) hacia el año 2189.
+ */
+@Component
+public class PesoPopularidad {
+
+    static final LocalDate EPOCA = LocalDate.of(2025, 1, 1);
+
+    @Value("${app.popularidad.vida-media-dias:60}")
+    private int vidaMediaDias;
+
+    public double peso(LocalDate fechaReserva) {
+        if (vidaMediaDias <= 0 || fechaReserva == null) return 1.0;
+        return Math.pow(2, (double) ChronoUnit.DAYS.between(EPOCA, fechaReserva) / vidaMediaDias);
+    }
+
+    /**
+     * El puntaje guardado se desvió del calculado más allá del error de redondeo
+     */
+    public static boolean difieren(double guardado, double calculado) {
+        return Math.abs(guardado - calculado) > 1e-9 * Math.max(1.0, Math.abs(calculado));
+    }
+}
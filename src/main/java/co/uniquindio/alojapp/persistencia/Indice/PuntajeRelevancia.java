@@ -0,0 +1,107 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Puntaje de relevancia (0-100) guardado en cada alojamiento para ordenar con ordenarPor=relevancia
+ *
+ *   35% calidad      promedio bayesiano de calificaciones (pocos comentarios tiran hacia 3.5)
+ *   15% volumen      cantidad de comentarios (escala log, 100 o más = máximo)
+ *   25% popularidad  reservas recientes equivalentes (puntaje de popularidad llevado a hoy, escala log)
+ *   10% verificado   anfitrión verificado
+ *   15% novedad      alojamiento recién publicado (se reduce a la mitad cada 90 días)
+ *
+ * Se recalcula cuando cambia una entrada (comentario, reserva, verificación, alta) y cada madrugada,
+ * porque la novedad y la popularidad envejecen con el tiempo.
+ */
+@Component
+@RequiredArgsConstructor
+public class PuntajeRelevancia {
+
+    static final double PROMEDIO_PREVIO = 3.5;
+    static final int COMENTARIOS_PREVIOS = 5;
+    static final int VIDA_MEDIA_NOVEDAD_DIAS = 90;
+
+    static final String FIJAR_SQL = "UPDATE alojamientos SET puntaje_relevancia = ? WHERE alojamiento_id = ?";
+
+    private final AlojamientoRepository alojamientoRepository;
+    private final PesoPopularidad pesoPopularidad;
+    private final JdbcTemplate jdbc;
+
+    /** Resultado de un lote: cuántos se recalcularon y el último id (desde dónde sigue el siguiente) */
+    public record Lote(int cantidad, Integer ultimoId) {
+    }
+
+    /**
+     * Recalcular y guardar el puntaje de los alojamientos indicados
+     * Debe llamarse dentro de una transacción.
+     */
+    public int recalcular(Collection<Integer> ids) {
+        if (ids.isEmpty()) return 0;
+        List<Object[]> filas = alojamientoRepository.findEntradasRelevancia(ids);
+        LocalDate hoy = LocalDate.now();
+        double pesoHoy = pesoPopularidad.peso(hoy);
+        for (Object[] f : filas) {
+            alojamientoRepository.fijarRelevancia((Integer) f[0], puntaje(f, pesoHoy, hoy));
+        }
+        return filas.size();
+    }
+
+    /**
+     * Recalcular los siguientes "tamano" alojamientos con id mayor que desdeId (recálculo de todos por lotes)
+     * Los puntajes del lote se escriben en un solo batch JDBC. Debe llamarse dentro de una transacción.
+     */
+    public Lote recalcularLote(Integer desdeId, int tamano) {
+        List<Object[]> filas = alojamientoRepository.findEntradasRelevanciaDesde(desdeId, PageRequest.of(0, tamano));
+        if (filas.isEmpty()) return new Lote(0, desdeId);
+        LocalDate hoy = LocalDate.now();
+        double pesoHoy = pesoPopularidad.peso(hoy);
+        List<Object[]> valores = new ArrayList<>(filas.size());
+        for (Object[] f : filas) {
+            valores.add(new Object[]{puntaje(f, pesoHoy, hoy), f[0]});
+        }
+        jdbc.batchUpdate(FIJAR_SQL, valores);
+        return new Lote(filas.size(), (Integer) filas.get(filas.size() - 1)[0]);
+    }
+
+    public int recalcularDeAnfitrion(Integer anfitrionId) {
+        return recalcular(alojamientoRepository.findIdsPorAnfitrion(anfitrionId));
+    }
+
+    /** Puntaje de una fila (id, suma, cantidad, popularidad, verificado, fechaCreacion) */
+    private static double puntaje(Object[] f, double pesoHoy, LocalDate hoy) {
+        Double popularidad = (Double) f[3];
+        return calcular((Long) f[1], (Integer) f[2],
+                popularidad != null ? popularidad / pesoHoy : 0.0,
+                Boolean.TRUE.equals(f[4]), (LocalDateTime) f[5], hoy);
+    }
+
+    /**
+     * @param reservasRecientes puntaje de popularidad dividido por el peso de hoy
+     */
+    static double calcular(Long sumaCalificaciones, Integer cantidadComentarios, double reservasRecientes,
+                           boolean verificado, LocalDateTime fechaCreacion, LocalDate hoy) {
+        long suma = sumaCalificaciones != null ? sumaCalificaciones : 0;
+        int cantidad = cantidadComentarios != null ? cantidadComentarios : 0;
+
+        double calidad = (suma + PROMEDIO_PREVIO * COMENTARIOS_PREVIOS) / (cantidad + COMENTARIOS_PREVIOS) / 5.0;
+        double volumen = Math.min(1.0, Math.log10(1 + cantidad) / 2);
+        double popularidad = Math.min(1.0, Math.log10(1 + Math.max(0, reservasRecientes)) / 2);
+        long edad = fechaCreacion != null ? Math.max(0, ChronoUnit.DAYS.between(fechaCreacion.toLocalDate(), hoy)) : 0;
+        double novedad = Math.pow(2, -(double) edad / VIDA_MEDIA_NOVEDAD_DIAS);
+
+        return 100 * (0.35 * calidad + 0.15 * volumen + 0.25 * popularidad
+                + 0.10 * (verificado ? 1 : 0) + 0.15 * novedad);
+    }
+}
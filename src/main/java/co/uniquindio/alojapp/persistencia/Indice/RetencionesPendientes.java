@@ -0,0 +1,106 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Vencimiento de las reservas PENDIENTE (retenciones sin pago)
+ * Una reserva pendiente bloquea sus fechas solo durante "retencion-minutos" desde su fechaCreacion.
+ * Cada vencimiento se programa en una rueda de temporizadores en memoria; quien cancela las vencidas
+ * consulta vencidas() en cada tick. La rueda solo se llena desde la BD, al arrancar y periódicamente:
+ * ReservaDAO.save crea las reservas ya CONFIRMADA, así que las PENDIENTE vienen de fuera de ese flujo
+ * (estado por defecto de la entidad, cargas directas u otras instancias) y se encuentran en ese recorrido.
+ * Con retencion-minutos <= 0 las retenciones no vencen.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RetencionesPendientes {
+
+    private static final int RANURAS = 512;
+
+    private final ReservaRepository reservaRepository;
+
+    @Value("${app.reservas.retencion-minutos:15}")
+    private long retencionMinutos;
+
+    @Value("${app.reservas.retencion-tick-ms:1000}")
+    private long tickMs;
+
+    private Clock reloj = Clock.systemDefaultZone();
+    private RuedaTemporizadores rueda;
+
+    @PostConstruct
+    void iniciar() {
+        rueda = new RuedaTemporizadores(tickMs, RANURAS, reloj.millis());
+    }
+
+    public boolean activa() {
+        return retencionMinutos > 0;
+    }
+
+    /**
+     * Reconstruye la rueda con todas las reservas PENDIENTE (índice por estado y fecha de creación)
+     * Las que ya vencieron quedan para el siguiente tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.reservas.retencion-reconstruccion-cron:0 */10 * * * *}")
+    public void reconstruir() {
+        if (!activa()) return;
+        List<Object[]> pendientes = reservaRepository.findRetencionesPendientes();
+        rueda.limpiar(reloj.millis());
+        for (Object[] fila : pendientes) {
+            rueda.programar((Integer) fila[0], venceMs((LocalDateTime) fila[1]));
+        }
+        log.info("Retenciones pendientes programadas: {}", pendientes.size());
+    }
+
+    /**
+     * Volver a programar reservas cuya cancelación falló, para reintentarla en el siguiente tick
+     */
+    public void reintentar(Collection<Integer> reservaIds) {
+        long ahora = reloj.millis();
+        reservaIds.forEach(id -> rueda.programar(id, ahora));
+    }
+
+    /**
+     * Reservas cuya retención venció desde el último llamado (se sacan de la rueda)
+     */
+    public List<Integer> vencidas() {
+        if (!activa()) return List.of();
+        return rueda.avanzar(reloj.millis());
+    }
+
+    /**
+     * Las pendientes creadas en o antes de este instante ya vencieron
+     */
+    public LocalDateTime limiteCreacion() {
+        return LocalDateTime.now(reloj).minusMinutes(retencionMinutos);
+    }
+
+    public boolean vencida(LocalDateTime fechaCreacion) {
+        return activa() && fechaCreacion != null && !fechaCreacion.isAfter(limiteCreacion());
+    }
+
+    public int programadas() {
+        return rueda.programados();
+    }
+
+    // +1 ms: fechaCreacion tiene fracciones por debajo del milisegundo y no debe vencer antes de tiempo
+    private long venceMs(LocalDateTime fechaCreacion) {
+        return fechaCreacion.plusMinutes(retencionMinutos).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + 1;
+    }
+}
@@ -0,0 +1,108 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de temporizadores con hash (hashed timing wheel)
+ * El tiempo avanza en ticks de "tickMs"; un vencimiento cae en la ranura (tick % ranuras) y guarda su
+ * tick absoluto, así los que están a más de una vuelta esperan en la misma ranura sin contadores de rondas.
+ * Programar y quitar son O(1); avanzar solo recorre las ranuras de los ticks transcurridos.
+ * Un id tiene a lo sumo un vencimiento: programarlo de nuevo reemplaza el anterior.
+ */
+final class RuedaTemporizadores {
+
+    private final long tickMs;
+    private final int mascara;
+    private final List<List<Entrada>> ranuras;
+    private final Map<Integer, Entrada> porId = new HashMap<>();
+
+    private long tickActual;
+
+    private static final class Entrada {
+        final Integer id;
+        final long tick;
+        boolean vigente = true;
+
+        Entrada(Integer id, long tick) {
+            this.id = id;
+            this.tick = tick;
+        }
+    }
+
+    /**
+     * @param ranuras se redondea a la siguiente potencia de dos
+     */
+    RuedaTemporizadores(long tickMs, int ranuras, long ahoraMs) {
+        if (tickMs <= 0) throw new IllegalArgumentException("tickMs debe ser positivo");
+        int tamano = Integer.highestOneBit(Math.max(1, ranuras - 1)) << 1;
+        this.tickMs = tickMs;
+        this.mascara = tamano - 1;
+        this.ranuras = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            this.ranuras.add(new ArrayList<>());
+        }
+        this.tickActual = ahoraMs / tickMs;
+    }
+
+    /**
+     * Programar el vencimiento de "id" en "venceMs" (epoch ms). Si ya pasó, vence en el siguiente avance.
+     */
+    synchronized void programar(Integer id, long venceMs) {
+        quitarSinBloqueo(id);
+        long tick = Math.max(tickActual + 1, (venceMs + tickMs - 1) / tickMs);
+        Entrada entrada = new Entrada(id, tick);
+        ranuras.get((int) (tick & mascara)).add(entrada);
+        porId.put(id, entrada);
+    }
+
+    synchronized void quitar(Integer id) {
+        quitarSinBloqueo(id);
+    }
+
+    /**
+     * Avanzar el reloj hasta "ahoraMs" y devolver los ids que vencieron (se sacan de la rueda)
+     */
+    synchronized List<Integer> avanzar(long ahoraMs) {
+        long hasta = ahoraMs / tickMs;
+        List<Integer> vencidos = new ArrayList<>();
+        if (hasta <= tickActual) return vencidos;
+
+        // Más de una vuelta sin avanzar: basta con recorrer cada ranura una vez
+        long pasos = Math.min(hasta - tickActual, ranuras.size());
+        for (long t = tickActual + 1; t <= tickActual + pasos; t++) {
+            Iterator<Entrada> it = ranuras.get((int) (t & mascara)).iterator();
+            while (it.hasNext()) {
+                Entrada e = it.next();
+                if (!e.vigente) {
+                    it.remove();
+                } else if (e.tick <= hasta) {
+                    it.remove();
+                    porId.remove(e.id);
+                    vencidos.add(e.id);
+                }
+            }
+        }
+        tickActual = hasta;
+        return vencidos;
+    }
+
+    synchronized void limpiar(long ahoraMs) {
+        ranuras.forEach(List::clear);
+        porId.clear();
+        tickActual = ahoraMs / tickMs;
+    }
+
+    synchronized int programados() {
+        return porId.size();
+    }
+
+    // Se marca y se descarta cuando el avance pase por su ranura (evita recorrer la lista)
+    private void quitarSinBloqueo(Integer id) {
+        Entrada anterior = porId.remove(id);
+        if (anterior != null) anterior.vigente = false;
+    }
+}
@@ -29,10 +29,27 @@ public interface AlojamientoMapper {
     @Mapping(target = "anfitrionNombre", source = "anfitrion.usuario.nombre")
     @Mapping(target = "imagenes", expression = "java(mapImagenes(alojamiento))")
     @Mapping(target = "servicios", source = "servicios")
-    @Mapping(target = "calificacionPromedio", expression = "java(alojamiento.calcularCalificacionPromedio())")
-    @Mapping(target = "cantidadComentarios", expression = "java(alojamiento.getComentarios() != null ? alojamiento.getComentarios().size() : 0)")
+    @Mapping(target = "calificacionPromedio", expression = "java(alojamiento.promedioCalificaciones())")
+    @Mapping(target = "cantidadComentarios", expression = "java(alojamiento.getCantidadComentarios() != null ? alojamiento.getCantidadComentarios() : 0)")
+    @Mapping(target = "distribucionCalificaciones", expression = "java(alojamiento.distribucionCalificaciones())")
+    @Mapping(target = "primeraFechaLibre", ignore = true)
     AlojamientoDTO toDTO(Alojamiento alojamiento);
 
+    /**
+     * Solo columnas de la fila (sin imágenes, servicios ni nombre del anfitrión):
+     * para listados que cargan esas relaciones por lote
+     */
+    @Mapping(target = "anfitrionId", source = "anfitrion.id")
+    @Mapping(target = "anfitrionNombre", ignore = true)
+    @Mapping(target = "imagenes", ignore = true)
+    @Mapping(target = "servicios", ignore = true)
+    @Mapping(target = "calificacionPromedio", expression = "java(alojamiento.promedioCalificaciones())")
+    @Mapping(target = "cantidadComentarios", expression = "java(alojamiento.getCantidadComentarios() != null ? alojamiento.getCantidadComentarios() : 0)")
+    @Mapping(target = "distribucionCalificaciones", expression = "java(alojamiento.distribucionCalificaciones())")
+    @Mapping(target = "primeraFechaLibre", ignore = true)
+    @Named("sinRelaciones")
+    AlojamientoDTO toDTOSinRelaciones(Alojamiento alojamiento);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "anfitrion", ignore = true)
     @Mapping(target = "imagenes", ignore = true)
@@ -43,6 +60,16 @@ public interface AlojamientoMapper {
     @Mapping(target = "fechaCreacion", ignore = true)
     @Mapping(target = "fechaActualizacion", ignore = true)
     @Mapping(target = "estado", ignore = true)
+    @Mapping(target = "sumaCalificaciones", ignore = true)
+    @Mapping(target = "calificaciones1", ignore = true)
+    @Mapping(target = "calificaciones2", ignore = true)
+    @Mapping(target = "calificaciones3", ignore = true)
+    @Mapping(target = "calificaciones4", ignore = true)
+    @Mapping(target = "calificaciones5", ignore = true)
+    @Mapping(target = "cantidadComentarios", ignore = true)
+    @Mapping(target = "promedioCalificacion", ignore = true)
+    @Mapping(target = "puntajePopularidad", ignore = true)
+    @Mapping(target = "puntajeRelevancia", ignore = true)
     Alojamiento toEntity(AlojamientoDTO dto);
 
     List<AlojamientoDTO> toDTOList(List<Alojamiento> alojamientos);
@@ -56,6 +83,16 @@ public interface AlojamientoMapper {
     @Mapping(target = "servicios", ignore = true)
     @Mapping(target = "fechaCreacion", ignore = true)
     @Mapping(target = "fechaActualizacion", ignore = true)
+    @Mapping(target = "sumaCalificaciones", ignore = true)
+    @Mapping(target = "calificaciones1", ignore = true)
+    @Mapping(target = "calificaciones2", ignore = true)
+    @Mapping(target = "calificaciones3", ignore = true)
+    @Mapping(target = "calificaciones4", ignore = true)
+    @Mapping(target = "calificaciones5", ignore = true)
+    @Mapping(target = "cantidadComentarios", ignore = true)
+    @Mapping(target = "promedioCalificacion", ignore = true)
+    @Mapping(target = "puntajePopularidad", ignore = true)
+    @Mapping(target = "puntajeRelevancia", ignore = true)
     void updateFromDTO(@MappingTarget Alojamiento alojamiento, AlojamientoDTO dto);
 
     // Método helper para mapear imágenes
@@ -1,17 +1,24 @@
 package co.uniquindio.alojapp.persistencia.Repository;
 
+import co.uniquindio.alojapp.negocio.DTO.AlojamientoResumenDTO;
 import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
 import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoAlojamiento;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio para operaciones con alojamientos
@@ -20,12 +27,49 @@ import java.util.List;
 @Repository
 public interface AlojamientoRepository extends JpaRepository<Alojamiento, Integer> {
 
+    /**
+     * Condiciones WHERE de la búsqueda; se reutilizan en consultas con otros joins (facetas)
+     * Los servicios pedidos (todos obligatorios) se resuelven antes con el catálogo de
+     * servicios y llegan dentro de "incluidos", así que no hay join con servicios ni DISTINCT.
+     * "excluidos" e "incluidos" son un solo parámetro de arreglo cada uno (ver FuncionesConsulta):
+     * vacío = no excluir ninguno / sin restricción.
+     */
+    String CONDICIONES_BUSQUEDA = "a.estado = 'ACTIVO' " +
+            "AND (:ciudad IS NULL OR LOWER(a.ciudad) LIKE LOWER(CONCAT('%', :ciudad, '%'))) " +
+            "AND (:precioMin IS NULL OR a.precioNoche >= :precioMin) " +
+            "AND (:precioMax IS NULL OR a.precioNoche <= :precioMax) " +
+            "AND (:capacidad IS NULL OR a.capacidadMaxima >= :capacidad) " +
+            "AND id_fuera_de(a.id, :excluidos) " +
+            "AND id_en(a.id, :incluidos) ";
+
+    /**
+     * Cláusulas FROM/WHERE compartidas por la búsqueda paginada y la búsqueda por cursor
+     */
+    String FILTROS_BUSQUEDA = "FROM Alojamiento a WHERE " + CONDICIONES_BUSQUEDA;
+
+    /**
+     * Proyección para vista=resumen: solo las columnas de la tarjeta, sin cargar entidades
+     */
+    String SELECT_RESUMEN = "SELECT new co.uniquindio.alojapp.negocio.DTO.AlojamientoResumenDTO(" +
+            "a.id, a.titulo, a.ciudad, a.precioNoche, a.capacidadMaxima, a.imagenPrincipalUrl, " +
+            "a.sumaCalificaciones, a.cantidadComentarios) ";
+
     /**
      * Buscar alojamientos por estado
      * RN23: Los eliminados no deben aparecer en búsquedas
      */
     List<Alojamiento> findByEstado(EstadoAlojamiento estado);
 
+    long countByEstado(EstadoAlojamiento estado);
+
+    /**
+     * Leer el alojamiento bloqueando su fila (SELECT ... FOR UPDATE) hasta el fin de la transacción
+     * Serializa las reservas de un mismo alojamiento; las de otros alojamientos no esperan.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Alojamiento a WHERE a.id = :id")
+    Optional<Alojamiento> findByIdParaReservar(@Param("id") Integer id);
+
     /**
      * Buscar alojamientos activos (para listado público)
      */
@@ -72,44 +116,276 @@ public interface AlojamientoRepository extends JpaRepository<Alojamiento, Intege
 
     /**
      * Búsqueda completa con filtros (RN24, RN25)
-     * Busca alojamientos disponibles en fechas específicas
+     * Las fechas se resuelven antes con el índice de disponibilidad:
+     * "excluidos" son los alojamientos ocupados (vacío si no hay que excluir).
+     * Zona del mapa, texto y servicios se resuelven con los índices en memoria:
+     * "incluidos" son los alojamientos que cumplen esos filtros (vacío si no hay ninguno)
      */
-    @Query("SELECT DISTINCT a FROM Alojamiento a " +
-            "LEFT JOIN a.servicios s " +
-            "WHERE a.estado = 'ACTIVO' " +
-            "AND (:ciudad IS NULL OR LOWER(a.ciudad) LIKE LOWER(CONCAT('%', :ciudad, '%'))) " +
-            "AND (:precioMin IS NULL OR a.precioNoche >= :precioMin) " +
-            "AND (:precioMax IS NULL OR a.precioNoche <= :precioMax) " +
-            "AND (:capacidad IS NULL OR a.capacidadMaxima >= :capacidad) " +
-            "AND (:serviciosIds IS NULL OR s.id IN :serviciosIds) " +
-            "AND a.id NOT IN (" +
-            "    SELECT r.alojamiento.id FROM Reserva r " +
-            "    WHERE r.estado IN ('CONFIRMADA', 'PENDIENTE') " +
-            "    AND ((:fechaCheckin BETWEEN r.fechaCheckin AND r.fechaCheckout) " +
-            "         OR (:fechaCheckout BETWEEN r.fechaCheckin AND r.fechaCheckout) " +
-            "         OR (r.fechaCheckin BETWEEN :fechaCheckin AND :fechaCheckout))" +
-            ")")
+    @Query("SELECT a " + FILTROS_BUSQUEDA)
     Page<Alojamiento> buscarConFiltros(
             @Param("ciudad") String ciudad,
             @Param("precioMin") BigDecimal precioMin,
             @Param("precioMax") BigDecimal precioMax,
             @Param("capacidad") Integer capacidad,
-            @Param("serviciosIds") List<Integer> serviciosIds,
-            @Param("fechaCheckin") LocalDate fechaCheckin,
-            @Param("fechaCheckout") LocalDate fechaCheckout,
+            @Param("excluidos") Integer[] excluidos,
+            @Param("incluidos") Integer[] incluidos,
             Pageable pageable
     );
 
+    /**
+     * Búsqueda paginada proyectada a AlojamientoResumenDTO (mismos filtros que buscarConFiltros)
+     */
+    @Query(value = SELECT_RESUMEN + FILTROS_BUSQUEDA,
+            countQuery = "SELECT COUNT(a) " + FILTROS_BUSQUEDA)
+    Page<AlojamientoResumenDTO> buscarResumenConFiltros(
+            @Param("ciudad") String ciudad,
+            @Param("precioMin") BigDecimal precioMin,
+            @Param("precioMax") BigDecimal precioMax,
+            @Param("capacidad") Integer capacidad,
+            @Param("excluidos") Integer[] excluidos,
+            @Param("incluidos") Integer[] incluidos,
+            Pageable pageable
+    );
+
+    /**
+     * Resúmenes de varios alojamientos por ID (sin orden; lo aplica quien llama)
+     */
+    @Query(SELECT_RESUMEN + "FROM Alojamiento a WHERE a.id IN :ids")
+    List<AlojamientoResumenDTO> findResumenPorIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * IDs que cumplen los filtros, sin orden ni paginación
+     * Para ordenar por puntaje de texto en memoria y cargar solo la página pedida
+     */
+    @Query("SELECT a.id " + FILTROS_BUSQUEDA)
+    List<Integer> buscarIdsConFiltros(
+            @Param("ciudad") String ciudad,
+            @Param("precioMin") BigDecimal precioMin,
+            @Param("precioMax") BigDecimal precioMax,
+            @Param("capacidad") Integer capacidad,
+            @Param("excluidos") Integer[] excluidos,
+            @Param("incluidos") Integer[] incluidos
+    );
+
+    /**
+     * Filas para las facetas de la búsqueda: (id, ciudad, precioNoche, capacidadMaxima, servicioId, servicioNombre)
+     * Mismos filtros que buscarConFiltros en un solo viaje (una fila por servicio del alojamiento).
+     * Se agregan en memoria.
+     */
+    @Query("SELECT a.id, a.ciudad, a.precioNoche, a.capacidadMaxima, sf.id, sf.nombre " +
+            "FROM Alojamiento a LEFT JOIN a.servicios sf " +
+            "WHERE " + CONDICIONES_BUSQUEDA)
+    List<Object[]> buscarFilasFacetas(
+            @Param("ciudad") String ciudad,
+            @Param("precioMin") BigDecimal precioMin,
+            @Param("precioMax") BigDecimal precioMax,
+            @Param("capacidad") Integer capacidad,
+            @Param("excluidos") Integer[] excluidos,
+            @Param("incluidos") Integer[] incluidos
+    );
+
+    /**
+     * Búsqueda por cursor (keyset), primera página: el Pageable trae el límite y el orden (campo, id)
+     */
+    @Query("SELECT a " + FILTROS_BUSQUEDA)
+    List<Alojamiento> buscarConFiltrosPrimeraPagina(
+            @Param("ciudad") String ciudad,
+            @Param("precioMin") BigDecimal precioMin,
+            @Param("precioMax") BigDecimal precioMax,
+            @Param("capacidad") Integer capacidad,
+            @Param("excluidos") Integer[] excluidos,
+            @Param("incluidos") Integer[] incluidos,
+            Pageable pageable
+    );
+
+    /**
+     * Búsqueda por cursor (keyset): continúa después de (clave, cursorId), sin OFFSET ni COUNT.
+     * Una consulta por campo y dirección: la comparación de fila (campo, id) > / < (clave, cursorId)
+     * es un rango sobre idx_alojamientos_estado_* y la página N lee lo mismo que la primera.
+     * El Pageable aporta el límite y el orden (campo, id) en la misma dirección.
+     */
+    @Query("SELECT a " + FILTROS_BUSQUEDA + "AND (a.fechaCreacion, a.id) > (:clave, :cursorId)")
+    List<Alojamiento> buscarConFiltrosPorFechaCreacionAscDespuesDe(
+            @Param("ciudad") String ciudad,
+            @Param("precioMin") BigDecimal precioMin,
+            @Param("precioMax") BigDecimal precioMax,
+            @Param("capacidad") Integer capacidad,
+            @Param("excluidos") Integer[] excluidos,
+            @Param("incluidos") Integer[] incluidos,
+            @Param("clave") LocalDateTime clave,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable
+    );
+
+    @Query("SELECT a " + FILTROS_BUSQUEDA + "AND (a.fechaCreacion, a.id) < (:clave, :cursorId)")
+    List<Alojamiento> buscarConFiltrosPorFechaCreacionDescDespuesDe(
+            @Param("ciudad") String ciudad,
+            @Param("precioMin") BigDecimal precioMin,
+            @Param("precioMax") BigDecimal precioMax,
+            @Param("capacidad") Integer capacidad,
+            @Param("excluidos") Integer[] excluidos,
+            @Param("incluidos") Integer[] incluidos,
+            @Param("clave") LocalDateTime clave,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable
+    );
+
+    @Query("SELECT a " + FILTROS_BUSQUEDA + "AND (a.precioNoche, a.id) > (:clave, :cursorId)")
+    List<Alojamiento> buscarConFiltrosPorPrecioAscDespuesDe(
+            @Param("ciudad") String ciudad,
+            @Param("precioMin") BigDecimal precioMin,
+            @Param("precioMax") BigDecimal precioMax,
+            @Param("capacidad") Integer capacidad,
+            @Param("excluidos") Integer[] excluidos,
+            @Param("incluidos") Integer[] incluidos,
+            @Param("clave") BigDecimal clave,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable
+    );
+
+    @Query("SELECT a " + FILTROS_BUSQUEDA + "AND (a.precioNoche, a.id) < (:clave, :cursorId)")
+    List<Alojamiento> buscarConFiltrosPorPrecioDescDespuesDe(
+            @Param("ciudad") String ciudad,
+            @Param("precioMin") BigDecimal precioMin,
+            @Param("precioMax") BigDecimal precioMax,
+            @Param("capacidad") Integer capacidad,
+            @Param("excluidos") Integer[] excluidos,
+            @Param("incluidos") Integer[] incluidos,
+            @Param("clave") BigDecimal clave,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable
+    );
+
+    @Query("SELECT a " + FILTROS_BUSQUEDA + "AND (a.capacidadMaxima, a.id) > (:clave, :cursorId)")
+    List<Alojamiento> buscarConFiltrosPorCapacidadAscDespuesDe(
+            @Param("ciudad") String ciudad,
+            @Param("precioMin") BigDecimal precioMin,
+            @Param("precioMax") BigDecimal precioMax,
+            @Param("capacidad") Integer capacidad,
+            @Param("excluidos") Integer[] excluidos,
+            @Param("incluidos") Integer[] incluidos,
+            @Param("clave") Integer clave,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable
+    );
+
+    @Query("SELECT a " + FILTROS_BUSQUEDA + "AND (a.capacidadMaxima, a.id) < (:clave, :cursorId)")
+    List<Alojamiento> buscarConFiltrosPorCapacidadDescDespuesDe(
+            @Param("ciudad") String ciudad,
+            @Param("precioMin") BigDecimal precioMin,
+            @Param("precioMax") BigDecimal precioMax,
+            @Param("capacidad") Integer capacidad,
+            @Param("excluidos") Integer[] excluidos,
+            @Param("incluidos") Integer[] incluidos,
+            @Param("clave") Integer clave,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable
+    );
+
+    /**
+     * Listado público de activos por cursor (más recientes primero)
+     * RN23, RN24: misma vista que findByEstado(ACTIVO) pero sin OFFSET ni COUNT
+     */
+    @Query("SELECT a FROM Alojamiento a WHERE a.estado = 'ACTIVO' " +
+            "ORDER BY a.fechaCreacion DESC, a.id DESC")
+    List<Alojamiento> findActivosRecientes(Pageable pageable);
+
+    @Query("SELECT a FROM Alojamiento a " +
+            "WHERE a.estado = 'ACTIVO' AND (a.fechaCreacion, a.id) < (:clave, :cursorId) " +
+            "ORDER BY a.fechaCreacion DESC, a.id DESC")
+    List<Alojamiento> findActivosDespuesDe(
+            @Param("clave") LocalDateTime clave,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable
+    );
+
+    /**
+     * Posiciones (id, latitud, longitud) de los activos con coordenadas
+     * Carga inicial del índice geográfico
+     */
+    @Query("SELECT a.id, a.latitud, a.longitud FROM Alojamiento a " +
+            "WHERE a.estado = 'ACTIVO' AND a.latitud IS NOT NULL AND a.longitud IS NOT NULL")
+    List<Object[]> findPosicionesActivas();
+
+    /**
+     * Posiciones de los activos en una franja de latitud (usa idx_alojamientos_lat_lon)
+     * Respaldo de la búsqueda geográfica mientras el índice en memoria no está listo
+     */
+    @Query("SELECT a.id, a.latitud, a.longitud FROM Alojamiento a " +
+            "WHERE a.estado = 'ACTIVO' AND a.latitud BETWEEN :latitudMin AND :latitudMax " +
+            "AND a.longitud IS NOT NULL")
+    List<Object[]> findPosicionesActivasEntreLatitudes(
+            @Param("latitudMin") BigDecimal latitudMin,
+            @Param("latitudMax") BigDecimal latitudMax
+    );
+
+    /**
+     * Ciudad (id, ciudad) de los activos
+     * Carga inicial del trie de sugerencias de ciudades
+     */
+    @Query("SELECT a.id, a.ciudad FROM Alojamiento a WHERE a.estado = 'ACTIVO' AND a.ciudad IS NOT NULL")
+    List<Object[]> findCiudadesActivas();
+
+    /**
+     * Servicios (id, servicioId) de los activos; servicioId es null si no tiene ninguno
+     * Carga inicial del catálogo de servicios
+     */
+    @Query("SELECT a.id, s.id FROM Alojamiento a LEFT JOIN a.servicios s WHERE a.estado = 'ACTIVO'")
+    List<Object[]> findServiciosDeActivos();
+
+    /**
+     * IDs de los activos que tienen TODOS los servicios indicados (cantidad = servicios distintos pedidos)
+     * Respaldo del catálogo de servicios mientras no está listo
+     */
+    @Query("SELECT a.id FROM Alojamiento a JOIN a.servicios s " +
+            "WHERE a.estado = 'ACTIVO' AND s.id IN :serviciosIds " +
+            "GROUP BY a.id HAVING COUNT(DISTINCT s.id) = :cantidad")
+    List<Integer> findIdsActivosConTodosLosServicios(
+            @Param("serviciosIds") Collection<Integer> serviciosIds,
+            @Param("cantidad") long cantidad
+    );
+
+    /**
+     * Título y descripción (id, titulo, descripcion) de los activos
+     * Carga inicial del índice de texto
+     */
+    @Query("SELECT a.id, a.titulo, a.descripcion FROM Alojamiento a WHERE a.estado = 'ACTIVO'")
+    List<Object[]> findTextosActivos();
+
+    /**
+     * IDs de los activos cuyo título o descripción (en minúsculas) contiene el término
+     * Respaldo de la búsqueda de texto mientras el índice invertido no está listo
+     */
+    @Query("SELECT a.id FROM Alojamiento a WHERE a.estado = 'ACTIVO' " +
+            "AND (LOWER(a.titulo) LIKE CONCAT('%', :termino, '%') " +
+            "     OR LOWER(a.descripcion) LIKE CONCAT('%', :termino, '%'))")
+    List<Integer> findIdsActivosConTermino(@Param("termino") String termino);
+
+    /**
+     * Puntos del mapa (id, latitud, longitud, precioNoche) de los activos con coordenadas
+     * Carga inicial del quadtree de clusters
+     */
+    @Query("SELECT a.id, a.latitud, a.longitud, a.precioNoche FROM Alojamiento a " +
+            "WHERE a.estado = 'ACTIVO' AND a.latitud IS NOT NULL AND a.longitud IS NOT NULL")
+    List<Object[]> findPuntosMapaActivos();
+
+    @Query("SELECT a.id, a.latitud, a.longitud, a.precioNoche FROM Alojamiento a " +
+            "WHERE a.estado = 'ACTIVO' AND a.latitud BETWEEN :latitudMin AND :latitudMax " +
+            "AND a.longitud IS NOT NULL")
+    List<Object[]> findPuntosMapaActivosEntreLatitudes(
+            @Param("latitudMin") BigDecimal latitudMin,
+            @Param("latitudMax") BigDecimal latitudMax
+    );
+
     /**
      * Verificar disponibilidad de un alojamiento en fechas específicas
-     * RN14: No pueden existir reservas solapadas
+     * RN14: No pueden existir reservas solapadas (estadías [checkin, checkout))
      */
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN false ELSE true END FROM Reserva r " +
             "WHERE r.alojamiento.id = :alojamientoId " +
             "AND r.estado IN ('CONFIRMADA', 'PENDIENTE') " +
-            "AND ((:fechaCheckin BETWEEN r.fechaCheckin AND r.fechaCheckout) " +
-            "     OR (:fechaCheckout BETWEEN r.fechaCheckin AND r.fechaCheckout) " +
-            "     OR (r.fechaCheckin BETWEEN :fechaCheckin AND :fechaCheckout))")
+            "AND r.fechaCheckin < :fechaCheckout " +
+            "AND r.fechaCheckout > :fechaCheckin")
     boolean estaDisponible(
             @Param("alojamientoId") Integer alojamientoId,
             @Param("fechaCheckin") LocalDate fechaCheckin,
@@ -128,14 +404,63 @@ public interface AlojamientoRepository extends JpaRepository<Alojamiento, Intege
 
     /**
      * Obtener alojamientos más populares (más reservas)
+     * Sin NULLS LAST: la columna es NOT NULL (V3__popularidad_alojamientos.sql) y así el orden
+     * recorre hacia atrás el índice (estado, puntaje_popularidad, alojamiento_id).
      */
-    @Query("SELECT a FROM Alojamiento a " +
-            "LEFT JOIN a.reservas r " +
+    @Query(value = "SELECT a FROM Alojamiento a " +
             "WHERE a.estado = 'ACTIVO' " +
-            "GROUP BY a.id " +
-            "ORDER BY COUNT(r) DESC")
+            "ORDER BY a.puntajePopularidad DESC, a.id DESC",
+            countQuery = "SELECT COUNT(a) FROM Alojamiento a WHERE a.estado = 'ACTIVO'")
     Page<Alojamiento> findMasPopulares(Pageable pageable);
 
+    /**
+     * Sumar (o restar) el peso de una reserva al puntaje de popularidad
+     */
+    @Modifying
+    @Query("UPDATE Alojamiento a SET a.puntajePopularidad = COALESCE(a.puntajePopularidad, 0) + :delta " +
+            "WHERE a.id = :id")
+    int sumarPopularidad(@Param("id") Integer id, @Param("delta") double delta);
+
+    /**
+     * Puntajes guardados (id, puntaje) para la reconciliación
+     */
+    @Query("SELECT a.id, a.puntajePopularidad FROM Alojamiento a")
+    List<Object[]> findPuntajesPopularidad();
+
+    /**
+     * Fijar el puntaje solo si nadie lo cambió desde que se leyó (anterior -1 = sin calcular)
+     */
+    @Modifying
+    @Query("UPDATE Alojamiento a SET a.puntajePopularidad = :puntaje " +
+            "WHERE a.id = :id AND COALESCE(a.puntajePopularidad, -1.0) = :anterior")
+    int fijarPopularidad(@Param("id") Integer id, @Param("anterior") double anterior, @Param("puntaje") double puntaje);
+
+    boolean existsByPuntajePopularidadIsNull();
+
+    /**
+     * Entradas del puntaje de relevancia:
+     * (id, sumaCalificaciones, cantidadComentarios, puntajePopularidad, anfitrión verificado, fechaCreacion)
+     */
+    @Query("SELECT a.id, a.sumaCalificaciones, a.cantidadComentarios, a.puntajePopularidad, an.verificado, a.fechaCreacion " +
+            "FROM Alojamiento a JOIN a.anfitrion an WHERE a.id IN :ids")
+    List<Object[]> findEntradasRelevancia(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Siguiente lote de entradas con id mayor que desdeId, en orden de id (recorrido por keyset)
+     */
+    @Query("SELECT a.id, a.sumaCalificaciones, a.cantidadComentarios, a.puntajePopularidad, an.verificado, a.fechaCreacion " +
+            "FROM Alojamiento a JOIN a.anfitrion an WHERE a.id > :desdeId ORDER BY a.id")
+    List<Object[]> findEntradasRelevanciaDesde(@Param("desdeId") Integer desdeId, Pageable limite);
+
+    @Query("SELECT a.id FROM Alojamiento a WHERE a.anfitrion.id = :anfitrionId")
+    List<Integer> findIdsPorAnfitrion(@Param("anfitrionId") Integer anfitrionId);
+
+    @Modifying
+    @Query("UPDATE Alojamiento a SET a.puntajeRelevancia = :puntaje WHERE a.id = :id")
+    int fijarRelevancia(@Param("id") Integer id, @Param("puntaje") double puntaje);
+
+    boolean existsByPuntajeRelevanciaIsNull();
+
     /**
      * Contar alojamientos por ciudad
      */
@@ -153,4 +478,81 @@ public interface AlojamientoRepository extends JpaRepository<Alojamiento, Intege
             "WHERE r.alojamiento.id = :alojamientoId " +
             "AND r.fechaCheckin > CURRENT_DATE " )
     boolean tieneReservasFuturas(@Param("alojamientoId") Integer alojamientoId);
-}
\ No newline at end of file
+
+    /**
+     * Ajustar en un solo UPDATE los agregados de calificación (suma, cantidad, promedio y conteo por estrellas)
+     * Atómico frente a comentarios concurrentes sobre el mismo alojamiento.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Alojamiento a SET " +
+            "a.promedioCalificacion = CASE WHEN a.cantidadComentarios + :deltaCantidad > 0 " +
+            "THEN (a.sumaCalificaciones + :deltaSuma) * 1.0 / (a.cantidadComentarios + :deltaCantidad) ELSE 0.0 END, " +
+            "a.sumaCalificaciones = a.sumaCalificaciones + :deltaSuma, " +
+            "a.cantidadComentarios = a.cantidadComentarios + :deltaCantidad, " +
+            "a.calificaciones1 = a.calificaciones1 + :delta1, " +
+            "a.calificaciones2 = a.calificaciones2 + :delta2, " +
+            "a.calificaciones3 = a.calificaciones3 + :delta3, " +
+            "a.calificaciones4 = a.calificaciones4 + :delta4, " +
+            "a.calificaciones5 = a.calificaciones5 + :delta5 " +
+            "WHERE a.id = :alojamientoId")
+    int ajustarCalificaciones(
+            @Param("alojamientoId") Integer alojamientoId,
+            @Param("deltaSuma") Long deltaSuma,
+            @Param("deltaCantidad") Integer deltaCantidad,
+            @Param("delta1") Integer delta1,
+            @Param("delta2") Integer delta2,
+            @Param("delta3") Integer delta3,
+            @Param("delta4") Integer delta4,
+            @Param("delta5") Integer delta5
+    );
+
+    /**
+     * Recalcular los agregados de calificación desde la tabla de comentarios
+     * soloPendientes = true: solo filas que aún no tienen agregados (cantidadComentarios null)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Alojamiento a SET " +
+            "a.sumaCalificaciones = COALESCE((SELECT SUM(c.calificacion) FROM Comentario c WHERE c.alojamiento.id = a.id), 0), " +
+            "a.cantidadComentarios = (SELECT CAST(COUNT(c) AS Integer) FROM Comentario c WHERE c.alojamiento.id = a.id), " +
+            "a.calificaciones1 = (SELECT CAST(COUNT(c) AS Integer) FROM Comentario c WHERE c.alojamiento.id = a.id AND c.calificacion = 1), " +
+            "a.calificaciones2 = (SELECT CAST(COUNT(c) AS Integer) FROM Comentario c WHERE c.alojamiento.id = a.id AND c.calificacion = 2), " +
+            "a.calificaciones3 = (SELECT CAST(COUNT(c) AS Integer) FROM Comentario c WHERE c.alojamiento.id = a.id AND c.calificacion = 3), " +
+            "a.calificaciones4 = (SELECT CAST(COUNT(c) AS Integer) FROM Comentario c WHERE c.alojamiento.id = a.id AND c.calificacion = 4), " +
+            "a.calificaciones5 = (SELECT CAST(COUNT(c) AS Integer) FROM Comentario c WHERE c.alojamiento.id = a.id AND c.calificacion = 5), " +
+            "a.promedioCalificacion = COALESCE((SELECT AVG(c.calificacion) FROM Comentario c WHERE c.alojamiento.id = a.id), 0.0) " +
+            "WHERE :soloPendientes = false OR a.cantidadComentarios IS NULL")
+    int recalcularCalificaciones(@Param("soloPendientes") boolean soloPendientes);
+
+    // ========= Carga por lote de relaciones para listados (evita N+1) =========
+
+    /**
+     * (alojamientoId, urlImagen) de las imágenes de varios alojamientos, en orden de visualización
+     */
+    @Query("SELECT i.alojamiento.id, i.urlImagen FROM Imagen i " +
+            "WHERE i.alojamiento.id IN :ids " +
+            "ORDER BY i.alojamiento.id, i.orden, i.id")
+    List<Object[]> findUrlsImagenesDe(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * (alojamientoId, servicioId, nombre, descripcion) de los servicios de varios alojamientos
+     */
+    @Query("SELECT a.id, s.id, s.nombre, s.descripcion FROM Alojamiento a " +
+            "JOIN a.servicios s " +
+            "WHERE a.id IN :ids")
+    List<Object[]> findServiciosDe(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * (alojamientoId, nombre del anfitrión) de varios alojamientos
+     */
+    @Query("SELECT a.id, u.nombre FROM Alojamiento a " +
+            "JOIN a.anfitrion an " +
+            "JOIN an.usuario u " +
+            "WHERE a.id IN :ids")
+    List<Object[]> findNombresAnfitrionDe(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Conteo por estado (estado, cantidad) para reconstruir los contadores en memoria
+     */
+    @Query("SELECT a.estado, COUNT(a) FROM Alojamiento a GROUP BY a.estado")
+    List<Object[]> contarPorEstado();
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +26,31 @@ public interface ComentarioRepository extends JpaRepository<Comentario, Integer>
 
     Page<Comentario> findByAlojamientoIdOrderByFechaComentarioDesc(Integer alojamientoId, Pageable pageable);
 
+    /**
+     * Comentarios de un alojamiento por cursor, primera página (más recientes primero, sin COUNT)
+     */
+    @Query("SELECT c FROM Comentario c " +
+            "WHERE c.alojamiento.id = :alojamientoId " +
+            "ORDER BY c.fechaComentario DESC, c.id DESC")
+    List<Comentario> findByAlojamientoIdRecientes(
+            @Param("alojamientoId") Integer alojamientoId,
+            Pageable pageable
+    );
+
+    /**
+     * Comentarios de un alojamiento por cursor, páginas siguientes: después de (clave, cursorId)
+     */
+    @Query("SELECT c FROM Comentario c " +
+            "WHERE c.alojamiento.id = :alojamientoId " +
+            "AND (c.fechaComentario, c.id) < (:clave, :cursorId) " +
+            "ORDER BY c.fechaComentario DESC, c.id DESC")
+    List<Comentario> findByAlojamientoIdDespuesDe(
+            @Param("alojamientoId") Integer alojamientoId,
+            @Param("clave") LocalDateTime clave,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable
+    );
+
     /**
      * Buscar comentarios por usuario
      */
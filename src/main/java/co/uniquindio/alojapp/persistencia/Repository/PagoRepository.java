@@ -60,4 +60,10 @@ public interface PagoRepository extends JpaRepository<Pago, Integer> {
             "WHERE p.reserva.alojamiento.anfitrion.id = :anfitrionId " +
             "AND p.estado = 'APROBADO'")
     List<Pago> findPagosAprobadosByAnfitrion(@Param("anfitrionId") Integer anfitrionId);
-}
\ No newline at end of file
+
+    /**
+     * Conteo por estado (estado, cantidad) para reconstruir los contadores en memoria
+     */
+    @Query("SELECT p.estado, COUNT(p) FROM Pago p GROUP BY p.estado")
+    List<Object[]> contarPorEstado();
+}
@@ -2,9 +2,12 @@ package co.uniquindio.alojapp.persistencia.Repository;
 
 import co.uniquindio.alojapp.persistencia.Entity.Reserva;
 import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoReserva;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -29,6 +32,31 @@ public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
 
     Page<Reserva> findByHuespedId(Integer huespedId, Pageable pageable);
 
+    /**
+     * Reservas de un huésped por cursor, primera página (más recientes primero, sin COUNT)
+     */
+    @Query("SELECT r FROM Reserva r " +
+            "WHERE r.huesped.id = :huespedId " +
+            "ORDER BY r.fechaCreacion DESC, r.id DESC")
+    List<Reserva> findByHuespedIdRecientes(
+            @Param("huespedId") Integer huespedId,
+            Pageable pageable
+    );
+
+    /**
+     * Reservas de un huésped por cursor, páginas siguientes: después de (clave, cursorId)
+     */
+    @Query("SELECT r FROM Reserva r " +
+            "WHERE r.huesped.id = :huespedId " +
+            "AND (r.fechaCreacion, r.id) < (:clave, :cursorId) " +
+            "ORDER BY r.fechaCreacion DESC, r.id DESC")
+    List<Reserva> findByHuespedIdDespuesDe(
+            @Param("huespedId") Integer huespedId,
+            @Param("clave") LocalDateTime clave,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable
+    );
+
     /**
      * Buscar reservas por huésped y estado
      */
@@ -57,6 +85,31 @@ public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
     @Query("SELECT r FROM Reserva r WHERE r.alojamiento.anfitrion.id = :anfitrionId")
     Page<Reserva> findByAnfitrionId(@Param("anfitrionId") Integer anfitrionId, Pageable pageable);
 
+    /**
+     * Reservas de un anfitrión por cursor, primera página (más recientes primero, sin COUNT)
+     */
+    @Query("SELECT r FROM Reserva r " +
+            "WHERE r.alojamiento.anfitrion.id = :anfitrionId " +
+            "ORDER BY r.fechaCreacion DESC, r.id DESC")
+    List<Reserva> findByAnfitrionIdRecientes(
+            @Param("anfitrionId") Integer anfitrionId,
+            Pageable pageable
+    );
+
+    /**
+     * Reservas de un anfitrión por cursor, páginas siguientes: después de (clave, cursorId)
+     */
+    @Query("SELECT r FROM Reserva r " +
+            "WHERE r.alojamiento.anfitrion.id = :anfitrionId " +
+            "AND (r.fechaCreacion, r.id) < (:clave, :cursorId) " +
+            "ORDER BY r.fechaCreacion DESC, r.id DESC")
+    List<Reserva> findByAnfitrionIdDespuesDe(
+            @Param("anfitrionId") Integer anfitrionId,
+            @Param("clave") LocalDateTime clave,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable
+    );
+
     /**
      * Buscar reservas por anfitrión y estado
      */
@@ -99,13 +152,13 @@ public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
     /**
      * Verificar solapamiento de reservas
      * RN14: No pueden existir reservas solapadas
+     * Estadías [checkin, checkout): el día de checkout de una reserva puede ser el checkin de otra.
      */
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reserva r " +
             "WHERE r.alojamiento.id = :alojamientoId " +
             "AND r.estado IN ('CONFIRMADA', 'PENDIENTE') " +
-            "AND ((:fechaCheckin BETWEEN r.fechaCheckin AND r.fechaCheckout) " +
-            "     OR (:fechaCheckout BETWEEN r.fechaCheckin AND r.fechaCheckout) " +
-            "     OR (r.fechaCheckin BETWEEN :fechaCheckin AND :fechaCheckout))")
+            "AND r.fechaCheckin < :fechaCheckout " +
+            "AND r.fechaCheckout > :fechaCheckin")
     boolean existeSolapamiento(
             @Param("alojamientoId") Integer alojamientoId,
             @Param("fechaCheckin") LocalDate fechaCheckin,
@@ -113,13 +166,146 @@ public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
     );
 
     /**
-     * Buscar reservas que necesitan ser marcadas como completadas
+     * Rangos (alojamientoId, checkin, checkout) de reservas activas que terminan desde una fecha
+     * Usado para construir el índice de disponibilidad en memoria
+     */
+    @Query("SELECT r.alojamiento.id, r.fechaCheckin, r.fechaCheckout FROM Reserva r " +
+            "WHERE r.estado IN ('CONFIRMADA', 'PENDIENTE') " +
+            "AND r.fechaCheckout >= :desde")
+    List<Object[]> findRangosActivosDesde(@Param("desde") LocalDate desde);
+
+    @Query("SELECT r.alojamiento.id, r.fechaCheckin, r.fechaCheckout FROM Reserva r " +
+            "WHERE r.alojamiento.id = :alojamientoId " +
+            "AND r.estado IN ('CONFIRMADA', 'PENDIENTE') " +
+            "AND r.fechaCheckout >= :desde")
+    List<Object[]> findRangosActivosDeAlojamientoDesde(
+            @Param("alojamientoId") Integer alojamientoId,
+            @Param("desde") LocalDate desde
+    );
+
+    /**
+     * Rangos (alojamientoId, checkin, checkout) de reservas activas que tocan [desde, hasta]
+     * Búsqueda de fechas flexibles cuando la ventana sale del índice en memoria
+     */
+    @Query("SELECT r.alojamiento.id, r.fechaCheckin, r.fechaCheckout FROM Reserva r " +
+            "WHERE r.estado IN ('CONFIRMADA', 'PENDIENTE') " +
+            "AND r.fechaCheckin <= :hasta " +
+            "AND r.fechaCheckout >= :desde")
+    List<Object[]> findRangosActivosEntre(
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+
+    /**
+     * Rangos (alojamientoId, checkin, checkout) de reservas activas de un alojamiento que ocupan alguna noche en [desde, hasta]
+     * Calendario de disponibilidad cuando las fechas salen del índice en memoria
+     */
+    @Query("SELECT r.alojamiento.id, r.fechaCheckin, r.fechaCheckout FROM Reserva r " +
+            "WHERE r.alojamiento.id = :alojamientoId " +
+            "AND r.estado IN ('CONFIRMADA', 'PENDIENTE') " +
+            "AND r.fechaCheckin <= :hasta " +
+            "AND r.fechaCheckout > :desde " +
+            "ORDER BY r.fechaCheckin")
+    List<Object[]> findRangosActivosDeAlojamientoEntre(
+            @Param("alojamientoId") Integer alojamientoId,
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+
+    /**
+     * Reservas no canceladas por (alojamientoId, día de creación, cantidad)
+     * Base para reconciliar el puntaje de popularidad
+     */
+    @Query("SELECT r.alojamiento.id, CAST(r.fechaCreacion AS LocalDate), COUNT(r) FROM Reserva r " +
+            "WHERE r.estado <> 'CANCELADA' " +
+            "GROUP BY r.alojamiento.id, CAST(r.fechaCreacion AS LocalDate)")
+    List<Object[]> contarVigentesPorAlojamientoYDia();
+
+    /**
+     * Rangos (alojamientoId, checkin, checkout) de reservas activas de varios alojamientos que tocan [desde, hasta]
+     * Verificación de disponibilidad por lote cuando las fechas salen del índice en memoria
+     */
+    @Query("SELECT r.alojamiento.id, r.fechaCheckin, r.fechaCheckout FROM Reserva r " +
+            "WHERE r.alojamiento.id IN :alojamientoIds " +
+            "AND r.estado IN ('CONFIRMADA', 'PENDIENTE') " +
+            "AND r.fechaCheckin <= :hasta " +
+            "AND r.fechaCheckout >= :desde")
+    List<Object[]> findRangosActivosDeAlojamientosEntre(
+            @Param("alojamientoIds") Collection<Integer> alojamientoIds,
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+
+    /**
+     * IDs de alojamientos con reservas solapadas en un rango
+     * RN25: alternativa cuando el índice en memoria no cubre las fechas
+     */
+    @Query("SELECT DISTINCT r.alojamiento.id FROM Reserva r " +
+            "WHERE r.estado IN ('CONFIRMADA', 'PENDIENTE') " +
+            "AND r.fechaCheckin < :fechaCheckout " +
+            "AND r.fechaCheckout > :fechaCheckin")
+    List<Integer> findAlojamientosOcupados(
+            @Param("fechaCheckin") LocalDate fechaCheckin,
+            @Param("fechaCheckout") LocalDate fechaCheckout
+    );
+
+    /**
+     * Siguiente lote de reservas que deben pasar a completada, bloqueadas hasta el fin de la transacción
      * RN32: Cambio automático a completada después del checkout
+     * Devuelve [id, alojamientoId, fechaCheckin, fechaCheckout]; el tamaño del lote lo da el Pageable.
      */
-    @Query("SELECT r FROM Reserva r " +
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id, r.alojamiento.id, r.fechaCheckin, r.fechaCheckout FROM Reserva r " +
             "WHERE r.estado = 'CONFIRMADA' " +
-            "AND r.fechaCheckout < CURRENT_DATE")
-    List<Reserva> findReservasParaCompletar();
+            "AND r.fechaCheckout < :hoy " +
+            "ORDER BY r.id")
+    List<Object[]> findLoteParaCompletar(@Param("hoy") LocalDate hoy, Pageable lote);
+
+    /**
+     * Marcar como completadas las reservas de un lote (un solo UPDATE)
+     * RN32: vuelve a exigir CONFIRMADA y checkout pasado por si alguna cambió mientras tanto
+     */
+    @Modifying
+    @Query("UPDATE Reserva r SET r.estado = 'COMPLETADA' " +
+            "WHERE r.id IN :ids " +
+            "AND r.estado = 'CONFIRMADA' " +
+            "AND r.fechaCheckout < :hoy")
+    int completarLote(@Param("ids") Collection<Integer> ids, @Param("hoy") LocalDate hoy);
+
+    /**
+     * Todas las reservas PENDIENTE con su fecha de creación, para programar su vencimiento
+     * Devuelve [id, fechaCreacion] (usa idx_reservas_estado_creacion)
+     */
+    @Query("SELECT r.id, r.fechaCreacion FROM Reserva r WHERE r.estado = 'PENDIENTE'")
+    List<Object[]> findRetencionesPendientes();
+
+    /**
+     * De las reservas indicadas, las PENDIENTE creadas en o antes de "limite", bloqueadas hasta el fin de la transacción
+     * Devuelve [id, alojamientoId, fechaCheckin, fechaCheckout, fechaCreacion]
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id, r.alojamiento.id, r.fechaCheckin, r.fechaCheckout, r.fechaCreacion FROM Reserva r " +
+            "WHERE r.id IN :ids " +
+            "AND r.estado = 'PENDIENTE' " +
+            "AND r.fechaCreacion <= :limite")
+    List<Object[]> findRetencionesVencidas(@Param("ids") Collection<Integer> ids,
+                                           @Param("limite") LocalDateTime limite);
+
+    /**
+     * Cancelar en un solo UPDATE las retenciones vencidas indicadas
+     * Vuelve a exigir PENDIENTE y creación en o antes de "limite" por si alguna se pagó mientras tanto
+     */
+    @Modifying
+    @Query("UPDATE Reserva r SET r.estado = 'CANCELADA', " +
+            "r.fechaCancelacion = :ahora, " +
+            "r.motivoCancelacion = :motivo " +
+            "WHERE r.id IN :ids " +
+            "AND r.estado = 'PENDIENTE' " +
+            "AND r.fechaCreacion <= :limite")
+    int cancelarRetenciones(@Param("ids") Collection<Integer> ids,
+                            @Param("limite") LocalDateTime limite,
+                            @Param("ahora") LocalDateTime ahora,
+                            @Param("motivo") String motivo);
 
     /**
      * Contar reservas por estado
@@ -157,4 +343,10 @@ public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
 
     boolean existsByAlojamiento_Anfitrion_Usuario_IdAndFechaCheckinGreaterThanEqualAndEstadoIn(
             Integer usuarioId, LocalDate hoy, Collection<EstadoReserva> estados);
-}
\ No newline at end of file
+
+    /**
+     * Conteo por estado (estado, cantidad) para reconstruir los contadores en memoria
+     */
+    @Query("SELECT r.estado, COUNT(r) FROM Reserva r GROUP BY r.estado")
+    List<Object[]> contarPorEstado();
+}
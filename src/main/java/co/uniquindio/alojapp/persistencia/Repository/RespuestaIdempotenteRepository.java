@@ -0,0 +1,30 @@
+package co.uniquindio.alojapp.persistencia.Repository;
+
+import co.uniquindio.alojapp.persistencia.Entity.RespuestaIdempotente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repositorio de respuestas guardadas por Idempotency-Key
+ */
+@Repository
+public interface RespuestaIdempotenteRepository extends JpaRepository<RespuestaIdempotente, Long> {
+
+    /**
+     * Respuesta guardada para la clave, vigente o no (usa uk_respuestas_idempotentes_clave)
+     */
+    Optional<RespuestaIdempotente> findByOperacionAndUsuarioIdAndClave(String operacion, Integer usuarioId, String clave);
+
+    /**
+     * Borrar respuestas vencidas (usa idx_respuestas_idempotentes_expiracion)
+     */
+    @Modifying
+    @Query("DELETE FROM RespuestaIdempotente r WHERE r.fechaExpiracion <= :ahora")
+    int deleteVencidas(@Param("ahora") LocalDateTime ahora);
+}
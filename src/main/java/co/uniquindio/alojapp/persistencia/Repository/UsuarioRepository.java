@@ -102,4 +102,10 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
      * Buscar el id del usuario en base al estado que tenga
      */
     Optional<Usuario> findByIdAndEstado(Integer id, EstadoUsuario estado);
-}
\ No newline at end of file
+
+    /**
+     * Conteo por estado (estado, cantidad) para reconstruir los contadores en memoria
+     */
+    @Query("SELECT u.estado, COUNT(u) FROM Usuario u GROUP BY u.estado")
+    List<Object[]> contarPorEstado();
+}
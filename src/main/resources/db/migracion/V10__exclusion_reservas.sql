@@ -0,0 +1,25 @@
+-- Libro de reservas: PostgreSQL rechaza por sí mismo las estadías solapadas de un alojamiento
+-- Columna generada estadia = [checkin, checkout) y restricción de exclusión GiST sobre
+-- (alojamiento_id =, estadia &&) para las reservas PENDIENTE o CONFIRMADA. Un INSERT solapado falla
+-- con SQLState 23P01. Si la extensión no puede crearse o ya hay reservas solapadas, la migración falla
+-- y la aplicación no arranca: no se sigue sin la garantía.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE reservas ADD COLUMN IF NOT EXISTS estadia daterange
+    GENERATED ALWAYS AS (daterange(fecha_checkin, fecha_checkout, '[)')) STORED;
+
+-- PostgreSQL no tiene ADD CONSTRAINT IF NOT EXISTS. El cuerpo del DO va entre comillas simples
+-- para que el separador de sentencias del script no corte en los ';' internos.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''reservas_sin_solapamiento'') THEN
+        ALTER TABLE reservas ADD CONSTRAINT reservas_sin_solapamiento
+            EXCLUDE USING gist (alojamiento_id WITH =, estadia WITH &&)
+            WHERE (estado IN (''PENDIENTE'', ''CONFIRMADA''));
+    END IF;
+END
+';
+
+INSERT INTO migraciones_esquema (version, descripcion) VALUES (10, 'restricción de exclusión de reservas solapadas')
+ON CONFLICT (version) DO NOTHING;
@@ -0,0 +1,15 @@
+-- Registro de los scripts de db/migracion ya aplicados (PostgreSQL, perfil prod)
+--
+-- En prod Hibernate solo valida el esquema (ddl-auto=validate): estos scripts agregan lo que
+-- piden las entidades antes de que corra la validación. spring.sql.init los ejecuta en cada
+-- arranque, así que el DDL usa IF NOT EXISTS y cada relleno de datos se condiciona a que su
+-- versión no esté registrada aquí. La última sentencia de cada script la registra.
+
+CREATE TABLE IF NOT EXISTS migraciones_esquema (
+    version          integer      PRIMARY KEY,
+    descripcion      varchar(200) NOT NULL,
+    fecha_aplicacion timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO migraciones_esquema (version, descripcion) VALUES (1, 'registro de migraciones')
+ON CONFLICT (version) DO NOTHING;
@@ -0,0 +1,39 @@
+-- Agregados de calificación en alojamientos (suma, cantidad, histograma 1-5 y promedio)
+-- Se mantienen con ajustes atómicos al crear o borrar comentarios. Aquí se calculan por
+-- primera vez desde la tabla de comentarios.
+
+ALTER TABLE alojamientos ADD COLUMN IF NOT EXISTS suma_calificaciones   bigint           NOT NULL DEFAULT 0;
+ALTER TABLE alojamientos ADD COLUMN IF NOT EXISTS cantidad_comentarios  integer          NOT NULL DEFAULT 0;
+ALTER TABLE alojamientos ADD COLUMN IF NOT EXISTS calificaciones_1      integer          NOT NULL DEFAULT 0;
+ALTER TABLE alojamientos ADD COLUMN IF NOT EXISTS calificaciones_2      integer          NOT NULL DEFAULT 0;
+ALTER TABLE alojamientos ADD COLUMN IF NOT EXISTS calificaciones_3      integer          NOT NULL DEFAULT 0;
+ALTER TABLE alojamientos ADD COLUMN IF NOT EXISTS calificaciones_4      integer          NOT NULL DEFAULT 0;
+ALTER TABLE alojamientos ADD COLUMN IF NOT EXISTS calificaciones_5      integer          NOT NULL DEFAULT 0;
+ALTER TABLE alojamientos ADD COLUMN IF NOT EXISTS promedio_calificacion double precision NOT NULL DEFAULT 0;
+
+-- Los alojamientos sin comentarios se quedan con el 0 por defecto
+UPDATE alojamientos a SET
+    suma_calificaciones   = c.suma,
+    cantidad_comentarios  = c.cantidad,
+    calificaciones_1      = c.c1,
+    calificaciones_2      = c.c2,
+    calificaciones_3      = c.c3,
+    calificaciones_4      = c.c4,
+    calificaciones_5      = c.c5,
+    promedio_calificacion = c.promedio
+FROM (SELECT alojamiento_id,
+             SUM(calificacion)                              AS suma,
+             COUNT(*)                                       AS cantidad,
+             COUNT(*) FILTER (WHERE calificacion = 1)       AS c1,
+             COUNT(*) FILTER (WHERE calificacion = 2)       AS c2,
+             COUNT(*) FILTER (WHERE calificacion = 3)       AS c3,
+             COUNT(*) FILTER (WHERE calificacion = 4)       AS c4,
+             COUNT(*) FILTER (WHERE calificacion = 5)       AS c5,
+             AVG(calificacion)                              AS promedio
+      FROM comentarios
+      GROUP BY alojamiento_id) c
+WHERE c.alojamiento_id = a.alojamiento_id
+  AND NOT EXISTS (SELECT 1 FROM migraciones_esquema WHERE version = 2);
+
+INSERT INTO migraciones_esquema (version, descripcion) VALUES (2, 'agregados de calificación en alojamientos')
+ON CONFLICT (version) DO NOTHING;
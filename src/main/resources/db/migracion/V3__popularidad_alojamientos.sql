@@ -0,0 +1,24 @@
+-- Puntaje de popularidad en alojamientos: suma de pesos de las reservas no canceladas
+-- peso = 2^(días desde 2025-01-01 / 60), igual que PesoPopularidad con la vida media por defecto.
+-- Con otra vida media configurada, la reconciliación nocturna corrige los valores.
+--
+-- NOT NULL: PostgreSQL ordena los NULL primero en DESC, y el orden por popularidad recorre
+-- el índice (estado, puntaje_popularidad, alojamiento_id) hacia atrás.
+
+ALTER TABLE alojamientos ADD COLUMN IF NOT EXISTS puntaje_popularidad double precision NOT NULL DEFAULT 0;
+
+UPDATE alojamientos a SET
+    puntaje_popularidad = r.puntaje
+FROM (SELECT alojamiento_id,
+             SUM(POWER(2, (CAST(fecha_creacion AS date) - DATE '2025-01-01') / 60.0)) AS puntaje
+      FROM reservas
+      WHERE estado <> 'CANCELADA'
+      GROUP BY alojamiento_id) r
+WHERE r.alojamiento_id = a.alojamiento_id
+  AND NOT EXISTS (SELECT 1 FROM migraciones_esquema WHERE version = 3);
+
+CREATE INDEX IF NOT EXISTS idx_alojamientos_estado_popularidad
+    ON alojamientos (estado, puntaje_popularidad, alojamiento_id);
+
+INSERT INTO migraciones_esquema (version, descripcion) VALUES (3, 'puntaje de popularidad en alojamientos')
+ON CONFLICT (version) DO NOTHING;
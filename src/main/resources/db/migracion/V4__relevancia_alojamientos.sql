@@ -0,0 +1,24 @@
+-- Puntaje de relevancia (0-100) en alojamientos, con la misma fórmula que PuntajeRelevancia.calcular:
+--   35% calidad (promedio bayesiano), 15% volumen, 25% popularidad llevada a hoy,
+--   10% anfitrión verificado, 15% novedad (vida media de 90 días).
+-- Después lo recalcula el proceso nocturno.
+
+ALTER TABLE alojamientos ADD COLUMN IF NOT EXISTS puntaje_relevancia double precision NOT NULL DEFAULT 0;
+
+UPDATE alojamientos a SET
+    puntaje_relevancia = 100 * (
+          0.35 * (a.suma_calificaciones + 3.5 * 5) / (a.cantidad_comentarios + 5) / 5
+        + 0.15 * LEAST(1, LOG(1 + a.cantidad_comentarios) / 2)
+        + 0.25 * LEAST(1, LOG(1 + GREATEST(0, a.puntaje_popularidad
+                                           / POWER(2, (CURRENT_DATE - DATE '2025-01-01') / 60.0))) / 2)
+        + 0.10 * CASE WHEN an.verificado THEN 1 ELSE 0 END
+        + 0.15 * POWER(2, -GREATEST(0, CURRENT_DATE - CAST(a.fecha_creacion AS date)) / 90.0))
+FROM anfitriones an
+WHERE an.anfitrion_id = a.anfitrion_id
+  AND NOT EXISTS (SELECT 1 FROM migraciones_esquema WHERE version = 4);
+
+CREATE INDEX IF NOT EXISTS idx_alojamientos_estado_relevancia
+    ON alojamientos (estado, puntaje_relevancia, alojamiento_id);
+
+INSERT INTO migraciones_esquema (version, descripcion) VALUES (4, 'puntaje de relevancia en alojamientos')
+ON CONFLICT (version) DO NOTHING;
@@ -0,0 +1,15 @@
+-- Índices compuestos (estado, columna de orden, alojamiento_id) para cada orden de OrdenBusqueda
+-- La búsqueda filtra por estado = 'ACTIVO' y lee la página en orden del índice (el id desempata).
+-- Los de popularidad y relevancia los crean V3 y V4 junto con sus columnas.
+
+CREATE INDEX IF NOT EXISTS idx_alojamientos_estado_fecha
+    ON alojamientos (estado, fecha_creacion, alojamiento_id);
+CREATE INDEX IF NOT EXISTS idx_alojamientos_estado_precio
+    ON alojamientos (estado, precio_noche, alojamiento_id);
+CREATE INDEX IF NOT EXISTS idx_alojamientos_estado_capacidad
+    ON alojamientos (estado, capacidad_maxima, alojamiento_id);
+CREATE INDEX IF NOT EXISTS idx_alojamientos_estado_calificacion
+    ON alojamientos (estado, promedio_calificacion, alojamiento_id);
+
+INSERT INTO migraciones_esquema (version, descripcion) VALUES (5, 'índices de orden de la búsqueda de alojamientos')
+ON CONFLICT (version) DO NOTHING;
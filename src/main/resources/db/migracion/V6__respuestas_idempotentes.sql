@@ -0,0 +1,21 @@
+-- Respuestas guardadas de las operaciones con Idempotency-Key (crear reserva, registrar pago)
+-- La restricción única resuelve la carrera entre instancias: el segundo INSERT con la misma clave falla
+-- y esa instancia devuelve la respuesta del primero. Las vencidas se borran por fecha_expiracion.
+
+CREATE TABLE IF NOT EXISTS respuestas_idempotentes (
+    respuesta_id     bigint       GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    operacion        varchar(40)  NOT NULL,
+    usuario_id       integer      NOT NULL,
+    clave            varchar(100) NOT NULL,
+    huella           varchar(64)  NOT NULL,
+    respuesta        text         NOT NULL,
+    fecha_creacion   timestamp(6) NOT NULL,
+    fecha_expiracion timestamp(6) NOT NULL,
+    CONSTRAINT uk_respuestas_idempotentes_clave UNIQUE (operacion, usuario_id, clave)
+);
+
+CREATE INDEX IF NOT EXISTS idx_respuestas_idempotentes_expiracion
+    ON respuestas_idempotentes (fecha_expiracion);
+
+INSERT INTO migraciones_esquema (version, descripcion) VALUES (6, 'respuestas idempotentes')
+ON CONFLICT (version) DO NOTHING;
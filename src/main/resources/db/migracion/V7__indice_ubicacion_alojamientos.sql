@@ -0,0 +1,8 @@
+-- Índice (latitud, longitud) para las búsquedas por radio y por rectángulo del mapa
+-- cuando el índice espacial en memoria aún no está construido
+
+CREATE INDEX IF NOT EXISTS idx_alojamientos_lat_lon
+    ON alojamientos (latitud, longitud);
+
+INSERT INTO migraciones_esquema (version, descripcion) VALUES (7, 'índice de ubicación de alojamientos')
+ON CONFLICT (version) DO NOTHING;
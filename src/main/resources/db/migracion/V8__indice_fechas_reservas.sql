@@ -0,0 +1,8 @@
+-- Índice (alojamiento_id, fecha_checkin, fecha_checkout) para las verificaciones de solapamiento
+-- y de disponibilidad por alojamiento
+
+CREATE INDEX IF NOT EXISTS idx_reservas_alojamiento_fechas
+    ON reservas (alojamiento_id, fecha_checkin, fecha_checkout);
+
+INSERT INTO migraciones_esquema (version, descripcion) VALUES (8, 'índice de fechas de reservas')
+ON CONFLICT (version) DO NOTHING;
@@ -0,0 +1,7 @@
+-- Índice (estado, fecha_creacion) para encontrar las retenciones PENDIENTE vencidas
+
+CREATE INDEX IF NOT EXISTS idx_reservas_estado_creacion
+    ON reservas (estado, fecha_creacion);
+
+INSERT INTO migraciones_esquema (version, descripcion) VALUES (9, 'índice de estado de reservas')
+ON CONFLICT (version) DO NOTHING;
@@ -1,9 +1,14 @@
 package co.uniquindio.alojapp.Controller;
 
 import co.uniquindio.alojapp.negocio.DTO.AdministradorDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasAgrupacionDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasCacheDTO;
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasLotesDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAdministradorRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearAdministradorRequest;
 import co.uniquindio.alojapp.negocio.Service.AdministradorService;
+import co.uniquindio.alojapp.negocio.Service.AlojamientoService;
+import co.uniquindio.alojapp.negocio.Service.ReservaService;
 import co.uniquindio.alojapp.seguridad.JwtAuthFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -22,6 +27,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
@@ -45,6 +51,12 @@ class AdminControllerTest {
     @MockitoBean
     AdministradorService adminService;
 
+    @MockitoBean
+    AlojamientoService alojamientoService;
+
+    @MockitoBean
+    ReservaService reservaService;
+
     @Autowired
     ObjectMapper objectMapper;
 
@@ -104,4 +116,86 @@ class AdminControllerTest {
                 .andExpect(jsonPath("$[0].nivelAcceso", is("ADMIN")))
                 .andExpect(jsonPath("$[1].nivelAcceso", is("MODERADOR")));
     }
+
+    @Test
+    @DisplayName("GET /api/admin/cache/busquedas -> 200 métricas")
+    void estadisticasCacheBusquedas_deberiaRetornarMetricas() throws Exception {
+        Mockito.when(alojamientoService.estadisticasCacheBusquedas())
+                .thenReturn(EstadisticasCacheDTO.builder()
+                        .entradas(3).capacidad(1000).aciertos(9L).fallos(3L).tasaAciertos(0.75)
+                        .expulsiones(0L).invalidaciones(1L).build());
+
+        mvc.perform(get("/api/admin/cache/busquedas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aciertos", is(9)))
+                .andExpect(jsonPath("$.tasaAciertos", is(0.75)));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/agrupacion-llamadas -> 200 métricas por operación")
+    void estadisticasAgrupacion_deberiaRetornarMetricas() throws Exception {
+        Mockito.when(alojamientoService.estadisticasAgrupacion())
+                .thenReturn(Map.of("obtenerPorId", EstadisticasAgrupacionDTO.builder()
+                        .llamadas(100L).ejecuciones(4L).agrupadas(96L).enCurso(0).build()));
+
+        mvc.perform(get("/api/admin/agrupacion-llamadas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.obtenerPorId.agrupadas", is(96)));
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/reservas/completar -> 200 completadas")
+    void completarReservasVencidas_deberiaRetornarCantidad() throws Exception {
+        Mockito.when(reservaService.completarReservasVencidas()).thenReturn(12000);
+
+        mvc.perform(post("/api/admin/reservas/completar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completadas", is(12000)));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/reservas/completar -> 200 progreso")
+    void estadisticasCompletarReservas_deberiaRetornarProgreso() throws Exception {
+        Mockito.when(reservaService.estadisticasCompletarReservas())
+                .thenReturn(EstadisticasLotesDTO.builder()
+                        .enCurso(true).tamanoLote(5000).lotes(3).filas(15000L).duracionMs(2100L).build());
+
+        mvc.perform(get("/api/admin/reservas/completar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enCurso", is(true)))
+                .andExpect(jsonPath("$.filas", is(15000)));
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/alojamientos/calificaciones/recalcular -> 200 cantidad")
+    void recalcularCalificaciones_deberiaRetornarCantidad() throws Exception {
+        Mockito.when(alojamientoService.recalcularCalificaciones()).thenReturn(42);
+
+        mvc.perform(post("/api/admin/alojamientos/calificaciones/recalcular"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recalculados", is(42)));
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/alojamientos/popularidad/reconciliar -> 200 corregidos")
+    void reconciliarPopularidad_deberiaRetornarCorregidos() throws Exception {
+        Mockito.when(alojamientoService.reconciliarPopularidad()).thenReturn(3);
+
+        mvc.perform(post("/api/admin/alojamientos/popularidad/reconciliar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.corregidos", is(3)));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/contadores -> 200 conteos por entidad y estado")
+    void contadoresPlataforma_deberiaRetornarResumen() throws Exception {
+        Mockito.when(adminService.contadoresPlataforma()).thenReturn(Map.of(
+                "ALOJAMIENTO", Map.of("ACTIVO", 12L, "TOTAL", 15L),
+                "USUARIO", Map.of("ACTIVO", 40L, "TOTAL", 40L)));
+
+        mvc.perform(get("/api/admin/contadores"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ALOJAMIENTO.ACTIVO", is(12)))
+                .andExpect(jsonPath("$.USUARIO.TOTAL", is(40)));
+    }
 }
@@ -1,10 +1,16 @@
 package co.uniquindio.alojapp.Controller;
 
 import co.uniquindio.alojapp.negocio.DTO.AlojamientoDTO;
+import co.uniquindio.alojapp.negocio.DTO.AlojamientoResumenDTO;
+import co.uniquindio.alojapp.negocio.DTO.CalendarioDisponibilidadDTO;
+import co.uniquindio.alojapp.negocio.DTO.ClusterMapaDTO;
+import co.uniquindio.alojapp.negocio.DTO.SugerenciaCiudadDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.BuscarAlojamientosRequest;
+import co.uniquindio.alojapp.negocio.DTO.request.DisponibilidadLoteRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
+import co.uniquindio.alojapp.negocio.excepciones.BadRequestException;
 import co.uniquindio.alojapp.negocio.Service.AlojamientoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,6 +27,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -183,7 +190,7 @@ public class AlojamientoControllerTest {
 
         // Act
         ResponseEntity<PaginacionResponse<AlojamientoDTO>> response = alojamientoController.listarOBuscar(
-                null, null, null, null, null, null, null, "fechaCreacion", "DESC", 0, 10);
+                null, null, null, null, null, null, null, "fechaCreacion", "DESC", 0, 10, null, null, null, null, null, null, false, null, null, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -201,7 +208,7 @@ public class AlojamientoControllerTest {
 
         // Act
         ResponseEntity<PaginacionResponse<AlojamientoDTO>> response = alojamientoController.listarOBuscar(
-                ciudad, null, null, null, null, null, null, "precioNoche", "ASC", 0, 10);
+                ciudad, null, null, null, null, null, null, "precioNoche", "ASC", 0, 10, null, null, null, null, null, null, false, null, null, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -220,7 +227,7 @@ public class AlojamientoControllerTest {
 
         // Act
         ResponseEntity<PaginacionResponse<AlojamientoDTO>> response = alojamientoController.listarOBuscar(
-                null, precioMin, precioMax, null, null, null, null, "precioNoche", "ASC", 0, 10);
+                null, precioMin, precioMax, null, null, null, null, "precioNoche", "ASC", 0, 10, null, null, null, null, null, null, false, null, null, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -244,6 +251,166 @@ public class AlojamientoControllerTest {
         verify(alojamientoService, times(1)).buscar(buscarRequest);
     }
 
+    @Test
+    @DisplayName("Listar o buscar - Con cursor debería usar paginación por cursor")
+    void listarOBuscar_ConCursor_DeberiaUsarModoCursor() {
+        // Arrange
+        when(alojamientoService.listarActivosPorCursor("abc", 10)).thenReturn(paginacionResponse);
+
+        // Act
+        ResponseEntity<PaginacionResponse<AlojamientoDTO>> response = alojamientoController.listarOBuscar(
+                null, null, null, null, null, null, null, "fechaCreacion", "DESC", 0, 10, "abc", null, null, null, null, null, false, null, null, null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(alojamientoService, times(1)).listarActivosPorCursor("abc", 10);
+        verify(alojamientoService, never()).listarActivos(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Listar o buscar - Con filtros y cursor debería pasar el cursor a la búsqueda")
+    void listarOBuscar_ConFiltrosYCursor_DeberiaPasarCursor() {
+        // Arrange
+        when(alojamientoService.buscar(any(BuscarAlojamientosRequest.class))).thenReturn(paginacionResponse);
+
+        // Act
+        alojamientoController.listarOBuscar(
+                "Cartagena", null, null, null, null, null, null, "precioNoche", "ASC", 0, 10, "", null, null, null, null, null, false, null, null, null);
+
+        // Assert
+        verify(alojamientoService).buscar(argThat(r -> "".equals(r.getCursor())));
+    }
+
+    @Test
+    @DisplayName("Listar o buscar - Con bbox debería buscar por rectángulo")
+    void listarOBuscar_ConBbox_DeberiaBuscarPorRectangulo() {
+        // Arrange
+        when(alojamientoService.buscar(any(BuscarAlojamientosRequest.class))).thenReturn(paginacionResponse);
+
+        // Act
+        alojamientoController.listarOBuscar(
+                null, null, null, null, null, null, null, "fechaCreacion", "DESC", 0, 10, null,
+                null, null, null, List.of(10.35, -75.56, 10.45, -75.45), null, false, null, null, null);
+
+        // Assert
+        verify(alojamientoService).buscar(argThat(r ->
+                r.getLatitudMin() == 10.35 && r.getLongitudMin() == -75.56
+                        && r.getLatitudMax() == 10.45 && r.getLongitudMax() == -75.45));
+        verify(alojamientoService, never()).listarActivos(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Listar o buscar - Con texto debería buscar y dejar el orden por coincidencia")
+    void listarOBuscar_ConTexto_DeberiaBuscarPorCoincidencia() {
+        // Arrange
+        when(alojamientoService.buscar(any(BuscarAlojamientosRequest.class))).thenReturn(paginacionResponse);
+
+        // Act
+        alojamientoController.listarOBuscar(
+                null, null, null, null, null, null, null, null, "DESC", 0, 10, null,
+                null, null, null, null, "casa piscina", false, null, null, null);
+
+        // Assert
+        verify(alojamientoService).buscar(argThat(r ->
+                "casa piscina".equals(r.getTexto()) && r.getOrdenarPor() == null));
+    }
+
+    @Test
+    @DisplayName("LISTAR O BUSCAR - facetas=true sin filtros pasa por la búsqueda")
+    void listarOBuscar_FacetasSinFiltros_UsaBusqueda() {
+        // Arrange
+        when(alojamientoService.buscar(any(BuscarAlojamientosRequest.class))).thenReturn(paginacionResponse);
+
+        // Act
+        alojamientoController.listarOBuscar(
+                null, null, null, null, null, null, null, null, "DESC", 0, 10, null,
+                null, null, null, null, null, true, null, null, null);
+
+        // Assert
+        verify(alojamientoService).buscar(argThat(r -> Boolean.TRUE.equals(r.getFacetas())));
+        verify(alojamientoService, never()).listarActivos(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("LISTAR O BUSCAR - Fechas flexibles pasan por la búsqueda")
+    void listarOBuscar_FechasFlexibles_UsaBusqueda() {
+        // Arrange
+        LocalDate inicio = LocalDate.now().plusDays(5);
+        when(alojamientoService.buscar(any(BuscarAlojamientosRequest.class))).thenReturn(paginacionResponse);
+
+        // Act
+        alojamientoController.listarOBuscar(
+                null, null, null, null, null, null, null, null, "DESC", 0, 10, null,
+                null, null, null, null, null, false, inicio, inicio.plusDays(20), 3);
+
+        // Assert
+        verify(alojamientoService).buscar(argThat(r ->
+                inicio.equals(r.getVentanaInicio()) && Integer.valueOf(3).equals(r.getNoches())));
+        verify(alojamientoService, never()).listarActivos(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("LISTAR RESUMEN - vista=resumen arma la búsqueda y devuelve la proyección")
+    void listarResumen_ArmaBusqueda() {
+        // Arrange
+        PaginacionResponse<AlojamientoResumenDTO> resumen = PaginacionResponse.<AlojamientoResumenDTO>builder()
+                .contenido(List.of(AlojamientoResumenDTO.builder().id(1).titulo("Casa").build()))
+                .build();
+        when(alojamientoService.buscarResumen(any(BuscarAlojamientosRequest.class))).thenReturn(resumen);
+
+        // Act
+        ResponseEntity<PaginacionResponse<AlojamientoResumenDTO>> response = alojamientoController.listarResumen(
+                "Armenia", null, null, 2, null, null, null, null, "DESC", 1, 20,
+                null, null, null, List.of(10.35, -75.56, 10.45, -75.45), null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(resumen);
+        verify(alojamientoService).buscarResumen(argThat(r -> "Armenia".equals(r.getCiudad())
+                && r.getPagina() == 1 && r.getTamanoPagina() == 20 && Double.valueOf(10.45).equals(r.getLatitudMax())));
+        verify(alojamientoService, never()).buscar(any());
+    }
+
+    @Test
+    @DisplayName("Listar o buscar - bbox incompleto lanza BadRequestException")
+    void listarOBuscar_BboxIncompleto_LanzaExcepcion() {
+        assertThatThrownBy(() -> alojamientoController.listarOBuscar(
+                null, null, null, null, null, null, null, "fechaCreacion", "DESC", 0, 10, null,
+                null, null, null, List.of(10.35, -75.56), null, false, null, null, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Sugerir ciudades - Debería retornar las sugerencias del servicio")
+    void sugerirCiudades_DeberiaRetornarSugerencias() {
+        // Arrange
+        List<SugerenciaCiudadDTO> sugerencias = List.of(new SugerenciaCiudadDTO("Cartagena", 3));
+        when(alojamientoService.sugerirCiudades("cart", 5)).thenReturn(sugerencias);
+
+        // Act
+        ResponseEntity<List<SugerenciaCiudadDTO>> response = alojamientoController.sugerirCiudades("cart", 5);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(sugerencias);
+    }
+
+    @Test
+    @DisplayName("Clusters del mapa - Debería delegar rectángulo y zoom al servicio")
+    void clustersDelMapa_DeberiaDelegar() {
+        // Arrange
+        List<ClusterMapaDTO> clusters = List.of(ClusterMapaDTO.builder().cantidad(12).build());
+        when(alojamientoService.clustersDelMapa(10.35, -75.56, 10.45, -75.45, 12)).thenReturn(clusters);
+
+        // Act
+        ResponseEntity<List<ClusterMapaDTO>> response =
+                alojamientoController.clustersDelMapa(List.of(10.35, -75.56, 10.45, -75.45), 12);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(clusters);
+    }
+
     @Test
     @DisplayName("Verificar disponibilidad - Debería retornar boolean")
     void disponibilidad_DeberiaRetornarBoolean() {
@@ -262,6 +429,66 @@ public class AlojamientoControllerTest {
         verify(alojamientoService, times(1)).estaDisponible(alojamientoId, checkin, checkout);
     }
 
+    @Test
+    @DisplayName("Calendario - Devuelve ETag y 304 si no cambió")
+    void calendario_ETag_RespondeNotModified() {
+        // Arrange
+        LocalDate desde = LocalDate.of(2025, 12, 1);
+        LocalDate hasta = LocalDate.of(2025, 12, 7);
+        when(alojamientoService.calendario(10, desde, hasta))
+                .thenReturn(new CalendarioDisponibilidadDTO(10, desde, hasta, "0011100"));
+
+        // Act
+        ResponseEntity<CalendarioDisponibilidadDTO> primera = alojamientoController.calendario(10, desde, hasta, null);
+        String etag = primera.getHeaders().getETag();
+        ResponseEntity<CalendarioDisponibilidadDTO> segunda = alojamientoController.calendario(10, desde, hasta, etag);
+
+        // Assert
+        assertThat(primera.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(primera.getBody().getNoches()).isEqualTo("0011100");
+        assertThat(etag).isNotBlank();
+        assertThat(segunda.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(segunda.getBody()).isNull();
+    }
+
+    @Test
+    @DisplayName("Calendario - El ETag cambia si cambian las noches ocupadas")
+    void calendario_OcupacionCambia_ETagDistinto() {
+        // Arrange
+        LocalDate desde = LocalDate.of(2025, 12, 1);
+        LocalDate hasta = LocalDate.of(2025, 12, 3);
+        when(alojamientoService.calendario(10, desde, hasta))
+                .thenReturn(new CalendarioDisponibilidadDTO(10, desde, hasta, "000"))
+                .thenReturn(new CalendarioDisponibilidadDTO(10, desde, hasta, "010"));
+
+        // Act
+        String antes = alojamientoController.calendario(10, desde, hasta, null).getHeaders().getETag();
+        ResponseEntity<CalendarioDisponibilidadDTO> despues = alojamientoController.calendario(10, desde, hasta, antes);
+
+        // Assert
+        assertThat(despues.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(despues.getHeaders().getETag()).isNotEqualTo(antes);
+    }
+
+    @Test
+    @DisplayName("Verificar disponibilidad por lote - Debería retornar el mapa del servicio")
+    void disponibilidadLote_DeberiaRetornarMapa() {
+        // Arrange
+        LocalDate checkin = LocalDate.of(2025, 11, 10);
+        DisponibilidadLoteRequest request = new DisponibilidadLoteRequest(List.of(
+                new DisponibilidadLoteRequest.Consulta(10, checkin, checkin.plusDays(5))));
+        Map<String, Boolean> resultado = Map.of("10:2025-11-10:2025-11-15", false);
+        when(alojamientoService.disponibilidadLote(request)).thenReturn(resultado);
+
+        // Act
+        ResponseEntity<Map<String, Boolean>> response = alojamientoController.disponibilidadLote(request);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsEntry("10:2025-11-10:2025-11-15", false);
+        verify(alojamientoService, times(1)).disponibilidadLote(request);
+    }
+
     // =========================================================================
     // TESTS DE CAMPOS ESPECÍFICOS DEL NUEVO DTO
     // =========================================================================
@@ -207,7 +207,7 @@ public class ComentarioControllerTest {
 
         // Act
         ResponseEntity<PaginacionResponse<ComentarioDTO>> response =
-                comentarioController.listarPorAlojamiento(alojamientoId, pagina, tamano);
+                comentarioController.listarPorAlojamiento(alojamientoId, pagina, tamano, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -227,7 +227,7 @@ public class ComentarioControllerTest {
 
         // Act
         ResponseEntity<PaginacionResponse<ComentarioDTO>> response =
-                comentarioController.listarPorAlojamiento(alojamientoId, 0, 20);
+                comentarioController.listarPorAlojamiento(alojamientoId, 0, 20, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -564,7 +564,7 @@ public class ComentarioControllerTest {
 
         // Act
         ResponseEntity<PaginacionResponse<ComentarioDTO>> response =
-                comentarioController.listarPorAlojamiento(alojamientoId, pagina, tamano);
+                comentarioController.listarPorAlojamiento(alojamientoId, pagina, tamano, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -88,11 +88,11 @@ public class PagoControllerTest {
         try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
             securityUtils.when(() -> SecurityUtils.getEmailActual()).thenReturn(Optional.of("juan@correo.com"));
             when(usuarioRepository.findByEmailIgnoreCase("juan@correo.com")).thenReturn(Optional.of(usuario));
-            when(pagoService.registrarPago(eq(1), eq(50), eq("TARJETA_CREDITO"), eq(700000.0), any(LocalDateTime.class)))
+            when(pagoService.registrarPago(eq(1), eq(50), eq("TARJETA_CREDITO"), eq(700000.0), any(LocalDateTime.class), isNull()))
                     .thenReturn(pagoDTO);
 
             // Act
-            ResponseEntity<PagoDTO> response = pagoController.registrarPago(pagoRequest);
+            ResponseEntity<PagoDTO> response = pagoController.registrarPago(pagoRequest, null);
 
             // Assert
             assertThat(response.getStatusCodeValue()).isEqualTo(201);
@@ -104,7 +104,7 @@ public class PagoControllerTest {
             assertThat(response.getBody().getMetodo()).isEqualTo("Tarjeta de crédito");
             assertThat(response.getBody().getEstado()).isEqualTo("Completado");
 
-            verify(pagoService, times(1)).registrarPago(eq(1), eq(50), eq("TARJETA_CREDITO"), eq(700000.0), any(LocalDateTime.class));
+            verify(pagoService, times(1)).registrarPago(eq(1), eq(50), eq("TARJETA_CREDITO"), eq(700000.0), any(LocalDateTime.class), isNull());
         }
     }
 
@@ -123,7 +123,7 @@ public class PagoControllerTest {
             SecurityContextHolder.setContext(securityContext);
 
             // Act & Assert
-            assertThatThrownBy(() -> pagoController.registrarPago(pagoRequest))
+            assertThatThrownBy(() -> pagoController.registrarPago(pagoRequest, null))
                     .isInstanceOf(RecursoNoEncontradoException.class)
                     .hasMessage("Usuario autenticado no encontrado");
 
@@ -454,16 +454,16 @@ public class PagoControllerTest {
         try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
             securityUtils.when(() -> SecurityUtils.getEmailActual()).thenReturn(Optional.of("juan@correo.com"));
             when(usuarioRepository.findByEmailIgnoreCase("juan@correo.com")).thenReturn(Optional.of(usuario));
-            when(pagoService.registrarPago(anyInt(), anyInt(), anyString(), anyDouble(), any(LocalDateTime.class)))
+            when(pagoService.registrarPago(anyInt(), anyInt(), anyString(), anyDouble(), any(LocalDateTime.class), any()))
                     .thenReturn(pagoDTO);
 
             // Act
-            pagoController.registrarPago(requestEfectivo);
-            pagoController.registrarPago(requestTransferencia);
+            pagoController.registrarPago(requestEfectivo, null);
+            pagoController.registrarPago(requestTransferencia, null);
 
             // Assert
-            verify(pagoService, times(1)).registrarPago(eq(1), eq(60), eq("EFECTIVO"), eq(400000.0), any(LocalDateTime.class));
-            verify(pagoService, times(1)).registrarPago(eq(1), eq(70), eq("TRANSFERENCIA"), eq(600000.0), any(LocalDateTime.class));
+            verify(pagoService, times(1)).registrarPago(eq(1), eq(60), eq("EFECTIVO"), eq(400000.0), any(LocalDateTime.class), isNull());
+            verify(pagoService, times(1)).registrarPago(eq(1), eq(70), eq("TRANSFERENCIA"), eq(600000.0), any(LocalDateTime.class), isNull());
         }
     }
 }
\ No newline at end of file
@@ -115,10 +115,10 @@ public class ReservaControllerTest {
         try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
             securityUtils.when(() -> SecurityUtils.getEmailActual()).thenReturn(Optional.of("juan@correo.com"));
             when(usuarioRepository.findByEmailIgnoreCase("juan@correo.com")).thenReturn(Optional.of(usuario));
-            when(reservaService.crear(eq(25), any(CrearReservaRequest.class))).thenReturn(reservaDTO);
+            when(reservaService.crear(eq(25), any(CrearReservaRequest.class), isNull())).thenReturn(reservaDTO);
 
             // Act
-            ResponseEntity<ReservaDTO> response = reservaController.crear(crearRequest);
+            ResponseEntity<ReservaDTO> response = reservaController.crear(crearRequest, null);
 
             // Assert
             assertThat(response.getStatusCodeValue()).isEqualTo(201);
@@ -130,7 +130,7 @@ public class ReservaControllerTest {
             assertThat(response.getBody().getCantidadNoches()).isEqualTo(5L);
             assertThat(response.getBody().getPuedeCancelarse()).isTrue();
 
-            verify(reservaService, times(1)).crear(25, crearRequest);
+            verify(reservaService, times(1)).crear(25, crearRequest, null);
         }
     }
 
@@ -142,7 +142,7 @@ public class ReservaControllerTest {
             securityUtils.when(() -> SecurityUtils.getEmailActual()).thenReturn(Optional.empty());
 
             // Act & Assert
-            assertThatThrownBy(() -> reservaController.crear(crearRequest))
+            assertThatThrownBy(() -> reservaController.crear(crearRequest, null))
                     .isInstanceOf(RuntimeException.class)
                     .hasMessage("No autenticado");
 
@@ -159,7 +159,7 @@ public class ReservaControllerTest {
             when(usuarioRepository.findByEmailIgnoreCase("noexiste@correo.com")).thenReturn(Optional.empty());
 
             // Act & Assert
-            assertThatThrownBy(() -> reservaController.crear(crearRequest))
+            assertThatThrownBy(() -> reservaController.crear(crearRequest, null))
                     .isInstanceOf(RuntimeException.class)
                     .hasMessage("Usuario no encontrado");
 
@@ -188,7 +188,7 @@ public class ReservaControllerTest {
         when(reservaService.listarPorHuesped(25, 0, 50)).thenReturn(paginacionResponse);
 
         // Act
-        ResponseEntity<List<ReservaDTO>> response = reservaController.listarMisReservas(0, 50);
+        ResponseEntity<List<ReservaDTO>> response = reservaController.listarMisReservas(0, 50, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -216,7 +216,7 @@ public class ReservaControllerTest {
         when(reservaService.listarPorHuesped(25, 0, 50)).thenReturn(paginacionResponse);
 
         // Act
-        ResponseEntity<List<ReservaDTO>> response = reservaController.listarMisReservas(0, 50);
+        ResponseEntity<List<ReservaDTO>> response = reservaController.listarMisReservas(0, 50, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -334,7 +334,7 @@ public class ReservaControllerTest {
         when(reservaService.listarPorAnfitrion(25, 0, 50)).thenReturn(paginacionResponse);
 
         // Act
-        ResponseEntity<List<ReservaDTO>> response = reservaController.listarReservasDeAnfitrion(0, 50, null);
+        ResponseEntity<List<ReservaDTO>> response = reservaController.listarReservasDeAnfitrion(0, 50, null, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -352,7 +352,7 @@ public class ReservaControllerTest {
         when(reservaService.listarPorAnfitrion(5, 0, 50)).thenReturn(paginacionResponse);
 
         // Act
-        ResponseEntity<List<ReservaDTO>> response = reservaController.listarReservasDeAnfitrion(0, 50, 5);
+        ResponseEntity<List<ReservaDTO>> response = reservaController.listarReservasDeAnfitrion(0, 50, 5, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -504,7 +504,7 @@ public class ReservaControllerTest {
         when(usuarioService.obtenerPorEmail("noexiste@correo.com")).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThatThrownBy(() -> reservaController.listarMisReservas(0, 50))
+        assertThatThrownBy(() -> reservaController.listarMisReservas(0, 50, null))
                 .isInstanceOf(RecursoNoEncontradoException.class)
                 .hasMessage("Usuario no encontrado por email");
     }
@@ -143,7 +143,8 @@ public class AlojamientoDTOTest {
                 LATITUD_VALIDA, LONGITUD_VALIDA, PRECIO_NOCHE_VALIDO, CAPACIDAD_MAXIMA_VALIDA,
                 IMAGEN_PRINCIPAL_URL_VALIDA, ESTADO_VALIDO, FECHA_CREACION_VALIDA,
                 FECHA_ACTUALIZACION_VALIDA, ANFITRION_ID_VALIDO, ANFITRION_NOMBRE_VALIDO,
-                imagenes, servicios, CALIFICACION_PROMEDIO_VALIDA, CANTIDAD_COMENTARIOS_VALIDA
+                imagenes, servicios, CALIFICACION_PROMEDIO_VALIDA, CANTIDAD_COMENTARIOS_VALIDA,
+                null, null
         );
 
         // ASSERT
@@ -0,0 +1,100 @@
+package co.uniquindio.alojapp.negocio.DTO;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit Tests para AlojamientoResumenDTO
+ */
+@DisplayName("AlojamientoResumenDTO - Unit Tests")
+public class AlojamientoResumenDTOTest {
+
+    private static final int PAGINA = 20;
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    @DisplayName("CONSTRUCTOR PROYECCIÓN - Calcula el promedio con las columnas desnormalizadas")
+    void constructorProyeccion_CalculaPromedio() {
+        // ARRANGE & ACT
+        AlojamientoResumenDTO resumen = new AlojamientoResumenDTO(
+                10, "Casa de playa", "Cartagena", new BigDecimal("350000"), 8,
+                "https://img/10/1", 47L, 10);
+
+        // ASSERT
+        assertThat(resumen.getCalificacionPromedio()).isEqualTo(4.7);
+        assertThat(resumen.getCantidadComentarios()).isEqualTo(10);
+        assertThat(resumen.getTitulo()).isEqualTo("Casa de playa");
+    }
+
+    @Test
+    @DisplayName("CONSTRUCTOR PROYECCIÓN - Sin comentarios el promedio es 0")
+    void constructorProyeccion_SinComentarios_PromedioCero() {
+        // ARRANGE & ACT
+        AlojamientoResumenDTO sinFilas = new AlojamientoResumenDTO(1, "A", "B", BigDecimal.ONE, 2, null, 0L, 0);
+        AlojamientoResumenDTO sinColumnas = new AlojamientoResumenDTO(1, "A", "B", BigDecimal.ONE, 2, null, (Long) null, null);
+
+        // ASSERT
+        assertThat(sinFilas.getCalificacionPromedio()).isZero();
+        assertThat(sinColumnas.getCalificacionPromedio()).isZero();
+        assertThat(sinColumnas.getCantidadComentarios()).isZero();
+    }
+
+    @Test
+    @DisplayName("JSON - Una página resumen pesa mucho menos que la página completa")
+    void json_PaginaResumen_MenosBytes() throws Exception {
+        // ARRANGE
+        List<AlojamientoDTO> completos = IntStream.range(0, PAGINA).mapToObj(this::completo).toList();
+        List<AlojamientoResumenDTO> resumenes = completos.stream()
+                .map(a -> new AlojamientoResumenDTO(a.getId(), a.getTitulo(), a.getCiudad(), a.getPrecioNoche(),
+                        a.getCapacidadMaxima(), a.getImagenPrincipalUrl(), a.getCalificacionPromedio(),
+                        a.getCantidadComentarios()))
+                .toList();
+
+        // ACT
+        int bytesCompletos = mapper.writeValueAsBytes(completos).length;
+        int bytesResumen = mapper.writeValueAsBytes(resumenes).length;
+
+        // ASSERT
+        assertThat(bytesResumen)
+                .as("Página de %d: completa %d bytes, resumen %d bytes", PAGINA, bytesCompletos, bytesResumen)
+                .isLessThan(bytesCompletos / 3);
+    }
+
+    private AlojamientoDTO completo(int i) {
+        return AlojamientoDTO.builder()
+                .id(i)
+                .titulo("Casa de playa " + i)
+                .descripcion("Hermosa casa frente al mar con piscina privada, zonas verdes, BBQ y acceso directo a la playa. "
+                        + "Ideal para familias y grupos grandes que buscan descansar cerca del centro histórico.")
+                .ciudad("Cartagena")
+                .direccion("Cra 1 # 2-" + i)
+                .latitud(new BigDecimal("10.3910485"))
+                .longitud(new BigDecimal("-75.4794257"))
+                .precioNoche(new BigDecimal("350000.00"))
+                .capacidadMaxima(8)
+                .imagenPrincipalUrl("https://alojapp.com/img/" + i + "/1.jpg")
+                .estado("ACTIVO")
+                .fechaCreacion(LocalDateTime.of(2025, 1, 1, 10, 0))
+                .fechaActualizacion(LocalDateTime.of(2025, 2, 1, 10, 0))
+                .anfitrionId((long) i)
+                .anfitrionNombre("Anfitrión " + i)
+                .imagenes(IntStream.rangeClosed(1, 5).mapToObj(o -> "https://alojapp.com/img/" + i + "/" + o + ".jpg").toList())
+                .servicios(List.of(
+                        new ServicioAlojamientoDTO(1, "Wi-Fi", "Internet de alta velocidad"),
+                        new ServicioAlojamientoDTO(2, "Piscina", "Piscina privada"),
+                        new ServicioAlojamientoDTO(3, "Aire acondicionado", "En todas las habitaciones")))
+                .calificacionPromedio(4.7)
+                .cantidadComentarios(23)
+                .distribucionCalificaciones(List.of(0, 1, 2, 5, 15))
+                .build();
+    }
+}
@@ -65,7 +65,9 @@ public class BuscarAlojamientosRequestTest {
                 CIUDAD_VALIDA, FECHA_CHECKIN_VALIDA, FECHA_CHECKOUT_VALIDA,
                 PRECIO_MIN_VALIDO, PRECIO_MAX_VALIDO, CAPACIDAD_MINIMA_VALIDA,
                 SERVICIOS_IDS_VALIDOS, PAGINA_VALIDA, TAMANO_PAGINA_VALIDO,
-                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO
+                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO, null,
+                null, null, null, null, null, null, null, null, null,
+                null, null, null
         );
 
         // ASSERT
@@ -211,14 +213,18 @@ public class BuscarAlojamientosRequestTest {
                 CIUDAD_VALIDA, FECHA_CHECKIN_VALIDA, FECHA_CHECKOUT_VALIDA,
                 PRECIO_MIN_VALIDO, PRECIO_MAX_VALIDO, CAPACIDAD_MINIMA_VALIDA,
                 SERVICIOS_IDS_VALIDOS, PAGINA_VALIDA, TAMANO_PAGINA_VALIDO,
-                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO
+                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO, null,
+                null, null, null, null, null, null, null, null, null,
+                null, null, null
         );
 
         BuscarAlojamientosRequest request2 = new BuscarAlojamientosRequest(
                 CIUDAD_VALIDA, FECHA_CHECKIN_VALIDA, FECHA_CHECKOUT_VALIDA,
                 PRECIO_MIN_VALIDO, PRECIO_MAX_VALIDO, CAPACIDAD_MINIMA_VALIDA,
                 SERVICIOS_IDS_VALIDOS, PAGINA_VALIDA, TAMANO_PAGINA_VALIDO,
-                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO
+                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO, null,
+                null, null, null, null, null, null, null, null, null,
+                null, null, null
         );
 
         // ACT & ASSERT
@@ -234,14 +240,18 @@ public class BuscarAlojamientosRequestTest {
                 "Cartagena", FECHA_CHECKIN_VALIDA, FECHA_CHECKOUT_VALIDA,
                 PRECIO_MIN_VALIDO, PRECIO_MAX_VALIDO, CAPACIDAD_MINIMA_VALIDA,
                 SERVICIOS_IDS_VALIDOS, PAGINA_VALIDA, TAMANO_PAGINA_VALIDO,
-                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO
+                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO, null,
+                null, null, null, null, null, null, null, null, null,
+                null, null, null
         );
 
         BuscarAlojamientosRequest request2 = new BuscarAlojamientosRequest(
                 "Medellín", FECHA_CHECKIN_VALIDA, FECHA_CHECKOUT_VALIDA,
                 PRECIO_MIN_VALIDO, PRECIO_MAX_VALIDO, CAPACIDAD_MINIMA_VALIDA,
                 SERVICIOS_IDS_VALIDOS, PAGINA_VALIDA, TAMANO_PAGINA_VALIDO,
-                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO
+                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO, null,
+                null, null, null, null, null, null, null, null, null,
+                null, null, null
         );
 
         // ACT & ASSERT
@@ -258,7 +268,9 @@ public class BuscarAlojamientosRequestTest {
                 CIUDAD_VALIDA, FECHA_CHECKIN_VALIDA, FECHA_CHECKOUT_VALIDA,
                 PRECIO_MIN_VALIDO, PRECIO_MAX_VALIDO, CAPACIDAD_MINIMA_VALIDA,
                 SERVICIOS_IDS_VALIDOS, PAGINA_VALIDA, TAMANO_PAGINA_VALIDO,
-                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO
+                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO, null,
+                null, null, null, null, null, null, null, null, null,
+                null, null, null
         );
 
         // ACT
@@ -515,7 +527,9 @@ public class BuscarAlojamientosRequestTest {
                 CIUDAD_VALIDA, FECHA_CHECKIN_VALIDA, FECHA_CHECKOUT_VALIDA,
                 PRECIO_MIN_VALIDO, PRECIO_MAX_VALIDO, CAPACIDAD_MINIMA_VALIDA,
                 SERVICIOS_IDS_VALIDOS, PAGINA_VALIDA, TAMANO_PAGINA_VALIDO,
-                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO
+                DIRECCION_ORDEN_VALIDA, ORDENAR_POR_VALIDO, null,
+                null, null, null, null, null, null, null, null, null,
+                null, null, null
         );
 
         // ASSERT
@@ -560,7 +574,9 @@ public class BuscarAlojamientosRequestTest {
         BuscarAlojamientosRequest viaConstructor = new BuscarAlojamientosRequest(
                 "Medellín", FECHA_CHECKIN_VALIDA, FECHA_CHECKOUT_VALIDA,
                 PRECIO_MIN_VALIDO, PRECIO_MAX_VALIDO, 2,
-                Arrays.asList(1, 2), 1, 15, "DESC", "precio_noche"
+                Arrays.asList(1, 2), 1, 15, "DESC", "precio_noche", null,
+                null, null, null, null, null, null, null, null, null,
+                null, null, null
         );
 
         BuscarAlojamientosRequest viaBuilder = BuscarAlojamientosRequest.builder()
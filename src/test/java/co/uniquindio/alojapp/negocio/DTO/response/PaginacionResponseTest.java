@@ -51,7 +51,7 @@ public class PaginacionResponseTest {
         PaginacionResponse<String> response = new PaginacionResponse<>(
                 CONTENIDO_VALIDO, PAGINA_ACTUAL_VALIDA, TAMANO_PAGINA_VALIDO,
                 TOTAL_ELEMENTOS_VALIDO, TOTAL_PAGINAS_VALIDO, ES_PRIMERA_VALIDO,
-                ES_ULTIMA_VALIDO, TIENE_SIGUIENTE_VALIDO, TIENE_ANTERIOR_VALIDO
+                ES_ULTIMA_VALIDO, TIENE_SIGUIENTE_VALIDO, TIENE_ANTERIOR_VALIDO, null, null
         );
 
         // Assert
@@ -155,12 +155,12 @@ public class PaginacionResponseTest {
         PaginacionResponse<String> response1 = new PaginacionResponse<>(
                 CONTENIDO_VALIDO, PAGINA_ACTUAL_VALIDA, TAMANO_PAGINA_VALIDO,
                 TOTAL_ELEMENTOS_VALIDO, TOTAL_PAGINAS_VALIDO, ES_PRIMERA_VALIDO,
-                ES_ULTIMA_VALIDO, TIENE_SIGUIENTE_VALIDO, TIENE_ANTERIOR_VALIDO
+                ES_ULTIMA_VALIDO, TIENE_SIGUIENTE_VALIDO, TIENE_ANTERIOR_VALIDO, null, null
         );
         PaginacionResponse<String> response2 = new PaginacionResponse<>(
                 CONTENIDO_VALIDO, PAGINA_ACTUAL_VALIDA, TAMANO_PAGINA_VALIDO,
                 TOTAL_ELEMENTOS_VALIDO, TOTAL_PAGINAS_VALIDO, ES_PRIMERA_VALIDO,
-                ES_ULTIMA_VALIDO, TIENE_SIGUIENTE_VALIDO, TIENE_ANTERIOR_VALIDO
+                ES_ULTIMA_VALIDO, TIENE_SIGUIENTE_VALIDO, TIENE_ANTERIOR_VALIDO, null, null
         );
 
         // Act & Assert - Verificar manualmente cada campo
@@ -224,7 +224,7 @@ public class PaginacionResponseTest {
         PaginacionResponse<String> response = new PaginacionResponse<>(
                 CONTENIDO_VALIDO, PAGINA_ACTUAL_VALIDA, TAMANO_PAGINA_VALIDO,
                 TOTAL_ELEMENTOS_VALIDO, TOTAL_PAGINAS_VALIDO, ES_PRIMERA_VALIDO,
-                ES_ULTIMA_VALIDO, TIENE_SIGUIENTE_VALIDO, TIENE_ANTERIOR_VALIDO
+                ES_ULTIMA_VALIDO, TIENE_SIGUIENTE_VALIDO, TIENE_ANTERIOR_VALIDO, null, null
         );
 
         // Act & Assert
@@ -238,7 +238,7 @@ public class PaginacionResponseTest {
         PaginacionResponse<String> response = new PaginacionResponse<>(
                 CONTENIDO_VALIDO, PAGINA_ACTUAL_VALIDA, TAMANO_PAGINA_VALIDO,
                 TOTAL_ELEMENTOS_VALIDO, TOTAL_PAGINAS_VALIDO, ES_PRIMERA_VALIDO,
-                ES_ULTIMA_VALIDO, TIENE_SIGUIENTE_VALIDO, TIENE_ANTERIOR_VALIDO
+                ES_ULTIMA_VALIDO, TIENE_SIGUIENTE_VALIDO, TIENE_ANTERIOR_VALIDO, null, null
         );
 
         // Act
@@ -617,7 +617,7 @@ public class PaginacionResponseTest {
     void lombok_ConstructorConParametrosFunciona() {
         // Act
         PaginacionResponse<String> response = new PaginacionResponse<>(
-                Arrays.asList("a", "b"), 1, 10, 100L, 10, false, false, true, true
+                Arrays.asList("a", "b"), 1, 10, 100L, 10, false, false, true, true, null, null
         );
 
         // Assert
@@ -721,4 +721,21 @@ public class PaginacionResponseTest {
         assertThat(response.getTieneAnterior()).isTrue();
         assertThat(response.getTieneSiguiente()).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Modo cursor - Sin totales y con siguienteCursor")
+    void modoCursor_SinTotalesConSiguienteCursor() {
+        // Act
+        PaginacionResponse<String> response = PaginacionResponse.<String>builder()
+                .contenido(CONTENIDO_VALIDO)
+                .tamanoPagina(TAMANO_PAGINA_VALIDO)
+                .tieneSiguiente(true)
+                .siguienteCursor("abc123")
+                .build();
+
+        // Assert
+        assertThat(response.getSiguienteCursor()).isEqualTo("abc123");
+        assertThat(response.getTotalElementos()).isNull();
+        assertThat(response.getTotalPaginas()).isNull();
+    }
+}
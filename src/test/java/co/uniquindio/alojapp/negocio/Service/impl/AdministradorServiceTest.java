@@ -6,6 +6,7 @@ import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAdministradorRequest;
 import co.uniquindio.alojapp.negocio.Service.impl.AdministradorServiceIMPL;
 import co.uniquindio.alojapp.persistencia.Entity.Administrador;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Indice.ContadoresEstado;
 import co.uniquindio.alojapp.persistencia.Mapper.AdministradorMapper;
 import co.uniquindio.alojapp.persistencia.Repository.AdministradorRepository;
 import co.uniquindio.alojapp.persistencia.Repository.UsuarioRepository;
@@ -19,6 +20,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -44,6 +46,9 @@ public class AdministradorServiceTest {
     @Mock
     private AdministradorMapper administradorMapper;
 
+    @Mock
+    private ContadoresEstado contadores;
+
     @InjectMocks
     private AdministradorServiceIMPL administradorService;
 
@@ -450,6 +455,21 @@ public class AdministradorServiceTest {
         verify(administradorRepository, times(1)).count();
     }
 
+    @Test
+    @DisplayName("CONTADORES PLATAFORMA - Devuelve el resumen en memoria sin consultar repositorios")
+    void contadoresPlataforma_DevuelveResumen() {
+        // ARRANGE
+        Map<String, Map<String, Long>> resumen = Map.of("RESERVA", Map.of("CONFIRMADA", 7L, "TOTAL", 7L));
+        when(contadores.resumen()).thenReturn(resumen);
+
+        // ACT
+        Map<String, Map<String, Long>> resultado = administradorService.contadoresPlataforma();
+
+        // ASSERT
+        assertThat(resultado).isEqualTo(resumen);
+        verifyNoInteractions(administradorRepository, usuarioRepository);
+    }
+
     @Test
     @DisplayName("CONTAR POR NIVEL - Nivel válido retorna cantidad")
     void contarPorNivel_NivelValido_RetornaCantidad() {
@@ -0,0 +1,119 @@
+package co.uniquindio.alojapp.negocio.Service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit Tests para AgrupadorLlamadas
+ */
+@DisplayName("AgrupadorLlamadas - Unit Tests")
+public class AgrupadorLlamadasTest {
+
+    private static final int HILOS = 8;
+
+    @Test
+    @DisplayName("EJECUTAR - Llamadas simultáneas con la misma clave ejecutan una sola vez")
+    void ejecutar_Concurrentes_UnaEjecucion() throws Exception {
+        AgrupadorLlamadas<Integer, String> agrupador = new AgrupadorLlamadas<>();
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        try {
+            Future<String> lider = pool.submit(() -> agrupador.ejecutar(7, () -> {
+                ejecuciones.incrementAndGet();
+                dentro.countDown();
+                esperar(liberar);
+                return "alojamiento-7";
+            }));
+            assertThat(dentro.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<String>> seguidores = new ArrayList<>();
+            for (int i = 1; i < HILOS; i++) {
+                seguidores.add(pool.submit(() -> agrupador.ejecutar(7, () -> {
+                    ejecuciones.incrementAndGet();
+                    return "otra";
+                })));
+            }
+            // Esperar a que todos estén agrupados antes de liberar al que ejecuta
+            while (agrupador.estadisticas().getAgrupadas() < HILOS - 1) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+
+            assertThat(lider.get(5, TimeUnit.SECONDS)).isEqualTo("alojamiento-7");
+            for (Future<String> f : seguidores) {
+                assertThat(f.get(5, TimeUnit.SECONDS)).isEqualTo("alojamiento-7");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(ejecuciones.get()).isEqualTo(1);
+        assertThat(agrupador.estadisticas().getLlamadas()).isEqualTo(HILOS);
+        assertThat(agrupador.estadisticas().getEjecuciones()).isEqualTo(1L);
+        assertThat(agrupador.estadisticas().getEnCurso()).isZero();
+    }
+
+    @Test
+    @DisplayName("EJECUTAR - La excepción de la ejecución llega a quienes esperaban")
+    void ejecutar_Excepcion_SePropagaAAgrupadas() throws Exception {
+        AgrupadorLlamadas<Integer, String> agrupador = new AgrupadorLlamadas<>();
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> lider = pool.submit(() -> agrupador.ejecutar(1, () -> {
+                dentro.countDown();
+                esperar(liberar);
+                throw new IllegalArgumentException("Alojamiento no encontrado");
+            }));
+            assertThat(dentro.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<String> seguidor = pool.submit(() -> agrupador.ejecutar(1, () -> "no debería ejecutarse"));
+            while (agrupador.estadisticas().getAgrupadas() < 1) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+
+            assertThatThrownBy(() -> lider.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> seguidor.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalArgumentException.class);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("EJECUTAR - Sin concurrencia no guarda resultados ni agrupa")
+    void ejecutar_Secuencial_EjecutaCadaVez() {
+        AgrupadorLlamadas<String, Integer> agrupador = new AgrupadorLlamadas<>();
+        AtomicInteger contador = new AtomicInteger();
+
+        agrupador.ejecutar("a", contador::incrementAndGet);
+        agrupador.ejecutar("a", contador::incrementAndGet);
+        agrupador.ejecutar("b", contador::incrementAndGet);
+
+        assertThat(contador.get()).isEqualTo(3);
+        assertThat(agrupador.estadisticas().getAgrupadas()).isZero();
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
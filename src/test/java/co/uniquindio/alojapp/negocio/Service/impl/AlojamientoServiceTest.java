@@ -1,14 +1,19 @@
 package co.uniquindio.alojapp.negocio.Service.impl;
 
 import co.uniquindio.alojapp.negocio.DTO.AlojamientoDTO;
+import co.uniquindio.alojapp.negocio.DTO.AlojamientoResumenDTO;
+import co.uniquindio.alojapp.negocio.DTO.CalendarioDisponibilidadDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.ActualizarAlojamientoRequestTest;
 import co.uniquindio.alojapp.negocio.DTO.request.BuscarAlojamientosRequest;
+import co.uniquindio.alojapp.negocio.DTO.request.DisponibilidadLoteRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearAlojamientoRequest;
 import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
+import co.uniquindio.alojapp.negocio.excepciones.BadRequestException;
 import co.uniquindio.alojapp.persistencia.DAO.AlojamientoDAO;
 import co.uniquindio.alojapp.persistencia.Entity.Anfitrion;
 import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoAlojamiento;
+import co.uniquindio.alojapp.persistencia.Indice.PuntajeRelevancia;
 import co.uniquindio.alojapp.persistencia.Repository.AnfitrionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,10 +22,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Map;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,6 +53,9 @@ public class AlojamientoServiceTest {
     @Mock
     private AnfitrionRepository anfitrionRepository;
 
+    @Mock
+    private TransactionTemplate transacciones;
+
     @InjectMocks
     private AlojamientoServiceIMPL alojamientoService;
 
@@ -365,6 +378,88 @@ public class AlojamientoServiceTest {
         verify(alojamientoDAO, never()).verificarDisponibilidad(anyInt(), any(), any());
     }
 
+    @Test
+    @DisplayName("DISPONIBILIDAD LOTE - Consultas válidas se resuelven en una llamada al DAO")
+    void disponibilidadLote_ConsultasValidas_DelegaEnDAO() {
+        // ARRANGE
+        LocalDate checkin = LocalDate.now().plusDays(10);
+        DisponibilidadLoteRequest request = new DisponibilidadLoteRequest(List.of(
+                new DisponibilidadLoteRequest.Consulta(1, checkin, checkin.plusDays(2)),
+                new DisponibilidadLoteRequest.Consulta(2, checkin, checkin.plusDays(3))));
+        Map<String, Boolean> esperado = Map.of("1:" + checkin + ":" + checkin.plusDays(2), true);
+        when(alojamientoDAO.verificarDisponibilidadLote(request.getConsultas())).thenReturn(esperado);
+
+        // ACT
+        Map<String, Boolean> resultado = alojamientoService.disponibilidadLote(request);
+
+        // ASSERT
+        assertThat(resultado).isEqualTo(esperado);
+        verify(alojamientoDAO, times(1)).verificarDisponibilidadLote(request.getConsultas());
+        verify(alojamientoDAO, never()).verificarDisponibilidad(anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("DISPONIBILIDAD LOTE - Más del máximo de consultas lanza BadRequestException")
+    void disponibilidadLote_ExcedeMaximo_LanzaExcepcion() {
+        // ARRANGE
+        LocalDate checkin = LocalDate.now().plusDays(10);
+        List<DisponibilidadLoteRequest.Consulta> consultas = new ArrayList<>();
+        for (int i = 0; i <= DisponibilidadLoteRequest.MAX_CONSULTAS; i++) {
+            consultas.add(new DisponibilidadLoteRequest.Consulta(i, checkin, checkin.plusDays(1)));
+        }
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> alojamientoService.disponibilidadLote(new DisponibilidadLoteRequest(consultas)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Máximo");
+
+        verify(alojamientoDAO, never()).verificarDisponibilidadLote(any());
+    }
+
+    @Test
+    @DisplayName("DISPONIBILIDAD LOTE - Consulta con rango invertido lanza BadRequestException")
+    void disponibilidadLote_RangoInvertido_LanzaExcepcion() {
+        // ARRANGE
+        LocalDate checkin = LocalDate.now().plusDays(10);
+        DisponibilidadLoteRequest request = new DisponibilidadLoteRequest(List.of(
+                new DisponibilidadLoteRequest.Consulta(1, checkin, checkin.minusDays(1))));
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> alojamientoService.disponibilidadLote(request))
+                .isInstanceOf(BadRequestException.class);
+
+        verify(alojamientoDAO, never()).verificarDisponibilidadLote(any());
+    }
+
+    @Test
+    @DisplayName("CALENDARIO - Rango válido retorna las noches del DAO")
+    void calendario_RangoValido_RetornaNoches() {
+        // ARRANGE
+        LocalDate desde = LocalDate.now().plusDays(1);
+        LocalDate hasta = desde.plusDays(4);
+        when(alojamientoDAO.calendario(ALOJAMIENTO_ID_VALIDO, desde, hasta)).thenReturn("00110");
+
+        // ACT
+        CalendarioDisponibilidadDTO resultado = alojamientoService.calendario(ALOJAMIENTO_ID_VALIDO, desde, hasta);
+
+        // ASSERT
+        assertThat(resultado.getNoches()).isEqualTo("00110");
+        assertThat(resultado.getDesde()).isEqualTo(desde);
+    }
+
+    @Test
+    @DisplayName("CALENDARIO - Rango mayor a un año lanza BadRequestException")
+    void calendario_RangoMuyLargo_LanzaExcepcion() {
+        // ARRANGE
+        LocalDate desde = LocalDate.now();
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> alojamientoService.calendario(ALOJAMIENTO_ID_VALIDO, desde, desde.plusDays(400)))
+                .isInstanceOf(BadRequestException.class);
+
+        verify(alojamientoDAO, never()).calendario(anyInt(), any(), any());
+    }
+
     // ==================== OBTENER TESTS ====================
 
     @Test
@@ -441,6 +536,26 @@ public class AlojamientoServiceTest {
         verify(alojamientoDAO, times(1)).findActivos(0, 10);
     }
 
+    @Test
+    @DisplayName("LISTAR ACTIVOS CURSOR - Delega al DAO y no calcula totales")
+    void listarActivosPorCursor_RetornaPaginaSinTotales() {
+        PaginacionResponse<AlojamientoDTO> paginacionMock =
+                PaginacionResponse.<AlojamientoDTO>builder()
+                        .contenido(List.of(alojamientoDTOMock))
+                        .tamanoPagina(10)
+                        .tieneSiguiente(true)
+                        .siguienteCursor("cursor-2")
+                        .build();
+
+        when(alojamientoDAO.findActivosPorCursor("", 10)).thenReturn(paginacionMock);
+
+        PaginacionResponse<AlojamientoDTO> resultado = alojamientoService.listarActivosPorCursor("", 10);
+
+        assertThat(resultado.getSiguienteCursor()).isEqualTo("cursor-2");
+        assertThat(resultado.getTotalElementos()).isNull();
+        verify(alojamientoDAO, never()).findActivos(anyInt(), anyInt());
+    }
+
     // ==================== BUSCAR TESTS ====================
 
     @Test
@@ -499,6 +614,114 @@ public class AlojamientoServiceTest {
         verify(alojamientoDAO, never()).buscarConFiltros(any());
     }
 
+    @Test
+    @DisplayName("BUSCAR - Radio sin centro completo lanza BadRequestException")
+    void buscar_RadioSinLongitud_LanzaExcepcion() {
+        // ARRANGE
+        buscarRequestValido.setLatitud(10.39);
+        buscarRequestValido.setRadioKm(5.0);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> alojamientoService.buscar(buscarRequestValido))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("latitud, longitud y radioKm");
+
+        verify(alojamientoDAO, never()).buscarConFiltros(any());
+    }
+
+    @Test
+    @DisplayName("BUSCAR - Orden fuera del catálogo lanza BadRequestException")
+    void buscar_OrdenNoSoportado_LanzaExcepcion() {
+        // ARRANGE
+        buscarRequestValido.setOrdenarPor("descripcion");
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> alojamientoService.buscar(buscarRequestValido))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Orden no soportado: descripcion");
+
+        verify(alojamientoDAO, never()).buscarConFiltros(any());
+    }
+
+    @Test
+    @DisplayName("BUSCAR - Rectángulo con latitudes invertidas lanza BadRequestException")
+    void buscar_RectanguloInvertido_LanzaExcepcion() {
+        // ARRANGE
+        buscarRequestValido.setLatitudMin(10.45);
+        buscarRequestValido.setLongitudMin(-75.56);
+        buscarRequestValido.setLatitudMax(10.35);
+        buscarRequestValido.setLongitudMax(-75.45);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> alojamientoService.buscar(buscarRequestValido))
+                .isInstanceOf(BadRequestException.class);
+
+        verify(alojamientoDAO, never()).buscarConFiltros(any());
+    }
+
+    @Test
+    @DisplayName("BUSCAR - Ventana flexible más corta que las noches lanza BadRequestException")
+    void buscar_VentanaMenorQueNoches_LanzaExcepcion() {
+        // ARRANGE
+        buscarRequestValido.setVentanaInicio(LocalDate.now().plusDays(5));
+        buscarRequestValido.setVentanaFin(LocalDate.now().plusDays(7));
+        buscarRequestValido.setNoches(3);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> alojamientoService.buscar(buscarRequestValido))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("noches");
+
+        verify(alojamientoDAO, never()).buscarConFiltros(any());
+    }
+
+    @Test
+    @DisplayName("BUSCAR - Fechas flexibles incompletas lanza BadRequestException")
+    void buscar_FechasFlexiblesIncompletas_LanzaExcepcion() {
+        // ARRANGE
+        buscarRequestValido.setNoches(3);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> alojamientoService.buscar(buscarRequestValido))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("ventanaInicio, ventanaFin y noches");
+
+        verify(alojamientoDAO, never()).buscarConFiltros(any());
+    }
+
+    @Test
+    @DisplayName("BUSCAR RESUMEN - Delegación al DAO con la proyección")
+    void buscarResumen_Valido_DelegaEnDAO() {
+        // ARRANGE
+        PaginacionResponse<AlojamientoResumenDTO> esperado = PaginacionResponse.<AlojamientoResumenDTO>builder()
+                .contenido(List.of(AlojamientoResumenDTO.builder().id(1).titulo("Casa").build()))
+                .build();
+        when(alojamientoDAO.buscarResumen(buscarRequestValido)).thenReturn(esperado);
+
+        // ACT
+        PaginacionResponse<AlojamientoResumenDTO> resultado = alojamientoService.buscarResumen(buscarRequestValido);
+
+        // ASSERT
+        assertThat(resultado).isSameAs(esperado);
+        verify(alojamientoDAO, never()).buscarConFiltros(any());
+    }
+
+    @Test
+    @DisplayName("BUSCAR RESUMEN - Fechas flexibles no se admiten en la vista resumen")
+    void buscarResumen_FechasFlexibles_LanzaExcepcion() {
+        // ARRANGE
+        buscarRequestValido.setVentanaInicio(LocalDate.now().plusDays(5));
+        buscarRequestValido.setVentanaFin(LocalDate.now().plusDays(15));
+        buscarRequestValido.setNoches(3);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> alojamientoService.buscarResumen(buscarRequestValido))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("vista resumen");
+
+        verify(alojamientoDAO, never()).buscarResumen(any());
+    }
+
     // ==================== VALIDACIÓN COORDENADAS TESTS ====================
 
     @Test
@@ -530,4 +753,20 @@ public class AlojamientoServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Latitud inválida");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("RELEVANCIA - El recálculo nocturno recorre los alojamientos por lotes, cada uno en su transacción")
+    @SuppressWarnings("unchecked")
+    void recalcularRelevancia_PorLotes() {
+        ReflectionTestUtils.setField(alojamientoService, "tamanoLoteRelevancia", 2);
+        when(transacciones.execute(any())).thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        when(alojamientoDAO.recalcularRelevanciaLote(0, 2)).thenReturn(new PuntajeRelevancia.Lote(2, 7));
+        when(alojamientoDAO.recalcularRelevanciaLote(7, 2)).thenReturn(new PuntajeRelevancia.Lote(2, 9));
+        when(alojamientoDAO.recalcularRelevanciaLote(9, 2)).thenReturn(new PuntajeRelevancia.Lote(1, 12));
+
+        alojamientoService.recalcularRelevancia();
+
+        verify(transacciones, times(3)).execute(any());
+        verify(alojamientoDAO, never()).recalcularRelevanciaLote(eq(12), anyInt());
+    }
+}
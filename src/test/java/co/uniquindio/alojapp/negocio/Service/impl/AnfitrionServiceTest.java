@@ -7,6 +7,7 @@ import co.uniquindio.alojapp.negocio.Service.impl.AnfitrionServiceIMPL;
 import co.uniquindio.alojapp.persistencia.DAO.UsuarioDAO;
 import co.uniquindio.alojapp.persistencia.Entity.Anfitrion;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Indice.PuntajeRelevancia;
 import co.uniquindio.alojapp.persistencia.Repository.AnfitrionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -38,6 +39,9 @@ public class AnfitrionServiceTest {
     @Mock
     private AnfitrionRepository anfitrionRepository;
 
+    @Mock
+    private PuntajeRelevancia puntajeRelevancia;
+
     @InjectMocks
     private AnfitrionServiceIMPL anfitrionService;
 
@@ -280,6 +284,7 @@ public class AnfitrionServiceTest {
 
         verify(anfitrionRepository, times(1)).findByUsuarioId(USUARIO_ID_VALIDO);
         verify(anfitrionRepository, times(1)).save(anfitrionMock);
+        verify(puntajeRelevancia).recalcularDeAnfitrion(anfitrionMock.getId());
         verify(usuarioDAO, times(1)).findById(USUARIO_ID_VALIDO);
     }
     @Test
@@ -9,6 +9,7 @@ import co.uniquindio.alojapp.negocio.excepciones.AccesoNoAutorizadoException;
 import co.uniquindio.alojapp.negocio.excepciones.ReglaNegocioException;
 import co.uniquindio.alojapp.negocio.excepciones.RecursoNoEncontradoException;
 import co.uniquindio.alojapp.persistencia.DAO.ComentarioDAO;
+import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
 import co.uniquindio.alojapp.persistencia.Entity.Comentario;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
 import co.uniquindio.alojapp.persistencia.Mapper.ComentarioMapper;
@@ -403,6 +404,23 @@ public class ComentarioServiceTest {
         verify(comentarioRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("ACTUALIZAR - Cambio de calificación ajusta los agregados del alojamiento")
+    void actualizar_CambiaCalificacion_AjustaAgregados() {
+        // ARRANGE
+        comentarioMock.setAlojamiento(Alojamiento.builder().id(ALOJAMIENTO_ID_VALIDO).build());
+        when(comentarioDAO.findEntityById(COMENTARIO_ID_VALIDO))
+                .thenReturn(Optional.of(comentarioMock));
+        when(comentarioRepository.save(any(Comentario.class)))
+                .thenReturn(comentarioMock);
+
+        // ACT
+        comentarioService.actualizar(USUARIO_ID_VALIDO, COMENTARIO_ID_VALIDO, actualizarRequestValido);
+
+        // ASSERT
+        verify(comentarioDAO, times(1)).ajustarCalificaciones(ALOJAMIENTO_ID_VALIDO, 5, 4);
+    }
+
     // ==================== ELIMINAR COMENTARIO TESTS ====================
 
     @Test
@@ -420,6 +438,22 @@ public class ComentarioServiceTest {
         verify(comentarioRepository, times(1)).delete(comentarioMock);
     }
 
+    @Test
+    @DisplayName("ELIMINAR - Descuenta la calificación de los agregados del alojamiento")
+    void eliminar_DescuentaCalificacion() {
+        // ARRANGE
+        comentarioMock.setAlojamiento(Alojamiento.builder().id(ALOJAMIENTO_ID_VALIDO).build());
+        when(comentarioDAO.findEntityById(COMENTARIO_ID_VALIDO))
+                .thenReturn(Optional.of(comentarioMock));
+
+        // ACT
+        comentarioService.eliminar(USUARIO_ID_VALIDO, COMENTARIO_ID_VALIDO, false);
+
+        // ASSERT
+        verify(comentarioRepository, times(1)).delete(comentarioMock);
+        verify(comentarioDAO, times(1)).ajustarCalificaciones(ALOJAMIENTO_ID_VALIDO, 5, null);
+    }
+
     @Test
     @DisplayName("ELIMINAR - Admin elimina comentario con override")
     void eliminar_AdminEliminaComentario_ConOverride() {
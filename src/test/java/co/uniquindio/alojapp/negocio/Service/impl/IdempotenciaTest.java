@@ -0,0 +1,183 @@
+package co.uniquindio.alojapp.negocio.Service.impl;
+
+import co.uniquindio.alojapp.negocio.DTO.ReservaDTO;
+import co.uniquindio.alojapp.negocio.excepciones.BadRequestException;
+import co.uniquindio.alojapp.negocio.excepciones.ConflictoNegocioException;
+import co.uniquindio.alojapp.persistencia.Cache.CacheIdempotencia;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests para Idempotencia
+ */
+@DisplayName("Idempotencia - Unit Tests")
+public class IdempotenciaTest {
+
+    private static final CacheIdempotencia.Clave CLAVE = new CacheIdempotencia.Clave("reserva.crear", 1, "clave-1");
+
+    private CacheIdempotencia cache;
+    private TransactionTemplate transacciones;
+    private Idempotencia idempotencia;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cache = mock(CacheIdempotencia.class);
+        transacciones = mock(TransactionTemplate.class);
+        when(transacciones.execute(any())).thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        idempotencia = new Idempotencia(cache, transacciones, new ObjectMapper().findAndRegisterModules());
+    }
+
+    private static ReservaDTO reserva(Integer id) {
+        return ReservaDTO.builder().id(id).estado("PENDIENTE").build();
+    }
+
+    @Test
+    @DisplayName("SIN CLAVE - Ejecuta la acción sin consultar ni guardar respuestas")
+    void sinClave_EjecutaDirecto() {
+        ReservaDTO resultado = idempotencia.ejecutar("reserva.crear", 1, null, "solicitud", ReservaDTO.class, () -> reserva(7));
+
+        assertThat(resultado.getId()).isEqualTo(7);
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    @DisplayName("CLAVE NUEVA - Ejecuta y guarda la respuesta en la misma transacción")
+    void claveNueva_EjecutaYGuarda() {
+        when(cache.buscar(CLAVE)).thenReturn(Optional.empty());
+
+        ReservaDTO resultado = idempotencia.ejecutar("reserva.crear", 1, "clave-1", "solicitud", ReservaDTO.class, () -> reserva(7));
+
+        assertThat(resultado.getId()).isEqualTo(7);
+        verify(transacciones, times(1)).execute(any());
+        verify(cache).guardar(eq(CLAVE), eq(idempotencia.huella("solicitud")), contains("\"id\":7"));
+    }
+
+    @Test
+    @DisplayName("REINTENTO - Devuelve la respuesta guardada sin ejecutar la acción")
+    void reintento_DevuelveRespuestaGuardada() {
+        when(cache.buscar(CLAVE)).thenReturn(Optional.of(
+                new CacheIdempotencia.Guardada(idempotencia.huella("solicitud"), "{\"id\":7,\"estado\":\"PENDIENTE\"}")));
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        ReservaDTO resultado = idempotencia.ejecutar("reserva.crear", 1, "clave-1", "solicitud", ReservaDTO.class,
+                () -> reserva(ejecuciones.incrementAndGet()));
+
+        assertThat(resultado.getId()).isEqualTo(7);
+        assertThat(ejecuciones).hasValue(0);
+        verify(cache, never()).guardar(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("CONFLICTO - La misma clave con otra solicitud lanza ConflictoNegocioException")
+    void claveReusada_OtraSolicitud_Conflicto() {
+        when(cache.buscar(CLAVE)).thenReturn(Optional.of(
+                new CacheIdempotencia.Guardada(idempotencia.huella("otra"), "{\"id\":7}")));
+
+        assertThatThrownBy(() -> idempotencia.ejecutar("reserva.crear", 1, "clave-1", "solicitud", ReservaDTO.class,
+                () -> reserva(8)))
+                .isInstanceOf(ConflictoNegocioException.class);
+    }
+
+    @Test
+    @DisplayName("CARRERA ENTRE INSTANCIAS - Si otra confirmó primero se devuelve su respuesta")
+    void restriccionUnica_DevuelveLaDelGanador() {
+        CacheIdempotencia.Guardada ganadora =
+                new CacheIdempotencia.Guardada(idempotencia.huella("solicitud"), "{\"id\":5}");
+        when(cache.buscar(CLAVE)).thenReturn(Optional.empty(), Optional.of(ganadora));
+        doThrow(new DataIntegrityViolationException("uk")).when(cache).guardar(any(), any(), any());
+
+        ReservaDTO resultado = idempotencia.ejecutar("reserva.crear", 1, "clave-1", "solicitud", ReservaDTO.class, () -> reserva(8));
+
+        assertThat(resultado.getId()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("FALLO - Si la acción falla no se guarda nada y el reintento vuelve a ejecutar")
+    void accionFalla_NoGuarda() {
+        when(cache.buscar(CLAVE)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> idempotencia.ejecutar("reserva.crear", 1, "clave-1", "solicitud", ReservaDTO.class,
+                () -> { throw new IllegalStateException("sin cupo"); }))
+                .hasMessage("sin cupo");
+        verify(cache, never()).guardar(any(), any(), any());
+
+        ReservaDTO resultado = idempotencia.ejecutar("reserva.crear", 1, "clave-1", "solicitud", ReservaDTO.class, () -> reserva(9));
+        assertThat(resultado.getId()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("CLAVE LARGA - Más de 100 caracteres lanza BadRequestException")
+    void claveLarga_BadRequest() {
+        assertThatThrownBy(() -> idempotencia.ejecutar("reserva.crear", 1, "x".repeat(101), "solicitud", ReservaDTO.class,
+                () -> reserva(1)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("CONCURRENCIA - Duplicados simultáneos ejecutan la acción una sola vez")
+    void duplicadosSimultaneos_UnaEjecucion() throws Exception {
+        AtomicReference<CacheIdempotencia.Guardada> guardada = new AtomicReference<>();
+        when(cache.buscar(CLAVE)).thenAnswer(inv -> Optional.ofNullable(guardada.get()));
+        doAnswer(inv -> {
+            guardada.set(new CacheIdempotencia.Guardada(inv.getArgument(1), inv.getArgument(2)));
+            return null;
+        }).when(cache).guardar(any(), any(), any());
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ReservaDTO>> resultados = new ArrayList<>();
+            resultados.add(pool.submit(() -> idempotencia.ejecutar("reserva.crear", 1, "clave-1", "solicitud",
+                    ReservaDTO.class, () -> {
+                        dentro.countDown();
+                        await(soltar);
+                        return reserva(ejecuciones.incrementAndGet());
+                    })));
+            dentro.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                resultados.add(pool.submit(() -> idempotencia.ejecutar("reserva.crear", 1, "clave-1", "solicitud",
+                        ReservaDTO.class, () -> reserva(ejecuciones.incrementAndGet()))));
+            }
+            Thread.sleep(100);
+            soltar.countDown();
+
+            for (Future<ReservaDTO> f : resultados) {
+                assertThat(f.get(5, TimeUnit.SECONDS).getId()).isEqualTo(1);
+            }
+            assertThat(ejecuciones).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -10,6 +10,8 @@ import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoReserva;
 import co.uniquindio.alojapp.persistencia.Entity.Pago;
 import co.uniquindio.alojapp.persistencia.Entity.Reserva;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Indice.ContadoresEstado;
+import co.uniquindio.alojapp.persistencia.Indice.RetencionesPendientes;
 import co.uniquindio.alojapp.persistencia.Mapper.PagoMapper;
 import co.uniquindio.alojapp.persistencia.Repository.PagoRepository;
 import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
@@ -27,6 +29,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -56,6 +59,15 @@ public class PagoServiceTest {
     @Mock
     private PagoMapper pagoMapper;
 
+    @Mock
+    private ContadoresEstado contadores;
+
+    @Mock
+    private RetencionesPendientes retenciones;
+
+    @Mock
+    private Idempotencia idempotencia;
+
     @InjectMocks
     private PagoServiceIMPL pagoService;
 
@@ -148,6 +160,29 @@ public class PagoServiceTest {
                 any(BigDecimal.class), eq(METODO_PAGO_VALIDO), eq("APROBADO"));
     }
 
+    @Test
+    @DisplayName("PAGAR RESERVA - Con Idempotency-Key el monto se normaliza en la huella")
+    @SuppressWarnings("unchecked")
+    void pagarReserva_ConClaveIdempotencia_DelegaEnIdempotencia() {
+        // ARRANGE
+        List<Object> solicitud = List.of(RESERVA_ID_VALIDO, METODO_PAGO_VALIDO, MONTO_VALIDO.stripTrailingZeros());
+        when(idempotencia.ejecutar(eq("pago.pagarReserva"), eq(USUARIO_ID_VALIDO), eq("clave-1"), eq(solicitud),
+                eq(PagoDTO.class), any())).thenAnswer(inv -> ((Supplier<PagoDTO>) inv.getArgument(5)).get());
+        when(reservaRepository.findById(RESERVA_ID_VALIDO)).thenReturn(Optional.of(reservaMock));
+        when(pagoRepository.findByReservaId(RESERVA_ID_VALIDO)).thenReturn(Optional.empty());
+        when(pagoDAO.crearParaReserva(eq(RESERVA_ID_VALIDO), eq(USUARIO_ID_VALIDO), any(BigDecimal.class),
+                eq(METODO_PAGO_VALIDO), eq("APROBADO"))).thenReturn(pagoDTOMock);
+
+        // ACT
+        PagoDTO resultado = pagoService.pagarReserva(USUARIO_ID_VALIDO, RESERVA_ID_VALIDO,
+                METODO_PAGO_VALIDO, MONTO_VALIDO.setScale(4), "clave-1");
+
+        // ASSERT
+        assertThat(resultado).isSameAs(pagoDTOMock);
+        verify(pagoDAO, times(1)).crearParaReserva(eq(RESERVA_ID_VALIDO), eq(USUARIO_ID_VALIDO),
+                any(BigDecimal.class), eq(METODO_PAGO_VALIDO), eq("APROBADO"));
+    }
+
     @Test
     @DisplayName("PAGAR RESERVA - Reserva no existe lanza RecursoNoEncontradoException")
     void pagarReserva_ReservaNoExiste_LanzaExcepcion() {
@@ -281,6 +316,24 @@ public class PagoServiceTest {
         ));
     }
 
+    @Test
+    @DisplayName("PAGAR RESERVA - Reserva PENDIENTE con retención vencida lanza excepción")
+    void pagarReserva_RetencionVencida_LanzaExcepcion() {
+        // ARRANGE
+        reservaMock.setEstado(EstadoReserva.PENDIENTE);
+        reservaMock.setFechaCreacion(LocalDateTime.now().minusHours(1));
+        when(reservaRepository.findById(RESERVA_ID_VALIDO)).thenReturn(Optional.of(reservaMock));
+        when(retenciones.vencida(reservaMock.getFechaCreacion())).thenReturn(true);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> pagoService.pagarReserva(USUARIO_ID_VALIDO, RESERVA_ID_VALIDO,
+                METODO_PAGO_VALIDO, MONTO_VALIDO))
+                .isInstanceOf(ReglaNegocioException.class)
+                .hasMessageContaining("venció sin pago");
+
+        verify(pagoDAO, never()).crearParaReserva(anyInt(), anyInt(), any(BigDecimal.class), anyString(), anyString());
+    }
+
     // ==================== OBTENER POR ID TESTS ====================
 
     @Test
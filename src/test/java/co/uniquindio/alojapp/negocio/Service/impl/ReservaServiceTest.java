@@ -1,5 +1,6 @@
 package co.uniquindio.alojapp.negocio.Service.impl;
 
+import co.uniquindio.alojapp.negocio.DTO.EstadisticasLotesDTO;
 import co.uniquindio.alojapp.negocio.DTO.ReservaDTO;
 import co.uniquindio.alojapp.negocio.DTO.request.CancelarReservaRequest;
 import co.uniquindio.alojapp.negocio.DTO.request.CrearReservaRequest;
@@ -13,6 +14,7 @@ import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
 import co.uniquindio.alojapp.persistencia.Entity.Reserva;
 import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoReserva;
 import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Indice.RetencionesPendientes;
 import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
 import co.uniquindio.alojapp.persistencia.Repository.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,11 +24,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -50,6 +57,15 @@ public class ReservaServiceTest {
     @Mock
     private AlojamientoRepository alojamientoRepository;
 
+    @Mock
+    private TransactionTemplate transacciones;
+
+    @Mock
+    private RetencionesPendientes retenciones;
+
+    @Mock
+    private Idempotencia idempotencia;
+
     @InjectMocks
     private ReservaServiceIMPL reservaService;
 
@@ -190,6 +206,25 @@ public class ReservaServiceTest {
         verify(reservaDAO, times(1)).save(crearRequestValido, USUARIO_ID_VALIDO);
     }
 
+    @Test
+    @DisplayName("CREAR - Con Idempotency-Key delega en Idempotencia con la solicitud como huella")
+    @SuppressWarnings("unchecked")
+    void crear_ConClaveIdempotencia_DelegaEnIdempotencia() {
+        // ARRANGE
+        when(idempotencia.ejecutar(eq("reserva.crear"), eq(USUARIO_ID_VALIDO), eq("clave-1"), eq(crearRequestValido),
+                eq(ReservaDTO.class), any())).thenAnswer(inv -> ((Supplier<ReservaDTO>) inv.getArgument(5)).get());
+        when(usuarioRepository.findById(USUARIO_ID_VALIDO)).thenReturn(Optional.of(usuarioMock));
+        when(alojamientoRepository.findById(ALOJAMIENTO_ID_VALIDO)).thenReturn(Optional.of(alojamientoMock));
+        when(reservaDAO.save(crearRequestValido, USUARIO_ID_VALIDO)).thenReturn(reservaDTOMock);
+
+        // ACT
+        ReservaDTO resultado = reservaService.crear(USUARIO_ID_VALIDO, crearRequestValido, "clave-1");
+
+        // ASSERT
+        assertThat(resultado).isSameAs(reservaDTOMock);
+        verify(reservaDAO, times(1)).save(crearRequestValido, USUARIO_ID_VALIDO);
+    }
+
     // ==================== CANCELAR RESERVA TESTS ====================
 
     @Test
@@ -465,17 +500,101 @@ public class ReservaServiceTest {
 
     // ==================== COMPLETAR RESERVAS VENCIDAS TESTS ====================
 
+    private void ejecutarLotesEnTransaccion() {
+        when(transacciones.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+    }
+
     @Test
-    @DisplayName("COMPLETAR RESERVAS VENCIDAS - Ejecuta correctamente")
-    void completarReservasVencidas_EjecutaCorrectamente() {
+    @DisplayName("COMPLETAR RESERVAS VENCIDAS - Procesa lotes hasta uno incompleto")
+    void completarReservasVencidas_ProcesaLotesHastaUnoIncompleto() {
         // ARRANGE
-        doNothing().when(reservaDAO).completarReservasVencidas();
+        ReflectionTestUtils.setField(reservaService, "tamanoLote", 2);
+        ejecutarLotesEnTransaccion();
+        when(reservaDAO.completarLoteVencidas(LocalDate.now(), 2)).thenReturn(2, 2, 1);
 
-        // ACT & ASSERT - No debe lanzar excepción
-        assertThatCode(() -> reservaService.completarReservasVencidas())
-                .doesNotThrowAnyException();
+        // ACT
+        int completadas = reservaService.completarReservasVencidas();
+
+        // ASSERT
+        assertThat(completadas).isEqualTo(5);
+        verify(transacciones, times(3)).execute(any());
+        verify(reservaDAO, times(3)).completarLoteVencidas(LocalDate.now(), 2);
+
+        EstadisticasLotesDTO estadisticas = reservaService.estadisticasCompletarReservas();
+        assertThat(estadisticas.getEnCurso()).isFalse();
+        assertThat(estadisticas.getLotes()).isEqualTo(3);
+        assertThat(estadisticas.getFilas()).isEqualTo(5L);
+        assertThat(estadisticas.getFin()).isNotNull();
+        assertThat(estadisticas.getUltimoError()).isNull();
+    }
+
+    @Test
+    @DisplayName("COMPLETAR RESERVAS VENCIDAS - Sin reservas vencidas hace un solo lote vacío")
+    void completarReservasVencidas_SinVencidas_UnLote() {
+        // ARRANGE
+        ReflectionTestUtils.setField(reservaService, "tamanoLote", 5000);
+        ejecutarLotesEnTransaccion();
+        when(reservaDAO.completarLoteVencidas(any(LocalDate.class), eq(5000))).thenReturn(0);
+
+        // ACT & ASSERT
+        assertThat(reservaService.completarReservasVencidas()).isZero();
+        verify(reservaDAO, times(1)).completarLoteVencidas(any(LocalDate.class), eq(5000));
+    }
+
+    @Test
+    @DisplayName("COMPLETAR RESERVAS VENCIDAS - Un lote fallido conserva los anteriores y queda registrado")
+    void completarReservasVencidas_LoteFalla_RegistraError() {
+        // ARRANGE
+        ReflectionTestUtils.setField(reservaService, "tamanoLote", 2);
+        ejecutarLotesEnTransaccion();
+        when(reservaDAO.completarLoteVencidas(any(LocalDate.class), eq(2)))
+                .thenReturn(2)
+                .thenThrow(new RuntimeException("Conexión perdida"));
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> reservaService.completarReservasVencidas())
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Conexión perdida");
+
+        EstadisticasLotesDTO estadisticas = reservaService.estadisticasCompletarReservas();
+        assertThat(estadisticas.getEnCurso()).isFalse();
+        assertThat(estadisticas.getLotes()).isEqualTo(1);
+        assertThat(estadisticas.getFilas()).isEqualTo(2L);
+        assertThat(estadisticas.getUltimoError()).isEqualTo("Conexión perdida");
+    }
+
+    // ==================== RETENCIONES VENCIDAS TESTS ====================
+
+    @Test
+    @DisplayName("RETENCIONES VENCIDAS - Sin vencimientos en el tick no abre transacción")
+    void cancelarRetencionesVencidas_SinVencidas_NoHaceNada() {
+        when(retenciones.vencidas()).thenReturn(List.of());
+
+        assertThat(reservaService.cancelarRetencionesVencidas()).isZero();
+        verifyNoInteractions(transacciones, reservaDAO);
+    }
 
-        verify(reservaDAO, times(1)).completarReservasVencidas();
+    @Test
+    @DisplayName("RETENCIONES VENCIDAS - Cancela por lotes y reprograma el lote que falla")
+    void cancelarRetencionesVencidas_LoteFalla_Reintenta() {
+        // ARRANGE
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(15);
+        ReflectionTestUtils.setField(reservaService, "tamanoLote", 2);
+        ejecutarLotesEnTransaccion();
+        when(retenciones.vencidas()).thenReturn(List.of(1, 2, 3, 4, 5));
+        when(retenciones.limiteCreacion()).thenReturn(limite);
+        when(reservaDAO.cancelarRetencionesVencidas(List.of(1, 2), limite)).thenReturn(2);
+        when(reservaDAO.cancelarRetencionesVencidas(List.of(3, 4), limite)).thenThrow(new RuntimeException("Bloqueo agotado"));
+        when(reservaDAO.cancelarRetencionesVencidas(List.of(5), limite)).thenReturn(1);
+
+        // ACT
+        int canceladas = reservaService.cancelarRetencionesVencidas();
+
+        // ASSERT
+        assertThat(canceladas).isEqualTo(3);
+        verify(retenciones).reintentar(List.of(3, 4));
+        verify(transacciones, times(3)).execute(any());
     }
 
     // ==================== MAPEO DE EXCEPCIONES TESTS ====================
@@ -0,0 +1,192 @@
+package co.uniquindio.alojapp.persistencia.Cache;
+
+import co.uniquindio.alojapp.negocio.DTO.AlojamientoDTO;
+import co.uniquindio.alojapp.negocio.DTO.request.BuscarAlojamientosRequest;
+import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
+import co.uniquindio.alojapp.persistencia.Evento.AlojamientoModificadoEvent;
+import co.uniquindio.alojapp.persistencia.Evento.DisponibilidadModificadaEvent;
+import co.uniquindio.alojapp.persistencia.Evento.ReservasCompletadasEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit Tests para CacheBusquedas y ClaveBusqueda
+ */
+@DisplayName("CacheBusquedas - Unit Tests")
+public class CacheBusquedasTest {
+
+    private CacheBusquedas cache;
+    private AtomicInteger consultas;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CacheBusquedas();
+        ReflectionTestUtils.setField(cache, "maxEntradas", 2);
+        ReflectionTestUtils.setField(cache, "ttlSegundos", 60L);
+        consultas = new AtomicInteger();
+    }
+
+    private Supplier<PaginacionResponse<AlojamientoDTO>> resultadoCon(Integer... ids) {
+        return () -> {
+            consultas.incrementAndGet();
+            return PaginacionResponse.<AlojamientoDTO>builder()
+                    .contenido(Arrays.stream(ids).map(id -> AlojamientoDTO.builder().id(id).build()).toList())
+                    .build();
+        };
+    }
+
+    private static BuscarAlojamientosRequest request(String ciudad) {
+        return BuscarAlojamientosRequest.builder().ciudad(ciudad).pagina(0).tamanoPagina(10).build();
+    }
+
+    private static BuscarAlojamientosRequest conFechas(String ciudad, LocalDate checkin, LocalDate checkout) {
+        BuscarAlojamientosRequest r = request(ciudad);
+        r.setFechaCheckin(checkin);
+        r.setFechaCheckout(checkout);
+        return r;
+    }
+
+    @Test
+    @DisplayName("CLAVE - Requests equivalentes comparten entrada")
+    void clave_RequestsEquivalentes_Iguales() {
+        BuscarAlojamientosRequest a = request("Cartagena");
+        a.setServiciosIds(List.of(3, 1, 3));
+        a.setPrecioMin(new BigDecimal("100000.00"));
+        a.setDireccionOrden("desc");
+        a.setTexto("  Casa   Piscína ");
+        BuscarAlojamientosRequest b = request("cartagena");
+        b.setServiciosIds(List.of(1, 3));
+        b.setPrecioMin(new BigDecimal("100000"));
+        b.setDireccionOrden("DESC");
+        b.setTexto("casa piscina");
+
+        assertThat(ClaveBusqueda.de(a)).isEqualTo(ClaveBusqueda.de(b));
+        assertThat(ClaveBusqueda.de(request("Armenia"))).isNotEqualTo(ClaveBusqueda.de(a));
+    }
+
+    @Test
+    @DisplayName("OBTENER - La segunda vez responde desde la caché y cuenta aciertos")
+    void obtener_SegundaVez_Acierto() {
+        cache.obtener(request("Cartagena"), resultadoCon(1));
+        PaginacionResponse<AlojamientoDTO> r = cache.obtener(request("CARTAGENA"), resultadoCon(1));
+
+        assertThat(r.getContenido()).hasSize(1);
+        assertThat(consultas.get()).isEqualTo(1);
+        assertThat(cache.estadisticas().getAciertos()).isEqualTo(1L);
+        assertThat(cache.estadisticas().getFallos()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("OBTENER - Al llenarse expulsa la menos usada (LRU)")
+    void obtener_Llena_ExpulsaMenosUsada() {
+        cache.obtener(request("A"), resultadoCon(1));
+        cache.obtener(request("B"), resultadoCon(2));
+        cache.obtener(request("A"), resultadoCon(1));   // A pasa a ser la más reciente
+        cache.obtener(request("C"), resultadoCon(3));   // expulsa B
+
+        cache.obtener(request("A"), resultadoCon(1));
+        cache.obtener(request("B"), resultadoCon(2));
+
+        assertThat(consultas.get()).isEqualTo(4);
+        assertThat(cache.estadisticas().getExpulsiones()).isGreaterThanOrEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("OBTENER - Entrada vencida se vuelve a calcular")
+    void obtener_Vencida_Recalcula() {
+        ReflectionTestUtils.setField(cache, "reloj", Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC));
+        cache.obtener(request("A"), resultadoCon(1));
+        ReflectionTestUtils.setField(cache, "reloj", Clock.fixed(Instant.parse("2025-01-01T00:01:01Z"), ZoneOffset.UTC));
+        cache.obtener(request("A"), resultadoCon(1));
+
+        assertThat(consultas.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("INVALIDAR - Cambio de alojamiento solo afecta entradas que lo muestran o su ciudad")
+    void alModificarAlojamiento_InvalidaConPrecision() {
+        cache.obtener(request("Cartagena"), resultadoCon(1));
+        cache.obtener(request("Armenia"), resultadoCon(2));
+
+        cache.alModificarAlojamiento(new AlojamientoModificadoEvent(9, Set.of("Cartagena de Indias")));
+        cache.obtener(request("Cartagena"), resultadoCon(1));
+        cache.obtener(request("Armenia"), resultadoCon(2));
+
+        assertThat(consultas.get()).isEqualTo(3);
+        assertThat(cache.estadisticas().getInvalidaciones()).isEqualTo(1L);
+
+        cache.alModificarAlojamiento(new AlojamientoModificadoEvent(2, Set.of("Pereira")));
+        cache.obtener(request("Armenia"), resultadoCon(2));
+        assertThat(consultas.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("INVALIDAR - Reserva solo afecta búsquedas con fechas que se cruzan")
+    void alModificarDisponibilidad_SoloRangosQueSeCruzan() {
+        LocalDate d = LocalDate.of(2025, 12, 1);
+        ReflectionTestUtils.setField(cache, "maxEntradas", 10);
+        cache.obtener(conFechas("A", d, d.plusDays(3)), resultadoCon(1));
+        cache.obtener(conFechas("A", d.plusDays(10), d.plusDays(12)), resultadoCon(1));
+        cache.obtener(request("A"), resultadoCon(1));
+
+        cache.alModificarDisponibilidad(new DisponibilidadModificadaEvent(1, d.plusDays(2), d.plusDays(4)));
+
+        cache.obtener(conFechas("A", d, d.plusDays(3)), resultadoCon(1));
+        cache.obtener(conFechas("A", d.plusDays(10), d.plusDays(12)), resultadoCon(1));
+        cache.obtener(request("A"), resultadoCon(1));
+        assertThat(consultas.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("INVALIDAR - Reservas invalidan búsquedas sin fechas ordenadas por popularidad o relevancia")
+    void alModificarDisponibilidad_OrdenPorPuntaje_Invalida() {
+        LocalDate d = LocalDate.of(2025, 12, 1);
+        ReflectionTestUtils.setField(cache, "maxEntradas", 10);
+        BuscarAlojamientosRequest popularidad = request("A");
+        popularidad.setOrdenarPor("popularidad");
+        BuscarAlojamientosRequest relevancia = request("A");
+        relevancia.setOrdenarPor("relevancia");
+        BuscarAlojamientosRequest precio = request("A");
+        precio.setOrdenarPor("precioNoche");
+        cache.obtener(popularidad, resultadoCon(1));
+        cache.obtener(relevancia, resultadoCon(1));
+        cache.obtener(precio, resultadoCon(1));
+
+        cache.alModificarDisponibilidad(new DisponibilidadModificadaEvent(1, d, d.plusDays(2)));
+
+        cache.obtener(popularidad, resultadoCon(1));
+        cache.obtener(relevancia, resultadoCon(1));
+        cache.obtener(precio, resultadoCon(1));
+        assertThat(consultas.get()).isEqualTo(5);
+
+        cache.alCompletarReservas(new ReservasCompletadasEvent(List.of(5), Set.of(1), d, d.plusDays(2)));
+        cache.obtener(popularidad, resultadoCon(1));
+        cache.obtener(precio, resultadoCon(1));
+        assertThat(consultas.get()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("OBTENER - Con capacidad 0 la caché queda desactivada")
+    void obtener_Desactivada_SiempreCalcula() {
+        ReflectionTestUtils.setField(cache, "maxEntradas", 0);
+        cache.obtener(request("A"), resultadoCon(1));
+        cache.obtener(request("A"), resultadoCon(1));
+
+        assertThat(consultas.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,67 @@
+package co.uniquindio.alojapp.persistencia.DAO;
+
+import co.uniquindio.alojapp.negocio.DTO.response.FacetaDTO;
+import co.uniquindio.alojapp.negocio.DTO.response.FacetasDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit Tests para AcumuladorFacetas
+ */
+@DisplayName("AcumuladorFacetas - Unit Tests")
+public class AcumuladorFacetasTest {
+
+    private static Object[] fila(int id, String ciudad, String precio, int capacidad, Integer servicioId, String servicio) {
+        return new Object[]{id, ciudad, new BigDecimal(precio), capacidad, servicioId, servicio};
+    }
+
+    @Test
+    @DisplayName("Resultado - Cuenta cada alojamiento una vez aunque tenga varios servicios")
+    void resultado_VariosServicios_CuentaAlojamientoUnaVez() {
+        AcumuladorFacetas acumulador = new AcumuladorFacetas();
+        acumulador.agregar(fila(1, "Cartagena", "150000", 4, 10, "Wi-Fi"));
+        acumulador.agregar(fila(1, "Cartagena", "150000", 4, 11, "Piscina"));
+        acumulador.agregar(fila(2, "Cartagena", "90000", 2, 10, "Wi-Fi"));
+        acumulador.agregar(fila(3, "Armenia", "950000", 8, null, null));
+
+        FacetasDTO facetas = acumulador.resultado();
+
+        assertThat(facetas.getTotal()).isEqualTo(3L);
+        assertThat(facetas.getCiudades()).extracting(FacetaDTO::getValor, FacetaDTO::getCantidad)
+                .containsExactly(tuple("Cartagena", 2L), tuple("Armenia", 1L));
+        assertThat(facetas.getServicios()).extracting(FacetaDTO::getValor, FacetaDTO::getEtiqueta, FacetaDTO::getCantidad)
+                .containsExactly(tuple("10", "Wi-Fi", 2L), tuple("11", "Piscina", 1L));
+    }
+
+    @Test
+    @DisplayName("Resultado - Agrupa precio y capacidad en rangos, omitiendo los vacíos")
+    void resultado_AgrupaEnRangos() {
+        AcumuladorFacetas acumulador = new AcumuladorFacetas();
+        acumulador.agregar(fila(1, "Cali", "100000", 3, null, null));
+        acumulador.agregar(fila(2, "Cali", "199999.99", 6, null, null));
+        acumulador.agregar(fila(3, "Cali", "800000", 12, null, null));
+
+        FacetasDTO facetas = acumulador.resultado();
+
+        assertThat(facetas.getPrecios()).extracting(FacetaDTO::getValor, FacetaDTO::getCantidad)
+                .containsExactly(tuple("100000-200000", 2L), tuple("800000-", 1L));
+        assertThat(facetas.getCapacidades()).extracting(FacetaDTO::getValor, FacetaDTO::getCantidad)
+                .containsExactly(tuple("3-4", 1L), tuple("5-6", 1L), tuple("7-", 1L));
+    }
+
+    @Test
+    @DisplayName("Resultado - Sin filas devuelve listas vacías y total 0")
+    void resultado_SinFilas_Vacio() {
+        FacetasDTO facetas = new AcumuladorFacetas().resultado();
+
+        assertThat(facetas.getTotal()).isZero();
+        assertThat(facetas.getCiudades()).isEmpty();
+        assertThat(facetas.getPrecios()).isEmpty();
+        assertThat(facetas.getCapacidades()).isEmpty();
+        assertThat(facetas.getServicios()).isEmpty();
+    }
+}
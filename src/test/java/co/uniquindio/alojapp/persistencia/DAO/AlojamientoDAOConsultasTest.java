@@ -0,0 +1,392 @@
+package co.uniquindio.alojapp.persistencia.DAO;
+
+import co.uniquindio.alojapp.negocio.DTO.AlojamientoDTO;
+import co.uniquindio.alojapp.negocio.DTO.AlojamientoResumenDTO;
+import co.uniquindio.alojapp.negocio.DTO.request.BuscarAlojamientosRequest;
+import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
+import co.uniquindio.alojapp.persistencia.Cache.CacheBusquedas;
+import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
+import co.uniquindio.alojapp.persistencia.Entity.Anfitrion;
+import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoReserva;
+import co.uniquindio.alojapp.persistencia.Entity.Imagen;
+import co.uniquindio.alojapp.persistencia.Entity.Reserva;
+import co.uniquindio.alojapp.persistencia.Entity.ServicioAlojamiento;
+import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Indice.ContadoresEstado;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceCiudades;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceClusters;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceDisponibilidad;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceGeografico;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceServicios;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceTexto;
+import co.uniquindio.alojapp.persistencia.Indice.PesoPopularidad;
+import co.uniquindio.alojapp.persistencia.Indice.PuntajeRelevancia;
+import co.uniquindio.alojapp.persistencia.Mapper.AlojamientoMapperImpl;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests de consultas para AlojamientoDAO (H2 en memoria)
+ * Cuenta las sentencias SQL que emite un listado para verificar que no hay N+1.
+ */
+@DataJpaTest
+@Import({AlojamientoDAO.class, AlojamientoMapperImpl.class, PesoPopularidad.class, PuntajeRelevancia.class})
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@DisplayName("AlojamientoDAO - Consultas por página")
+public class AlojamientoDAOConsultasTest {
+
+    private static final int ALOJAMIENTOS = 12;
+
+    @Autowired
+    private AlojamientoDAO alojamientoDAO;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private AlojamientoRepository alojamientoRepository;
+
+    @Autowired
+    private PesoPopularidad pesoPopularidad;
+
+    @MockitoBean
+    private IndiceDisponibilidad indiceDisponibilidad;
+    @MockitoBean
+    private IndiceGeografico indiceGeografico;
+    @MockitoBean
+    private IndiceClusters indiceClusters;
+    @MockitoBean
+    private IndiceTexto indiceTexto;
+    @MockitoBean
+    private IndiceCiudades indiceCiudades;
+    @MockitoBean
+    private IndiceServicios indiceServicios;
+    @MockitoBean
+    private CacheBusquedas cacheBusquedas;
+    @MockitoBean
+    private ContadoresEstado contadores;
+
+    private Statistics estadisticas;
+    private final List<Alojamiento> alojamientos = new ArrayList<>();
+    private Usuario huesped;
+
+    @BeforeEach
+    void setUp() {
+        ServicioAlojamiento wifi = em.persist(ServicioAlojamiento.builder().nombre("Wi-Fi").build());
+        ServicioAlojamiento piscina = em.persist(ServicioAlojamiento.builder().nombre("Piscina").build());
+
+        for (int i = 0; i < ALOJAMIENTOS; i++) {
+            Usuario usuario = em.persist(Usuario.builder()
+                    .nombre("Anfitrión " + i)
+                    .email("anfitrion" + i + "@test.com")
+                    .contrasenaHash("hash")
+                    .build());
+            Anfitrion anfitrion = em.persist(Anfitrion.builder().usuario(usuario).build());
+            Alojamiento alojamiento = em.persist(Alojamiento.builder()
+                    .anfitrion(anfitrion)
+                    .titulo("Alojamiento " + i)
+                    .ciudad("Armenia")
+                    .precioNoche(new BigDecimal("100000"))
+                    .capacidadMaxima(4)
+                    .servicios(List.of(wifi, piscina))
+                    .build());
+            alojamientos.add(alojamiento);
+            for (int orden = 1; orden <= 2; orden++) {
+                em.persist(Imagen.builder()
+                        .alojamiento(alojamiento)
+                        .urlImagen("https://img/" + i + "/" + orden)
+                        .orden(orden)
+                        .build());
+            }
+        }
+        huesped = em.persist(Usuario.builder()
+                .nombre("Huésped")
+                .email("huesped@test.com")
+                .contrasenaHash("hash")
+                .build());
+        em.flush();
+        em.clear();
+
+        estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.setStatisticsEnabled(true);
+    }
+
+    private long sentenciasAlListar(int tamanoPagina) {
+        em.clear();
+        estadisticas.clear();
+        PaginacionResponse<AlojamientoDTO> pagina = alojamientoDAO.findActivos(0, tamanoPagina);
+        assertThat(pagina.getContenido()).hasSize(tamanoPagina);
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("LISTAR - Las sentencias por página no dependen del tamaño de la página")
+    void findActivos_SentenciasConstantes() {
+        long conDos = sentenciasAlListar(2);
+        long conDiez = sentenciasAlListar(10);
+
+        // página + COUNT + imágenes + servicios + anfitriones
+        assertThat(conDiez).isEqualTo(conDos).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("LISTAR - Las relaciones cargadas por lote llegan completas al DTO")
+    void findActivos_RelacionesCompletas() {
+        em.clear();
+        List<AlojamientoDTO> contenido = alojamientoDAO.findActivos(0, 5).getContenido();
+
+        assertThat(contenido).allSatisfy(dto -> {
+            assertThat(dto.getImagenes()).hasSize(2);
+            assertThat(dto.getImagenes().get(0)).endsWith("/1");
+            assertThat(dto.getServicios()).extracting("nombre").containsExactlyInAnyOrder("Wi-Fi", "Piscina");
+            assertThat(dto.getAnfitrionNombre()).startsWith("Anfitrión ");
+            assertThat(dto.getAnfitrionId()).isNotNull();
+        });
+    }
+
+    @Test
+    @DisplayName("RESUMEN - La vista resumen no hidrata entidades: página + COUNT")
+    void buscarResumen_SinEntidades() {
+        em.clear();
+        estadisticas.clear();
+        BuscarAlojamientosRequest request = BuscarAlojamientosRequest.builder()
+                .ciudad("Armenia").pagina(0).tamanoPagina(10).build();
+
+        PaginacionResponse<AlojamientoResumenDTO> pagina = alojamientoDAO.buscarResumen(request);
+
+        assertThat(pagina.getContenido()).hasSize(10);
+        assertThat(pagina.getTotalElementos()).isEqualTo((long) ALOJAMIENTOS);
+        assertThat(pagina.getContenido()).allSatisfy(r -> {
+            assertThat(r.getTitulo()).startsWith("Alojamiento ");
+            assertThat(r.getCalificacionPromedio()).isZero();
+        });
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("FILTROS - Ocupados y zona llegan como un arreglo cada uno, sin importar cuántos IDs traen")
+    void buscarResumen_ConjuntosGrandesComoArreglo() {
+        Set<Integer> enZona = new HashSet<>();
+        alojamientos.subList(0, 5).forEach(a -> enZona.add(a.getId()));
+        Set<Integer> ocupados = new HashSet<>();
+        for (int id = 1_000_000; id < 1_040_000; id++) ocupados.add(id);
+        ocupados.add(alojamientos.get(1).getId());
+        when(indiceGeografico.enRadio(anyDouble(), anyDouble(), anyDouble())).thenReturn(Optional.of(enZona));
+        when(indiceDisponibilidad.alojamientosOcupados(any(), any())).thenReturn(Optional.of(ocupados));
+        em.clear();
+        estadisticas.clear();
+
+        BuscarAlojamientosRequest request = BuscarAlojamientosRequest.builder()
+                .latitud(4.5).longitud(-75.6).radioKm(5.0)
+                .fechaCheckin(LocalDate.now().plusDays(3)).fechaCheckout(LocalDate.now().plusDays(5))
+                .pagina(0).tamanoPagina(10).build();
+        PaginacionResponse<AlojamientoResumenDTO> pagina = alojamientoDAO.buscarResumen(request);
+
+        assertThat(pagina.getContenido()).extracting(AlojamientoResumenDTO::getId)
+                .containsExactlyInAnyOrder(alojamientos.get(0).getId(), alojamientos.get(2).getId(),
+                        alojamientos.get(3).getId(), alojamientos.get(4).getId());
+        // Página incompleta: sin conteo aparte, una sola sentencia con los 40001 ocupados
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void reservar(Alojamiento alojamiento, EstadoReserva estado) {
+        LocalDate checkin = LocalDate.now().plusDays(10);
+        em.persist(Reserva.builder()
+                .huesped(em.find(Usuario.class, huesped.getId()))
+                .alojamiento(em.find(Alojamiento.class, alojamiento.getId()))
+                .fechaCheckin(checkin)
+                .fechaCheckout(checkin.plusDays(2))
+                .numeroHuespedes(2)
+                .precioTotal(new BigDecimal("200000"))
+                .estado(estado)
+                .build());
+    }
+
+    @Test
+    @DisplayName("POPULARIDAD - La reconciliación corrige la deriva y los más populares salen primero")
+    void reconciliarPopularidad_CorrigeYOrdena() {
+        Alojamiento a = alojamientos.get(3), b = alojamientos.get(7);
+        reservar(a, EstadoReserva.CONFIRMADA);
+        reservar(a, EstadoReserva.COMPLETADA);
+        reservar(a, EstadoReserva.CANCELADA);
+        reservar(b, EstadoReserva.PENDIENTE);
+        em.flush();
+        // Deriva: b quedó con un puntaje inventado y a sin sus reservas
+        alojamientoRepository.sumarPopularidad(b.getId(), 50.0);
+        em.clear();
+
+        int corregidos = alojamientoDAO.reconciliarPopularidad();
+        em.clear();
+
+        double peso = pesoPopularidad.peso(LocalDate.now());
+        assertThat(corregidos).isEqualTo(2);
+        assertThat(em.find(Alojamiento.class, a.getId()).getPuntajePopularidad()).isCloseTo(2 * peso, within(1e-9));
+        assertThat(em.find(Alojamiento.class, b.getId()).getPuntajePopularidad()).isCloseTo(peso, within(1e-9));
+        assertThat(alojamientoDAO.findMasPopulares(0, 2).getContenido())
+                .extracting(AlojamientoDTO::getId)
+                .containsExactly(a.getId(), b.getId());
+        assertThat(alojamientoDAO.reconciliarPopularidad()).isZero();
+    }
+
+    @Test
+    @DisplayName("RELEVANCIA - ordenarPor=relevancia usa el puntaje recalculado (calificaciones y verificación)")
+    void buscarResumen_OrdenRelevancia() {
+        Alojamiento calificado = alojamientos.get(4), verificado = alojamientos.get(6);
+        alojamientoRepository.ajustarCalificaciones(calificado.getId(), 50L, 10, 0, 0, 0, 0, 10);
+        em.find(Anfitrion.class, verificado.getAnfitrion().getId()).setVerificado(true);
+        em.flush();
+        em.clear();
+
+        // Recorrido por lotes de 5: 5 + 5 + 2, cada uno sigue desde el último id del anterior
+        PuntajeRelevancia.Lote primero = alojamientoDAO.recalcularRelevanciaLote(0, 5);
+        PuntajeRelevancia.Lote segundo = alojamientoDAO.recalcularRelevanciaLote(primero.ultimoId(), 5);
+        PuntajeRelevancia.Lote tercero = alojamientoDAO.recalcularRelevanciaLote(segundo.ultimoId(), 5);
+        assertThat(List.of(primero.cantidad(), segundo.cantidad(), tercero.cantidad())).containsExactly(5, 5, 2);
+        assertThat(tercero.ultimoId()).isEqualTo(alojamientos.get(ALOJAMIENTOS - 1).getId());
+        assertThat(alojamientoDAO.recalcularRelevanciaLote(tercero.ultimoId(), 5).cantidad()).isZero();
+        em.clear();
+
+        BuscarAlojamientosRequest request = BuscarAlojamientosRequest.builder()
+                .ciudad("Armenia").ordenarPor("relevancia").direccionOrden("DESC").pagina(0).tamanoPagina(3).build();
+        assertThat(alojamientoDAO.buscarResumen(request).getContenido())
+                .extracting(AlojamientoResumenDTO::getId)
+                .containsExactly(calificado.getId(), verificado.getId(), alojamientos.get(ALOJAMIENTOS - 1).getId());
+        assertThat(alojamientoDAO.hayRelevanciaPendiente()).isFalse();
+    }
+
+    @Test
+    @DisplayName("ORDEN - ordenarPor=calificacion usa el promedio guardado por el UPDATE de agregados")
+    void buscarResumen_OrdenCalificacion() {
+        Alojamiento cuatro = alojamientos.get(2), cinco = alojamientos.get(9);
+        alojamientoRepository.ajustarCalificaciones(cuatro.getId(), 8L, 2, 0, 0, 0, 2, 0);
+        alojamientoRepository.ajustarCalificaciones(cinco.getId(), 5L, 1, 0, 0, 0, 0, 1);
+        em.clear();
+
+        BuscarAlojamientosRequest request = BuscarAlojamientosRequest.builder()
+                .ciudad("Armenia").ordenarPor("calificacion").direccionOrden("DESC").pagina(0).tamanoPagina(2).build();
+        assertThat(alojamientoDAO.buscarResumen(request).getContenido())
+                .extracting(AlojamientoResumenDTO::getId)
+                .containsExactly(cinco.getId(), cuatro.getId());
+        assertThat(em.find(Alojamiento.class, cuatro.getId()).getPromedioCalificacion()).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("ORDEN - ordenarPor=popularidad sin dirección pone primero el puntaje más alto")
+    void buscarResumen_OrdenPopularidadSinDireccion() {
+        Alojamiento poco = alojamientos.get(3), mucho = alojamientos.get(8);
+        alojamientoRepository.sumarPopularidad(poco.getId(), 1.0);
+        alojamientoRepository.sumarPopularidad(mucho.getId(), 5.0);
+        em.clear();
+
+        BuscarAlojamientosRequest request = BuscarAlojamientosRequest.builder()
+                .ciudad("Armenia").ordenarPor("popularidad").direccionOrden(null).pagina(0).tamanoPagina(2).build();
+        assertThat(alojamientoDAO.buscarResumen(request).getContenido())
+                .extracting(AlojamientoResumenDTO::getId)
+                .containsExactly(mucho.getId(), poco.getId());
+    }
+
+    @Test
+    @DisplayName("TEXTO - Sin índice de texto listo, la búsqueda resuelve los términos en la BD")
+    void buscarResumen_TextoSinIndice_UsaBD() {
+        em.clear();
+        BuscarAlojamientosRequest request = BuscarAlojamientosRequest.builder()
+                .ciudad("Armenia").texto("Alojamientos 3").pagina(0).tamanoPagina(10).build();
+
+        assertThat(alojamientoDAO.buscarResumen(request).getContenido())
+                .extracting(AlojamientoResumenDTO::getId)
+                .containsExactly(alojamientos.get(3).getId());
+    }
+
+    @Test
+    @DisplayName("SERVICIOS - Sin catálogo listo, el filtro de servicios (AND) se resuelve en la BD")
+    void buscarResumen_ServiciosSinCatalogo_UsaBD() {
+        List<Integer> servicios = em.getEntityManager()
+                .createQuery("SELECT s.id FROM ServicioAlojamiento s", Integer.class).getResultList();
+        em.clear();
+
+        BuscarAlojamientosRequest todos = BuscarAlojamientosRequest.builder()
+                .serviciosIds(servicios).pagina(0).tamanoPagina(20).build();
+        assertThat(alojamientoDAO.buscarResumen(todos).getContenido()).hasSize(ALOJAMIENTOS);
+
+        BuscarAlojamientosRequest conUnoInexistente = BuscarAlojamientosRequest.builder()
+                .serviciosIds(List.of(servicios.get(0), -1)).pagina(0).tamanoPagina(20).build();
+        assertThat(alojamientoDAO.buscarResumen(conUnoInexistente).getContenido()).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Integer> recorrerPorCursor(String ordenarPor, String direccion) {
+        doAnswer(inv -> ((Supplier<PaginacionResponse<AlojamientoDTO>>) inv.getArgument(1)).get())
+                .when(cacheBusquedas).obtener(any(), any());
+        List<Integer> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            BuscarAlojamientosRequest request = BuscarAlojamientosRequest.builder()
+                    .ciudad("Armenia").ordenarPor(ordenarPor).direccionOrden(direccion)
+                    .cursor(cursor).tamanoPagina(5).build();
+            PaginacionResponse<AlojamientoDTO> pagina = alojamientoDAO.buscarConFiltros(request);
+            pagina.getContenido().forEach(dto -> ids.add(dto.getId()));
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    @Test
+    @DisplayName("CURSOR - Las páginas siguientes continúan tras (clave, id) en ambas direcciones, con empates")
+    void buscarConFiltros_CursorAmbasDirecciones() {
+        List<Integer> esperados = alojamientos.stream().map(Alojamiento::getId).sorted().toList();
+        List<Integer> inversos = alojamientos.stream().map(Alojamiento::getId).sorted(Comparator.reverseOrder()).toList();
+
+        assertThat(recorrerPorCursor("precioNoche", "ASC")).containsExactlyElementsOf(esperados);
+        assertThat(recorrerPorCursor("precioNoche", "DESC")).containsExactlyElementsOf(inversos);
+        assertThat(recorrerPorCursor("capacidadMaxima", "ASC")).containsExactlyElementsOf(esperados);
+    }
+
+    @Test
+    @DisplayName("CURSOR - El listado de activos recorre todo sin repetir ni saltar")
+    void findActivosPorCursor_RecorreTodo() {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginacionResponse<AlojamientoDTO> pagina = alojamientoDAO.findActivosPorCursor(cursor, 5);
+            pagina.getContenido().forEach(dto -> ids.add(dto.getId()));
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+
+        assertThat(ids).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(alojamientos.stream().map(Alojamiento::getId).toList());
+    }
+}
@@ -0,0 +1,72 @@
+package co.uniquindio.alojapp.persistencia.DAO;
+
+import co.uniquindio.alojapp.negocio.DTO.response.PaginacionResponse;
+import co.uniquindio.alojapp.negocio.excepciones.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit Tests para CursorPaginacion
+ */
+@DisplayName("CursorPaginacion - Unit Tests")
+public class CursorPaginacionTest {
+
+    @Test
+    @DisplayName("Codificar/decodificar - Conserva clave e id")
+    void codificarDecodificar_ConservaClaveEId() {
+        LocalDateTime fecha = LocalDateTime.of(2025, 10, 1, 10, 30, 15, 123456000);
+
+        CursorPaginacion cursor = CursorPaginacion.decodificar(CursorPaginacion.codificar(fecha, 42));
+
+        assertThat(cursor.id()).isEqualTo(42);
+        assertThat(cursor.claveFecha()).isEqualTo(fecha);
+        assertThat(CursorPaginacion.decodificar(CursorPaginacion.codificar(new BigDecimal("150000.00"), 7))
+                .claveDecimal()).isEqualByComparingTo("150000.00");
+    }
+
+    @Test
+    @DisplayName("Decodificar - Vacío o null es la primera página")
+    void decodificar_Vacio_RetornaNull() {
+        assertThat(CursorPaginacion.decodificar(null)).isNull();
+        assertThat(CursorPaginacion.decodificar("")).isNull();
+    }
+
+    @Test
+    @DisplayName("Decodificar - Cursor manipulado lanza BadRequestException")
+    void decodificar_Invalido_LanzaBadRequest() {
+        assertThatThrownBy(() -> CursorPaginacion.decodificar("%%no-base64%%"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorPaginacion.decodificar(CursorPaginacion.codificar("x", 1)).claveFecha())
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Construir respuesta - La fila sobrante indica que hay más y genera cursor")
+    void construirRespuesta_ConFilaSobrante_TieneSiguiente() {
+        PaginacionResponse<Integer> pagina = CursorPaginacion.construirRespuesta(
+                List.of(1, 2, 3), 2, true, Function.identity(), n -> "c" + n);
+
+        assertThat(pagina.getContenido()).containsExactly(1, 2);
+        assertThat(pagina.getTieneSiguiente()).isTrue();
+        assertThat(pagina.getSiguienteCursor()).isEqualTo("c2");
+        assertThat(pagina.getTotalElementos()).isNull();
+    }
+
+    @Test
+    @DisplayName("Construir respuesta - Última página sin cursor")
+    void construirRespuesta_UltimaPagina_SinCursor() {
+        PaginacionResponse<Integer> pagina = CursorPaginacion.construirRespuesta(
+                List.of(1), 2, false, Function.identity(), n -> "c" + n);
+
+        assertThat(pagina.getEsUltima()).isTrue();
+        assertThat(pagina.getTieneAnterior()).isTrue();
+        assertThat(pagina.getSiguienteCursor()).isNull();
+    }
+}
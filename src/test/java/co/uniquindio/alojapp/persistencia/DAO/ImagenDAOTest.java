@@ -0,0 +1,88 @@
+package co.uniquindio.alojapp.persistencia.DAO;
+
+import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
+import co.uniquindio.alojapp.persistencia.Entity.Imagen;
+import co.uniquindio.alojapp.persistencia.Evento.AlojamientoModificadoEvent;
+import co.uniquindio.alojapp.persistencia.Mapper.ImagenMapper;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import co.uniquindio.alojapp.persistencia.Repository.ImagenRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests para ImagenDAO
+ * Las búsquedas en caché llevan las imágenes, así que cada cambio debe publicar AlojamientoModificadoEvent.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImagenDAO - Unit Tests")
+public class ImagenDAOTest {
+
+    @Mock
+    private ImagenRepository imagenRepository;
+
+    @Mock
+    private AlojamientoRepository alojamientoRepository;
+
+    @Mock
+    private ImagenMapper imagenMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @InjectMocks
+    private ImagenDAO imagenDAO;
+
+    private static Alojamiento alojamiento() {
+        return Alojamiento.builder().id(1).build();
+    }
+
+    @Test
+    @DisplayName("AGREGAR - Publica AlojamientoModificadoEvent del alojamiento")
+    void addImagen_PublicaEvento() {
+        when(alojamientoRepository.findById(1)).thenReturn(Optional.of(alojamiento()));
+        when(imagenRepository.countByAlojamientoId(1)).thenReturn(2L);
+        when(imagenRepository.save(any(Imagen.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        imagenDAO.addImagen(1, "https://img/3", "vista", null);
+
+        verify(eventos).publishEvent(new AlojamientoModificadoEvent(1, Set.of()));
+    }
+
+    @Test
+    @DisplayName("ELIMINAR - Publica AlojamientoModificadoEvent del alojamiento")
+    void delete_PublicaEvento() {
+        Imagen img = Imagen.builder().id(7).alojamiento(alojamiento()).orden(1).build();
+        when(imagenRepository.findById(7)).thenReturn(Optional.of(img));
+        when(imagenRepository.countByAlojamientoId(1)).thenReturn(2L);
+        when(imagenRepository.findByAlojamientoIdOrderByOrden(1)).thenReturn(List.of());
+
+        assertThat(imagenDAO.delete(7)).isTrue();
+
+        verify(eventos).publishEvent(new AlojamientoModificadoEvent(1, Set.of()));
+    }
+
+    @Test
+    @DisplayName("ELIMINAR ÚLTIMA - RN3 rechaza el borrado y no publica nada")
+    void delete_UltimaImagen_NoPublica() {
+        Imagen img = Imagen.builder().id(7).alojamiento(alojamiento()).orden(1).build();
+        when(imagenRepository.findById(7)).thenReturn(Optional.of(img));
+        when(imagenRepository.countByAlojamientoId(1)).thenReturn(1L);
+
+        assertThatThrownBy(() -> imagenDAO.delete(7)).isInstanceOf(IllegalStateException.class);
+
+        verifyNoInteractions(eventos);
+    }
+}
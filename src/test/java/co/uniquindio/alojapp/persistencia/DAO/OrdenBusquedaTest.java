@@ -0,0 +1,46 @@
+package co.uniquindio.alojapp.persistencia.DAO;
+
+import co.uniquindio.alojapp.negocio.excepciones.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit Tests para OrdenBusqueda
+ */
+@DisplayName("OrdenBusqueda - Unit Tests")
+public class OrdenBusquedaTest {
+
+    @Test
+    @DisplayName("DE - Las claves del catálogo se resuelven a su propiedad")
+    void de_ClaveValida_Resuelve() {
+        assertThat(OrdenBusqueda.de("precioNoche")).isEqualTo(OrdenBusqueda.PRECIO);
+        assertThat(OrdenBusqueda.de("calificacion").propiedad()).isEqualTo("promedioCalificacion");
+        assertThat(OrdenBusqueda.de("relevancia").propiedad()).isEqualTo("puntajeRelevancia");
+        assertThat(OrdenBusqueda.de(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("DE - Campos fuera del catálogo se rechazan")
+    void de_ClaveNoSoportada_LanzaExcepcion() {
+        assertThatThrownBy(() -> OrdenBusqueda.de("descripcion"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("precioNoche");
+        assertThatThrownBy(() -> OrdenBusqueda.de("precio_noche"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("DIRECCION - Sin dirección pedida los puntajes van de mayor a menor y el precio de menor a mayor")
+    void direccion_PorDefectoSegunOrden() {
+        assertThat(OrdenBusqueda.RELEVANCIA.direccion(null)).isEqualTo(Sort.Direction.DESC);
+        assertThat(OrdenBusqueda.CALIFICACION.direccion(null)).isEqualTo(Sort.Direction.DESC);
+        assertThat(OrdenBusqueda.de("popularidad").direccion(null)).isEqualTo(Sort.Direction.DESC);
+        assertThat(OrdenBusqueda.FECHA_CREACION.direccion(null)).isEqualTo(Sort.Direction.DESC);
+        assertThat(OrdenBusqueda.PRECIO.direccion(null)).isEqualTo(Sort.Direction.ASC);
+        assertThat(OrdenBusqueda.RELEVANCIA.direccion("asc")).isEqualTo(Sort.Direction.ASC);
+        assertThat(OrdenBusqueda.PRECIO.direccion("DESC")).isEqualTo(Sort.Direction.DESC);
+    }
+}
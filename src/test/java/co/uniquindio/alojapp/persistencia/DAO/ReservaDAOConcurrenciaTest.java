@@ -0,0 +1,382 @@
+package co.uniquindio.alojapp.persistencia.DAO;
+
+import co.uniquindio.alojapp.negocio.DTO.request.CrearReservaRequest;
+import co.uniquindio.alojapp.persistencia.Entity.Alojamiento;
+import co.uniquindio.alojapp.persistencia.Entity.Anfitrion;
+import co.uniquindio.alojapp.persistencia.Entity.Reserva;
+import co.uniquindio.alojapp.persistencia.Entity.Usuario;
+import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoReserva;
+import co.uniquindio.alojapp.persistencia.Esquema.LibroReservas;
+import co.uniquindio.alojapp.persistencia.Evento.ReservasCompletadasEvent;
+import co.uniquindio.alojapp.persistencia.Indice.ContadoresEstado;
+import co.uniquindio.alojapp.persistencia.Indice.IndiceDisponibilidad;
+import co.uniquindio.alojapp.persistencia.Indice.PesoPopularidad;
+import co.uniquindio.alojapp.persistencia.Indice.PuntajeRelevancia;
+import co.uniquindio.alojapp.persistencia.Mapper.ReservaMapperImpl;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests de concurrencia para ReservaDAO.save (H2 en memoria, transacciones reales por hilo)
+ * Muchos huéspedes reservan a la vez el mismo alojamiento: nunca deben quedar noches reservadas dos veces.
+ * También cubre el completado por lotes (RN32), que depende de SQL real (bloqueo + límite + UPDATE masivo).
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReservaDAO.class, ReservaMapperImpl.class, PesoPopularidad.class, PuntajeRelevancia.class, LibroReservas.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservas_concurrencia;LOCK_TIMEOUT=20000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.hikari.maximum-pool-size=10",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@RecordApplicationEvents
+@DisplayName("ReservaDAO - Concurrencia")
+public class ReservaDAOConcurrenciaTest {
+
+    private static final int HILOS = 16;
+
+    @Autowired
+    private ReservaDAO reservaDAO;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private AlojamientoRepository alojamientoRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private IndiceDisponibilidad indiceDisponibilidad;
+
+    @MockitoBean
+    private ContadoresEstado contadores;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    private TransactionTemplate tx;
+    private Integer alojamientoA;
+    private Integer alojamientoB;
+    private final List<Integer> huespedes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(s -> {
+            Usuario duenio = persistir(Usuario.builder()
+                    .nombre("Anfitrión").email("anfitrion@test.com").contrasenaHash("hash").build());
+            Anfitrion anfitrion = persistir(Anfitrion.builder().usuario(duenio).build());
+            alojamientoA = persistir(alojamiento(anfitrion, "A")).getId();
+            alojamientoB = persistir(alojamiento(anfitrion, "B")).getId();
+            for (int i = 0; i < HILOS; i++) {
+                huespedes.add(persistir(Usuario.builder()
+                        .nombre("Huésped " + i).email("huesped" + i + "@test.com").contrasenaHash("hash").build()).getId());
+            }
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        tx.executeWithoutResult(s -> {
+            em.createQuery("DELETE FROM Reserva").executeUpdate();
+            em.createQuery("DELETE FROM Alojamiento").executeUpdate();
+            em.createQuery("DELETE FROM Anfitrion").executeUpdate();
+            em.createQuery("DELETE FROM Usuario").executeUpdate();
+        });
+        huespedes.clear();
+    }
+
+    private <T> T persistir(T entidad) {
+        em.persist(entidad);
+        return entidad;
+    }
+
+    private static Alojamiento alojamiento(Anfitrion anfitrion, String titulo) {
+        return Alojamiento.builder()
+                .anfitrion(anfitrion)
+                .titulo(titulo)
+                .ciudad("Armenia")
+                .precioNoche(new BigDecimal("100000"))
+                .capacidadMaxima(4)
+                .build();
+    }
+
+    private Callable<Boolean> reservar(Integer alojamientoId, Integer huespedId, LocalDate checkin, LocalDate checkout,
+                                       CountDownLatch salida) {
+        CrearReservaRequest request = CrearReservaRequest.builder()
+                .alojamientoId(alojamientoId)
+                .fechaCheckin(checkin)
+                .fechaCheckout(checkout)
+                .numeroHuespedes(2)
+                .build();
+        return () -> {
+            salida.await(5, TimeUnit.SECONDS);
+            try {
+                tx.executeWithoutResult(s -> reservaDAO.save(request, huespedId));
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        };
+    }
+
+    private static int exitosas(List<Future<Boolean>> resultados) throws Exception {
+        int exitosas = 0;
+        for (Future<Boolean> f : resultados) {
+            if (f.get(60, TimeUnit.SECONDS)) exitosas++;
+        }
+        return exitosas;
+    }
+
+    @Test
+    @DisplayName("SAVE - Las mismas fechas pedidas a la vez se reservan una sola vez")
+    void save_MismasFechasConcurrentes_UnaSolaReserva() throws Exception {
+        LocalDate checkin = LocalDate.now().plusDays(30);
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (Integer huesped : huespedes) {
+                resultados.add(pool.submit(reservar(alojamientoA, huesped, checkin, checkin.plusDays(3), salida)));
+            }
+            salida.countDown();
+
+            assertThat(exitosas(resultados)).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(reservaRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("SAVE - Rangos aleatorios concurrentes no dejan noches solapadas")
+    void save_RangosAleatoriosConcurrentes_SinSolapamientos() throws Exception {
+        LocalDate base = LocalDate.now().plusDays(30);
+        Random random = new Random(42);
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (int ronda = 0; ronda < 4; ronda++) {
+                for (Integer huesped : huespedes) {
+                    LocalDate checkin = base.plusDays(random.nextInt(40));
+                    resultados.add(pool.submit(reservar(alojamientoA, huesped, checkin,
+                            checkin.plusDays(1 + random.nextInt(4)), salida)));
+                }
+            }
+            salida.countDown();
+
+            assertThat(exitosas(resultados)).isPositive();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<Reserva> reservas = tx.execute(s -> em.createQuery(
+                        "SELECT r FROM Reserva r WHERE r.alojamiento.id = :id ORDER BY r.fechaCheckin", Reserva.class)
+                .setParameter("id", alojamientoA)
+                .getResultList());
+        for (int i = 1; i < reservas.size(); i++) {
+            assertThat(reservas.get(i).getFechaCheckin())
+                    .as("reserva %d empieza cuando o después de que termina la anterior", reservas.get(i).getId())
+                    .isAfterOrEqualTo(reservas.get(i - 1).getFechaCheckout());
+        }
+    }
+
+    @Test
+    @DisplayName("SAVE - El día de checkout se puede reservar; una noche en común no")
+    void save_DiaDeCheckout_Disponible() throws Exception {
+        LocalDate checkin = LocalDate.now().plusDays(30);
+        CountDownLatch ya = new CountDownLatch(0);
+
+        assertThat(reservar(alojamientoA, huespedes.get(0), checkin, checkin.plusDays(3), ya).call()).isTrue();
+        assertThat(reservar(alojamientoA, huespedes.get(1), checkin.plusDays(3), checkin.plusDays(5), ya).call()).isTrue();
+        assertThat(reservar(alojamientoA, huespedes.get(2), checkin.minusDays(2), checkin.plusDays(1), ya).call()).isFalse();
+        assertThat(reservaRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("SAVE - Una reserva en curso no bloquea las de otro alojamiento")
+    void save_OtroAlojamiento_NoEspera() throws Exception {
+        LocalDate checkin = LocalDate.now().plusDays(30);
+        CountDownLatch bloqueado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // Mantener tomado el bloqueo de A como una reserva que aún no confirma
+            Future<?> retenido = pool.submit(() -> tx.executeWithoutResult(s -> {
+                alojamientoRepository.findByIdParaReservar(alojamientoA);
+                bloqueado.countDown();
+                try {
+                    liberar.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(bloqueado.await(10, TimeUnit.SECONDS)).isTrue();
+
+            CountDownLatch ya = new CountDownLatch(0);
+            Future<Boolean> otro = pool.submit(reservar(alojamientoB, huespedes.get(0), checkin, checkin.plusDays(2), ya));
+            assertThat(otro.get(10, TimeUnit.SECONDS)).isTrue();
+
+            liberar.countDown();
+            retenido.get(10, TimeUnit.SECONDS);
+        } finally {
+            liberar.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("COMPLETAR - Completa por lotes solo confirmadas con checkout pasado y publica un evento por lote")
+    void completarLoteVencidas_PorLotes() {
+        LocalDate hoy = LocalDate.now();
+        tx.executeWithoutResult(s -> {
+            Usuario huesped = em.find(Usuario.class, huespedes.get(0));
+            Alojamiento a = em.find(Alojamiento.class, alojamientoA);
+            Alojamiento b = em.find(Alojamiento.class, alojamientoB);
+            for (int i = 0; i < 5; i++) {
+                LocalDate checkin = hoy.minusDays(20 + 3L * i);
+                persistirPasada(huesped, i % 2 == 0 ? a : b, checkin, checkin.plusDays(2), EstadoReserva.CONFIRMADA);
+            }
+            persistirPasada(huesped, a, hoy.minusDays(2), hoy, EstadoReserva.CONFIRMADA);          // sale hoy
+            persistirPasada(huesped, a, hoy.minusDays(9), hoy.minusDays(7), EstadoReserva.PENDIENTE);
+            persistirPasada(huesped, b, hoy.minusDays(9), hoy.minusDays(7), EstadoReserva.CANCELADA);
+        });
+
+        List<Integer> porLote = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            porLote.add(tx.execute(s -> reservaDAO.completarLoteVencidas(hoy, 2)));
+        }
+        assertThat(porLote).containsExactly(2, 2, 1, 0);
+
+        assertThat(reservaRepository.countByEstado(EstadoReserva.COMPLETADA)).isEqualTo(5);
+        assertThat(reservaRepository.countByEstado(EstadoReserva.CONFIRMADA)).isEqualTo(1);
+        assertThat(reservaRepository.countByEstado(EstadoReserva.PENDIENTE)).isEqualTo(1);
+
+        List<ReservasCompletadasEvent> lotes = eventos.stream(ReservasCompletadasEvent.class).toList();
+        assertThat(lotes).hasSize(3);
+        assertThat(lotes.stream().mapToInt(e -> e.reservaIds().size()).sum()).isEqualTo(5);
+        assertThat(lotes.get(0).alojamientoIds()).containsExactlyInAnyOrder(alojamientoA, alojamientoB);
+        assertThat(lotes.get(0).hasta()).isBefore(hoy);
+    }
+
+    @Test
+    @DisplayName("RETENCIONES - Cancela solo las pendientes vencidas y libera sus fechas")
+    void cancelarRetencionesVencidas_LiberaFechas() throws Exception {
+        LocalDate checkin = LocalDate.now().plusDays(30);
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(15);
+        List<Integer> ids = tx.execute(s -> {
+            Usuario huesped = em.find(Usuario.class, huespedes.get(0));
+            Alojamiento a = em.find(Alojamiento.class, alojamientoA);
+            Alojamiento b = em.find(Alojamiento.class, alojamientoB);
+            List<Integer> creadas = List.of(
+                    pendiente(huesped, a, checkin, limite.minusMinutes(5)),       // vencida
+                    pendiente(huesped, b, checkin, limite.plusMinutes(5)),        // aún retenida
+                    persistir(Reserva.builder().huesped(huesped).alojamiento(b)
+                            .fechaCheckin(checkin.plusDays(10)).fechaCheckout(checkin.plusDays(12))
+                            .numeroHuespedes(2).precioTotal(new BigDecimal("200000"))
+                            .estado(EstadoReserva.CONFIRMADA).build()).getId());
+            em.flush();
+            return creadas;
+        });
+
+        Integer canceladas = tx.execute(s -> reservaDAO.cancelarRetencionesVencidas(ids, limite));
+        assertThat(canceladas).isEqualTo(1);
+
+        assertThat(reservaRepository.findById(ids.get(0)).orElseThrow().getEstado()).isEqualTo(EstadoReserva.CANCELADA);
+        assertThat(reservaRepository.findById(ids.get(1)).orElseThrow().getEstado()).isEqualTo(EstadoReserva.PENDIENTE);
+        assertThat(reservaRepository.findById(ids.get(2)).orElseThrow().getEstado()).isEqualTo(EstadoReserva.CONFIRMADA);
+        verify(indiceDisponibilidad).recalcular(Set.of(alojamientoA));
+
+        // Las fechas de la retención vencida vuelven a estar disponibles; las de la vigente no
+        CountDownLatch ya = new CountDownLatch(0);
+        assertThat(reservar(alojamientoA, huespedes.get(1), checkin, checkin.plusDays(2), ya).call()).isTrue();
+        assertThat(reservar(alojamientoB, huespedes.get(1), checkin, checkin.plusDays(2), ya).call()).isFalse();
+    }
+
+    private Integer pendiente(Usuario huesped, Alojamiento alojamiento, LocalDate checkin, LocalDateTime creacion) {
+        Reserva reserva = persistir(Reserva.builder()
+                .huesped(huesped)
+                .alojamiento(alojamiento)
+                .fechaCheckin(checkin)
+                .fechaCheckout(checkin.plusDays(2))
+                .numeroHuespedes(2)
+                .precioTotal(new BigDecimal("200000"))
+                .estado(EstadoReserva.PENDIENTE)
+                .build());
+        em.flush();
+        // @PrePersist fija fechaCreacion en ahora
+        em.createQuery("UPDATE Reserva r SET r.fechaCreacion = :creacion WHERE r.id = :id")
+                .setParameter("creacion", creacion)
+                .setParameter("id", reserva.getId())
+                .executeUpdate();
+        return reserva.getId();
+    }
+
+    /**
+     * La entidad exige fechas futuras al persistir: se guarda con fechas futuras y luego se mueve al pasado
+     */
+    private void persistirPasada(Usuario huesped, Alojamiento alojamiento, LocalDate checkin, LocalDate checkout,
+                                 EstadoReserva estado) {
+        LocalDate futuro = LocalDate.now().plusDays(1);
+        Reserva reserva = persistir(Reserva.builder()
+                .huesped(huesped)
+                .alojamiento(alojamiento)
+                .fechaCheckin(futuro)
+                .fechaCheckout(futuro.plusDays(1))
+                .numeroHuespedes(2)
+                .precioTotal(new BigDecimal("200000"))
+                .estado(estado)
+                .fechaCreacion(LocalDateTime.now())
+                .build());
+        em.flush();
+        em.createQuery("UPDATE Reserva r SET r.fechaCheckin = :checkin, r.fechaCheckout = :checkout WHERE r.id = :id")
+                .setParameter("checkin", checkin)
+                .setParameter("checkout", checkout)
+                .setParameter("id", reserva.getId())
+                .executeUpdate();
+    }
+}
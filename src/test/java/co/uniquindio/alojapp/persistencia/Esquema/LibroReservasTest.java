@@ -0,0 +1,91 @@
+package co.uniquindio.alojapp.persistencia.Esquema;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests para LibroReservas
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LibroReservas - Unit Tests")
+public class LibroReservasTest {
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    @InjectMocks
+    private LibroReservas libro;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(libro, "habilitada", true);
+    }
+
+    private void motor(String nombre) {
+        when(jdbc.execute(any(ConnectionCallback.class))).thenReturn(nombre);
+    }
+
+    @Test
+    @DisplayName("DETECTAR - En PostgreSQL con la restricción de V10 queda activa")
+    void detectar_PostgreSQLConRestriccion_Activa() {
+        motor("PostgreSQL");
+        when(jdbc.queryForObject(LibroReservas.EXISTE_RESTRICCION, Boolean.class, LibroReservas.RESTRICCION))
+                .thenReturn(true);
+
+        libro.detectar();
+
+        assertThat(libro.activa()).isTrue();
+        verify(jdbc, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("DETECTAR - En PostgreSQL sin la restricción (sin migraciones) queda inactiva")
+    void detectar_PostgreSQLSinRestriccion_Inactiva() {
+        motor("PostgreSQL");
+        when(jdbc.queryForObject(LibroReservas.EXISTE_RESTRICCION, Boolean.class, LibroReservas.RESTRICCION))
+                .thenReturn(false);
+
+        libro.detectar();
+
+        assertThat(libro.activa()).isFalse();
+    }
+
+    @Test
+    @DisplayName("DETECTAR - En otra BD queda inactiva sin consultar el catálogo")
+    void detectar_OtraBD_Inactiva() {
+        motor("H2");
+
+        libro.detectar();
+
+        assertThat(libro.activa()).isFalse();
+        verify(jdbc, never()).queryForObject(anyString(), eq(Boolean.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("SOLAPAMIENTO - Reconoce el SQLState de exclusión y nada más")
+    void esSolapamiento_SQLState() {
+        SQLException exclusion = new SQLException("conflicting key value violates exclusion constraint", "23P01");
+        SQLException unica = new SQLException("duplicate key value violates unique constraint", "23505");
+
+        assertThat(LibroReservas.esSolapamiento(new DataIntegrityViolationException("x",
+                new ConstraintViolationException("x", exclusion, LibroReservas.RESTRICCION)))).isTrue();
+        assertThat(LibroReservas.esSolapamiento(new DataIntegrityViolationException("x", unica))).isFalse();
+        assertThat(LibroReservas.esSolapamiento(new RuntimeException())).isFalse();
+    }
+}
@@ -0,0 +1,112 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoAlojamiento;
+import co.uniquindio.alojapp.persistencia.Entity.Enum.EstadoReserva;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import co.uniquindio.alojapp.persistencia.Repository.PagoRepository;
+import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
+import co.uniquindio.alojapp.persistencia.Repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static co.uniquindio.alojapp.persistencia.Indice.ContadoresEstado.Entidad.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests para ContadoresEstado
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContadoresEstado - Unit Tests")
+public class ContadoresEstadoTest {
+
+    @Mock
+    private AlojamientoRepository alojamientoRepository;
+    @Mock
+    private ReservaRepository reservaRepository;
+    @Mock
+    private PagoRepository pagoRepository;
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @InjectMocks
+    private ContadoresEstado contadores;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(alojamientoRepository.contarPorEstado()).thenReturn(List.of(
+                new Object[]{EstadoAlojamiento.ACTIVO, 10L},
+                new Object[]{EstadoAlojamiento.INACTIVO, 2L}));
+        lenient().when(reservaRepository.contarPorEstado()).thenReturn(List.<Object[]>of(
+                new Object[]{EstadoReserva.CONFIRMADA, 5L}));
+        lenient().when(pagoRepository.contarPorEstado()).thenReturn(List.<Object[]>of(
+                new Object[]{"APROBADO", 4L}));
+        lenient().when(usuarioRepository.contarPorEstado()).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("CONTAR - Sin construir devuelve vacío para que el llamador consulte la BD")
+    void contar_SinConstruir_Vacio() {
+        assertThat(contadores.contar(ALOJAMIENTO, EstadoAlojamiento.ACTIVO)).isEmpty();
+        assertThat(contadores.total(RESERVA)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("RECONCILIAR - Carga los conteos por estado y los totales")
+    void reconciliar_CargaConteos() {
+        contadores.reconciliar();
+
+        assertThat(contadores.contar(ALOJAMIENTO, EstadoAlojamiento.ACTIVO)).hasValue(10);
+        assertThat(contadores.contar(ALOJAMIENTO, EstadoAlojamiento.ELIMINADO)).hasValue(0);
+        assertThat(contadores.total(ALOJAMIENTO)).hasValue(12);
+        assertThat(contadores.contar(PAGO, "aprobado")).hasValue(4);
+        assertThat(contadores.total(USUARIO)).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("CAMBIO - Altas y transiciones mueven los conteos sin consultar la BD")
+    void cambio_ActualizaConteos() {
+        contadores.reconciliar();
+        clearInvocations(alojamientoRepository, reservaRepository);
+
+        contadores.cambio(RESERVA, null, EstadoReserva.CONFIRMADA);
+        contadores.cambio(RESERVA, EstadoReserva.CONFIRMADA, EstadoReserva.CANCELADA);
+        contadores.cambio(ALOJAMIENTO, EstadoAlojamiento.ACTIVO, EstadoAlojamiento.ELIMINADO);
+        contadores.cambio(ALOJAMIENTO, EstadoAlojamiento.ACTIVO, EstadoAlojamiento.ACTIVO);
+
+        assertThat(contadores.contar(RESERVA, EstadoReserva.CONFIRMADA)).hasValue(5);
+        assertThat(contadores.contar(RESERVA, EstadoReserva.CANCELADA)).hasValue(1);
+        assertThat(contadores.total(RESERVA)).hasValue(6);
+        assertThat(contadores.contar(ALOJAMIENTO, EstadoAlojamiento.ACTIVO)).hasValue(9);
+        assertThat(contadores.total(ALOJAMIENTO)).hasValue(12);
+        verifyNoInteractions(alojamientoRepository, reservaRepository);
+    }
+
+    @Test
+    @DisplayName("RECONCILIAR - Corrige la deriva contra la BD")
+    void reconciliar_CorrigeDeriva() {
+        contadores.reconciliar();
+        contadores.cambio(ALOJAMIENTO, null, EstadoAlojamiento.ACTIVO);   // alta que la BD no tiene
+
+        contadores.reconciliar();
+
+        assertThat(contadores.contar(ALOJAMIENTO, EstadoAlojamiento.ACTIVO)).hasValue(10);
+    }
+
+    @Test
+    @DisplayName("RESUMEN - Incluye cada entidad con su TOTAL")
+    void resumen_IncluyeTotales() {
+        var resumen = contadores.resumen();
+
+        assertThat(resumen).containsOnlyKeys("ALOJAMIENTO", "RESERVA", "PAGO", "USUARIO");
+        assertThat(resumen.get("ALOJAMIENTO")).containsEntry("ACTIVO", 10L).containsEntry("TOTAL", 12L);
+        assertThat(resumen.get("USUARIO")).containsEntry("TOTAL", 0L);
+    }
+}
@@ -0,0 +1,80 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.negocio.DTO.SugerenciaCiudadDTO;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests para IndiceCiudades
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IndiceCiudades - Unit Tests")
+public class IndiceCiudadesTest {
+
+    @Mock
+    private AlojamientoRepository alojamientoRepository;
+
+    @InjectMocks
+    private IndiceCiudades indice;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[]{1, "Cartagena"});
+        filas.add(new Object[]{2, "Cartagena"});
+        filas.add(new Object[]{3, "cartagena "});
+        filas.add(new Object[]{4, "Cartago"});
+        filas.add(new Object[]{5, "Medellín"});
+        when(alojamientoRepository.findCiudadesActivas()).thenReturn(filas);
+        indice.reconstruir();
+    }
+
+    @Test
+    @DisplayName("SUGERIR - Por prefijo, agrupando mayúsculas y ordenando por cantidad")
+    void sugerir_PorPrefijo() {
+        assertThat(indice.sugerir("CAR", 10).orElseThrow()).containsExactly(
+                new SugerenciaCiudadDTO("Cartagena", 3),
+                new SugerenciaCiudadDTO("Cartago", 1));
+        assertThat(indice.sugerir("cart", 1).orElseThrow()).extracting(SugerenciaCiudadDTO::getCiudad).containsExactly("Cartagena");
+        assertThat(indice.sugerir("bog", 10).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("SUGERIR - Sin importar tildes")
+    void sugerir_SinTildes() {
+        assertThat(indice.sugerir("medel", 10).orElseThrow()).containsExactly(new SugerenciaCiudadDTO("Medellín", 1));
+        assertThat(indice.sugerir("MEDELLÍ", 10).orElseThrow()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("ACTUALIZAR - Mover de ciudad y retirar ajusta los conteos")
+    void actualizar_MueveYRetira() {
+        indice.actualizar(4, "Medellín", true);   // Cartago -> Medellín
+        indice.actualizar(1, "Cartagena", false);  // eliminado
+        indice.actualizar(6, "Cartagena", true);   // nuevo
+
+        assertThat(indice.sugerir("car", 10).orElseThrow()).containsExactly(new SugerenciaCiudadDTO("Cartagena", 3));
+        assertThat(indice.sugerir("med", 10).orElseThrow()).containsExactly(new SugerenciaCiudadDTO("Medellín", 2));
+    }
+
+    @Test
+    @DisplayName("SIN CONSTRUIR - Devuelve Optional.empty() sin consultar la BD")
+    void sugerir_SinConstruir_Vacio() {
+        IndiceCiudades frio = new IndiceCiudades(alojamientoRepository);
+
+        assertThat(frio.sugerir("car", 10)).isEmpty();
+        verify(alojamientoRepository, times(1)).findCiudadesActivas();
+    }
+}
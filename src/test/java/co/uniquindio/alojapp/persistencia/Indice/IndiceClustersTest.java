@@ -0,0 +1,129 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.negocio.DTO.ClusterMapaDTO;
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests para IndiceClusters
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IndiceClusters - Unit Tests")
+public class IndiceClustersTest {
+
+    @Mock
+    private AlojamientoRepository alojamientoRepository;
+
+    @InjectMocks
+    private IndiceClusters indice;
+
+    private List<Object[]> filas;
+
+    @BeforeEach
+    void setUp() {
+        filas = new ArrayList<>();
+        filas.add(punto(1, "10.3910", "-75.4794", "200000"));  // Cartagena
+        filas.add(punto(2, "10.4200", "-75.5500", "150000"));  // Cartagena
+        filas.add(punto(3, "4.5330", "-75.6830", "90000"));    // Armenia
+        when(alojamientoRepository.findPuntosMapaActivos()).thenReturn(filas);
+        indice.reconstruir();
+    }
+
+    @Test
+    @DisplayName("ZOOM BAJO - Todo el país en un solo cluster con el precio mínimo")
+    void clusters_ZoomBajo_AgrupaTodo() {
+        List<ClusterMapaDTO> clusters = indice.clusters(-5, -80, 13, -66, 0).orElseThrow();
+
+        assertThat(clusters).hasSize(1);
+        assertThat(clusters.get(0).getCantidad()).isEqualTo(3);
+        assertThat(clusters.get(0).getPrecioMin()).isEqualByComparingTo("90000");
+        assertThat(clusters.get(0).getAlojamientoId()).isNull();
+    }
+
+    @Test
+    @DisplayName("ZOOM MEDIO - Separa ciudades y calcula el centroide")
+    void clusters_ZoomMedio_SeparaCiudades() {
+        List<ClusterMapaDTO> clusters = new ArrayList<>(indice.clusters(-5, -80, 13, -66, 6).orElseThrow());
+        clusters.sort(Comparator.comparing(ClusterMapaDTO::getCantidad));
+
+        assertThat(clusters).hasSize(2);
+        assertThat(clusters.get(0).getAlojamientoId()).isEqualTo(3);
+        assertThat(clusters.get(1).getCantidad()).isEqualTo(2);
+        assertThat(clusters.get(1).getLatitud()).isCloseTo(10.4055, within(1e-6));
+        assertThat(clusters.get(1).getPrecioMin()).isEqualByComparingTo("150000");
+    }
+
+    @Test
+    @DisplayName("ACTUALIZAR - Retirar el más barato recalcula el precio mínimo")
+    void actualizar_Retirar_RecalculaMinimo() {
+        indice.actualizar(3, null, null, null, false);
+        indice.actualizar(2, new BigDecimal("10.4200"), new BigDecimal("-75.5500"), new BigDecimal("300000"), true);
+
+        List<ClusterMapaDTO> clusters = indice.clusters(-5, -80, 13, -66, 0).orElseThrow();
+
+        assertThat(clusters).hasSize(1);
+        assertThat(clusters.get(0).getCantidad()).isEqualTo(2);
+        assertThat(clusters.get(0).getPrecioMin()).isEqualByComparingTo("200000");
+    }
+
+    @Test
+    @DisplayName("RECTÁNGULO - Solo nodos visibles, también con rectángulo enorme para el zoom")
+    void clusters_SoloVisibles() {
+        assertThat(indice.clusters(4, -76, 5, -75, 8).orElseThrow())
+                .extracting(ClusterMapaDTO::getAlojamientoId).containsExactly(3);
+        assertThat(indice.clusters(-85, -180, 85, 180, 14).orElseThrow()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("RESPALDO - agrupar() sobre filas da lo mismo que el quadtree")
+    void agrupar_IgualQueIndice() {
+        List<ClusterMapaDTO> sinIndice = IndiceClusters.agrupar(filas, -5, -80, 13, -66, 6);
+
+        assertThat(sinIndice).extracting(ClusterMapaDTO::getCantidad).containsExactlyInAnyOrder(1, 2);
+        assertThat(new IndiceClusters(alojamientoRepository).clusters(-5, -80, 13, -66, 6)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("CONCURRENCIA - Mientras se mueve un alojamiento las consultas nunca lo pierden")
+    void actualizar_Concurrente_NoExponeRutaAMedias() throws Exception {
+        AtomicBoolean fin = new AtomicBoolean();
+        AtomicInteger inconsistentes = new AtomicInteger();
+        Thread lector = new Thread(() -> {
+            while (!fin.get()) {
+                int total = indice.clusters(-85, -180, 85, 180, 6).orElseThrow().stream()
+                        .mapToInt(ClusterMapaDTO::getCantidad).sum();
+                if (total != 3) inconsistentes.incrementAndGet();
+            }
+        });
+        lector.start();
+        for (int i = 0; i < 5_000; i++) {
+            boolean enArmenia = i % 2 == 0;
+            indice.actualizar(1, new BigDecimal(enArmenia ? "4.5400" : "10.3910"),
+                    new BigDecimal(enArmenia ? "-75.6800" : "-75.4794"), new BigDecimal("200000"), true);
+        }
+        fin.set(true);
+        lector.join();
+
+        assertThat(inconsistentes).hasValue(0);
+    }
+
+    private static Object[] punto(Integer id, String lat, String lon, String precio) {
+        return new Object[]{id, new BigDecimal(lat), new BigDecimal(lon), new BigDecimal(precio)};
+    }
+}
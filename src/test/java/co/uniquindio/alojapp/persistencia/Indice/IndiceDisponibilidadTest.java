@@ -0,0 +1,196 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests para IndiceDisponibilidad
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IndiceDisponibilidad - Unit Tests")
+public class IndiceDisponibilidadTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @InjectMocks
+    private IndiceDisponibilidad indice;
+
+    private final LocalDate HOY = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> filas = new ArrayList<>();
+        // Alojamiento 1 ocupado del día +10 al +15 (checkout)
+        filas.add(new Object[]{1, HOY.plusDays(10), HOY.plusDays(15)});
+        when(reservaRepository.findRangosActivosDesde(any())).thenReturn(filas);
+        indice.reconstruir();
+    }
+
+    @Test
+    @DisplayName("DISPONIBLE - Rango sin reservas está libre")
+    void estaDisponible_RangoLibre_RetornaTrue() {
+        assertThat(indice.estaDisponible(1, HOY.plusDays(20), HOY.plusDays(22))).contains(true);
+        assertThat(indice.estaDisponible(2, HOY.plusDays(10), HOY.plusDays(12))).contains(true);
+    }
+
+    @Test
+    @DisplayName("DISPONIBLE - Rango solapado está ocupado")
+    void estaDisponible_RangoSolapado_RetornaFalse() {
+        assertThat(indice.estaDisponible(1, HOY.plusDays(12), HOY.plusDays(13))).contains(false);
+        assertThat(indice.estaDisponible(1, HOY.plusDays(8), HOY.plusDays(11))).contains(false);
+    }
+
+    @Test
+    @DisplayName("RECONSTRUIR - Un lector concurrente nunca ve libre un alojamiento ocupado")
+    void reconstruir_Concurrente_NoExponeEstadoIntermedio() throws Exception {
+        AtomicBoolean fin = new AtomicBoolean();
+        AtomicInteger libresVistos = new AtomicInteger();
+        Thread lector = new Thread(() -> {
+            while (!fin.get()) {
+                if (indice.estaDisponible(1, HOY.plusDays(12), HOY.plusDays(13)).orElse(false)) {
+                    libresVistos.incrementAndGet();
+                }
+            }
+        });
+        lector.start();
+        for (int i = 0; i < 2_000; i++) {
+            indice.reconstruir();
+        }
+        fin.set(true);
+        lector.join();
+
+        assertThat(libresVistos).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("DISPONIBLE - Estadías [checkin, checkout): el día de checkout queda libre")
+    void estaDisponible_Bordes_IgualQueConsultaBD() {
+        // checkout de la consulta == checkin de la reserva -> libre
+        assertThat(indice.estaDisponible(1, HOY.plusDays(5), HOY.plusDays(10))).contains(true);
+        // checkin de la consulta == checkout de la reserva -> libre
+        assertThat(indice.estaDisponible(1, HOY.plusDays(15), HOY.plusDays(18))).contains(true);
+        // una noche en común -> ocupado
+        assertThat(indice.estaDisponible(1, HOY.plusDays(5), HOY.plusDays(11))).contains(false);
+        assertThat(indice.estaDisponible(1, HOY.plusDays(14), HOY.plusDays(18))).contains(false);
+    }
+
+    @Test
+    @DisplayName("DISPONIBLE - Fuera del horizonte no responde")
+    void estaDisponible_FueraDeHorizonte_RetornaEmpty() {
+        LocalDate lejos = HOY.plusDays(IndiceDisponibilidad.HORIZONTE_DIAS + 5);
+        assertThat(indice.estaDisponible(1, lejos, lejos.plusDays(2))).isEmpty();
+        assertThat(indice.alojamientosOcupados(HOY.minusDays(10), HOY.minusDays(8))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("OCUPADOS - Retorna solo alojamientos con solapamiento")
+    void alojamientosOcupados_RetornaIds() {
+        indice.registrarReserva(3, HOY.plusDays(30), HOY.plusDays(32));
+
+        assertThat(indice.alojamientosOcupados(HOY.plusDays(11), HOY.plusDays(31))).hasValueSatisfying(
+                ids -> assertThat(ids).containsExactlyInAnyOrder(1, 3));
+        assertThat(indice.alojamientosOcupados(HOY.plusDays(40), HOY.plusDays(42))).hasValueSatisfying(
+                ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    @DisplayName("RECALCULAR - Cancelación libera las noches")
+    void recalcular_SinReservasActivas_LiberaNoches() {
+        when(reservaRepository.findRangosActivosDeAlojamientoDesde(eq(1), any())).thenReturn(List.of());
+
+        indice.recalcular(List.of(1));
+
+        assertThat(indice.estaDisponible(1, HOY.plusDays(12), HOY.plusDays(13))).contains(true);
+    }
+
+    @Test
+    @DisplayName("BITMAP - Rango que cruza palabras de 64 bits")
+    void rangoLibre_CruzaPalabras() {
+        long[] bits = new long[3];
+        bits[1] = 1L << 5; // bit 69
+
+        assertThat(IndiceDisponibilidad.rangoLibre(bits, 60, 68)).isTrue();
+        assertThat(IndiceDisponibilidad.rangoLibre(bits, 60, 69)).isFalse();
+        assertThat(IndiceDisponibilidad.rangoLibre(bits, 69, 150)).isFalse();
+        assertThat(IndiceDisponibilidad.rangoLibre(bits, 70, 191)).isTrue();
+    }
+
+    @Test
+    @DisplayName("FLEXIBLES - Primer checkin posible después de la reserva")
+    void huecosLibres_PrimerInicioTrasReserva() {
+        IndiceDisponibilidad.HuecosLibres h = indice.huecosLibres(HOY.plusDays(8), HOY.plusDays(20), 3).orElseThrow();
+
+        assertThat(h.sinHueco()).isEmpty();
+        assertThat(h.primerInicio()).containsEntry(1, HOY.plusDays(15));
+    }
+
+    @Test
+    @DisplayName("FLEXIBLES - Ventana sin racha libre suficiente")
+    void huecosLibres_SinRacha_MarcaSinHueco() {
+        IndiceDisponibilidad.HuecosLibres h = indice.huecosLibres(HOY.plusDays(8), HOY.plusDays(17), 3).orElseThrow();
+
+        assertThat(h.sinHueco()).containsExactly(1);
+        assertThat(indice.huecosLibres(HOY.plusDays(2), HOY.plusDays(9), 3).orElseThrow().primerInicio()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("FLEXIBLES - Desde rangos de la BD da lo mismo que el índice")
+    void huecosDesdeRangos_IgualQueIndice() {
+        List<Object[]> rangos = new ArrayList<>();
+        rangos.add(new Object[]{1, HOY.plusDays(10), HOY.plusDays(15)});
+        rangos.add(new Object[]{2, HOY.plusDays(7), HOY.plusDays(40)});
+
+        IndiceDisponibilidad.HuecosLibres h = IndiceDisponibilidad.huecosDesdeRangos(rangos, HOY.plusDays(8), HOY.plusDays(20), 3);
+
+        assertThat(h.primerInicio()).containsEntry(1, HOY.plusDays(15));
+        assertThat(h.sinHueco()).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("BITMAP - Primer hueco salta de ocupada en ocupada")
+    void primerHueco_SaltaOcupadas() {
+        long[] bits = new long[3];
+        bits[0] = 1L << 62;
+        bits[1] = 1L << 5; // bit 69
+
+        assertThat(IndiceDisponibilidad.primerHueco(bits, 60, 191, 4)).isEqualTo(63);
+        assertThat(IndiceDisponibilidad.primerHueco(bits, 60, 191, 8)).isEqualTo(70);
+        assertThat(IndiceDisponibilidad.primerHueco(bits, 60, 75, 8)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("CALENDARIO - Noches ocupadas sin contar el día de checkout")
+    void nochesOcupadas_MarcaNochesDeLaReserva() {
+        assertThat(indice.nochesOcupadas(1, HOY.plusDays(8), HOY.plusDays(16))).contains("001111100");
+        assertThat(indice.nochesOcupadas(2, HOY.plusDays(8), HOY.plusDays(10))).contains("000");
+        assertThat(indice.nochesOcupadas(1, HOY.minusDays(5), HOY)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("CALENDARIO - Desde rangos de la BD da lo mismo que el índice")
+    void nochesDesdeRangos_IgualQueIndice() {
+        List<Object[]> rangos = new ArrayList<>();
+        rangos.add(new Object[]{1, HOY.plusDays(10), HOY.plusDays(15)});
+
+        assertThat(IndiceDisponibilidad.nochesDesdeRangos(rangos, HOY.plusDays(8), HOY.plusDays(16)))
+                .isEqualTo(indice.nochesOcupadas(1, HOY.plusDays(8), HOY.plusDays(16)).orElseThrow());
+        assertThat(IndiceDisponibilidad.nochesDesdeRangos(rangos, HOY.plusDays(12), HOY.plusDays(13))).isEqualTo("11");
+    }
+}
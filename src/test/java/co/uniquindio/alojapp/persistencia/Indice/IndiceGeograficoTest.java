@@ -0,0 +1,103 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests para IndiceGeografico
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IndiceGeografico - Unit Tests")
+public class IndiceGeograficoTest {
+
+    @Mock
+    private AlojamientoRepository alojamientoRepository;
+
+    @InjectMocks
+    private IndiceGeografico indice;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(posicion(1, "10.3910485", "-75.4794257"));  // Cartagena centro
+        filas.add(posicion(2, "10.4200000", "-75.5500000"));  // Cartagena, ~8 km
+        filas.add(posicion(3, "4.5330000", "-75.6830000"));   // Armenia
+        filas.add(posicion(4, "-16.5000000", "179.9000000")); // Fiyi, junto al antimeridiano
+        when(alojamientoRepository.findPosicionesActivas()).thenReturn(filas);
+        indice.reconstruir();
+    }
+
+    @Test
+    @DisplayName("RADIO - Solo devuelve los que están a menos de R km")
+    void enRadio_FiltraPorDistancia() {
+        assertThat(indice.enRadio(10.3910485, -75.4794257, 2)).hasValueSatisfying(
+                ids -> assertThat(ids).containsExactly(1));
+        assertThat(indice.enRadio(10.3910485, -75.4794257, 15)).hasValueSatisfying(
+                ids -> assertThat(ids).containsExactlyInAnyOrder(1, 2));
+    }
+
+    @Test
+    @DisplayName("RECTÁNGULO - Devuelve los que caen dentro del mapa")
+    void enRectangulo_FiltraPorViewport() {
+        assertThat(indice.enRectangulo(4.0, -76.0, 11.0, -75.0)).hasValueSatisfying(
+                ids -> assertThat(ids).containsExactlyInAnyOrder(1, 2, 3));
+        assertThat(indice.enRectangulo(10.40, -75.60, 10.45, -75.50)).hasValueSatisfying(
+                ids -> assertThat(ids).containsExactly(2));
+    }
+
+    @Test
+    @DisplayName("RECTÁNGULO - Cruza el antimeridiano")
+    void enRectangulo_CruzaAntimeridiano() {
+        assertThat(indice.enRectangulo(-20, 179.0, -10, -179.0)).hasValueSatisfying(
+                ids -> assertThat(ids).containsExactly(4));
+        assertThat(indice.enRadio(-16.5, -179.95, 20)).hasValueSatisfying(
+                ids -> assertThat(ids).containsExactly(4));
+    }
+
+    @Test
+    @DisplayName("ACTUALIZAR - Mover y retirar alojamientos")
+    void actualizar_MueveYRetira() {
+        indice.actualizar(3, new BigDecimal("10.3900000"), new BigDecimal("-75.4800000"), true);
+        indice.actualizar(2, null, null, false);
+
+        assertThat(indice.enRadio(10.3910485, -75.4794257, 15)).hasValueSatisfying(
+                ids -> assertThat(ids).containsExactlyInAnyOrder(1, 3));
+    }
+
+    @Test
+    @DisplayName("SIN CONSTRUIR - No responde y deja la consulta a la BD")
+    void sinConstruir_RetornaEmpty() {
+        IndiceGeografico vacio = new IndiceGeografico(alojamientoRepository);
+
+        assertThat(vacio.enRadio(10.39, -75.48, 5)).isEmpty();
+        assertThat(vacio.enRectangulo(4.0, -76.0, 11.0, -75.0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("GEOMETRÍA - Haversine y caja del radio")
+    void geometria_DistanciaYCaja() {
+        // Bogotá - Medellín ≈ 240 km
+        assertThat(IndiceGeografico.distanciaKm(4.7110, -74.0721, 6.2442, -75.5812)).isBetween(235.0, 245.0);
+
+        double[] caja = IndiceGeografico.cajaDelRadio(0, 0, 111.2);
+        assertThat(caja[0]).isCloseTo(-1.0, within(0.01));
+        assertThat(caja[3]).isCloseTo(1.0, within(0.01));
+    }
+
+    private static Object[] posicion(Integer id, String lat, String lon) {
+        return new Object[]{id, new BigDecimal(lat), new BigDecimal(lon)};
+    }
+}
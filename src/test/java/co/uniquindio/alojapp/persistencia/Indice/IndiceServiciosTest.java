@@ -0,0 +1,92 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests para IndiceServicios
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IndiceServicios - Unit Tests")
+public class IndiceServiciosTest {
+
+    private static final int WIFI = 1, PISCINA = 2, PARQUEADERO = 3;
+
+    @Mock
+    private AlojamientoRepository alojamientoRepository;
+
+    @InjectMocks
+    private IndiceServicios indice;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[]{10, WIFI});
+        filas.add(new Object[]{10, PISCINA});
+        filas.add(new Object[]{10, PARQUEADERO});
+        filas.add(new Object[]{20, WIFI});
+        filas.add(new Object[]{20, PISCINA});
+        filas.add(new Object[]{30, WIFI});
+        filas.add(new Object[]{40, null});
+        lenient().when(alojamientoRepository.findServiciosDeActivos()).thenReturn(filas);
+        indice.reconstruir();
+    }
+
+    @Test
+    @DisplayName("CON TODOS - Exige todos los servicios pedidos (AND)")
+    void conTodos_SemanticaAnd() {
+        assertThat(indice.conTodos(List.of(WIFI)).orElseThrow()).containsExactlyInAnyOrder(10, 20, 30);
+        assertThat(indice.conTodos(List.of(WIFI, PISCINA)).orElseThrow()).containsExactlyInAnyOrder(10, 20);
+        assertThat(indice.conTodos(List.of(WIFI, PISCINA, PARQUEADERO)).orElseThrow()).containsExactly(10);
+    }
+
+    @Test
+    @DisplayName("CON TODOS - Servicio que nadie tiene da vacío")
+    void conTodos_ServicioDesconocido_Vacio() {
+        assertThat(indice.conTodos(List.of(WIFI, 99)).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("ACTUALIZAR - Reemplaza servicios y retira inactivos")
+    void actualizar_ReemplazaYRetira() {
+        indice.actualizar(30, List.of(WIFI, PARQUEADERO), true);
+        indice.actualizar(10, List.of(), false);
+
+        assertThat(indice.conTodos(List.of(PARQUEADERO)).orElseThrow()).containsExactly(30);
+        assertThat(indice.conTodos(List.of(PISCINA)).orElseThrow()).containsExactly(20);
+    }
+
+    @Test
+    @DisplayName("CON TODOS - Funciona con más de 64 servicios")
+    void conTodos_MasDe64Servicios() {
+        List<Integer> muchos = IntStream.rangeClosed(100, 200).boxed().toList();
+        indice.actualizar(50, muchos, true);
+        indice.actualizar(60, List.of(WIFI, 200), true);
+
+        assertThat(indice.conTodos(List.of(150, 200)).orElseThrow()).containsExactly(50);
+        assertThat(indice.conTodos(List.of(200)).orElseThrow()).containsExactlyInAnyOrder(50, 60);
+        assertThat(IndiceServicios.contiene(new long[]{0b1}, new long[]{0b1, 0b1})).isFalse();
+    }
+
+    @Test
+    @DisplayName("CON TODOS - Sin carga inicial devuelve Optional.empty() sin consultar la BD")
+    void conTodos_SinCargaInicial_Vacio() {
+        IndiceServicios nuevo = new IndiceServicios(alojamientoRepository);
+
+        assertThat(nuevo.conTodos(List.of(PISCINA))).isEmpty();
+        verify(alojamientoRepository, times(1)).findServiciosDeActivos();
+    }
+}
@@ -0,0 +1,96 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Repository.AlojamientoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests para IndiceTexto y AnalizadorTexto
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IndiceTexto - Unit Tests")
+public class IndiceTextoTest {
+
+    @Mock
+    private AlojamientoRepository alojamientoRepository;
+
+    @InjectMocks
+    private IndiceTexto indice;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[]{1, "Casa con piscina en Cartagena", "Amplia casa frente al mar con tres habitaciones"});
+        filas.add(new Object[]{2, "Apartamento céntrico", "Cerca de la piscina pública y de la playa"});
+        filas.add(new Object[]{3, "Cabaña en el bosque", "Chimenea, cocina equipada y vista a las montañas"});
+        lenient().when(alojamientoRepository.findTextosActivos()).thenReturn(filas);
+        indice.reconstruir();
+    }
+
+    @Test
+    @DisplayName("ANALIZADOR - Sin tildes, sin palabras vacías y con plurales reducidos")
+    void analizador_PliegaYReduce() {
+        assertThat(AnalizadorTexto.terminos("Las Piscinas de la Cabaña"))
+                .containsExactly("piscin", "caban");
+        assertThat(AnalizadorTexto.terminos("habitación")).isEqualTo(AnalizadorTexto.terminos("HABITACIONES"));
+        assertThat(AnalizadorTexto.terminos("luces")).containsExactly("luz");
+    }
+
+    @Test
+    @DisplayName("ANALIZADOR - Singular y plural en -es dan la misma raíz, termine o no en s")
+    void analizador_PluralDeSingularEnS() {
+        assertThat(AnalizadorTexto.terminos("país")).isEqualTo(AnalizadorTexto.terminos("países"));
+        assertThat(AnalizadorTexto.terminos("autobús")).isEqualTo(AnalizadorTexto.terminos("autobuses"));
+        assertThat(AnalizadorTexto.terminos("mes")).isEqualTo(AnalizadorTexto.terminos("meses"));
+        assertThat(AnalizadorTexto.terminos("pais")).isEqualTo(AnalizadorTexto.terminos("paises"));
+        assertThat(AnalizadorTexto.terminos("clase")).isEqualTo(AnalizadorTexto.terminos("clases"));
+        assertThat(AnalizadorTexto.terminos("frase")).isEqualTo(AnalizadorTexto.terminos("frases"));
+        assertThat(AnalizadorTexto.terminos("casa")).isEqualTo(AnalizadorTexto.terminos("casas"));
+        assertThat(AnalizadorTexto.raiz("Países")).isEqualTo(AnalizadorTexto.raiz("pais"));
+    }
+
+    @Test
+    @DisplayName("BUSCAR - Todos los términos deben aparecer")
+    void buscar_SemanticaAnd() {
+        assertThat(indice.buscar("piscina").orElseThrow().keySet()).containsExactlyInAnyOrder(1, 2);
+        assertThat(indice.buscar("piscina playa").orElseThrow().keySet()).containsExactly(2);
+        assertThat(indice.buscar("piscina chimenea").orElseThrow()).isEmpty();
+        assertThat(indice.buscar("de la y").orElseThrow()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("BUSCAR - Coincidencias en el título puntúan más")
+    void buscar_TituloPesaMas() {
+        assertThat(indice.buscar("piscinas").orElseThrow().keySet()).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("ACTUALIZAR - Reindexa y retira")
+    void actualizar_ReindexaYRetira() {
+        indice.actualizar(3, "Cabaña con piscina climatizada", null, true);
+        indice.actualizar(1, null, null, false);
+
+        assertThat(indice.buscar("piscina").orElseThrow().keySet()).containsExactlyInAnyOrder(2, 3);
+        assertThat(indice.buscar("chimenea").orElseThrow()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("SIN CONSTRUIR - Devuelve Optional.empty() sin reconstruir desde la BD")
+    void buscar_SinConstruir_Vacio() {
+        IndiceTexto nuevo = new IndiceTexto(alojamientoRepository);
+
+        assertThat(nuevo.buscar("cabana")).isEmpty();
+        verify(alojamientoRepository, times(1)).findTextosActivos();
+    }
+}
@@ -0,0 +1,60 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit Tests para PesoPopularidad
+ */
+@DisplayName("PesoPopularidad - Unit Tests")
+public class PesoPopularidadTest {
+
+    private PesoPopularidad peso;
+
+    @BeforeEach
+    void setUp() {
+        peso = new PesoPopularidad();
+        ReflectionTestUtils.setField(peso, "vidaMediaDias", 60);
+    }
+
+    @Test
+    @DisplayName("PESO - Una reserva pesa el doble que otra hecha una vida media antes")
+    void peso_VidaMedia_Duplica() {
+        LocalDate fecha = LocalDate.of(2026, 3, 15);
+
+        assertThat(peso.peso(PesoPopularidad.EPOCA)).isEqualTo(1.0);
+        assertThat(peso.peso(fecha) / peso.peso(fecha.minusDays(60))).isCloseTo(2.0, within(1e-12));
+    }
+
+    @Test
+    @DisplayName("PESO - El orden por suma no cambia con el paso del tiempo")
+    void peso_Orden_NoDependeDelMomento() {
+        LocalDate hoy = LocalDate.of(2026, 6, 1);
+        // A: tres reservas viejas; B: una reciente
+        double a = 3 * peso.peso(hoy.minusDays(150));
+        double b = peso.peso(hoy.minusDays(10));
+
+        assertThat(b).isGreaterThan(a);
+    }
+
+    @Test
+    @DisplayName("PESO - Sin vida media cada reserva cuenta 1")
+    void peso_SinDecaimiento_CuentaUno() {
+        ReflectionTestUtils.setField(peso, "vidaMediaDias", 0);
+
+        assertThat(peso.peso(LocalDate.of(2030, 1, 1))).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("DIFIEREN - Ignora el error de redondeo pero detecta la deriva")
+    void difieren_ToleraRedondeo() {
+        assertThat(PesoPopularidad.difieren(0.1 + 0.2, 0.3)).isFalse();
+        assertThat(PesoPopularidad.difieren(5.0, 4.0)).isTrue();
+    }
+}
@@ -0,0 +1,48 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit Tests para PuntajeRelevancia
+ */
+@DisplayName("PuntajeRelevancia - Unit Tests")
+public class PuntajeRelevanciaTest {
+
+    private static final LocalDate HOY = LocalDate.of(2026, 6, 1);
+    private static final LocalDateTime VIEJO = HOY.minusYears(3).atStartOfDay();
+
+    @Test
+    @DisplayName("CALCULAR - Pocos comentarios perfectos no superan a muchos buenos")
+    void calcular_PromedioBayesiano() {
+        double unoPerfecto = PuntajeRelevancia.calcular(5L, 1, 0, false, VIEJO, HOY);
+        double cincuentaBuenos = PuntajeRelevancia.calcular(225L, 50, 0, false, VIEJO, HOY);
+
+        assertThat(cincuentaBuenos).isGreaterThan(unoPerfecto);
+    }
+
+    @Test
+    @DisplayName("CALCULAR - Popularidad, verificación y novedad suben el puntaje")
+    void calcular_SenalesSuman() {
+        double base = PuntajeRelevancia.calcular(0L, 0, 0, false, VIEJO, HOY);
+
+        assertThat(PuntajeRelevancia.calcular(0L, 0, 10, false, VIEJO, HOY)).isGreaterThan(base);
+        assertThat(PuntajeRelevancia.calcular(0L, 0, 0, true, VIEJO, HOY)).isCloseTo(base + 10, within(1e-9));
+        assertThat(PuntajeRelevancia.calcular(0L, 0, 0, false, HOY.atStartOfDay(), HOY))
+                .isGreaterThan(PuntajeRelevancia.calcular(0L, 0, 0, false, HOY.minusDays(90).atStartOfDay(), HOY))
+                .isGreaterThan(base);
+    }
+
+    @Test
+    @DisplayName("CALCULAR - Queda entre 0 y 100 y tolera valores nulos")
+    void calcular_Rango() {
+        assertThat(PuntajeRelevancia.calcular(null, null, 0, false, null, HOY)).isBetween(0.0, 100.0);
+        assertThat(PuntajeRelevancia.calcular(5000L, 1000, 1e6, true, HOY.atStartOfDay(), HOY))
+                .isBetween(99.0, 100.0);
+    }
+}
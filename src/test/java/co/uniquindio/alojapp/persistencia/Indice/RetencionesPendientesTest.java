@@ -0,0 +1,126 @@
+package co.uniquindio.alojapp.persistencia.Indice;
+
+import co.uniquindio.alojapp.persistencia.Repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests para RetencionesPendientes y RuedaTemporizadores
+ */
+@DisplayName("RetencionesPendientes - Unit Tests")
+public class RetencionesPendientesTest {
+
+    private static final Instant INICIO = Instant.parse("2025-06-01T12:00:00Z");
+
+    private ReservaRepository reservaRepository;
+    private RetencionesPendientes retenciones;
+
+    @BeforeEach
+    void setUp() {
+        reservaRepository = mock(ReservaRepository.class);
+        retenciones = new RetencionesPendientes(reservaRepository);
+        ReflectionTestUtils.setField(retenciones, "retencionMinutos", 15L);
+        ReflectionTestUtils.setField(retenciones, "tickMs", 1000L);
+        relojEn(INICIO);
+        retenciones.iniciar();
+    }
+
+    private void relojEn(Instant instante) {
+        ReflectionTestUtils.setField(retenciones, "reloj", Clock.fixed(instante, ZoneId.systemDefault()));
+    }
+
+    private static LocalDateTime hace(long segundos) {
+        return LocalDateTime.ofInstant(INICIO.minusSeconds(segundos), ZoneId.systemDefault());
+    }
+
+    @Test
+    @DisplayName("RUEDA - Vence cada id en su tick, también los que están a varias vueltas")
+    void rueda_VenceEnSuTick() {
+        RuedaTemporizadores rueda = new RuedaTemporizadores(100, 8, 0);
+        rueda.programar(1, 250);
+        rueda.programar(2, 1_050);     // más de una vuelta (8 ranuras x 100 ms)
+        rueda.programar(3, 300);
+
+        assertThat(rueda.avanzar(200)).isEmpty();
+        assertThat(rueda.avanzar(300)).containsExactlyInAnyOrder(1, 3);
+        assertThat(rueda.avanzar(1_000)).isEmpty();
+        assertThat(rueda.avanzar(1_100)).containsExactly(2);
+        assertThat(rueda.programados()).isZero();
+    }
+
+    @Test
+    @DisplayName("RUEDA - Quitar o reprogramar reemplaza el vencimiento anterior")
+    void rueda_QuitarYReprogramar() {
+        RuedaTemporizadores rueda = new RuedaTemporizadores(100, 8, 0);
+        rueda.programar(1, 200);
+        rueda.programar(2, 200);
+        rueda.quitar(1);
+        rueda.programar(2, 600);
+
+        assertThat(rueda.avanzar(500)).isEmpty();
+        assertThat(rueda.avanzar(600)).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("RUEDA - Tras un salto largo entrega todo lo vencido y lo ya pasado vence en el siguiente tick")
+    void rueda_SaltoLargoYVencimientoPasado() {
+        RuedaTemporizadores rueda = new RuedaTemporizadores(100, 8, 1_000);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rueda.programar(i, 1_000 + 37L * i);
+            ids.add(i);
+        }
+        rueda.programar(99, 0);
+
+        assertThat(rueda.avanzar(100_000)).containsExactlyInAnyOrderElementsOf(concat(ids, 99));
+    }
+
+    private static List<Integer> concat(List<Integer> ids, Integer extra) {
+        List<Integer> todos = new ArrayList<>(ids);
+        todos.add(extra);
+        return todos;
+    }
+
+    @Test
+    @DisplayName("RECONSTRUIR - Programa las pendientes de la BD según su fecha de creación")
+    void reconstruir_DesdeBD() {
+        when(reservaRepository.findRetencionesPendientes()).thenReturn(List.of(
+                new Object[]{10, hace(20 * 60)},    // ya vencida
+                new Object[]{11, hace(10 * 60)},    // vence en 5 minutos
+                new Object[]{12, hace(0)}));        // vence en 15 minutos
+        retenciones.reconstruir();
+        assertThat(retenciones.programadas()).isEqualTo(3);
+
+        relojEn(INICIO.plusSeconds(1));
+        assertThat(retenciones.vencidas()).containsExactly(10);
+
+        relojEn(INICIO.plusSeconds(5 * 60 + 1));
+        assertThat(retenciones.vencidas()).containsExactly(11);
+
+        relojEn(INICIO.plusSeconds(15 * 60 + 1));
+        assertThat(retenciones.vencidas()).containsExactly(12);
+    }
+
+    @Test
+    @DisplayName("VENCIDA - Límite de creación según la retención configurada")
+    void vencida_SegunRetencion() {
+        assertThat(retenciones.vencida(hace(15 * 60))).isTrue();
+        assertThat(retenciones.vencida(hace(14 * 60))).isFalse();
+
+        ReflectionTestUtils.setField(retenciones, "retencionMinutos", 0L);
+        assertThat(retenciones.vencida(hace(60 * 60))).isFalse();
+        assertThat(retenciones.vencidas()).isEmpty();
+    }
+}